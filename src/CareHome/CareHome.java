@@ -5,246 +5,305 @@ import CareHome.Model.Person.*;
 import CareHome.Model.Gender;
 import CareHome.Exception.ComplianceException;
 import CareHome.Exception.CareHomeException;
+import CareHome.config.FacilityTopology;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 //Main CareHome class - Singleton pattern
 
+/**
+ * Safe to share between threads (several terminals, a batch import next to the UI).
+ * The layout (wards, rooms, beds and their lookup maps) is fixed once built. Occupancy
+ * changes are made under the lock of the room they touch, so admissions into different
+ * rooms run in parallel while the occupancy and gender checks for one room stay atomic.
+ * A move locks both rooms, always in room-id order, so two moves cannot deadlock.
+ * Patients and staff are listed in the order they were added.
+ */
 public class CareHome {
     private static CareHome instance;
-    private List<Ward> wards;
-    private List<Patient> allPatients;
-    private List<Staff> allStaff;
+    private final List<Ward> wards;
+    private final Map<String, Admission> patientsById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Patient> patientsInAdmissionOrder = new ConcurrentSkipListMap<>();
+    private final AtomicLong admissionCount = new AtomicLong();
+    private final Map<String, Staff> staffById = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Staff> staffInOrder = new ConcurrentLinkedQueue<>();
+
+    // A listed patient and its place in admission order
+    private static final class Admission {
+        private final long number;
+        private final Patient patient;
+
+        private Admission(long number, Patient patient) {
+            this.number = number;
+            this.patient = patient;
+        }
+    }
+
+    // Lookup indexes: the layout maps are filled in the constructor and only read afterwards;
+    // bedsByPatientId changes under the room lock in addPatient, movePatientToBed and dischargePatient
+    private final Map<String, Bed> bedsById;
+    private final Map<String, Room> roomsByBedId;
+    private final Map<Room, ReentrantLock> roomLocks = new IdentityHashMap<>();
+    private final Map<String, Bed> bedsByPatientId = new ConcurrentHashMap<>();
 
     // Private constructor for singleton
-    private CareHome() {
+    private CareHome(FacilityTopology topology) {
         this.wards = new ArrayList<>();
-        this.allPatients = new ArrayList<>();
-        this.allStaff = new ArrayList<>();
-        initializeWards();
+        this.bedsById = new HashMap<>(topology.getTotalBeds() * 2);
+        this.roomsByBedId = new HashMap<>(topology.getTotalBeds() * 2);
+        initializeWards(topology);
     }
 
     // Singleton getInstance method
     public static synchronized CareHome getInstance() {
         if (instance == null) {
-            instance = new CareHome();
+            instance = new CareHome(FacilityTopology.getCurrent());
         }
         return instance;
     }
 
+    // Stand-alone care home with the given layout (tests, benchmarks); does not replace the singleton
+    public static CareHome withTopology(FacilityTopology topology) {
+        return new CareHome(topology);
+    }
+
     /**
-     * Initialize the care home structure: 2 wards, 6 rooms each, 1-4 beds per room
+     * Initialize the care home structure from the facility layout (facility.properties)
      */
-    private void initializeWards() {
-        // Ward 1 - High Care Ward
-        Ward ward1 = new Ward("W1", "High Care Ward");
-        ward1.addRoom(new Room("W1R1", "W1", 1)); // Room 1: 1 bed
-        ward1.addRoom(new Room("W1R2", "W1", 2)); // Room 2: 2 beds
-        ward1.addRoom(new Room("W1R3", "W1", 4)); // Room 3: 4 beds
-        ward1.addRoom(new Room("W1R4", "W1", 4)); // Room 4: 4 beds
-        ward1.addRoom(new Room("W1R5", "W1", 4)); // Room 5: 4 beds
-        ward1.addRoom(new Room("W1R6", "W1", 4)); // Room 6: 4 beds
-
-        // Ward 2 - Standard Care Ward
-        Ward ward2 = new Ward("W2", "Standard Care Ward");
-        ward2.addRoom(new Room("W2R1", "W2", 1)); // Room 1: 1 bed
-        ward2.addRoom(new Room("W2R2", "W2", 2)); // Room 2: 2 beds
-        ward2.addRoom(new Room("W2R3", "W2", 4)); // Room 3: 4 beds
-        ward2.addRoom(new Room("W2R4", "W2", 4)); // Room 4: 4 beds
-        ward2.addRoom(new Room("W2R5", "W2", 4)); // Room 5: 4 beds
-        ward2.addRoom(new Room("W2R6", "W2", 4)); // Room 6: 4 beds
-
-        wards.add(ward1);
-        wards.add(ward2);
-
-        System.out.println("CareHome initialized with 2 wards, 38 total beds");
+    private void initializeWards(FacilityTopology topology) {
+        for (FacilityTopology.WardLayout layout : topology.getWards()) {
+            Ward ward = new Ward(layout.getWardId(), layout.getName(), layout.getFloor());
+            for (FacilityTopology.RoomLayout layoutRoom : layout.getRooms()) {
+                Room room = new Room(layoutRoom.getRoomId(), layout.getWardId(),
+                        layoutRoom.getRoomNumber(), layoutRoom.getCapacity());
+                ward.addRoom(room);
+                roomLocks.put(room, new ReentrantLock());
+                for (Bed bed : room.getAllBeds()) {
+                    bedsById.put(bed.getBedId(), bed);
+                    roomsByBedId.put(bed.getBedId(), room);
+                }
+            }
+            wards.add(ward);
+        }
+
+        System.out.println("CareHome initialized with " + wards.size() + " wards, " + topology.getTotalBeds() + " total beds");
     }
 
     //Add a new patient to the care home - finds suitable bed automatically
 
     public boolean addPatient(Patient patient) throws Exception {
-        Bed suitableBed = findSuitableBed(patient);
+        if (patientsById.containsKey(patient.getId())) {
+            throw new ComplianceException("Patient ID already exists: " + patient.getId());
+        }
+        Bed suitableBed = claimSuitableBed(patient);
         if (suitableBed == null) {
             return false; // No suitable bed available
         }
-
-        // Assign patient to bed
-        suitableBed.assignPatient(patient);
-        allPatients.add(patient);
+        // Listed only once it has a bed, so a concurrent discharge never sees a half-admitted patient;
+        // the id entry goes in last because a discharge finds the patient through it
+        Admission admission = new Admission(admissionCount.incrementAndGet(), patient);
+        patientsInAdmissionOrder.put(admission.number, patient);
+        patientsById.put(patient.getId(), admission);
 
         System.out.println("Patient " + patient.getName() + " assigned to bed " + suitableBed.getBedId());
         return true;
     }
 
-    //Find suitable bed for patient based on gender and isolation needs
-
-    private Bed findSuitableBed(Patient patient) {
+    // Find suitable bed for patient based on gender and isolation needs, and assign it.
+    // Rooms are pre-checked without a lock and re-checked under it; a room lost to another
+    // admission in between is simply skipped.
+    private Bed claimSuitableBed(Patient patient) throws ComplianceException {
         for (Ward ward : wards) {
             // If patient needs isolation, look for single-bed rooms first
             if (patient.needsIsolation()) {
                 for (Room room : ward.getAllRooms()) {
                     if (room.getMaxCapacity() == 1 && room.hasAvailableSpace()) {
-                        return room.getAvailableBeds().get(0);
+                        Bed bed = claimBedInRoom(room, patient, false);
+                        if (bed != null) {
+                            return bed;
+                        }
                     }
                 }
             }
 
             // Look for regular beds with gender compatibility
-            Bed bed = ward.findAvailableBedForGender(patient.getGender());
-            if (bed != null) {
-                return bed;
+            for (Room room : ward.getAllRooms()) {
+                if (room.hasAvailableSpace() && room.canAccommodateGender(patient.getGender())) {
+                    Bed bed = claimBedInRoom(room, patient, true);
+                    if (bed != null) {
+                        return bed;
+                    }
+                }
             }
         }
         return null;
     }
 
+    private Bed claimBedInRoom(Room room, Patient patient, boolean checkGender) throws ComplianceException {
+        ReentrantLock lock = roomLocks.get(room);
+        lock.lock();
+        try {
+            if (!room.hasAvailableSpace() || (checkGender && !room.canAccommodateGender(patient.getGender()))) {
+                return null;
+            }
+            Bed bed = room.getAvailableBeds().get(0);
+            if (bedsByPatientId.putIfAbsent(patient.getId(), bed) != null) {
+                throw new ComplianceException("Patient ID already exists: " + patient.getId());
+            }
+            bed.assignPatient(patient);
+            return bed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     //Move patient to different bed with validation
 
     public void movePatientToBed(Patient patient, String newBedId) throws Exception {
-        // Find current bed
-        Bed currentBed = findPatientCurrentBed(patient);
-        if (currentBed == null) {
-            throw new CareHomeException("Patient not found in any bed");
-        }
+        while (true) {
+            // Find current bed
+            Bed currentBed = bedsByPatientId.get(patient.getId());
+            if (currentBed == null) {
+                throw new CareHomeException("Patient not found in any bed");
+            }
 
-        // Find target bed
-        Bed targetBed = findBedById(newBedId);
-        if (targetBed == null) {
-            throw new CareHomeException("Target bed not found: " + newBedId);
-        }
+            // Find target bed
+            Bed targetBed = bedsById.get(newBedId);
+            if (targetBed == null) {
+                throw new CareHomeException("Target bed not found: " + newBedId);
+            }
 
-        if (targetBed.isOccupied()) {
-            throw new ComplianceException("Target bed is already occupied");
-        }
+            Room targetRoom = roomsByBedId.get(newBedId);
+            lockRooms(roomsByBedId.get(currentBed.getBedId()), targetRoom);
+            try {
+                if (bedsByPatientId.get(patient.getId()) != currentBed) {
+                    continue; // moved or discharged meanwhile; look again
+                }
 
-        // Validate gender compatibility
-        Room targetRoom = findRoomContainingBed(targetBed);
-        if (!targetRoom.canAccommodateGender(patient.getGender())) {
-            throw new ComplianceException("Gender incompatibility - cannot move to target bed");
-        }
+                if (targetBed.isOccupied()) {
+                    throw new ComplianceException("Target bed is already occupied");
+                }
 
-        // Perform the move
-        currentBed.removePatient();
-        targetBed.assignPatient(patient);
+                // Validate gender compatibility
+                if (!targetRoom.canAccommodateGender(patient.getGender())) {
+                    throw new ComplianceException("Gender incompatibility - cannot move to target bed");
+                }
 
-        System.out.println("Patient " + patient.getName() + " moved to bed " + newBedId);
+                // Perform the move
+                currentBed.removePatient();
+                targetBed.assignPatient(patient);
+                bedsByPatientId.put(patient.getId(), targetBed);
+            } finally {
+                unlockRooms(roomsByBedId.get(currentBed.getBedId()), targetRoom);
+            }
+
+            System.out.println("Patient " + patient.getName() + " moved to bed " + newBedId);
+            return;
+        }
     }
 
-    //Check if patient can move to specific bed
+    //Check if patient can move to specific bed (a snapshot; movePatientToBed re-checks under the room locks)
 
     public boolean canPatientMoveToBed(Patient patient, String bedId) {
-        try {
-            Bed targetBed = findBedById(bedId);
-            if (targetBed == null || targetBed.isOccupied()) {
-                return false;
-            }
-
-            Room targetRoom = findRoomContainingBed(targetBed);
-            return targetRoom.canAccommodateGender(patient.getGender());
-        } catch (Exception e) {
+        Bed targetBed = bedsById.get(bedId);
+        if (targetBed == null || targetBed.isOccupied()) {
             return false;
         }
+        return roomsByBedId.get(bedId).canAccommodateGender(patient.getGender());
     }
 
 
     // Discharge patient from care home
 
     public void dischargePatient(String patientId) throws Exception {
-        Patient patient = findPatientById(patientId);
-        if (patient == null) {
+        // Removing the entry claims the discharge, so two concurrent discharges cannot both proceed
+        Admission admission = patientsById.remove(patientId);
+        if (admission == null) {
             throw new CareHomeException("Patient not found: " + patientId);
         }
-
-        // Remove from bed
-        Bed currentBed = findPatientCurrentBed(patient);
-        if (currentBed != null) {
-            currentBed.removePatient();
+        Patient patient = admission.patient;
+        patientsInAdmissionOrder.remove(admission.number);
+
+        // Remove from bed; retried if a move changes the bed before its room is locked
+        while (true) {
+            Bed currentBed = bedsByPatientId.get(patientId);
+            if (currentBed == null) {
+                break;
+            }
+            ReentrantLock lock = roomLocks.get(roomsByBedId.get(currentBed.getBedId()));
+            lock.lock();
+            try {
+                if (bedsByPatientId.remove(patientId, currentBed)) {
+                    currentBed.removePatient();
+                    break;
+                }
+            } finally {
+                lock.unlock();
+            }
         }
 
-        // Remove from patient list
-        allPatients.remove(patient);
-
         System.out.println("Patient " + patient.getName() + " discharged from care home");
     }
 
-    //Add staff member to care home
-
-    public void addStaff(Staff staff) throws Exception {
-        // Check if staff ID already exists
-        for (Staff existing : allStaff) {
-            if (existing.getStaffId().equals(staff.getStaffId())) {
-                throw new ComplianceException("Staff ID already exists: " + staff.getStaffId());
-            }
+    // Locks two rooms in room-id order (once if they are the same room)
+    private void lockRooms(Room first, Room second) {
+        int order = first.getRoomId().compareTo(second.getRoomId());
+        roomLocks.get(order <= 0 ? first : second).lock();
+        if (order != 0) {
+            roomLocks.get(order < 0 ? second : first).lock();
         }
-
-        allStaff.add(staff);
-        System.out.println("Staff " + staff.getName() + " (" + staff.getRole() + ") added to care home");
     }
 
-    // Helper methods for finding objects
-    private Patient findPatientById(String patientId) {
-        return allPatients.stream()
-                .filter(p -> p.getId().equals(patientId))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private Bed findPatientCurrentBed(Patient patient) {
-        for (Ward ward : wards) {
-            for (Room room : ward.getAllRooms()) {
-                for (Bed bed : room.getAllBeds()) {
-                    if (bed.isOccupied() && bed.getCurrentPatient().getId().equals(patient.getId())) {
-                        return bed;
-                    }
-                }
-            }
+    private void unlockRooms(Room first, Room second) {
+        roomLocks.get(first).unlock();
+        if (first != second) {
+            roomLocks.get(second).unlock();
         }
-        return null;
     }
 
-    private Bed findBedById(String bedId) {
-        for (Ward ward : wards) {
-            for (Room room : ward.getAllRooms()) {
-                for (Bed bed : room.getAllBeds()) {
-                    if (bed.getBedId().equals(bedId)) {
-                        return bed;
-                    }
-                }
-            }
+    //Add staff member to care home
+
+    public void addStaff(Staff staff) throws Exception {
+        // Check if staff ID already exists
+        if (staffById.putIfAbsent(staff.getStaffId(), staff) != null) {
+            throw new ComplianceException("Staff ID already exists: " + staff.getStaffId());
         }
-        return null;
+        staffInOrder.add(staff);
+
+        System.out.println("Staff " + staff.getName() + " (" + staff.getRole() + ") added to care home");
     }
 
-    private Room findRoomContainingBed(Bed bed) {
-        for (Ward ward : wards) {
-            for (Room room : ward.getAllRooms()) {
-                if (room.getAllBeds().contains(bed)) {
-                    return room;
-                }
-            }
-        }
-        return null;
+    // Constant-time lookups; null when unknown
+    public Bed getBed(String bedId) { return bedsById.get(bedId); }
+    public Room getRoomContainingBed(String bedId) { return roomsByBedId.get(bedId); }
+    public Bed getPatientBed(String patientId) { return bedsByPatientId.get(patientId); }
+    public Patient getPatient(String patientId) {
+        Admission admission = patientsById.get(patientId);
+        return admission == null ? null : admission.patient;
     }
+    public Staff getStaff(String staffId) { return staffById.get(staffId); }
 
     // Getter methods for accessing care home data
     public List<Ward> getWards() { return new ArrayList<>(wards); }
-    public List<Patient> getAllPatients() { return new ArrayList<>(allPatients); }
-    public List<Staff> getAllStaff() { return new ArrayList<>(allStaff); }
+    public List<Patient> getAllPatients() { return new ArrayList<>(patientsInAdmissionOrder.values()); }   // admission order
+    public List<Staff> getAllStaff() { return new ArrayList<>(staffInOrder); }
 
     // Get total bed count
     public int getTotalBeds() {
-        return wards.stream()
-                .mapToInt(ward -> ward.getAllRooms().stream()
-                        .mapToInt(Room::getMaxCapacity)
-                        .sum())
-                .sum();
+        return bedsById.size();
     }
 
     // Get available bed count
     public int getAvailableBedCount() {
-        return wards.stream()
-                .mapToInt(ward -> ward.getAllAvailableBeds().size())
-                .sum();
+        return bedsById.size() - bedsByPatientId.size();
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import CareHome.Model.Schedule.Shift;
 import CareHome.Service.*;
 import CareHome.controller.*;
 import CareHome.dao.*;
+import CareHome.util.IdGenerator;
 import java.time.LocalDate;
 import java.time.DayOfWeek;
 import java.util.Scanner;
@@ -215,7 +216,7 @@ public class CareHomeDemoApplication {
         System.out.print("Needs Isolation? (y/n): ");
         boolean needsIsolation = scanner.nextLine().toLowerCase().trim().startsWith("y");
 
-        Patient patient = new Patient("P" + System.currentTimeMillis(), firstName, lastName,
+        Patient patient = new Patient(IdGenerator.nextId("P"), firstName, lastName,
                 gender, age, patientId, LocalDate.now());
         patient.setNeedsIsolation(needsIsolation);
 
@@ -375,7 +376,7 @@ public class CareHomeDemoApplication {
         String role = scanner.nextLine().toUpperCase().trim();
 
         Staff staff;
-        String id = "S" + System.currentTimeMillis();
+        String id = IdGenerator.nextId("S");
 
         switch (role) {
             case "DOCTOR":
@@ -512,7 +513,7 @@ public class CareHomeDemoApplication {
         System.out.print("Duration in days: ");
         int duration = getIntInput("");
 
-        String prescId = "PRESC" + System.currentTimeMillis();
+        String prescId = IdGenerator.nextId("PRESC");
         Prescription prescription = new Prescription(prescId, patientId, currentUser.getId(),
                 medication, dosage, frequency,
                 LocalDate.now(), LocalDate.now().plusDays(duration));
@@ -643,14 +644,13 @@ public class CareHomeDemoApplication {
     private void displayAllPatients() {
         System.out.println("\n--- Current Patients ---");
         try {
-            List<Patient> patients = patientService.getAllPatients();
+            List<PatientBedView> patients = patientService.getPatientBedViews();
             if (patients.isEmpty()) {
                 System.out.println("No patients registered");
             } else {
-                for (Patient patient : patients) {
-                    String bedId = patientService.getPatientBed(patient.getId());
+                for (PatientBedView patient : patients) {
                     System.out.println("ID: " + patient.getPatientId() + " - " + patient.getName() +
-                            " (Bed: " + (bedId != null ? bedId : "Not assigned") + ")");
+                            " (Bed: " + (patient.hasBed() ? patient.getBedId() : "Not assigned") + ")");
                 }
             }
         } catch (Exception e) {
@@ -10,6 +10,8 @@ public enum ActionType {
     LOGIN,                // Staff member logs into system
     LOGOUT,                // Staff member logs out of system
     DISCHARGE_PATIENT,    // Manager discharges a patient
+    WAITLIST_PATIENT,     // Manager puts a patient on (or takes them off) the admission waitlist
+    HOLD_BED,             // A bed is held for a pre-admission assessment, or the hold is released or expires
     ASSIGN_SHIFT,
     MODIFY_SHIFT
 }
\ No newline at end of file
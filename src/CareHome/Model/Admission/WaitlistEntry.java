@@ -0,0 +1,35 @@
+package CareHome.Model.Admission;
+
+import CareHome.Model.Person.Patient;
+import java.time.LocalDateTime;
+
+// A pending admission: a patient waiting for a suitable bed, most urgent (highest priority) first
+public class WaitlistEntry {
+    private final long entryId;              // Database id; also the tie-breaker, so equal priorities stay first come, first served
+    private final Patient patient;           // Not yet saved to the patients table
+    private final int priority;              // Higher is more urgent
+    private final LocalDateTime requestedAt; // When the patient joined the waitlist
+
+    public WaitlistEntry(long entryId, Patient patient, int priority, LocalDateTime requestedAt) {
+        this.entryId = entryId;
+        this.patient = patient;
+        this.priority = priority;
+        this.requestedAt = requestedAt;
+    }
+
+    // True if this entry should be offered a bed before the other one
+    public boolean isAheadOf(WaitlistEntry other) {
+        return priority != other.priority ? priority > other.priority : entryId < other.entryId;
+    }
+
+    // Getters
+    public long getEntryId() { return entryId; }
+    public Patient getPatient() { return patient; }
+    public int getPriority() { return priority; }
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+
+    @Override
+    public String toString() {
+        return "Waitlist #" + entryId + " " + patient.getName() + " (priority " + priority + ")";
+    }
+}
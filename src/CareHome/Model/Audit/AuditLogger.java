@@ -3,16 +3,15 @@ package CareHome.Model.Audit;
 import CareHome.Model.ActionType;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 import CareHome.dao.AuditDAO;
 import CareHome.dao.AuditDAOImpl;
+import CareHome.config.TransactionManager;
+import CareHome.util.IdGenerator;
 
 public class AuditLogger implements Serializable {
     private AuditDAO auditDAO;
-    private List<AuditEntry> auditTrail; // All audit entries
 
 
     public AuditLogger() {
@@ -20,44 +19,69 @@ public class AuditLogger implements Serializable {
     }
 
     public void logAction(String staffId, ActionType actionType, String details, String targetId) {
-        String entryId = "AUDIT" + String.format("%06d", System.currentTimeMillis() % 1000000);
+        String entryId = IdGenerator.nextId("AUDIT");
         AuditEntry entry = new AuditEntry(entryId, staffId, actionType, details, targetId);
-        try {
-            auditDAO.save(entry);
-            System.out.println("AUDIT: " + entry.getFormattedDescription()); // For debugging
-        } catch (Exception e) {
-            System.err.println("Failed to save audit log to database: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Written in the background by AuditWriter; inside a unit of work only once it commits.
+        // A rolled-back change is never logged, but a committed one can lose its entry if the
+        // process dies before the writer's next batch (see AuditWriter)
+        TransactionManager.afterCommit(() -> AuditWriter.getInstance().submit(entry));
+        System.out.println("AUDIT: " + entry.getFormattedDescription()); // For debugging
     }
-    // Get all audit entries within a date range
-    public List<AuditEntry> getAuditTrail(LocalDate fromDate, LocalDate toDate) {
-        List<AuditEntry> filteredEntries = new ArrayList<>();
-        for (AuditEntry entry : auditTrail) {
-            LocalDate entryDate = entry.getTimestamp().toLocalDate();
-            if (!entryDate.isBefore(fromDate) && !entryDate.isAfter(toDate)) {
-                filteredEntries.add(entry);
-            }
-        }
-        return filteredEntries;
+    // Get all audit entries within a date range (both days inclusive)
+    public List<AuditEntry> getAuditTrail(LocalDate fromDate, LocalDate toDate) throws Exception {
+        flush();
+        return auditDAO.findByDateRange(fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
     }
 
     // Get all audit entries for a specific staff member
-    public List<AuditEntry> getAuditTrailForStaff(String staffId) {
-        List<AuditEntry> staffEntries = new ArrayList<>();
-        for (AuditEntry entry : auditTrail) {
-            if (entry.getStaffId().equals(staffId)) {
-                staffEntries.add(entry);
-            }
+    public List<AuditEntry> getAuditTrailForStaff(String staffId) throws Exception {
+        flush();
+        return auditDAO.findByStaffId(staffId);
+    }
+
+    // Get all audit entries of one action type
+    public List<AuditEntry> getAuditTrailForAction(ActionType actionType) throws Exception {
+        flush();
+        return auditDAO.findByActionType(actionType);
+    }
+
+    // Get all audit entries about one patient, staff member or bed
+    public List<AuditEntry> getAuditTrailForTarget(String targetId) throws Exception {
+        flush();
+        return auditDAO.findByTargetId(targetId);
+    }
+
+    // Next page of the log, newest first; pass null for the first page and the previous page after that
+    public AuditPage getAuditPage(AuditPage after, int pageSize) throws Exception {
+        if (after == null) {
+            flush();
         }
-        return staffEntries;
+        return auditDAO.findPage(after, pageSize);
+    }
+
+    // Visits every entry, newest first, without loading the whole log into memory
+    public void streamAuditEntries(AuditDAO.EntryHandler handler) throws Exception {
+        flush();
+        auditDAO.streamAll(handler);
     }
 
+    // Flushes queued entries first so callers read their own writes
     public List<AuditEntry> getAllAuditEntries() throws Exception {
+        flush();
         return auditDAO.findAll();
     }
 
-    public int getTotalEntries() {
-        return auditTrail.size();
+    // Blocks until every entry logged so far has been written to audit_log
+    public boolean flush() {
+        return AuditWriter.getInstance().flush();
+    }
+
+    public AuditWriterStats getWriterStats() {
+        return AuditWriter.getInstance().getStats();
+    }
+
+    public long getTotalEntries() throws Exception {
+        flush();
+        return auditDAO.count();
     }
 }
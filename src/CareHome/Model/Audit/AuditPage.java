@@ -0,0 +1,25 @@
+package CareHome.Model.Audit;
+
+import java.util.List;
+
+// One page of audit entries, newest first, plus the keyset position to continue from
+public class AuditPage {
+    private final List<AuditEntry> entries;
+    private final String lastTimestamp;   // raw audit_log.timestamp of the last entry, as stored
+    private final String lastEntryId;
+    private final boolean hasMore;
+
+    public AuditPage(List<AuditEntry> entries, String lastTimestamp, String lastEntryId, boolean hasMore) {
+        this.entries = List.copyOf(entries);
+        this.lastTimestamp = lastTimestamp;
+        this.lastEntryId = lastEntryId;
+        this.hasMore = hasMore;
+    }
+
+    // Getters
+    public List<AuditEntry> getEntries() { return entries; }
+    public String getLastTimestamp() { return lastTimestamp; }
+    public String getLastEntryId() { return lastEntryId; }
+    public boolean hasMore() { return hasMore; }
+    public boolean isEmpty() { return entries.isEmpty(); }
+}
@@ -0,0 +1,278 @@
+package CareHome.Model.Audit;
+
+import CareHome.Model.ActionType;
+import CareHome.dao.AuditDAO;
+import CareHome.dao.AuditDAOImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Background group-commit writer for audit entries.
+ * logAction() only enqueues; a single daemon thread drains the queue and writes
+ * each batch in one transaction, either when MAX_BATCH_SIZE entries are waiting or
+ * MAX_BATCH_DELAY_MILLIS after the first entry of a batch arrived.
+ * A full queue blocks the caller (backpressure) instead of dropping entries, and a
+ * shutdown hook drains whatever is still queued before the JVM exits.
+ * Durability trade-off: an entry is only in the database once its batch is written,
+ * so entries still queued when the process dies without running the shutdown hook
+ * (kill -9, power loss) are lost even though the change they describe has committed.
+ * Callers that need the entry in the same commit as the change should save it with
+ * AuditDAO.save inside their unit of work, which joins the open transaction.
+ */
+public final class AuditWriter {
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long MAX_BATCH_DELAY_MILLIS = 20;
+    private static final long IDLE_POLL_MILLIS = 500;
+    private static final long DEFAULT_FLUSH_TIMEOUT_MILLIS = 10_000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    // Queue marker that wakes the writer early (flush, shutdown); never written
+    private static final AuditEntry WAKE_UP = new AuditEntry("", "", ActionType.LOGIN, "", "");
+
+    private static volatile AuditWriter instance;
+
+    private final AuditDAO auditDAO;
+    private final int queueCapacity;
+    private final BlockingQueue<AuditEntry> queue;
+    private final Thread writerThread;
+    private final Object progressLock = new Object();
+    // submit() holds the read side while it checks stopped and enqueues; shutdown() takes the
+    // write side to set stopped, so no entry can land in the queue after the final drain
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong submitted = new AtomicLong();   // entries accepted by submit()
+    private long processed;                                  // entries written or given up on, guarded by progressLock
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile boolean flushRequested;
+    private volatile boolean stopped;
+
+    public AuditWriter(AuditDAO auditDAO, int queueCapacity) {
+        this.auditDAO = auditDAO;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriter, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Shared writer used by every AuditLogger; started on first use
+    public static AuditWriter getInstance() {
+        AuditWriter current = instance;
+        if (current == null) {
+            synchronized (AuditWriter.class) {
+                current = instance;
+                if (current == null) {
+                    current = new AuditWriter(new AuditDAOImpl(), DEFAULT_QUEUE_CAPACITY);
+                    Runtime.getRuntime().addShutdownHook(new Thread(current::shutdown, "audit-writer-shutdown"));
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Queues an entry for the next batch; blocks while the queue is full
+    public void submit(AuditEntry entry) {
+        stopLock.readLock().lock();
+        try {
+            if (stopped) {
+                writeDirect(entry);
+                return;
+            }
+            submitted.incrementAndGet();
+            if (!queue.offer(entry)) {
+                backpressureWaits.increment();
+                try {
+                    queue.put(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // Keep the entry rather than lose it, at the cost of a synchronous write
+                    markProcessed(1);
+                    writeDirect(entry);
+                }
+            }
+        } finally {
+            stopLock.readLock().unlock();
+        }
+    }
+
+    // Blocks until everything submitted before this call is in the database
+    public boolean flush() {
+        return flush(DEFAULT_FLUSH_TIMEOUT_MILLIS);
+    }
+
+    public boolean flush(long timeoutMillis) {
+        long target = submitted.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        flushRequested = true;
+        queue.offer(WAKE_UP);
+        synchronized (progressLock) {
+            while (processed < target) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !writerThread.isAlive()) {
+                    return processed >= target;
+                }
+                try {
+                    progressLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Drains the queue and stops the writer; later submits are written synchronously
+    public void shutdown() {
+        stopLock.writeLock().lock();
+        try {
+            stopped = true;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+        queue.offer(WAKE_UP);
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditEntry> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        writeBatch(leftovers);
+    }
+
+    public AuditWriterStats getStats() {
+        long batchCount = batches.sum();
+        long writtenCount = written.sum();
+        return new AuditWriterStats(
+                queue.size(),
+                queueCapacity,
+                submitted.get(),
+                writtenCount,
+                failed.sum(),
+                batchCount,
+                lastBatchSize,
+                (int) maxBatchSize.get(),
+                batchCount == 0 ? 0 : (double) writtenCount / batchCount,
+                backpressureWaits.sum()
+        );
+    }
+
+    private void runWriter() {
+        List<AuditEntry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            try {
+                AuditEntry first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (stopped) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return;
+                }
+                continue;
+            }
+            writeBatch(batch);
+            batch.clear();
+            if (stopped && queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    // Fills the batch until it is full, the delay since its first entry has passed, or a flush is waiting
+    private void collectBatch(List<AuditEntry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_DELAY_MILLIS);
+        while (batch.size() < MAX_BATCH_SIZE) {
+            queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+            if (batch.size() >= MAX_BATCH_SIZE || flushRequested || stopped) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            AuditEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<AuditEntry> batch) {
+        flushRequested = false;
+        batch.removeIf(entry -> entry == WAKE_UP);
+        if (batch.isEmpty()) {
+            signalProgress();
+            return;
+        }
+
+        try {
+            auditDAO.saveAll(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            // One bad row (e.g. a duplicate entry id) must not take the rest of the batch with it
+            System.err.println("Audit batch of " + batch.size() + " failed, retrying entries one by one: " + e.getMessage());
+            for (AuditEntry entry : batch) {
+                writeOne(entry);
+            }
+        }
+        batches.increment();
+        lastBatchSize = batch.size();
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+        markProcessed(batch.size());
+    }
+
+    private void writeDirect(AuditEntry entry) {
+        if (writeOne(entry)) {
+            batches.increment();
+            lastBatchSize = 1;
+        }
+    }
+
+    private boolean writeOne(AuditEntry entry) {
+        try {
+            auditDAO.save(entry);
+            written.increment();
+            return true;
+        } catch (Exception e) {
+            failed.increment();
+            System.err.println("Failed to save audit log to database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void markProcessed(int count) {
+        synchronized (progressLock) {
+            processed += count;
+            progressLock.notifyAll();
+        }
+    }
+
+    private void signalProgress() {
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+}
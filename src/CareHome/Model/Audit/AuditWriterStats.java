@@ -0,0 +1,49 @@
+package CareHome.Model.Audit;
+
+// Immutable snapshot of audit writer metrics
+public class AuditWriterStats {
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long submittedCount;
+    private final long writtenCount;
+    private final long failedCount;
+    private final long batchCount;
+    private final int lastBatchSize;
+    private final int maxBatchSize;
+    private final double averageBatchSize;
+    private final long backpressureWaits;
+
+    public AuditWriterStats(int queueDepth, int queueCapacity, long submittedCount, long writtenCount,
+                            long failedCount, long batchCount, int lastBatchSize, int maxBatchSize,
+                            double averageBatchSize, long backpressureWaits) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.submittedCount = submittedCount;
+        this.writtenCount = writtenCount;
+        this.failedCount = failedCount;
+        this.batchCount = batchCount;
+        this.lastBatchSize = lastBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.averageBatchSize = averageBatchSize;
+        this.backpressureWaits = backpressureWaits;
+    }
+
+    // Getters
+    public int getQueueDepth() { return queueDepth; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public long getSubmittedCount() { return submittedCount; }
+    public long getWrittenCount() { return writtenCount; }
+    public long getFailedCount() { return failedCount; }
+    public long getBatchCount() { return batchCount; }
+    public int getLastBatchSize() { return lastBatchSize; }
+    public int getMaxBatchSize() { return maxBatchSize; }
+    public double getAverageBatchSize() { return averageBatchSize; }
+    public long getBackpressureWaits() { return backpressureWaits; }
+
+    @Override
+    public String toString() {
+        return String.format("AuditWriter[queue=%d/%d, submitted=%d, written=%d, failed=%d, batches=%d, lastBatch=%d, maxBatch=%d, avgBatch=%.1f, backpressureWaits=%d]",
+                queueDepth, queueCapacity, submittedCount, writtenCount, failedCount, batchCount,
+                lastBatchSize, maxBatchSize, averageBatchSize, backpressureWaits);
+    }
+}
@@ -7,8 +7,8 @@ public class Bed  {
     private String bedId;
     private String wardId;
     private int roomNumber;
-    private Patient currentPatient;
-    private boolean isOccupied;
+    private volatile Patient currentPatient;
+    private volatile boolean isOccupied;
 
     public Bed(String bedId, String wardId, int roomNumber) {
         this.bedId = bedId;
@@ -18,8 +18,8 @@ public class Bed  {
         this.isOccupied = false;
     }
 
-    // Assign a patient to this bed
-    public void assignPatient(Patient patient) {
+    // Assign a patient to this bed; the occupied check and the assignment are one atomic step
+    public synchronized void assignPatient(Patient patient) {
         if (isOccupied) {
             throw new IllegalStateException("Bed " + bedId + " is already occupied");
         }
@@ -28,7 +28,7 @@ public class Bed  {
     }
 
     // Remove patient from bed (discharge or move)
-    public Patient removePatient() {
+    public synchronized Patient removePatient() {
         if (!isOccupied) {
             throw new IllegalStateException("Bed " + bedId + " is already empty");
         }
@@ -64,6 +64,7 @@ public class Bed  {
         return isOccupied;
     }
     public String toString() {
-        return "Bed " + bedId + (isOccupied ? " (Occupied by " + currentPatient.getName() + ")" : " (Available)");
+        Patient patient = currentPatient;
+        return "Bed " + bedId + (patient != null ? " (Occupied by " + patient.getName() + ")" : " (Available)");
     }
 }
\ No newline at end of file
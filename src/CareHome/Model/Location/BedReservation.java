@@ -0,0 +1,44 @@
+package CareHome.Model.Location;
+
+import CareHome.Model.Gender;
+import java.time.LocalDateTime;
+
+// A time-limited hold on a bed, e.g. for a pre-admission assessment; the bed counts as occupied until it expires
+public class BedReservation {
+    private final long reservationId;
+    private final String bedId;
+    private final Gender holdGender;          // Room gender rules apply as if a patient of this gender were in the bed
+    private final String reason;
+    private final String createdBy;           // Staff id, or SYSTEM
+    private final LocalDateTime createdAt;
+    private final LocalDateTime expiresAt;
+
+    public BedReservation(long reservationId, String bedId, Gender holdGender, String reason,
+                          String createdBy, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.reservationId = reservationId;
+        this.bedId = bedId;
+        this.holdGender = holdGender;
+        this.reason = reason;
+        this.createdBy = createdBy;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    // Getters
+    public long getReservationId() { return reservationId; }
+    public String getBedId() { return bedId; }
+    public Gender getHoldGender() { return holdGender; }
+    public String getReason() { return reason; }
+    public String getCreatedBy() { return createdBy; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    @Override
+    public String toString() {
+        return "Hold #" + reservationId + " on " + bedId + " for " + holdGender + " until " + expiresAt;
+    }
+}
@@ -0,0 +1,74 @@
+package CareHome.Model.Location;
+
+import CareHome.Model.Gender;
+import java.util.Objects;
+
+// What the ward map shows for one bed: who is in it, or who it is held for, or that it is free
+public class BedState {
+    private final String bedId;
+    private final String wardId;
+    private final int roomNumber;
+    private final String occupantId;          // internal patient id; null when nobody is in the bed
+    private final String occupantPatientId;
+    private final String occupantName;
+    private final Gender occupantGender;
+    private final Gender holdGender;          // set while the bed is held and empty
+
+    public BedState(String bedId, String wardId, int roomNumber, String occupantId, String occupantPatientId,
+                    String occupantName, Gender occupantGender, Gender holdGender) {
+        this.bedId = bedId;
+        this.wardId = wardId;
+        this.roomNumber = roomNumber;
+        this.occupantId = occupantId;
+        this.occupantPatientId = occupantPatientId;
+        this.occupantName = occupantName;
+        this.occupantGender = occupantGender;
+        this.holdGender = holdGender;
+    }
+
+    public boolean isOccupied() {
+        return occupantId != null;
+    }
+
+    public boolean isHeld() {
+        return occupantId == null && holdGender != null;
+    }
+
+    // Getters
+    public String getBedId() { return bedId; }
+    public String getWardId() { return wardId; }
+    public int getRoomNumber() { return roomNumber; }
+    public String getOccupantId() { return occupantId; }
+    public String getOccupantPatientId() { return occupantPatientId; }
+    public String getOccupantName() { return occupantName; }
+    public Gender getOccupantGender() { return occupantGender; }
+    public Gender getHoldGender() { return holdGender; }
+
+    // Equal states draw the same, so a screen can skip beds whose state came back unchanged
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BedState state)) {
+            return false;
+        }
+        return roomNumber == state.roomNumber && bedId.equals(state.bedId) && Objects.equals(wardId, state.wardId)
+                && Objects.equals(occupantId, state.occupantId) && Objects.equals(occupantPatientId, state.occupantPatientId)
+                && Objects.equals(occupantName, state.occupantName) && occupantGender == state.occupantGender
+                && holdGender == state.holdGender;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bedId, occupantId, holdGender);
+    }
+
+    @Override
+    public String toString() {
+        if (isOccupied()) {
+            return bedId + ": " + occupantName + " (" + occupantPatientId + ")";
+        }
+        return bedId + (isHeld() ? ": held for " + holdGender : ": empty");
+    }
+}
@@ -0,0 +1,41 @@
+package CareHome.Model.Location;
+
+import java.time.LocalDateTime;
+
+// One patient_bed row: a patient's time in a bed, from start up to (not including) end
+public class BedStay {
+    private final long assignmentId;
+    private final String patientId;
+    private final String bedId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;          // null while the patient is still in the bed
+
+    public BedStay(long assignmentId, String patientId, String bedId, LocalDateTime start, LocalDateTime end) {
+        this.assignmentId = assignmentId;
+        this.patientId = patientId;
+        this.bedId = bedId;
+        this.start = start;
+        this.end = end;
+    }
+
+    public boolean isOpen() {
+        return end == null;
+    }
+
+    // True if the patient was in the bed at this instant
+    public boolean covers(LocalDateTime at) {
+        return !start.isAfter(at) && (end == null || end.isAfter(at));
+    }
+
+    // Getters
+    public long getAssignmentId() { return assignmentId; }
+    public String getPatientId() { return patientId; }
+    public String getBedId() { return bedId; }
+    public LocalDateTime getStart() { return start; }
+    public LocalDateTime getEnd() { return end; }
+
+    @Override
+    public String toString() {
+        return patientId + " in " + bedId + " from " + start + (end == null ? "" : " to " + end);
+    }
+}
@@ -0,0 +1,31 @@
+package CareHome.Model.Location;
+
+import java.util.List;
+
+// Bed states as of a census version: every bed when full, otherwise only the beds changed since the version asked about
+public class CensusSnapshot {
+    private final long version;
+    private final boolean full;
+    private final List<BedState> beds;
+
+    public CensusSnapshot(long version, boolean full, List<BedState> beds) {
+        this.version = version;
+        this.full = full;
+        this.beds = List.copyOf(beds);
+    }
+
+    // True if nothing changed since the version asked about
+    public boolean isEmpty() {
+        return !full && beds.isEmpty();
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public boolean isFull() { return full; }
+    public List<BedState> getBeds() { return beds; }
+
+    @Override
+    public String toString() {
+        return (full ? "Census" : "Census changes") + " at version " + version + ": " + beds.size() + " beds";
+    }
+}
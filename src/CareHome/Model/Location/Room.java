@@ -5,22 +5,30 @@ import CareHome.Model.Person.Patient;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Room {
     private String roomId;
+    private int roomNumber;
     private List<Bed> beds;
     private int maxCapacity;
 
-    public Room(String roomId, String wardId, int capacity) {
+    public Room(String roomId, String wardId, int roomNumber, int capacity) {
         this.roomId = roomId;
+        this.roomNumber = roomNumber;
         this.maxCapacity = capacity;
         this.beds = new ArrayList<>();
         for (int i = 1; i <= capacity; i++) {
-            beds.add(new Bed(roomId + "B" + i, wardId, Integer.parseInt(roomId.substring(3))));
+            beds.add(new Bed(roomId + "B" + i, wardId, roomNumber));
         }
     }
 
+    // Room id in the <ward>R<number> form, e.g. "W1R12"
+    public Room(String roomId, String wardId, int capacity) {
+        this(roomId, wardId, Integer.parseInt(roomId.substring(wardId.length() + 1)), capacity);
+    }
+
     public boolean hasAvailableSpace() {
         return beds.stream().anyMatch(Bed::isAvailable);
     }
@@ -48,8 +56,12 @@ public class Room {
         return roomId;
     }
 
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
     public List<Bed> getAllBeds() {
-        return beds;
+        return Collections.unmodifiableList(beds);
     }
 
     public int getMaxCapacity() {
@@ -3,20 +3,27 @@ package CareHome.Model.Location;
 import CareHome.Model.Gender;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Ward {
     private String wardId; // Unique ward identifier (e.g., "W1", "W2")
     private List<Room> rooms; // All rooms in this ward
     private String wardName; // Descriptive name (e.g., "High Care Ward")
+    private int floor; // Floor the ward is on
 
     // Constructor for new ward
-    public Ward(String wardId, String wardName) {
+    public Ward(String wardId, String wardName, int floor) {
         this.wardId = wardId;
         this.wardName = wardName;
+        this.floor = floor;
         this.rooms = new ArrayList<>();
     }
 
+    public Ward(String wardId, String wardName) {
+        this(wardId, wardName, 1);
+    }
+
     // Add a room to this ward
     public void addRoom(Room room) {
         rooms.add(room);
@@ -44,7 +51,8 @@ public class Ward {
     // Getters
     public String getWardId() { return wardId; }
     public String getWardName() { return wardName; }
-    public List<Room> getAllRooms() { return new ArrayList<>(rooms); }
+    public int getFloor() { return floor; }
+    public List<Room> getAllRooms() { return Collections.unmodifiableList(rooms); }
 
     @Override
     public String toString() {
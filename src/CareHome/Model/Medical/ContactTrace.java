@@ -0,0 +1,43 @@
+package CareHome.Model.Medical;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everyone exposed to an index patient during their infectious period, nearest contacts first
+public class ContactTrace {
+    private final String indexPatientId;
+    private final LocalDateTime infectiousFrom;
+    private final LocalDateTime infectiousTo;
+    private final List<Exposure> exposures;
+
+    public ContactTrace(String indexPatientId, LocalDateTime infectiousFrom, LocalDateTime infectiousTo, List<Exposure> exposures) {
+        this.indexPatientId = indexPatientId;
+        this.infectiousFrom = infectiousFrom;
+        this.infectiousTo = infectiousTo;
+        this.exposures = List.copyOf(exposures);
+    }
+
+    public List<Exposure> getPatientExposures() {
+        return exposures.stream().filter(e -> e.getContactType() == Exposure.ContactType.PATIENT).toList();
+    }
+
+    public List<Exposure> getStaffExposures() {
+        return exposures.stream().filter(e -> e.getContactType() == Exposure.ContactType.STAFF).toList();
+    }
+
+    // The exposure recorded for a contact, or null if they were not reached
+    public Exposure find(String contactId) {
+        for (Exposure exposure : exposures) {
+            if (exposure.getContactId().equals(contactId)) {
+                return exposure;
+            }
+        }
+        return null;
+    }
+
+    // Getters
+    public String getIndexPatientId() { return indexPatientId; }
+    public LocalDateTime getInfectiousFrom() { return infectiousFrom; }
+    public LocalDateTime getInfectiousTo() { return infectiousTo; }
+    public List<Exposure> getExposures() { return exposures; }
+}
@@ -0,0 +1,42 @@
+package CareHome.Model.Medical;
+
+import java.time.LocalDateTime;
+
+// One person found by contact tracing: who they were exposed to, where, and over which period
+public class Exposure {
+    public enum ContactType { PATIENT, STAFF }
+
+    private final String contactId;           // patients.id for a patient, staff_id for staff
+    private final ContactType contactType;
+    private final String sourcePatientId;     // The traced patient they were exposed to
+    private final int depth;                  // 1 for contacts of the index patient, 2 for their contacts, ...
+    private final String location;            // Shared room, or the rostered shift for staff
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public Exposure(String contactId, ContactType contactType, String sourcePatientId, int depth,
+                    String location, LocalDateTime from, LocalDateTime to) {
+        this.contactId = contactId;
+        this.contactType = contactType;
+        this.sourcePatientId = sourcePatientId;
+        this.depth = depth;
+        this.location = location;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters
+    public String getContactId() { return contactId; }
+    public ContactType getContactType() { return contactType; }
+    public String getSourcePatientId() { return sourcePatientId; }
+    public int getDepth() { return depth; }
+    public String getLocation() { return location; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+
+    @Override
+    public String toString() {
+        return contactType + " " + contactId + " exposed to " + sourcePatientId + " in " + location
+                + " from " + from + " to " + to + " (depth " + depth + ")";
+    }
+}
@@ -7,8 +7,6 @@ public class Patient extends Person {
     private String patientId; // Unique patient identification number
     private LocalDate admissionDate; // Date when patient was admitted
     private boolean needsIsolation; // Whether patient needs private room
-    private String isolationDisplay;
-    private String bedIdDisplay;
 
     // Constructor for new patient
     public Patient(String id, String firstName, String lastName, Gender gender,
@@ -39,22 +37,4 @@ public class Patient extends Person {
     public String toString() {
         return getFirstName() + " " + getLastName() + " (" + getPatientId() + ")";
     }
-
-    public String getIsolationDisplay() {
-        return isolationDisplay;
-    }
-
-    public void setIsolationDisplay(String isolationDisplay) {
-        this.isolationDisplay = isolationDisplay;
-    }
-
-    public String getBedIdDisplay() {
-        return bedIdDisplay;
-    }
-
-    public void setBedIdDisplay(String bedIdDisplay) {
-        this.bedIdDisplay = bedIdDisplay;
-    }
-
 }
-
@@ -0,0 +1,63 @@
+package CareHome.Model.Person;
+
+import CareHome.Model.Gender;
+import java.time.LocalDate;
+
+// Read-only row for patient listings: an active patient with the bed, ward and room they are in now
+public class PatientBedView {
+    private final String id;
+    private final String patientId;
+    private final String firstName;
+    private final String lastName;
+    private final Gender gender;
+    private final int age;
+    private final LocalDate admissionDate;
+    private final boolean needsIsolation;
+    private final String bedId;               // null while the patient has no bed
+    private final String wardId;
+    private final int roomNumber;             // 0 while the patient has no bed
+
+    public PatientBedView(String id, String patientId, String firstName, String lastName, Gender gender, int age,
+                          LocalDate admissionDate, boolean needsIsolation, String bedId, String wardId, int roomNumber) {
+        this.id = id;
+        this.patientId = patientId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.gender = gender;
+        this.age = age;
+        this.admissionDate = admissionDate;
+        this.needsIsolation = needsIsolation;
+        this.bedId = bedId;
+        this.wardId = wardId;
+        this.roomNumber = roomNumber;
+    }
+
+    public boolean hasBed() {
+        return bedId != null;
+    }
+
+    // Get full name as "FirstName LastName"
+    public String getName() {
+        return firstName + " " + lastName;
+    }
+
+    // Getters; the display ones feed table columns by property name
+    public String getId() { return id; }
+    public String getPatientId() { return patientId; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public Gender getGender() { return gender; }
+    public int getAge() { return age; }
+    public LocalDate getAdmissionDate() { return admissionDate; }
+    public boolean needsIsolation() { return needsIsolation; }
+    public String getBedId() { return bedId; }
+    public String getWardId() { return wardId; }
+    public int getRoomNumber() { return roomNumber; }
+    public String getIsolationDisplay() { return needsIsolation ? "Yes" : "No"; }
+    public String getBedIdDisplay() { return bedId != null ? bedId : "Unassigned"; }
+
+    @Override
+    public String toString() {
+        return getName() + " (" + patientId + ")" + (bedId == null ? "" : " in " + bedId);
+    }
+}
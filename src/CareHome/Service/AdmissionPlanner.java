@@ -0,0 +1,193 @@
+package CareHome.Service;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.dao.BedOccupancyIndex.RoomVacancy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places a whole batch of patients at once, under the same rules as one-by-one admission:
+ * an isolation patient needs a reserved isolation bed in an empty room, everyone else a
+ * non-reserved free bed in a room with no one of another gender.
+ *
+ * Placing greedily in arrival order can give an empty room to the first patient of one gender
+ * and leave a later group of the other gender without a room that fits. Here rooms that already
+ * have a gender are filled first. Then a subset-sum over the empty rooms' free beds decides which
+ * rooms go to men and which to women, so that the most patients are placed.
+ * Isolation patients are placed first, each in the reserved room that leaves the fewest shared
+ * beds tied to their gender. Within a gender, patients are placed in batch order, so when beds
+ * run out it is the end of the list that waits.
+ */
+final class AdmissionPlanner {
+
+    // Working copy of one room while the plan is built
+    private static final class PlannedRoom {
+        private final RoomVacancy vacancy;
+        private Gender gender;       // null while no one of a known gender is in or planned for it
+        private boolean mixed;       // occupants of both genders already; no shared beds offered
+        private boolean empty;
+        private int nextFreeBed;
+        private int nextIsolationBed;
+
+        private PlannedRoom(RoomVacancy vacancy) {
+            this.vacancy = vacancy;
+            this.empty = vacancy.isEmpty();
+            if (vacancy.getOccupantGenders().size() > 1) {
+                mixed = true;
+            } else if (vacancy.getOccupantGenders().size() == 1) {
+                gender = Gender.valueOf(vacancy.getOccupantGenders().iterator().next());
+            }
+        }
+
+        private int freeBeds() {
+            return vacancy.getFreeBeds().size() - nextFreeBed;
+        }
+
+        private String takeBed(Gender patientGender) {
+            gender = patientGender;
+            empty = false;
+            return vacancy.getFreeBeds().get(nextFreeBed++);
+        }
+
+        private String takeIsolationBed(Gender patientGender) {
+            gender = patientGender;
+            empty = false;
+            return vacancy.getFreeIsolationBeds().get(nextIsolationBed++);
+        }
+    }
+
+    private AdmissionPlanner() {
+    }
+
+    static BatchAdmissionResult plan(List<Patient> patients, List<RoomVacancy> vacancies) {
+        List<PlannedRoom> rooms = new ArrayList<>(vacancies.size());
+        for (RoomVacancy vacancy : vacancies) {
+            rooms.add(new PlannedRoom(vacancy));
+        }
+        Map<String, String> placements = new LinkedHashMap<>();
+
+        // Isolation first: the room with fewest shared free beds, so little capacity gets tied to one gender
+        List<Patient> men = new ArrayList<>();
+        List<Patient> women = new ArrayList<>();
+        for (Patient patient : patients) {
+            if (!patient.needsIsolation()) {
+                (patient.getGender() == Gender.MALE ? men : women).add(patient);
+                continue;
+            }
+            PlannedRoom best = null;
+            for (PlannedRoom room : rooms) {
+                if (room.empty && room.nextIsolationBed < room.vacancy.getFreeIsolationBeds().size()
+                        && (best == null || room.freeBeds() < best.freeBeds())) {
+                    best = room;
+                }
+            }
+            if (best != null) {
+                placements.put(patient.getId(), best.takeIsolationBed(patient.getGender()));
+            }
+        }
+
+        // Shared beds in rooms that already have a gender go to that gender
+        int menLeft = men.size();
+        int womenLeft = women.size();
+        List<PlannedRoom> openRooms = new ArrayList<>();
+        for (PlannedRoom room : rooms) {
+            if (room.mixed || room.freeBeds() == 0) {
+                continue;
+            }
+            if (room.gender == Gender.MALE) {
+                menLeft -= room.freeBeds();
+            } else if (room.gender == Gender.FEMALE) {
+                womenLeft -= room.freeBeds();
+            } else {
+                openRooms.add(room);
+            }
+        }
+        menLeft = Math.max(menLeft, 0);
+        womenLeft = Math.max(womenLeft, 0);
+
+        // Split the open rooms between the genders; rooms given to men are reserved for them below
+        boolean[] forMen = splitRooms(openRooms, menLeft, womenLeft);
+        List<PlannedRoom> menRooms = new ArrayList<>();
+        List<PlannedRoom> womenRooms = new ArrayList<>();
+        int open = 0;
+        for (PlannedRoom room : rooms) {
+            if (room.mixed || room.freeBeds() == 0) {
+                continue;
+            }
+            if (room.gender == null) {
+                (forMen[open++] ? menRooms : womenRooms).add(room);
+            } else {
+                (room.gender == Gender.MALE ? menRooms : womenRooms).add(room);
+            }
+        }
+        fill(men, menRooms, Gender.MALE, placements);
+        fill(women, womenRooms, Gender.FEMALE, placements);
+
+        List<Patient> unplaced = new ArrayList<>();
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (Patient patient : patients) {
+            String bedId = placements.get(patient.getId());
+            if (bedId != null) {
+                ordered.put(patient.getId(), bedId);
+            } else {
+                unplaced.add(patient);
+            }
+        }
+        return new BatchAdmissionResult(ordered, unplaced);
+    }
+
+    // Men's subset of the open rooms maximising min(men, s) + min(women, total - s), where s is the men's
+    // bed count. Past `men` a larger s only costs women beds, and adding rooms one at a time always
+    // reaches some sum in [men, men + largest room), so the table only runs to there.
+    private static boolean[] splitRooms(List<PlannedRoom> openRooms, int men, int women) {
+        int total = 0;
+        int largest = 0;
+        for (PlannedRoom room : openRooms) {
+            total += room.freeBeds();
+            largest = Math.max(largest, room.freeBeds());
+        }
+        int limit = men == 0 ? 0 : Math.min(men + largest - 1, total);
+
+        // reachedBy[s]: first room index whose beds completed sum s (rooms before it make up the rest)
+        int[] reachedBy = new int[limit + 1];
+        Arrays.fill(reachedBy, -1);
+        for (int i = 0; i < openRooms.size(); i++) {
+            int beds = openRooms.get(i).freeBeds();
+            for (int s = limit; s >= beds; s--) {
+                if (reachedBy[s] < 0 && (s == beds || reachedBy[s - beds] >= 0)) {
+                    reachedBy[s] = i;
+                }
+            }
+        }
+
+        int bestSum = 0;
+        int bestPlaced = Math.min(women, total);
+        for (int s = 1; s <= limit; s++) {
+            int placed = Math.min(men, s) + Math.min(women, total - s);
+            if (reachedBy[s] >= 0 && placed > bestPlaced) {
+                bestSum = s;
+                bestPlaced = placed;
+            }
+        }
+
+        boolean[] forMen = new boolean[openRooms.size()];
+        for (int s = bestSum; s > 0; s -= openRooms.get(reachedBy[s]).freeBeds()) {
+            forMen[reachedBy[s]] = true;
+        }
+        return forMen;
+    }
+
+    private static void fill(List<Patient> patients, List<PlannedRoom> rooms, Gender gender, Map<String, String> placements) {
+        int next = 0;
+        for (PlannedRoom room : rooms) {
+            while (next < patients.size() && room.freeBeds() > 0) {
+                placements.put(patients.get(next++).getId(), room.takeBed(gender));
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package CareHome.Service;
+
+import CareHome.Model.Admission.WaitlistEntry;
+import CareHome.Model.Gender;
+import CareHome.config.DatabaseConfig;
+import CareHome.dao.BedOccupancyIndex.RoomVacancy;
+import CareHome.dao.WaitlistDAO;
+import CareHome.dao.WaitlistDAOImpl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory mirror of the waitlist table with one priority queue per (gender, isolation) pair.
+ * When a bed is freed, only the heads of the queues whose patients that room could take are
+ * compared, so matching costs a handful of comparisons no matter how long the waitlist is.
+ *
+ * Loaded on first use and again whenever DatabaseConfig's generation moves on. PatientServiceImpl
+ * adds entries after the commit that saved them; entries added by another process appear on the
+ * next reload, and a conditional delete keeps two clients from admitting the same entry.
+ */
+public final class AdmissionWaitlist {
+    private static final Comparator<WaitlistEntry> MOST_URGENT_FIRST = (a, b) ->
+            a.getEntryId() == b.getEntryId() ? 0 : a.isAheadOf(b) ? -1 : 1;
+
+    private static final AdmissionWaitlist INSTANCE = new AdmissionWaitlist();
+
+    // A waiting patient matched to a free bed; the entry is off its queue until admitted or released
+    public static final class Offer {
+        private final WaitlistEntry entry;
+        private final String bedId;
+
+        private Offer(WaitlistEntry entry, String bedId) {
+            this.entry = entry;
+            this.bedId = bedId;
+        }
+
+        public WaitlistEntry getEntry() { return entry; }
+        public String getBedId() { return bedId; }
+    }
+
+    private final WaitlistDAO waitlistDAO = new WaitlistDAOImpl();
+    private final Map<Gender, PriorityQueue<WaitlistEntry>> sharedQueues = new EnumMap<>(Gender.class);
+    private final Map<Gender, PriorityQueue<WaitlistEntry>> isolationQueues = new EnumMap<>(Gender.class);
+    private final Map<String, WaitlistEntry> byPatientId = new HashMap<>();
+    private long loadedGeneration = -1;
+
+    private AdmissionWaitlist() {
+        for (Gender gender : Gender.values()) {
+            sharedQueues.put(gender, new PriorityQueue<>(MOST_URGENT_FIRST));
+            isolationQueues.put(gender, new PriorityQueue<>(MOST_URGENT_FIRST));
+        }
+    }
+
+    public static AdmissionWaitlist getInstance() {
+        return INSTANCE;
+    }
+
+    // Takes the most urgent entry this room can accept off its queue, or returns null.
+    // Reserved isolation beds go to isolation patients once the room is empty; other free beds to
+    // patients of the occupants' gender, or of either gender when the room is empty.
+    public synchronized Offer claim(RoomVacancy room) throws Exception {
+        ensureLoaded();
+        WaitlistEntry best = null;
+        String bedId = null;
+        if (room.isEmpty() && !room.getFreeIsolationBeds().isEmpty()) {
+            for (PriorityQueue<WaitlistEntry> queue : isolationQueues.values()) {
+                WaitlistEntry head = queue.peek();
+                if (head != null && (best == null || head.isAheadOf(best))) {
+                    best = head;
+                    bedId = room.getFreeIsolationBeds().get(0);
+                }
+            }
+        }
+        if (!room.getFreeBeds().isEmpty()) {
+            for (Map.Entry<Gender, PriorityQueue<WaitlistEntry>> queue : sharedQueues.entrySet()) {
+                WaitlistEntry head = queue.getValue().peek();
+                if (head != null && !hasOtherGender(room, queue.getKey()) && (best == null || head.isAheadOf(best))) {
+                    best = head;
+                    bedId = room.getFreeBeds().get(0);
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        queueFor(best).poll();
+        byPatientId.remove(best.getPatient().getId());
+        return new Offer(best, bedId);
+    }
+
+    // Puts a claimed entry back after its admission did not commit
+    public synchronized void release(WaitlistEntry entry) {
+        add(entry);
+    }
+
+    // Adds a committed entry; skipped while not loaded, as the next load reads it from the table
+    public synchronized void add(WaitlistEntry entry) {
+        if (loadedGeneration == DatabaseConfig.getGeneration()
+                && byPatientId.putIfAbsent(entry.getPatient().getId(), entry) == null) {
+            queueFor(entry).add(entry);
+        }
+    }
+
+    // Drops a patient's entry after the commit that deleted it
+    public synchronized void remove(String patientId) {
+        WaitlistEntry entry = byPatientId.remove(patientId);
+        if (entry != null) {
+            queueFor(entry).remove(entry);
+        }
+    }
+
+    // Every waiting entry, most urgent first
+    public synchronized List<WaitlistEntry> getEntries() throws Exception {
+        ensureLoaded();
+        List<WaitlistEntry> entries = new ArrayList<>(byPatientId.values());
+        entries.sort(MOST_URGENT_FIRST);
+        return entries;
+    }
+
+    public synchronized int size() throws Exception {
+        ensureLoaded();
+        return byPatientId.size();
+    }
+
+    private PriorityQueue<WaitlistEntry> queueFor(WaitlistEntry entry) {
+        Gender gender = entry.getPatient().getGender();
+        return entry.getPatient().needsIsolation() ? isolationQueues.get(gender) : sharedQueues.get(gender);
+    }
+
+    private static boolean hasOtherGender(RoomVacancy room, Gender gender) {
+        return room.getOccupantGenders().size() > (room.getOccupantGenders().contains(gender.toString()) ? 1 : 0);
+    }
+
+    private void ensureLoaded() throws Exception {
+        if (loadedGeneration == DatabaseConfig.getGeneration()) {
+            return;
+        }
+        // Read after borrowing: starting the pools moves the generation on
+        List<WaitlistEntry> entries = waitlistDAO.findAll();
+        long generation = DatabaseConfig.getGeneration();
+        byPatientId.clear();
+        sharedQueues.values().forEach(PriorityQueue::clear);
+        isolationQueues.values().forEach(PriorityQueue::clear);
+        for (WaitlistEntry entry : entries) {
+            byPatientId.put(entry.getPatient().getId(), entry);
+            queueFor(entry).add(entry);
+        }
+        loadedGeneration = generation;
+    }
+}
@@ -0,0 +1,25 @@
+package CareHome.Service;
+
+import CareHome.Model.Person.Patient;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Outcome of a batch admission: the bed given to each placed patient, and who could not be placed
+public class BatchAdmissionResult {
+    private final Map<String, String> placements;   // patient id -> bed id, in batch order
+    private final List<Patient> unplaced;           // in batch order
+
+    public BatchAdmissionResult(Map<String, String> placements, List<Patient> unplaced) {
+        this.placements = Collections.unmodifiableMap(new LinkedHashMap<>(placements));
+        this.unplaced = List.copyOf(unplaced);
+    }
+
+    // Getters
+    public Map<String, String> getPlacements() { return placements; }
+    public List<Patient> getUnplaced() { return unplaced; }
+    public int getPlacedCount() { return placements.size(); }
+    public String getBedFor(String patientId) { return placements.get(patientId); }
+}
@@ -0,0 +1,13 @@
+package CareHome.Service;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import java.time.Duration;
+import java.util.List;
+
+public interface BedReservationService {
+    BedReservation holdBed(String bedId, Gender holdGender, Duration ttl, String reason) throws Exception;
+    BedReservation holdSuitableBed(Gender holdGender, boolean needsIsolation, Duration ttl, String reason) throws Exception;
+    void releaseHold(long reservationId) throws Exception;
+    List<BedReservation> getHolds() throws Exception;
+}
@@ -0,0 +1,155 @@
+package CareHome.Service;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.ActionType;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import CareHome.Model.Person.Staff;
+import CareHome.config.FacilityTopology;
+import CareHome.config.TransactionManager;
+import CareHome.dao.BedAssignmentResult;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedReservationDAO;
+import CareHome.dao.BedReservationDAOImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BedReservationServiceImpl implements BedReservationService {
+    private static final int MAX_BED_CLAIM_ATTEMPTS = 3;
+
+    private BedDAO bedDAO;
+    private BedReservationDAO reservationDAO;
+    private final HoldExpiry expiry = HoldExpiry.getInstance();
+
+    // Creates the service with DAO implementations for beds and reservations
+    public BedReservationServiceImpl() {
+        this.bedDAO = new BedDAOImpl();
+        this.reservationDAO = new BedReservationDAOImpl();
+    }
+
+    // Holds a specific free bed for ttl; refused if it is taken or its room has someone of another gender.
+    // A hold on an isolation bed is for an isolation patient, so it also needs the room to be empty.
+    @Override
+    public BedReservation holdBed(String bedId, Gender holdGender, Duration ttl, String reason) throws Exception {
+        if (bedId == null || bedId.trim().isEmpty()) {
+            throw new CareHomeException("Bed ID cannot be null or empty");
+        }
+        validateHold(holdGender, ttl);
+        expiry.ensureScheduled();
+
+        BedReservation reservation = TransactionManager.inTransaction(() -> {
+            switch (bedDAO.holdIfCompatible(bedId, holdGender.toString(), FacilityTopology.getCurrent().isIsolationBed(bedId))) {
+                case ASSIGNED -> { }
+                case BED_NOT_FOUND -> throw new CareHomeException("Bed not found: " + bedId);
+                case GENDER_CONFLICT -> throw new ComplianceException("Gender incompatibility in the target room.");
+                case ISOLATION_CONFLICT -> throw new ComplianceException("Isolation bed's room is not empty.");
+                default -> throw new ComplianceException("Target bed is already occupied");
+            }
+            return recordHold(bedId, holdGender, ttl, reason);
+        });
+
+        System.out.println("Bed " + bedId + " held until " + reservation.getExpiresAt());
+        return reservation;
+    }
+
+    // Holds the bed a patient of this gender and isolation need would be given by addPatient
+    @Override
+    public BedReservation holdSuitableBed(Gender holdGender, boolean needsIsolation, Duration ttl, String reason) throws Exception {
+        validateHold(holdGender, ttl);
+        expiry.ensureScheduled();
+
+        BedReservation reservation = TransactionManager.inTransaction(() -> {
+            for (int attempt = 0; attempt < MAX_BED_CLAIM_ATTEMPTS; attempt++) {
+                String candidate = bedDAO.findSuitableBed(holdGender.toString(), needsIsolation);
+                if (candidate == null) {
+                    break;
+                }
+                if (bedDAO.holdIfCompatible(candidate, holdGender.toString(), needsIsolation) == BedAssignmentResult.ASSIGNED) {
+                    return recordHold(candidate, holdGender, ttl, reason);
+                }
+            }
+            throw new ComplianceException("No suitable bed available to hold");
+        });
+
+        System.out.println("Bed " + reservation.getBedId() + " held until " + reservation.getExpiresAt());
+        return reservation;
+    }
+
+    // Ends a hold early and frees its bed
+    @Override
+    public void releaseHold(long reservationId) throws Exception {
+        String bedId = TransactionManager.inTransaction(() -> {
+            BedReservation reservation = reservationDAO.findById(reservationId);
+            if (reservation == null || !reservationDAO.delete(reservationId)) {
+                throw new CareHomeException("Reservation not found (it may have expired): " + reservationId);
+            }
+            bedDAO.releaseHold(reservation.getBedId());
+            TransactionManager.afterCommit(() -> expiry.cancel(reservationId));
+            TransactionManager.afterCommit(() -> new PatientServiceImpl().offerFreedBed(reservation.getBedId()));
+            new AuditLogger().logAction(getCurrentUserId(), ActionType.HOLD_BED, "Released hold #" + reservationId, reservation.getBedId());
+            return reservation.getBedId();
+        });
+
+        System.out.println("Hold on bed " + bedId + " released");
+    }
+
+    // Current holds
+    @Override
+    public List<BedReservation> getHolds() throws Exception {
+        return reservationDAO.findAll();
+    }
+
+    // Called by HoldExpiry when the hold's timeout fires. False if it has not expired by the wall clock
+    // yet; true once it is expired here, or gone because it was released or used in the meantime.
+    boolean expireHold(BedReservation reservation) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        if (!reservation.isExpired(now)) {
+            return false;
+        }
+
+        boolean expired = TransactionManager.inTransaction(() -> {
+            if (!reservationDAO.deleteIfExpired(reservation.getReservationId(), now)) {
+                return false;
+            }
+            bedDAO.releaseHold(reservation.getBedId());
+            TransactionManager.afterCommit(() -> new PatientServiceImpl().offerFreedBed(reservation.getBedId()));
+            new AuditLogger().logAction("SYSTEM", ActionType.HOLD_BED, "Hold #" + reservation.getReservationId() + " expired", reservation.getBedId());
+            return true;
+        });
+
+        if (expired) {
+            System.out.println("Hold on bed " + reservation.getBedId() + " expired");
+        }
+        return true;
+    }
+
+    // Saves the reservation row for a bed just held, and arms its expiry once the unit of work commits
+    private BedReservation recordHold(String bedId, Gender holdGender, Duration ttl, String reason) throws Exception {
+        BedReservation reservation = reservationDAO.save(bedId, holdGender, reason, getCurrentUserId(), LocalDateTime.now().plus(ttl));
+        TransactionManager.afterCommit(() -> expiry.schedule(reservation));
+        new AuditLogger().logAction(getCurrentUserId(), ActionType.HOLD_BED,
+                "Held bed for a " + holdGender + " patient until " + reservation.getExpiresAt()
+                        + (reason == null || reason.isBlank() ? "" : ": " + reason), bedId);
+        return reservation;
+    }
+
+    private void validateHold(Gender holdGender, Duration ttl) throws CareHomeException {
+        if (holdGender == null) {
+            throw new CareHomeException("Hold gender is required");
+        }
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new CareHomeException("Hold duration must be positive");
+        }
+    }
+
+    // Helper to fetch current user ID for audit entries
+    private String getCurrentUserId() {
+        Staff currentUser = new AuthenticationServiceImpl(new AuditLogger()).getCurrentUser();
+        return currentUser != null ? currentUser.getStaffId() : "SYSTEM";
+    }
+}
@@ -0,0 +1,8 @@
+package CareHome.Service;
+
+import CareHome.Model.Location.CensusSnapshot;
+
+public interface CensusService {
+    CensusSnapshot getSnapshot() throws Exception;
+    CensusSnapshot getChangesSince(long version) throws Exception;
+}
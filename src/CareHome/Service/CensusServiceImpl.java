@@ -0,0 +1,46 @@
+package CareHome.Service;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.CensusSnapshot;
+import CareHome.dao.CensusDAO;
+import CareHome.dao.CensusDAOImpl;
+
+import java.util.List;
+
+// Versioned bed census for screens that redraw often: one full load, then only the beds that changed
+public class CensusServiceImpl implements CensusService {
+    private CensusDAO censusDAO;
+
+    // Creates the service with the DAO implementation for the census
+    public CensusServiceImpl() {
+        this.censusDAO = new CensusDAOImpl();
+    }
+
+    // Every bed, stamped with the version to ask for changes since next time
+    @Override
+    public CensusSnapshot getSnapshot() throws Exception {
+        long version = censusDAO.getLatestVersion();
+        return new CensusSnapshot(version, true, censusDAO.findAllBedStates());
+    }
+
+    // Beds changed since a version from an earlier snapshot. The version is read before the beds, so
+    // a change landing in between is returned now and again next time, never missed. A version the
+    // log no longer reaches back to, or one from another database, gets a full snapshot instead.
+    @Override
+    public CensusSnapshot getChangesSince(long version) throws Exception {
+        if (version < 0) {
+            throw new CareHomeException("Census version cannot be negative");
+        }
+        long latest = censusDAO.getLatestVersion();
+        long oldest = censusDAO.getOldestVersion();
+        if (version > latest || (oldest > 0 && version < oldest - 1)) {
+            return getSnapshot();
+        }
+        if (version == latest) {
+            return new CensusSnapshot(latest, false, List.of());
+        }
+        List<BedState> changed = censusDAO.findBedStatesChangedSince(version);
+        return new CensusSnapshot(latest, false, changed);
+    }
+}
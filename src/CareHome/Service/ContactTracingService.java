@@ -0,0 +1,10 @@
+package CareHome.Service;
+
+import CareHome.Model.Medical.ContactTrace;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public interface ContactTracingService {
+    ContactTrace trace(String patientId, LocalDateTime infectiousFrom, LocalDateTime infectiousTo,
+                       Duration roomLinger, int depth) throws Exception;
+}
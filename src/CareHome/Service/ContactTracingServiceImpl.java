@@ -0,0 +1,275 @@
+package CareHome.Service;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.BedStay;
+import CareHome.Model.Medical.ContactTrace;
+import CareHome.Model.Medical.Exposure;
+import CareHome.Model.Medical.Exposure.ContactType;
+import CareHome.Model.Schedule.Shift;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedHistoryDAO;
+import CareHome.dao.BedHistoryDAOImpl;
+import CareHome.dao.PatientDAO;
+import CareHome.dao.PatientDAOImpl;
+import CareHome.dao.ShiftDAO;
+import CareHome.dao.ShiftDAOImpl;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contact tracing over bed history and the staff roster.
+ *
+ * One indexed read loads every stay overlapping the infectious period (plus the room linger),
+ * grouped by room and sorted by start. Tracing is then a breadth-first search: each level takes
+ * the time the patients found so far spent in each room, clipped to their own exposure window,
+ * and joins it against the other stays in that room. Rooms are independent, so each level's
+ * joins run in parallel, one task per room.
+ *
+ * A contact's window opens when they were first exposed and closes with the index patient's
+ * infectious period. The shifts table is a weekly roster with no ward or dates, so staff count as
+ * exposed when one of their rostered shifts falls while a traced patient was in the home. They
+ * are reported but not traced onward, since they cover every ward.
+ */
+public class ContactTracingServiceImpl implements ContactTracingService {
+    private static final Comparator<Exposure> NEAREST_FIRST = Comparator.comparingInt(Exposure::getDepth)
+            .thenComparing(Exposure::getFrom)
+            .thenComparing(Exposure::getSourcePatientId)
+            .thenComparing(Exposure::getContactId);
+
+    private PatientDAO patientDAO;
+    private BedDAO bedDAO;
+    private BedHistoryDAO historyDAO;
+    private ShiftDAO shiftDAO;
+
+    // Creates the service with DAO implementations for patients, beds, bed history and shifts
+    public ContactTracingServiceImpl() {
+        this.patientDAO = new PatientDAOImpl();
+        this.bedDAO = new BedDAOImpl();
+        this.historyDAO = new BedHistoryDAOImpl();
+        this.shiftDAO = new ShiftDAOImpl();
+    }
+
+    // Patients who shared a room with the index patient (or were in it within roomLinger of them
+    // leaving) during [infectiousFrom, infectiousTo), their contacts in turn up to depth levels,
+    // and the staff rostered while any of them were in.
+    @Override
+    public ContactTrace trace(String patientId, LocalDateTime infectiousFrom, LocalDateTime infectiousTo,
+                              Duration roomLinger, int depth) throws Exception {
+        if (patientId == null || patientId.trim().isEmpty()) {
+            throw new CareHomeException("Patient ID cannot be null or empty");
+        }
+        if (infectiousFrom == null || infectiousTo == null || !infectiousTo.isAfter(infectiousFrom)) {
+            throw new CareHomeException("Infectious period must have a start before its end");
+        }
+        if (roomLinger == null || roomLinger.isNegative()) {
+            throw new CareHomeException("Room linger cannot be negative");
+        }
+        if (depth < 1) {
+            throw new CareHomeException("Trace depth must be at least 1");
+        }
+        if (patientDAO.findById(patientId) == null) {
+            throw new CareHomeException("Patient not found: " + patientId);
+        }
+
+        LocalDateTime horizon = infectiousTo.plus(roomLinger);
+        Map<String, String> roomOfBed = new HashMap<>();
+        for (Bed bed : bedDAO.getAllBeds()) {
+            roomOfBed.put(bed.getBedId(), bed.getWardId() + " room " + bed.getRoomNumber());
+        }
+        Map<String, List<BedStay>> staysByRoom = new HashMap<>();
+        Map<String, List<BedStay>> staysByPatient = new HashMap<>();
+        for (BedStay stay : historyDAO.findStaysBetween(infectiousFrom, horizon)) {
+            // A bed no longer in the layout is treated as a room of its own
+            staysByRoom.computeIfAbsent(roomOfBed.getOrDefault(stay.getBedId(), stay.getBedId()), room -> new ArrayList<>()).add(stay);
+            staysByPatient.computeIfAbsent(stay.getPatientId(), patient -> new ArrayList<>()).add(stay);
+        }
+        Map<String, RoomHistory> rooms = new HashMap<>();
+        staysByRoom.forEach((room, stays) -> rooms.put(room, new RoomHistory(room, stays, horizon)));
+        Map<DayOfWeek, List<Shift>> roster = new EnumMap<>(DayOfWeek.class);
+        Set<String> rosteredStaff = new HashSet<>();
+        for (Shift shift : shiftDAO.getAllShifts()) {
+            roster.computeIfAbsent(shift.getDayOfWeek(), day -> new ArrayList<>()).add(shift);
+            rosteredStaff.add(shift.getAssignedStaffId());
+        }
+
+        List<Exposure> exposures = new ArrayList<>();
+        Map<String, Exposure> staff = new HashMap<>();
+        Set<String> traced = new HashSet<>(Set.of(patientId));
+        Map<String, LocalDateTime> frontier = Map.of(patientId, infectiousFrom);   // patient -> start of their window
+        for (int level = 1; level <= depth && !frontier.isEmpty(); level++) {
+            Map<String, List<Visit>> visitsByRoom = new HashMap<>();
+            for (Map.Entry<String, LocalDateTime> traceCase : frontier.entrySet()) {
+                for (BedStay stay : staysByPatient.getOrDefault(traceCase.getKey(), List.of())) {
+                    LocalDateTime start = later(stay.getStart(), traceCase.getValue());
+                    LocalDateTime end = stay.isOpen() ? infectiousTo : earlier(stay.getEnd(), infectiousTo);
+                    if (start.isBefore(end)) {
+                        visitsByRoom.computeIfAbsent(roomOfBed.getOrDefault(stay.getBedId(), stay.getBedId()), room -> new ArrayList<>())
+                                .add(new Visit(traceCase.getKey(), start, end));
+                    }
+                }
+            }
+
+            int currentLevel = level;
+            if (staff.size() < rosteredStaff.size()) {   // once everyone is found, deeper levels cannot come nearer
+                for (List<Visit> visits : visitsByRoom.values()) {
+                    for (Visit visit : visits) {
+                        addStaffExposures(visit, roster, currentLevel, staff);
+                    }
+                }
+            }
+            List<Exposure> found = visitsByRoom.entrySet().parallelStream()
+                    .flatMap(entry -> rooms.get(entry.getKey()).exposuresTo(entry.getValue(), roomLinger, currentLevel).stream())
+                    .toList();
+
+            // Each newly reached patient keeps their earliest exposure, which also opens their window
+            Map<String, Exposure> reached = new HashMap<>();
+            for (Exposure exposure : found) {
+                if (!traced.contains(exposure.getContactId())) {
+                    reached.merge(exposure.getContactId(), exposure, ContactTracingServiceImpl::nearer);
+                }
+            }
+            Map<String, LocalDateTime> next = new HashMap<>();
+            for (Exposure exposure : reached.values()) {
+                exposures.add(exposure);
+                traced.add(exposure.getContactId());
+                next.put(exposure.getContactId(), exposure.getFrom());
+            }
+            frontier = next;
+        }
+
+        exposures.addAll(staff.values());
+        exposures.sort(NEAREST_FIRST);
+        ContactTrace trace = new ContactTrace(patientId, infectiousFrom, infectiousTo, exposures);
+        System.out.println("Traced " + trace.getPatientExposures().size() + " patient and "
+                + trace.getStaffExposures().size() + " staff contacts of " + patientId);
+        return trace;
+    }
+
+    // Staff rostered at some point during the visit. Shifts do not cross midnight, so the visit's
+    // first eight calendar days meet every rostered shift the visit can overlap at least once.
+    private void addStaffExposures(Visit visit, Map<DayOfWeek, List<Shift>> roster, int depth, Map<String, Exposure> staff) {
+        LocalDate day = visit.start.toLocalDate();
+        LocalDate lastDay = visit.end.toLocalDate();
+        for (int i = 0; i < 8 && !day.isAfter(lastDay); i++, day = day.plusDays(1)) {
+            for (Shift shift : roster.getOrDefault(day.getDayOfWeek(), List.of())) {
+                Exposure found = staff.get(shift.getAssignedStaffId());
+                if (found != null && found.getDepth() < depth) {
+                    continue;
+                }
+                LocalDateTime shiftStart = day.atTime(shift.getShiftType().getStartHour(), 0);
+                LocalDateTime shiftEnd = day.atTime(shift.getShiftType().getEndHour(), 0);
+                if (shiftStart.isBefore(visit.end) && shiftEnd.isAfter(visit.start)) {
+                    Exposure exposure = new Exposure(shift.getAssignedStaffId(), ContactType.STAFF, visit.patientId, depth,
+                            shift.getShiftType() + " shift", later(shiftStart, visit.start), earlier(shiftEnd, visit.end));
+                    staff.merge(shift.getAssignedStaffId(), exposure, ContactTracingServiceImpl::nearer);
+                }
+            }
+        }
+    }
+
+    private static Exposure nearer(Exposure a, Exposure b) {
+        return NEAREST_FIRST.compare(a, b) <= 0 ? a : b;
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // Local times compared as plain numbers for the searches
+    private static long sortKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // Time a traced patient spent in one room, within their exposure window
+    private static final class Visit {
+        private final String patientId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Visit(String patientId, LocalDateTime start, LocalDateTime end) {
+            this.patientId = patientId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    // The stays in one room, sorted by start. No stay is longer than the longest one here, so only
+    // stays starting after (visit start - longest stay) can overlap a visit: a binary search finds
+    // the first, and the scan ends at the first stay starting after the visit (plus linger).
+    private static final class RoomHistory {
+        private final String room;
+        private final LocalDateTime horizon;
+        private final BedStay[] stays;
+        private final long[] starts;
+        private final long longestSeconds;
+
+        private RoomHistory(String room, List<BedStay> roomStays, LocalDateTime horizon) {
+            this.room = room;
+            this.horizon = horizon;
+            this.stays = roomStays.toArray(new BedStay[0]);
+            Arrays.sort(stays, Comparator.comparing(BedStay::getStart));
+            this.starts = new long[stays.length];
+            long longest = 0;
+            for (int i = 0; i < stays.length; i++) {
+                starts[i] = sortKey(stays[i].getStart());
+                longest = Math.max(longest, sortKey(endOf(stays[i])) - starts[i]);
+            }
+            this.longestSeconds = longest;
+        }
+
+        private List<Exposure> exposuresTo(List<Visit> visits, Duration linger, int depth) {
+            List<Exposure> exposures = new ArrayList<>();
+            for (Visit visit : visits) {
+                LocalDateTime reach = visit.end.plus(linger);
+                long reachKey = sortKey(reach);
+                for (int i = firstStartingFrom(sortKey(visit.start) - longestSeconds); i < stays.length && starts[i] < reachKey; i++) {
+                    BedStay stay = stays[i];
+                    LocalDateTime stayEnd = endOf(stay);
+                    if (stay.getPatientId().equals(visit.patientId) || !stayEnd.isAfter(visit.start)) {
+                        continue;
+                    }
+                    exposures.add(new Exposure(stay.getPatientId(), ContactType.PATIENT, visit.patientId, depth, room,
+                            later(stay.getStart(), visit.start), earlier(stayEnd, reach)));
+                }
+            }
+            return exposures;
+        }
+
+        private int firstStartingFrom(long key) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private LocalDateTime endOf(BedStay stay) {
+            return stay.isOpen() ? horizon : stay.getEnd();
+        }
+    }
+}
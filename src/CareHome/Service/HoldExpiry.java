@@ -0,0 +1,105 @@
+package CareHome.Service;
+
+import CareHome.Model.Location.BedReservation;
+import CareHome.config.DatabaseConfig;
+import CareHome.dao.BedReservationDAO;
+import CareHome.dao.BedReservationDAOImpl;
+import CareHome.util.HashedTimerWheel;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires bed holds on time without scanning bed_reservations: every hold gets one timeout on a
+ * hashed timer wheel, scheduled when the hold commits and cancelled when it is released or used.
+ * The table is read once per database (start-up, or after the pools were reopened) to schedule
+ * holds made before then.
+ */
+public final class HoldExpiry {
+    private static final HoldExpiry INSTANCE = new HoldExpiry();
+
+    // 200 ms ticks, 512 buckets: a turn of the wheel is about 100 s, so hours-long holds wait a few turns
+    private static final long TICK_MILLIS = 200;
+    private static final int WHEEL_SIZE = 512;
+
+    private final BedReservationDAO reservationDAO = new BedReservationDAOImpl();
+    private final HashedTimerWheel wheel = new HashedTimerWheel("bed-hold-expiry", TICK_MILLIS, TimeUnit.MILLISECONDS, WHEEL_SIZE);
+    private final Map<Long, HashedTimerWheel.Timeout> timeouts = new HashMap<>();
+    private long loadedGeneration = -1;
+
+    private HoldExpiry() {
+    }
+
+    public static HoldExpiry getInstance() {
+        return INSTANCE;
+    }
+
+    // Schedules the expiry of every hold in the current database, once per database
+    public synchronized void ensureScheduled() throws Exception {
+        if (loadedGeneration == DatabaseConfig.getGeneration()) {
+            return;
+        }
+        // Read after borrowing: starting the pools moves the generation on
+        List<BedReservation> reservations = reservationDAO.findAll();
+        long generation = DatabaseConfig.getGeneration();
+        timeouts.values().forEach(HashedTimerWheel.Timeout::cancel);
+        timeouts.clear();
+        loadedGeneration = generation;
+        for (BedReservation reservation : reservations) {
+            schedule(reservation);
+        }
+    }
+
+    // Holds currently waiting to expire
+    public synchronized int getScheduledCount() {
+        return timeouts.size();
+    }
+
+    // Arms the expiry of a committed hold; skipped while not loaded, as the next load schedules it
+    synchronized void schedule(BedReservation reservation) {
+        if (loadedGeneration != DatabaseConfig.getGeneration()) {
+            return;
+        }
+        long delayMillis = Math.max(Duration.between(LocalDateTime.now(), reservation.getExpiresAt()).toMillis(), 0);
+        long generation = loadedGeneration;
+        HashedTimerWheel.Timeout previous = timeouts.put(reservation.getReservationId(),
+                wheel.schedule(() -> expire(reservation, generation), delayMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    // Disarms the expiry of a hold that was released or used
+    synchronized void cancel(long reservationId) {
+        HashedTimerWheel.Timeout timeout = timeouts.remove(reservationId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    // Runs on the wheel's thread
+    private void expire(BedReservation reservation, long generation) {
+        try {
+            synchronized (this) {
+                if (generation != DatabaseConfig.getGeneration()) {
+                    // Pools were reopened or the database changed: reschedule from the table instead
+                    ensureScheduled();
+                    return;
+                }
+                timeouts.remove(reservation.getReservationId());
+            }
+            if (!new BedReservationServiceImpl().expireHold(reservation)) {
+                // Still running by the wall clock (the wheel runs on nanoTime): try again
+                synchronized (this) {
+                    schedule(reservation);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Expiring " + reservation + " failed: " + e.getMessage());
+        }
+    }
+}
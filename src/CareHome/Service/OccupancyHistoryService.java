@@ -0,0 +1,14 @@
+package CareHome.Service;
+
+import CareHome.Model.Location.BedStay;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+
+public interface OccupancyHistoryService {
+    BedStay getOccupantAt(String bedId, LocalDateTime at) throws Exception;
+    List<BedStay> getStaysInBed(String bedId, LocalDateTime from, LocalDateTime to) throws Exception;
+    List<BedStay> getCensusAt(LocalDateTime at) throws Exception;
+    SortedMap<LocalDate, Integer> getDailyCensus(LocalDate from, LocalDate to) throws Exception;
+}
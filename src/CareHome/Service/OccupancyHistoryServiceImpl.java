@@ -0,0 +1,110 @@
+package CareHome.Service;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Location.BedStay;
+import CareHome.dao.BedHistoryDAO;
+import CareHome.dao.BedHistoryDAOImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Read-only questions about past occupancy, for incident investigations and census reports
+public class OccupancyHistoryServiceImpl implements OccupancyHistoryService {
+    private BedHistoryDAO historyDAO;
+
+    // Creates the service with the DAO implementation for bed history
+    public OccupancyHistoryServiceImpl() {
+        this.historyDAO = new BedHistoryDAOImpl();
+    }
+
+    // Who was in the bed at this instant; null if it was empty
+    @Override
+    public BedStay getOccupantAt(String bedId, LocalDateTime at) throws Exception {
+        validateBedId(bedId);
+        if (at == null) {
+            throw new CareHomeException("Time is required");
+        }
+        return historyDAO.findStayAt(bedId, at);
+    }
+
+    // Everyone who was in the bed at some point in [from, to), e.g. one calendar day
+    @Override
+    public List<BedStay> getStaysInBed(String bedId, LocalDateTime from, LocalDateTime to) throws Exception {
+        validateBedId(bedId);
+        validateRange(from, to);
+        return historyDAO.findStaysInBed(bedId, from, to);
+    }
+
+    // Every occupied bed at this instant
+    @Override
+    public List<BedStay> getCensusAt(LocalDateTime at) throws Exception {
+        if (at == null) {
+            throw new CareHomeException("Time is required");
+        }
+        return historyDAO.findStaysAt(at);
+    }
+
+    // Occupied beds at midnight at the start of each day from..to inclusive. One read of the stays
+    // overlapping the period, then a sweep over their sorted start and end times, so a year of days
+    // costs about the same as one.
+    @Override
+    public SortedMap<LocalDate, Integer> getDailyCensus(LocalDate from, LocalDate to) throws Exception {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new CareHomeException("Census period must have a start no later than its end");
+        }
+        LocalDateTime firstMidnight = from.atStartOfDay();
+        LocalDateTime lastMidnight = to.atStartOfDay();
+        List<BedStay> stays = historyDAO.findStaysBetween(firstMidnight, lastMidnight.plusSeconds(1));
+
+        long[] starts = new long[stays.size()];
+        long[] ends = new long[stays.size()];
+        int endCount = 0;
+        for (int i = 0; i < stays.size(); i++) {
+            BedStay stay = stays.get(i);
+            starts[i] = sortKey(stay.getStart());
+            if (!stay.isOpen()) {
+                ends[endCount++] = sortKey(stay.getEnd());
+            }
+        }
+        Arrays.sort(starts);
+        Arrays.sort(ends, 0, endCount);
+
+        // At each midnight: stays started by then, less stays ended by then
+        SortedMap<LocalDate, Integer> census = new TreeMap<>();
+        int started = 0;
+        int ended = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long midnight = sortKey(day.atStartOfDay());
+            while (started < starts.length && starts[started] <= midnight) {
+                started++;
+            }
+            while (ended < endCount && ends[ended] <= midnight) {
+                ended++;
+            }
+            census.put(day, started - ended);
+        }
+        return census;
+    }
+
+    // Local times compared as plain numbers for the sweep
+    private static long sortKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private void validateBedId(String bedId) throws CareHomeException {
+        if (bedId == null || bedId.trim().isEmpty()) {
+            throw new CareHomeException("Bed ID cannot be null or empty");
+        }
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) throws CareHomeException {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new CareHomeException("Period must have a start before its end");
+        }
+    }
+}
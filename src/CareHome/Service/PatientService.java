@@ -1,13 +1,22 @@
 package CareHome.Service;
 
 import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import CareHome.Model.Location.Bed;
+import CareHome.Model.Admission.WaitlistEntry;
 import java.util.List;
 
 public interface PatientService {
     void addPatient(Patient patient) throws Exception;
+    boolean addPatientOrWaitlist(Patient patient, int priority) throws Exception;
+    void addPatientToHold(Patient patient, long reservationId) throws Exception;
+    List<WaitlistEntry> getWaitlist() throws Exception;
+    void removeFromWaitlist(String patientId) throws Exception;
+    BatchAdmissionResult admitPatients(List<Patient> patients) throws Exception;
     Patient findPatientById(String patientId) throws Exception;
     List<Patient> getAllPatients() throws Exception;
+    List<PatientBedView> getPatientBedViews() throws Exception;
+    PatientBedView getPatientBedView(String id) throws Exception;
     void movePatient(String patientId, String newBedId) throws Exception;
     void dischargePatient(String patientId) throws Exception;
 
@@ -3,77 +3,244 @@ package CareHome.Service;
 import CareHome.Model.Location.Ward;
 import CareHome.Service.PatientService;
 import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import CareHome.dao.PatientDAO;
 import CareHome.dao.PatientDAOImpl;
 import CareHome.dao.BedDAO;
 import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedAssignmentResult;
 import CareHome.Exception.ComplianceException;
 import CareHome.Exception.CareHomeException;
 import CareHome.Model.ActionType;
 import CareHome.Model.Audit.AuditLogger;
 import CareHome.Model.Person.Staff;
-
+import CareHome.config.TransactionManager;
+import CareHome.dao.BedOccupancyIndex;
+import CareHome.dao.BedOccupancyIndex.RoomVacancy;
+import CareHome.dao.WaitlistDAO;
+import CareHome.dao.BedReservationDAO;
+import CareHome.dao.BedReservationDAOImpl;
+import CareHome.Model.Location.BedReservation;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.WaitlistDAOImpl;
+import CareHome.Model.Admission.WaitlistEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PatientServiceImpl implements PatientService {
+    private static final int MAX_BED_CLAIM_ATTEMPTS = 3;
+
     private PatientDAO patientDAO;
     private BedDAO bedDAO;
+    private WaitlistDAO waitlistDAO;
+    private BedReservationDAO reservationDAO;
+    private final AdmissionWaitlist waitlist = AdmissionWaitlist.getInstance();
 
     // Creates the service with DAO implementations for patients and beds
     public PatientServiceImpl() {
         this.patientDAO = new PatientDAOImpl();
         this.bedDAO = new BedDAOImpl();
+        this.waitlistDAO = new WaitlistDAOImpl();
+        this.reservationDAO = new BedReservationDAOImpl();
     }
 
     // Validates input, ensures unique ID, finds suitable bed, persists patient and assignments, and audits
     @Override
     public void addPatient(Patient patient) throws Exception {
-        // Validate patient data
-        if (patient == null) {
-            throw new CareHomeException("Patient cannot be null");
-        }
+        validatePatient(patient);
 
-        if (patient.getFirstName() == null || patient.getFirstName().trim().isEmpty()) {
-            throw new CareHomeException("Patient first name is required");
-        }
+        // Lookup, insert, bed assignment and history row commit together; the audit entry is
+        // queued for AuditWriter only once that commit succeeds
+        String assignedBedId = TransactionManager.inTransaction(() -> {
+            checkNotRegistered(patient);
 
-        if (patient.getLastName() == null || patient.getLastName().trim().isEmpty()) {
-            throw new CareHomeException("Patient last name is required");
-        }
+            String suitableBedId = placeNewPatient(patient);
+            if (suitableBedId == null) {
+                throw new ComplianceException("No suitable bed available for patient");
+            }
 
-        if (patient.getPatientId() == null || patient.getPatientId().trim().isEmpty()) {
-            throw new CareHomeException("Patient ID is required");
+            // Log the action using the shared logger
+            new AuthenticationServiceImpl(new AuditLogger()).getAuditLogger().logAction(getCurrentUserId(), ActionType.ADD_PATIENT, "Added new patient", patient.getPatientId());
+            return suitableBedId;
+        });
+
+        System.out.println("Patient " + patient.getName() + " assigned to bed " + assignedBedId);
+    }
+
+    // Admits the patient as addPatient does, or puts them on the waitlist when no suitable bed is free.
+    // Waiting patients are admitted by the first discharge or move that frees a bed they can take.
+    @Override
+    public boolean addPatientOrWaitlist(Patient patient, int priority) throws Exception {
+        validatePatient(patient);
+
+        String assignedBedId = TransactionManager.inTransaction(() -> {
+            checkNotRegistered(patient);
+
+            AuditLogger auditLogger = new AuthenticationServiceImpl(new AuditLogger()).getAuditLogger();
+            String suitableBedId = placeNewPatient(patient);
+            if (suitableBedId == null) {
+                WaitlistEntry entry = waitlistDAO.add(patient, priority);
+                TransactionManager.afterCommit(() -> waitlist.add(entry));
+                auditLogger.logAction(getCurrentUserId(), ActionType.WAITLIST_PATIENT, "Added to admission waitlist (priority " + priority + ")", patient.getPatientId());
+            } else {
+                auditLogger.logAction(getCurrentUserId(), ActionType.ADD_PATIENT, "Added new patient", patient.getPatientId());
+            }
+            return suitableBedId;
+        });
+
+        if (assignedBedId == null) {
+            System.out.println("No suitable bed for " + patient.getName() + ", added to the waitlist");
+            return false;
         }
+        System.out.println("Patient " + patient.getName() + " assigned to bed " + assignedBedId);
+        return true;
+    }
 
-        // Check if patient ID already exists in database
-        Patient existing = patientDAO.findById(patient.getId());
-        if (existing != null) {
-            throw new ComplianceException("Patient with ID " + patient.getId() + " already exists");
+    // Admits the patient into a bed held for them (see BedReservationService), ending the hold
+    @Override
+    public void addPatientToHold(Patient patient, long reservationId) throws Exception {
+        validatePatient(patient);
+
+        String bedId = TransactionManager.inTransaction(() -> {
+            checkNotRegistered(patient);
+
+            BedReservation reservation = reservationDAO.findById(reservationId);
+            if (reservation == null) {
+                throw new ComplianceException("Hold #" + reservationId + " has expired or was released");
+            }
+            if (reservation.getHoldGender() != patient.getGender()) {
+                throw new ComplianceException("Bed " + reservation.getBedId() + " is held for a " + reservation.getHoldGender() + " patient");
+            }
+            if (patient.needsIsolation() != FacilityTopology.getCurrent().isIsolationBed(reservation.getBedId())) {
+                throw new ComplianceException(patient.needsIsolation()
+                        ? "Isolation patients need a reserved isolation bed"
+                        : "Bed " + reservation.getBedId() + " is reserved for isolation");
+            }
+
+            // Deleting the row first means a hold that expires at this moment is either used or expired, never both
+            if (!reservationDAO.delete(reservationId)) {
+                throw new ComplianceException("Hold #" + reservationId + " has expired or was released");
+            }
+            patientDAO.save(patient);
+            if (!bedDAO.assignHeldBed(reservation.getBedId(), patient.getId(), patient.getGender().toString())) {
+                throw new ComplianceException("Bed " + reservation.getBedId() + " is no longer held");
+            }
+            patientDAO.assignBedToPatient(patient.getId(), reservation.getBedId());
+            TransactionManager.afterCommit(() -> HoldExpiry.getInstance().cancel(reservationId));
+
+            new AuditLogger().logAction(getCurrentUserId(), ActionType.ADD_PATIENT, "Added new patient into held bed (hold #" + reservationId + ")", patient.getPatientId());
+            return reservation.getBedId();
+        });
+
+        System.out.println("Patient " + patient.getName() + " assigned to held bed " + bedId);
+    }
+
+    // Waiting patients, most urgent first
+    @Override
+    public List<WaitlistEntry> getWaitlist() throws Exception {
+        return waitlistDAO.findAll();
+    }
+
+    // Takes a waiting patient off the waitlist without admitting them
+    @Override
+    public void removeFromWaitlist(String patientId) throws Exception {
+        if (patientId == null || patientId.trim().isEmpty()) {
+            throw new CareHomeException("Patient ID cannot be null or empty");
         }
 
-        // Find suitable bed in database
-        String suitableBedId = bedDAO.findSuitableBed(
-                patient.getGender().toString(),
-                patient.needsIsolation()
-        );
+        TransactionManager.run(() -> {
+            WaitlistEntry entry = waitlistDAO.findByPatientId(patientId);
+            if (entry == null || !waitlistDAO.remove(entry.getEntryId())) {
+                throw new CareHomeException("Patient not on the waitlist: " + patientId);
+            }
+            TransactionManager.afterCommit(() -> waitlist.remove(patientId));
+            new AuditLogger().logAction(getCurrentUserId(), ActionType.WAITLIST_PATIENT, "Removed from admission waitlist", entry.getPatient().getPatientId());
+        });
+    }
 
-        if (suitableBedId == null) {
-            throw new ComplianceException("No suitable bed available for patient");
+    // Plans beds for the whole batch in memory (see AdmissionPlanner), then saves, assigns and audits
+    // every placed patient in one transaction. Patients without a bed are not saved and are returned.
+    @Override
+    public BatchAdmissionResult admitPatients(List<Patient> patients) throws Exception {
+        if (patients == null) {
+            throw new CareHomeException("Patient list cannot be null");
+        }
+        Set<String> batchIds = new HashSet<>();
+        for (Patient patient : patients) {
+            validatePatient(patient);
+            if (!batchIds.add(patient.getId())) {
+                throw new ComplianceException("Patient with ID " + patient.getId() + " appears twice in the batch");
+            }
         }
 
-        // Save patient to database first
-        patientDAO.save(patient);
+        // A stale plan can only be retried from a unit of work of our own
+        boolean canReplan = !TransactionManager.isActive();
+        BatchAdmissionResult result;
+        try {
+            result = TransactionManager.inTransaction(() -> writeBatch(patients, false, canReplan));
+        } catch (StalePlanException e) {
+            System.out.println("Batch admission: " + e.getMessage() + " was taken by another client, replanning");
+            result = TransactionManager.inTransaction(() -> writeBatch(patients, true, false));
+        }
 
-        // Then assign bed in database, which marks it as occupied
-        bedDAO.assignPatientToBed(suitableBedId, patient.getId());
+        System.out.println("Batch admission: " + result.getPlacedCount() + " of " + patients.size()
+                + " patients placed, " + result.getUnplaced().size() + " without a suitable bed");
+        return result;
+    }
 
-        // Finally, log the assignment in the history table
-        patientDAO.assignBedToPatient(patient.getId(), suitableBedId);
+    // The index only sees this process's commits, so another terminal may have taken a planned bed
+    // since it last loaded. Each placement is therefore written with the conditional assignIfCompatible.
+    // A refused bed rolls the unit back (StalePlanException) when replanning is possible; the retry
+    // reloads the index first, which is exact because the unit holds the write lock from BEGIN
+    // IMMEDIATE. Otherwise the patient is reported as unplaced.
+    private BatchAdmissionResult writeBatch(List<Patient> patients, boolean reloadIndex, boolean throwIfStale) throws Exception {
+        for (Patient patient : patients) {
+            checkNotRegistered(patient);
+        }
+        BedOccupancyIndex index = BedOccupancyIndex.getInstance();
+        if (reloadIndex) {
+            index.reload();
+        }
+        BatchAdmissionResult plan = AdmissionPlanner.plan(patients, index.getRoomVacancies());
+
+        AuditLogger auditLogger = new AuthenticationServiceImpl(new AuditLogger()).getAuditLogger();
+        String userId = getCurrentUserId();
+        Map<String, String> placements = new LinkedHashMap<>();
+        List<Patient> unplaced = new ArrayList<>();
+        for (Patient patient : patients) {
+            String bedId = plan.getBedFor(patient.getId());
+            if (bedId == null) {
+                unplaced.add(patient);
+                continue;
+            }
+            // Claimed before the patient row is saved, so a refused patient leaves nothing behind
+            if (bedDAO.assignIfCompatible(bedId, patient.getId(), patient.getGender().toString(), patient.needsIsolation()) != BedAssignmentResult.ASSIGNED) {
+                if (throwIfStale) {
+                    throw new StalePlanException(bedId);
+                }
+                unplaced.add(patient);
+                continue;
+            }
+            patientDAO.save(patient);
+            patientDAO.assignBedToPatient(patient.getId(), bedId);
+            auditLogger.logAction(userId, ActionType.ADD_PATIENT, "Added new patient (batch admission)", patient.getPatientId());
+            placements.put(patient.getId(), bedId);
+        }
+        return new BatchAdmissionResult(placements, unplaced);
+    }
 
-        // Log the action using the shared logger
-        new AuthenticationServiceImpl(new AuditLogger()).getAuditLogger().logAction(getCurrentUserId(), ActionType.ADD_PATIENT, "Added new patient", patient.getPatientId());
+    // Signals that a batch plan was made from an index another process's writes had overtaken
+    private static final class StalePlanException extends Exception {
+        private static final long serialVersionUID = 1L;
 
-        System.out.println("Patient " + patient.getName() + " assigned to bed " + suitableBedId);
+        private StalePlanException(String bedId) {
+            super("Planned bed " + bedId);
+        }
     }
 
     // Fetches a patient by ID after validating input
@@ -91,6 +258,21 @@ public class PatientServiceImpl implements PatientService {
         return patientDAO.findAll();
     }
 
+    // Returns every active patient with their current bed, for listings, from one query
+    @Override
+    public List<PatientBedView> getPatientBedViews() throws Exception {
+        return patientDAO.findActiveWithBeds();
+    }
+
+    // One active patient's listing row by internal id, or null once discharged
+    @Override
+    public PatientBedView getPatientBedView(String id) throws Exception {
+        if (id == null || id.trim().isEmpty()) {
+            throw new CareHomeException("Patient ID cannot be null or empty");
+        }
+        return patientDAO.findActiveWithBed(id);
+    }
+
     // Performs cross-table move (free old bed, end assignment, assign new bed, start assignment) and audits
     @Override
     public void movePatient(String patientId, String newBedId) throws Exception {
@@ -103,37 +285,38 @@ public class PatientServiceImpl implements PatientService {
             throw new CareHomeException("Bed ID cannot be null or empty");
         }
 
-        // Find the patient
-        Patient patient = patientDAO.findById(patientId);
-        if (patient == null) {
-            throw new CareHomeException("Patient not found with ID: " + patientId);
-        }
-
-        // Check if target bed is available
-        if (!bedDAO.isBedAvailable(newBedId)) {
-            throw new ComplianceException("Target bed is already occupied");
-        }
-
-        // Check for gender compatibility
-        if (!bedDAO.isRoomGenderCompatible(newBedId, patient.getGender().toString())) {
-            throw new ComplianceException("Gender incompatibility in the target room.");
-        }
-
-        // Find patient's current bed
-        String currentBedId = bedDAO.findPatientBed(patientId);
-        if (currentBedId == null) {
-            throw new CareHomeException("Patient not found in any bed");
-        }
-
-        // End the old bed assignment in both tables
-        bedDAO.freeBed(currentBedId);
-        patientDAO.endBedAssignment(patientId);
-
-        // Start the new bed assignment in both tables
-        bedDAO.assignPatientToBed(newBedId, patientId);
-        patientDAO.assignBedToPatient(patientId, newBedId);
-
-        new AuditLogger().logAction(getCurrentUserId(), ActionType.MOVE_PATIENT, "Moved patient to bed: " + newBedId, patient.getPatientId());
+        // Checks and both table updates run as one unit so beds and patient_bed cannot drift apart
+        String currentBedId = TransactionManager.inTransaction(() -> {
+            // Find the patient
+            Patient patient = patientDAO.findById(patientId);
+            if (patient == null) {
+                throw new CareHomeException("Patient not found with ID: " + patientId);
+            }
+
+            // Find patient's current bed
+            String oldBedId = bedDAO.findPatientBed(patientId);
+            if (oldBedId == null) {
+                throw new CareHomeException("Patient not found in any bed");
+            }
+
+            // Availability, gender and isolation checks are part of the write itself, so nothing can change in between
+            switch (bedDAO.assignIfCompatible(newBedId, patientId, patient.getGender().toString(), patient.needsIsolation())) {
+                case ASSIGNED -> { }
+                case BED_NOT_FOUND -> throw new CareHomeException("Bed not found: " + newBedId);
+                case GENDER_CONFLICT -> throw new ComplianceException("Gender incompatibility in the target room.");
+                case ISOLATION_CONFLICT -> throw new ComplianceException("Target bed is reserved for isolation.");
+                default -> throw new ComplianceException("Target bed is already occupied");
+            }
+
+            // Move the assignment over in both tables
+            bedDAO.freeBed(oldBedId);
+            patientDAO.endBedAssignment(patientId);
+            patientDAO.assignBedToPatient(patientId, newBedId);
+
+            new AuditLogger().logAction(getCurrentUserId(), ActionType.MOVE_PATIENT, "Moved patient to bed: " + newBedId, patient.getPatientId());
+            TransactionManager.afterCommit(() -> offerFreedBed(oldBedId));
+            return oldBedId;
+        });
 
         System.out.println("Patient moved from " + currentBedId + " to " + newBedId);
     }
@@ -145,21 +328,25 @@ public class PatientServiceImpl implements PatientService {
             throw new CareHomeException("Patient ID cannot be null or empty");
         }
 
-        Patient patient = patientDAO.findById(patientId);
-        if (patient == null) {
-            throw new CareHomeException("Patient not found with ID: " + patientId);
-        }
+        String bedId = TransactionManager.inTransaction(() -> {
+            Patient patient = patientDAO.findById(patientId);
+            if (patient == null) {
+                throw new CareHomeException("Patient not found with ID: " + patientId);
+            }
 
-        // Find and free patient's bed
-        String bedId = bedDAO.findPatientBed(patientId);
-        if (bedId != null) {
-            bedDAO.freeBed(bedId);
-        }
+            // Find and free patient's bed
+            String occupiedBedId = bedDAO.findPatientBed(patientId);
+            if (occupiedBedId != null) {
+                bedDAO.freeBed(occupiedBedId);
+                TransactionManager.afterCommit(() -> offerFreedBed(occupiedBedId));
+            }
 
-        // Discharge from database (soft delete)
-        patientDAO.discharge(patientId);
+            // Discharge from database (soft delete)
+            patientDAO.discharge(patientId);
 
-        new AuditLogger().logAction(getCurrentUserId(), ActionType.DISCHARGE_PATIENT, "Patient discharged", patient.getPatientId());
+            new AuditLogger().logAction(getCurrentUserId(), ActionType.DISCHARGE_PATIENT, "Patient discharged", patient.getPatientId());
+            return occupiedBedId;
+        });
 
         System.out.println("Patient discharged, bed " + bedId + " is now available");
     }
@@ -169,6 +356,115 @@ public class PatientServiceImpl implements PatientService {
         return bedDAO.findPatientBed(patientId);
     }
 
+    // Offers the free beds in a freed bed's room to the waitlist, most urgent compatible patient first,
+    // until the room has nothing left that anyone waiting can take. Runs after the freeing commit.
+    void offerFreedBed(String bedId) {
+        try {
+            while (true) {
+                RoomVacancy room = BedOccupancyIndex.getInstance().getRoomVacancy(bedId);
+                AdmissionWaitlist.Offer offer = room == null ? null : waitlist.claim(room);
+                if (offer == null || !admitFromWaitlist(offer)) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Waitlist matching failed for bed " + bedId + ": " + e.getMessage());
+        }
+    }
+
+    // Admits a claimed entry into its offered bed. False if the bed was taken meanwhile (the entry goes
+    // back on the waitlist) or another client already admitted or removed the entry.
+    private boolean admitFromWaitlist(AdmissionWaitlist.Offer offer) throws Exception {
+        WaitlistEntry entry = offer.getEntry();
+        Patient patient = entry.getPatient();
+        boolean admitted;
+        try {
+            admitted = TransactionManager.inTransaction(() -> {
+                if (!waitlistDAO.remove(entry.getEntryId())) {
+                    return false;
+                }
+                patientDAO.save(patient);
+                if (bedDAO.assignIfCompatible(offer.getBedId(), patient.getId(), patient.getGender().toString(), patient.needsIsolation()) != BedAssignmentResult.ASSIGNED) {
+                    throw new ComplianceException("Bed " + offer.getBedId() + " is no longer free for " + patient.getId());
+                }
+                patientDAO.assignBedToPatient(patient.getId(), offer.getBedId());
+                new AuditLogger().logAction(getCurrentUserId(), ActionType.ADD_PATIENT, "Admitted from waitlist", patient.getPatientId());
+                return true;
+            });
+        } catch (ComplianceException bedTaken) {
+            waitlist.release(entry);
+            return false;
+        } catch (Exception e) {
+            waitlist.release(entry);
+            throw e;
+        }
+
+        if (admitted) {
+            System.out.println("Waitlisted patient " + patient.getName() + " assigned to bed " + offer.getBedId());
+        }
+        return admitted;
+    }
+
+    // Saves the patient and claims a suitable bed for them, or saves nothing and returns null when none is free.
+    // Must run inside the caller's unit of work.
+    private String placeNewPatient(Patient patient) throws Exception {
+        // Claim with one conditional write. A refused claim means another client changed the beds
+        // since the index last saw them (the DAO resyncs it), so look again.
+        boolean saved = false;
+        for (int attempt = 0; attempt < MAX_BED_CLAIM_ATTEMPTS; attempt++) {
+            String candidate = bedDAO.findSuitableBed(
+                    patient.getGender().toString(),
+                    patient.needsIsolation()
+            );
+            if (candidate == null) {
+                break;
+            }
+            if (!saved) {
+                patientDAO.save(patient);
+                saved = true;
+            }
+            if (bedDAO.assignIfCompatible(candidate, patient.getId(), patient.getGender().toString(), patient.needsIsolation()) == BedAssignmentResult.ASSIGNED) {
+                // Log the assignment in the history table
+                patientDAO.assignBedToPatient(patient.getId(), candidate);
+                return candidate;
+            }
+        }
+        if (saved) {
+            // Every claim was refused; roll back the saved row with the unit of work
+            throw new ComplianceException("No suitable bed available for patient");
+        }
+        return null;
+    }
+
+    // Rejects an id already used by an admitted or waiting patient
+    private void checkNotRegistered(Patient patient) throws Exception {
+        if (patientDAO.findById(patient.getId()) != null) {
+            throw new ComplianceException("Patient with ID " + patient.getId() + " already exists");
+        }
+        if (waitlistDAO.findByPatientId(patient.getId()) != null) {
+            throw new ComplianceException("Patient with ID " + patient.getId() + " is already on the waitlist");
+        }
+    }
+
+    // Validate patient data
+    private void validatePatient(Patient patient) throws CareHomeException {
+        if (patient == null) {
+            throw new CareHomeException("Patient cannot be null");
+        }
+
+        if (patient.getFirstName() == null || patient.getFirstName().trim().isEmpty()) {
+            throw new CareHomeException("Patient first name is required");
+        }
+
+        if (patient.getLastName() == null || patient.getLastName().trim().isEmpty()) {
+            throw new CareHomeException("Patient last name is required");
+        }
+
+        if (patient.getPatientId() == null || patient.getPatientId().trim().isEmpty()) {
+            throw new CareHomeException("Patient ID is required");
+        }
+    }
+
     // Helper to fetch current user ID for audit entries
     private String getCurrentUserId() {
         Staff currentUser = new AuthenticationServiceImpl(new AuditLogger()).getCurrentUser();
@@ -0,0 +1,154 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Admission.WaitlistEntry;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Service.AdmissionWaitlist;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedOccupancyIndex;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for the admission waitlist demonstrating that freed beds go to the most urgent compatible patient
+
+public class AdmissionWaitlistTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private PatientServiceImpl service;
+    private BedDAO bedDAO;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        service = new PatientServiceImpl();
+        bedDAO = new BedDAOImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testFreedBedGoesToMostUrgentCompatiblePatient() throws Exception {
+        // BUSINESS RULE: a freed bed goes to the highest-priority waiting patient the room can take, earliest first on ties
+        freshDatabase(oneRoom());
+        Assert.assertTrue(service.addPatientOrWaitlist(patient("F1", Gender.FEMALE, false), 0));
+        Assert.assertTrue(service.addPatientOrWaitlist(patient("F2", Gender.FEMALE, false), 0));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("M1", Gender.MALE, false), 9));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("F3", Gender.FEMALE, false), 0));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("F4", Gender.FEMALE, false), 5));
+        Assert.assertEquals(service.getWaitlist().size(), 3);
+
+        // A woman still occupies the room, so M1 is passed over despite the higher priority
+        service.dischargePatient("F1");
+        Assert.assertNotNull(bedDAO.findPatientBed("F4"), "F4 outranks F3");
+        Assert.assertNull(bedDAO.findPatientBed("F3"));
+
+        service.dischargePatient("F2");
+        Assert.assertNotNull(bedDAO.findPatientBed("F3"));
+
+        // Only once the room is empty can M1 have it
+        service.dischargePatient("F3");
+        Assert.assertNull(bedDAO.findPatientBed("M1"));
+        service.dischargePatient("F4");
+        Assert.assertNotNull(bedDAO.findPatientBed("M1"));
+
+        Assert.assertEquals(service.getWaitlist(), List.of());
+        Assert.assertEquals(AdmissionWaitlist.getInstance().size(), 0);
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Freed beds went to F4, F3, then M1 once the room was empty");
+    }
+
+    @Test
+    public void testIsolationPatientWaitsForReservedBedAndMovesFreeBeds() throws Exception {
+        // BUSINESS RULE: a waiting isolation patient only gets a reserved bed in an empty room; moves free beds too
+        freshDatabase(originalTopology);
+        service.addPatient(patient("I1", Gender.FEMALE, true));
+        service.addPatient(patient("I2", Gender.MALE, true));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("I3", Gender.MALE, true), 0));
+
+        service.addPatient(patient("S1", Gender.MALE, false));
+        String sharedBed = bedDAO.findPatientBed("S1");
+        service.dischargePatient("S1");
+        Assert.assertNull(bedDAO.findPatientBed("I3"), "A shared bed is not an isolation bed");
+
+        // Moving I1 out of the reserved room leaves it empty
+        service.movePatient("I1", sharedBed);
+        Assert.assertEquals(bedDAO.findPatientBed("I3"), "W1R1B1");
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Isolation patient waited until the move emptied W1R1");
+    }
+
+    @Test
+    public void testWaitlistIsPersistedAndRejectsDuplicates() throws Exception {
+        // RULE: waiting patients survive a restart, cannot be registered twice and can be taken off the list
+        freshDatabase(oneRoom());
+        service.addPatient(patient("F1", Gender.FEMALE, false));
+        service.addPatient(patient("F2", Gender.FEMALE, false));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("W1", Gender.FEMALE, false), 1));
+        Assert.assertFalse(service.addPatientOrWaitlist(patient("W2", Gender.FEMALE, false), 2));
+
+        Assert.expectThrows(ComplianceException.class, () -> service.addPatientOrWaitlist(patient("W1", Gender.FEMALE, false), 0));
+        Assert.expectThrows(ComplianceException.class, () -> service.addPatient(patient("W1", Gender.FEMALE, false)));
+        Assert.expectThrows(ComplianceException.class, () -> service.addPatientOrWaitlist(patient("F1", Gender.FEMALE, false), 0));
+
+        service.removeFromWaitlist("W2");
+
+        // Closing the pools moves the generation on, so the queues are rebuilt from the table
+        DatabaseConfig.closeConnection();
+        List<WaitlistEntry> waiting = service.getWaitlist();
+        Assert.assertEquals(waiting.size(), 1);
+        Assert.assertEquals(waiting.get(0).getPatient().getId(), "W1");
+
+        service.dischargePatient("F2");
+        Assert.assertNotNull(bedDAO.findPatientBed("W1"));
+        Assert.assertNotNull(service.findPatientById("W1"));
+        Assert.assertEquals(service.getWaitlist(), List.of());
+        System.out.println("✓ PASSED: Waitlist reloaded after restart and admitted W1");
+    }
+
+    // One ward "WL" with a single 2-bed room and no reserved isolation beds
+    private FacilityTopology oneRoom() {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "WL");
+        properties.setProperty("ward.WL.rooms", "2");
+        return FacilityTopology.fromProperties(properties);
+    }
+
+    private void freshDatabase(FacilityTopology topology) throws Exception {
+        FacilityTopology.configure(topology);
+        dbFile = File.createTempFile("carehome-waitlist-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+    }
+}
@@ -126,4 +126,25 @@ public class AuditLoggerTest {
         Assert.assertEquals(last2.getDetails(), details1, "Details should persist after re-read");
         Assert.assertEquals(last2.getStaffId(), staff1, "Staff ID should persist after re-read");
     }
+
+    @Test
+    public void testFilteredQueriesRunInDatabase() throws Exception {
+        // RULE: date, staff, action, target and count lookups come from audit_log, not an in-memory list
+        String target = "T" + System.nanoTime();
+        long before = auditLogger.getTotalEntries();
+        auditLogger.logAction("MGR001", ActionType.DISCHARGE_PATIENT, "Discharged " + RUN_TAG, target);
+        auditLogger.logAction("NUR001", ActionType.ADMINISTER_MEDICATION, "Given " + RUN_TAG, target);
+
+        List<AuditEntry> forTarget = auditLogger.getAuditTrailForTarget(target);
+        Assert.assertEquals(forTarget.size(), 2);
+        Assert.assertEquals(forTarget.get(0).getStaffId(), "NUR001", "Newest entry comes first");
+        Assert.assertEquals(auditLogger.getTotalEntries(), before + 2);
+        Assert.assertTrue(entriesForThisRun(auditLogger.getAuditTrailForStaff("MGR001")).size() == 1);
+        Assert.assertTrue(entriesForThisRun(auditLogger.getAuditTrailForAction(ActionType.ADMINISTER_MEDICATION)).size() == 1);
+
+        LocalDate today = LocalDate.now();
+        Assert.assertEquals(entriesForThisRun(auditLogger.getAuditTrail(today, today)).size(), 2);
+        Assert.assertTrue(entriesForThisRun(auditLogger.getAuditTrail(today.plusDays(1), today.plusDays(2))).isEmpty());
+        System.out.println("✓ PASSED: Audit lookups answered by indexed queries");
+    }
 }
@@ -0,0 +1,108 @@
+package CareHome.TestCases;
+
+import CareHome.Model.ActionType;
+import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Audit.AuditPage;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.dao.AuditDAO;
+import CareHome.dao.AuditDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Core test suite for audit keyset pagination and streaming demonstrating complete, stable, bounded reads
+
+public class AuditPaginationTest {
+    private static final int ENTRIES = 2_500;
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private File dbFile;
+    private AuditDAO auditDAO;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        dbFile = File.createTempFile("carehome-audit-pages-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        auditDAO = new AuditDAOImpl();
+
+        // Several entries per timestamp, so paging must fall back to entry_id to stay exact
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<AuditEntry> entries = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            AuditEntry entry = new AuditEntry(String.format("E%05d", i), "NUR001", ActionType.ADMINISTER_MEDICATION, "seed", "P01");
+            entry.setTimestamp(base.plusSeconds(i / 7));
+            entries.add(entry);
+        }
+        auditDAO.saveAll(entries);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+        dbFile.delete();
+    }
+
+    @Test
+    public void testPagesCoverTheLogExactlyOnceInOrder() throws Exception {
+        // RULE: walking the pages returns every entry once, in the same order as a full read
+        List<String> paged = new ArrayList<>();
+        AuditPage page = null;
+        int pages = 0;
+        do {
+            page = auditDAO.findPage(page, 100);
+            Assert.assertTrue(page.getEntries().size() <= 100);
+            page.getEntries().forEach(entry -> paged.add(entry.getEntryId()));
+            pages++;
+        } while (page.hasMore());
+
+        List<String> all = new ArrayList<>();
+        auditDAO.findAll().forEach(entry -> all.add(entry.getEntryId()));
+        Assert.assertEquals(paged, all);
+        Assert.assertTrue(paged.size() >= ENTRIES);
+        Assert.assertEquals(pages, (all.size() + 99) / 100);
+        System.out.println("✓ PASSED: " + pages + " pages covered " + paged.size() + " entries");
+    }
+
+    @Test
+    public void testNewEntriesDoNotShiftLaterPages() throws Exception {
+        // RULE: entries logged while the user is scrolling must not duplicate or skip older rows
+        AuditPage first = auditDAO.findPage(null, 50);
+        AuditEntry newer = new AuditEntry("E-NEW", "MGR001", ActionType.ADD_PATIENT, "logged meanwhile", "P02");
+        newer.setTimestamp(LocalDateTime.of(2030, 1, 1, 0, 0));
+        auditDAO.save(newer);
+
+        AuditPage second = auditDAO.findPage(first, 50);
+        AuditEntry lastOfFirst = first.getEntries().get(first.getEntries().size() - 1);
+        Assert.assertEquals(second.getEntries().get(0).getEntryId(),
+                String.format("E%05d", Integer.parseInt(lastOfFirst.getEntryId().substring(1)) - 1));
+        System.out.println("✓ PASSED: Page 2 continued exactly after page 1");
+    }
+
+    @Test
+    public void testStreamVisitsEveryEntryAndCanStopEarly() throws Exception {
+        // RULE: exports stream entries one at a time and may stop without reading the rest
+        long[] seen = {0};
+        auditDAO.streamAll(entry -> {
+            seen[0]++;
+            return true;
+        });
+        Assert.assertTrue(seen[0] >= ENTRIES);
+
+        List<AuditEntry> firstTen = new ArrayList<>();
+        auditDAO.streamAll(entry -> {
+            firstTen.add(entry);
+            return firstTen.size() < 10;
+        });
+        Assert.assertEquals(firstTen.size(), 10);
+        System.out.println("✓ PASSED: Streamed " + seen[0] + " entries; early stop after 10");
+    }
+}
@@ -0,0 +1,211 @@
+package CareHome.TestCases;
+
+import CareHome.Model.ActionType;
+import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Audit.AuditPage;
+import CareHome.Model.Audit.AuditWriter;
+import CareHome.Model.Audit.AuditWriterStats;
+import CareHome.dao.AuditDAO;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+
+ // Core test suite for AuditWriter demonstrating batching, backpressure and drain-on-shutdown
+
+public class AuditWriterTest {
+
+    // In-memory AuditDAO that records what was written and how
+    private static class RecordingAuditDAO implements AuditDAO {
+        final List<AuditEntry> saved = Collections.synchronizedList(new ArrayList<>());
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        final CountDownLatch batchStarted = new CountDownLatch(1);
+        volatile boolean failBatches;
+        volatile String rejectedEntryId;
+
+        @Override
+        public void save(AuditEntry entry) throws Exception {
+            if (entry.getEntryId().equals(rejectedEntryId)) {
+                throw new Exception("duplicate entry id");
+            }
+            saved.add(entry);
+        }
+
+        @Override
+        public void saveAll(List<AuditEntry> entries) throws Exception {
+            batchStarted.countDown();
+            gate.await();
+            if (failBatches) {
+                throw new Exception("batch insert failed");
+            }
+            saved.addAll(entries);
+        }
+
+        @Override
+        public List<AuditEntry> findAll() {
+            return new ArrayList<>(saved);
+        }
+
+        @Override
+        public List<AuditEntry> findByDateRange(LocalDateTime from, LocalDateTime to) {
+            return select(e -> !e.getTimestamp().isBefore(from) && e.getTimestamp().isBefore(to));
+        }
+
+        @Override
+        public List<AuditEntry> findByStaffId(String staffId) {
+            return select(e -> e.getStaffId().equals(staffId));
+        }
+
+        @Override
+        public List<AuditEntry> findByActionType(ActionType actionType) {
+            return select(e -> e.getActionType() == actionType);
+        }
+
+        @Override
+        public List<AuditEntry> findByTargetId(String targetId) {
+            return select(e -> targetId.equals(e.getTargetId()));
+        }
+
+        @Override
+        public long count() {
+            return saved.size();
+        }
+
+        @Override
+        public AuditPage findPage(AuditPage after, int pageSize) {
+            throw new UnsupportedOperationException("Not used by AuditWriter");
+        }
+
+        @Override
+        public void streamAll(EntryHandler handler) {
+            throw new UnsupportedOperationException("Not used by AuditWriter");
+        }
+
+        private List<AuditEntry> select(Predicate<AuditEntry> filter) {
+            return findAll().stream().filter(filter).toList();
+        }
+    }
+
+    private RecordingAuditDAO dao;
+    private AuditWriter writer;
+
+    @BeforeMethod
+    public void setUp() {
+        dao = new RecordingAuditDAO();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        dao.gate = new CountDownLatch(0);
+        writer.shutdown();
+    }
+
+    @Test
+    public void testEntriesAreWrittenInBatches() {
+        // RULE: a burst of actions is committed in a few batched transactions, not one per entry
+        writer = new AuditWriter(dao, 10_000);
+        for (int i = 0; i < 2_000; i++) {
+            writer.submit(entry("E" + i));
+        }
+
+        Assert.assertTrue(writer.flush(), "flush() should complete");
+        AuditWriterStats stats = writer.getStats();
+        Assert.assertEquals(dao.saved.size(), 2_000);
+        Assert.assertEquals(stats.getWrittenCount(), 2_000);
+        Assert.assertTrue(stats.getBatchCount() < 100, "Expected batching, got " + stats.getBatchCount() + " batches");
+        Assert.assertTrue(stats.getMaxBatchSize() > 1);
+        System.out.println("✓ PASSED: " + stats);
+    }
+
+    @Test
+    public void testFullQueueBlocksCaller() throws Exception {
+        // RULE: when the writer falls behind, callers wait instead of entries being dropped
+        writer = new AuditWriter(dao, 4);
+        dao.gate = new CountDownLatch(1);
+        writer.submit(entry("B-first"));
+        Assert.assertTrue(dao.batchStarted.await(5, TimeUnit.SECONDS), "Writer should pick up the first entry");
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                writer.submit(entry("B" + i));
+            }
+        });
+        producer.start();
+        producer.join(300);
+
+        Assert.assertTrue(producer.isAlive(), "Producer should be blocked on the full queue");
+        Assert.assertTrue(writer.getStats().getBackpressureWaits() > 0);
+
+        dao.gate.countDown();
+        producer.join(5_000);
+        Assert.assertTrue(writer.flush());
+        Assert.assertEquals(dao.saved.size(), 21, "No entry may be lost under backpressure");
+        System.out.println("✓ PASSED: Backpressure held the producer until the writer caught up");
+    }
+
+    @Test
+    public void testFailedBatchFallsBackToSingleWrites() {
+        // RULE: one bad row must not discard the other entries of its batch
+        writer = new AuditWriter(dao, 100);
+        dao.failBatches = true;
+        dao.rejectedEntryId = "F3";
+        for (int i = 0; i < 10; i++) {
+            writer.submit(entry("F" + i));
+        }
+
+        Assert.assertTrue(writer.flush());
+        Assert.assertEquals(dao.saved.size(), 9);
+        Assert.assertEquals(writer.getStats().getFailedCount(), 1);
+        System.out.println("✓ PASSED: Batch failure isolated to the bad entry");
+    }
+
+    @Test
+    public void testShutdownDrainsQueue() {
+        // RULE: entries still queued at shutdown are written before the writer stops
+        writer = new AuditWriter(dao, 1_000);
+        for (int i = 0; i < 500; i++) {
+            writer.submit(entry("S" + i));
+        }
+        writer.shutdown();
+        Assert.assertEquals(dao.saved.size(), 500);
+
+        writer.submit(entry("LATE"));
+        Assert.assertEquals(dao.saved.size(), 501, "Submits after shutdown are written synchronously");
+        System.out.println("✓ PASSED: Shutdown drained the audit queue");
+    }
+
+    @Test
+    public void testShutdownDuringSubmitsLosesNothing() throws Exception {
+        // RULE: an entry submitted while the writer is shutting down is either drained or written directly
+        writer = new AuditWriter(dao, 1_000);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String prefix = "R" + t + "-";
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    writer.submit(entry(prefix + i));
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        Thread.sleep(5);
+        writer.shutdown();
+        for (Thread producer : producers) {
+            producer.join(10_000);
+        }
+
+        Assert.assertEquals(dao.saved.size(), 8_000, "Every submitted entry must reach the DAO");
+        System.out.println("✓ PASSED: No entry lost to a concurrent shutdown");
+    }
+
+    private AuditEntry entry(String id) {
+        return new AuditEntry(id, "MGR001", ActionType.ADD_PATIENT, "test entry", "P001");
+    }
+}
@@ -0,0 +1,109 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.BatchAdmissionResult;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedOccupancyIndex;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * 1,000 transfers admitted one by one (one unit of work each) against one batch admission,
+ * on a facility of 10 wards x 40 rooms of 1-4 beds, about as many beds as patients, so
+ * how the rooms are split between men and women decides who gets one.
+ */
+public class BatchAdmissionBenchmarkTest {
+    private static final int PATIENTS = 1_000;
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @Test
+    public void benchmarkThousandPatientBatch() throws Exception {
+        List<Patient> coach = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < PATIENTS; i++) {
+            coach.add(BatchAdmissionTest.patient("C" + i, random.nextInt(3) == 0 ? Gender.MALE : Gender.FEMALE, false));
+        }
+
+        // One by one
+        File sequentialDb = freshDatabase();
+        PatientServiceImpl service = new PatientServiceImpl();
+        long start = System.nanoTime();
+        int sequentialPlaced = 0;
+        for (Patient patient : coach) {
+            try {
+                service.addPatient(patient);
+                sequentialPlaced++;
+            } catch (ComplianceException noBed) {
+                // stranded by earlier choices or the facility is full
+            }
+        }
+        double sequentialMs = (System.nanoTime() - start) / 1e6;
+        new AuditLogger().flush();
+        DatabaseConfig.closeConnection();
+        sequentialDb.delete();
+
+        // Whole batch
+        File batchDb = freshDatabase();
+        start = System.nanoTime();
+        BatchAdmissionResult result = new PatientServiceImpl().admitPatients(coach);
+        double batchMs = (System.nanoTime() - start) / 1e6;
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        new AuditLogger().flush();
+        DatabaseConfig.closeConnection();
+        batchDb.delete();
+
+        System.out.printf("1,000 patients, %d beds: one by one %.0f ms, %d placed; batch %.0f ms, %d placed (%.1fx)%n",
+                FacilityTopology.getCurrent().getTotalBeds(), sequentialMs, sequentialPlaced, batchMs, result.getPlacedCount(), sequentialMs / batchMs);
+        Assert.assertTrue(result.getPlacedCount() >= sequentialPlaced, "Batch must place at least as many patients");
+        Assert.assertTrue(batchMs < sequentialMs, "One transaction should beat one per patient");
+        System.out.println("✓ PASSED: Batch admission benchmark completed");
+    }
+
+    private File freshDatabase() throws Exception {
+        Random random = new Random(11);
+        StringBuilder rooms = new StringBuilder();
+        for (int r = 0; r < 40; r++) {
+            rooms.append(r == 0 ? "" : ",").append(1 + random.nextInt(4));
+        }
+        Properties properties = new Properties();
+        StringBuilder wards = new StringBuilder();
+        for (int w = 1; w <= 10; w++) {
+            wards.append(w == 1 ? "" : ",").append("CW").append(w);
+            properties.setProperty("ward.CW" + w + ".rooms", rooms.toString());
+        }
+        properties.setProperty("wards", wards.toString());
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+
+        File dbFile = File.createTempFile("carehome-batchbench-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        return dbFile;
+    }
+}
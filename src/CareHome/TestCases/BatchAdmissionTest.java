@@ -0,0 +1,208 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.BatchAdmissionResult;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedOccupancyIndex;
+import CareHome.dao.PatientDAO;
+import CareHome.dao.PatientDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+
+ // Core test suite for batch admission demonstrating whole-batch placement that beats one-by-one greedy placement
+
+public class BatchAdmissionTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private PatientServiceImpl service;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        service = new PatientServiceImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        if (dbFile != null) {
+            dbFile.delete();
+        }
+    }
+
+    @Test
+    public void testBatchPlacesPatientsThatGreedyOrderStrands() throws Exception {
+        // BUSINESS RULE: a man arriving first must not take the only room big enough for the three women behind him
+        List<Patient> coach = List.of(
+                patient("G1", Gender.MALE, false),
+                patient("G2", Gender.FEMALE, false),
+                patient("G3", Gender.FEMALE, false),
+                patient("G4", Gender.FEMALE, false));
+
+        // One by one: G1 gets the 3-bed room, leaving 2 beds for three women
+        freshDatabase(smallUnit());
+        service.addPatient(coach.get(0));
+        service.addPatient(coach.get(1));
+        service.addPatient(coach.get(2));
+        Assert.expectThrows(ComplianceException.class, () -> service.addPatient(coach.get(3)));
+
+        freshDatabase(smallUnit());
+        BatchAdmissionResult result = service.admitPatients(coach);
+        Assert.assertEquals(result.getPlacedCount(), 4);
+        Assert.assertTrue(result.getUnplaced().isEmpty());
+        Assert.assertTrue(result.getBedFor("G1").startsWith("BAR2"), result.getPlacements().toString());
+        Assert.assertTrue(result.getBedFor("G4").startsWith("BAR1"), result.getPlacements().toString());
+        Assert.assertEquals(new PatientDAOImpl().getPatientBed("G3"), result.getBedFor("G3"));
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Batch placed all 4 where one-by-one placement stranded one: " + result.getPlacements());
+    }
+
+    @Test
+    public void testIsolationReservationsAndGenderRulesHold() throws Exception {
+        // BUSINESS RULE: isolation only in reserved beds of empty rooms, no mixed rooms, unplaced patients not admitted
+        freshDatabase(originalTopology);
+        BedDAO bedDAO = new BedDAOImpl();
+        PatientDAO patientDAO = new PatientDAOImpl();
+        service.addPatient(patient("EX1", Gender.MALE, false));   // an existing resident fixes W1R2 as male
+
+        List<Patient> batch = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            batch.add(patient("ISO" + i, i == 0 ? Gender.FEMALE : Gender.MALE, true));
+        }
+        for (int i = 0; i < 40; i++) {
+            batch.add(patient("R" + i, i % 3 == 0 ? Gender.MALE : Gender.FEMALE, false));
+        }
+        BatchAdmissionResult result = service.admitPatients(batch);
+
+        Assert.assertEquals(result.getBedFor("ISO0"), "W1R1B1");
+        Assert.assertEquals(result.getBedFor("ISO1"), "W2R1B1");
+        Assert.assertNull(result.getBedFor("ISO2"), "Only two reserved isolation beds exist");
+        Assert.assertEquals(result.getPlacedCount(), 2 + 35, "Every shared bed is filled");
+        Assert.assertEquals(bedDAO.getAvailableBedCount(), 0);
+        for (Patient waiting : result.getUnplaced()) {
+            Assert.assertNull(patientDAO.findById(waiting.getId()), waiting.getId() + " must not be admitted");
+        }
+
+        Map<String, Gender> roomGender = new HashMap<>();
+        roomGender.put("W1R2", Gender.MALE);
+        for (Patient patient : batch) {
+            String bedId = result.getBedFor(patient.getId());
+            if (bedId != null) {
+                Gender previous = roomGender.putIfAbsent(bedId.substring(0, bedId.lastIndexOf('B')), patient.getGender());
+                Assert.assertTrue(previous == null || previous == patient.getGender(), "Mixed room at " + bedId);
+            }
+        }
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: " + result.getPlacedCount() + " of 43 placed, " + result.getUnplaced().size() + " waiting");
+    }
+
+    @Test
+    public void testExistingIdRejectsTheWholeBatch() throws Exception {
+        // RULE: the batch commits as one unit, so a duplicate leaves nothing half-admitted
+        freshDatabase(originalTopology);
+        service.addPatient(patient("DUP", Gender.FEMALE, false));
+        int free = new BedDAOImpl().getAvailableBedCount();
+
+        Assert.expectThrows(ComplianceException.class, () -> service.admitPatients(List.of(
+                patient("NEW1", Gender.FEMALE, false), patient("DUP", Gender.FEMALE, false))));
+        Assert.expectThrows(ComplianceException.class, () -> service.admitPatients(List.of(
+                patient("NEW2", Gender.MALE, false), patient("NEW2", Gender.MALE, false))));
+
+        Assert.assertNull(new PatientDAOImpl().findById("NEW1"));
+        Assert.assertEquals(new BedDAOImpl().getAvailableBedCount(), free);
+        System.out.println("✓ PASSED: Batches with duplicate ids rejected without partial admission");
+    }
+
+    @Test
+    public void testBedTakenByAnotherClientIsReplanned() throws Exception {
+        // RULE: a bed another terminal took after this process last looked is never double-booked or mixed
+        freshDatabase(smallUnit());
+        BedDAO bedDAO = new BedDAOImpl();
+        Assert.assertEquals(bedDAO.getAvailableBedCount(), 5);   // the occupancy index is loaded
+
+        // Another client puts a man into the 3-bed room the plan would give to the women
+        try (Connection other = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+             Statement stmt = other.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = 5000");
+            stmt.executeUpdate("INSERT INTO patients (id, first_name, last_name, gender, age, patient_id, admission_date) "
+                    + "VALUES ('OTHER', 'Other', 'Terminal', 'MALE', 80, 'PID-OTHER', '2026-01-01')");
+            stmt.executeUpdate("UPDATE beds SET patient_id = 'OTHER', is_occupied = TRUE WHERE bed_id = 'BAR1B1'");
+        }
+
+        BatchAdmissionResult result = service.admitPatients(List.of(
+                patient("G1", Gender.MALE, false),
+                patient("G2", Gender.FEMALE, false),
+                patient("G3", Gender.FEMALE, false),
+                patient("G4", Gender.FEMALE, false)));
+
+        Assert.assertTrue(result.getBedFor("G1").startsWith("BAR1"), "The man joins the other man: " + result.getPlacements());
+        Assert.assertTrue(result.getBedFor("G2").startsWith("BAR2"), result.getPlacements().toString());
+        Assert.assertTrue(result.getBedFor("G3").startsWith("BAR2"), result.getPlacements().toString());
+        Assert.assertEquals(result.getUnplaced().size(), 1, "Only two beds are left for three women");
+        Assert.assertNull(new PatientDAOImpl().findById(result.getUnplaced().get(0).getId()));
+        Assert.assertEquals(new PatientDAOImpl().getPatientBed("G1"), result.getBedFor("G1"));
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Replanned around a bed taken by another client: " + result.getPlacements());
+    }
+
+    // One ward "BA" (no reserved isolation beds): a 3-bed room and a 2-bed room
+    private FacilityTopology smallUnit() {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "BA");
+        properties.setProperty("ward.BA.rooms", "3,2");
+        return FacilityTopology.fromProperties(properties);
+    }
+
+    private void freshDatabase(FacilityTopology topology) throws Exception {
+        new AuditLogger().flush();   // audit entries still queued belong to the previous database
+        if (dbFile != null) {
+            DatabaseConfig.closeConnection();
+            dbFile.delete();
+        }
+        FacilityTopology.configure(topology);
+        dbFile = File.createTempFile("carehome-batch-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+    }
+
+    static Patient patient(String id, Gender gender, boolean isolation) {
+        Patient patient = new Patient(id, "Batch", "Patient", gender, 79, "PID-" + id, LocalDate.now());
+        patient.setNeedsIsolation(isolation);
+        return patient;
+    }
+}
@@ -0,0 +1,231 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.TransactionManager;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedAssignmentResult;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedOccupancyIndex;
+import CareHome.dao.PatientDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+ // Core test suite for BedOccupancyIndex demonstrating in-memory placement that stays in step with the beds table
+
+public class BedOccupancyIndexTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private File dbFile;
+    private BedDAO bedDAO;
+    private PatientServiceImpl service;
+    private BedOccupancyIndex index;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-beds-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        bedDAO = new BedDAOImpl();
+        service = new PatientServiceImpl();
+        index = BedOccupancyIndex.getInstance();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testIndexMatchesDatabaseAnswers() throws Exception {
+        // BUSINESS RULE: in-memory placement gives the same bed as the SQL rules (gender, isolation, reserved beds)
+        Random random = new Random(42);
+        List<String> admitted = new ArrayList<>();
+        for (int step = 0; step < 120; step++) {
+            if (!admitted.isEmpty() && random.nextInt(3) == 0) {
+                service.dischargePatient(admitted.remove(random.nextInt(admitted.size())));
+            } else {
+                Patient patient = patient("IX" + step, random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
+                patient.setNeedsIsolation(random.nextInt(8) == 0);
+                try {
+                    service.addPatient(patient);
+                    admitted.add(patient.getId());
+                } catch (ComplianceException full) {
+                    // no suitable bed; the comparison below still applies
+                }
+            }
+
+            for (String gender : new String[]{"MALE", "FEMALE"}) {
+                for (boolean isolation : new boolean[]{false, true}) {
+                    Assert.assertEquals(bedDAO.findSuitableBed(gender, isolation), fromDatabase(gender, isolation),
+                            "Step " + step + ": " + gender + (isolation ? " isolation" : ""));
+                }
+            }
+        }
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: Index and SQL agreed over 120 admissions/discharges");
+    }
+
+    @Test
+    public void testRolledBackChangesNeverReachTheIndex() throws Exception {
+        // RULE: the index only shows bed changes that committed
+        try {
+            TransactionManager.run(() -> {
+                bedDAO.assignPatientToBed("W1R3B1", "GHOST");
+                Assert.assertFalse(bedDAO.isBedAvailable("W1R3B1"), "The unit sees its own write");
+                throw new IllegalStateException("abort");
+            });
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Assert.assertTrue(bedDAO.isBedAvailable("W1R3B1"));
+        Assert.assertNull(bedDAO.findPatientBed("GHOST"));
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: Rolled-back assignment left the index untouched");
+    }
+
+    @Test
+    public void testConsistencyCheckFindsExternalWrites() throws Exception {
+        // RULE: a write that bypassed BedDAO is reported by verify() and repaired by reload()
+        Assert.assertTrue(bedDAO.isBedAvailable("W2R4B2"));
+        try (Connection conn = DatabaseConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE beds SET is_occupied = TRUE, patient_id = 'EXT1' WHERE bed_id = 'W2R4B2'");
+        }
+
+        List<String> differences = index.verify();
+        Assert.assertEquals(differences.size(), 1, differences.toString());
+        Assert.assertTrue(differences.get(0).contains("W2R4B2"));
+
+        index.reload();
+        Assert.assertFalse(bedDAO.isBedAvailable("W2R4B2"));
+        Assert.assertEquals(bedDAO.findPatientBed("EXT1"), "W2R4B2");
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: Drift detected and repaired: " + differences.get(0));
+    }
+
+    @Test
+    public void testConditionalAssignmentRespectsExternalWrites() throws Exception {
+        // BUSINESS RULE: a bed or room changed behind the index is never double-booked or mixed by an admit or move
+        PatientDAOImpl patientDAO = new PatientDAOImpl();
+        patientDAO.save(patient("EXT2", Gender.MALE));
+        String target = bedDAO.findSuitableBed("FEMALE", false);
+        String room = target.substring(0, target.lastIndexOf('B'));
+        try (Connection conn = DatabaseConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE beds SET is_occupied = TRUE, patient_id = 'EXT2' WHERE bed_id = '" + target + "'");
+        }
+
+        // The index still offers the taken bed; the conditional write refuses it and admission looks again
+        Assert.assertEquals(bedDAO.assignIfCompatible(target, "NOPE", "MALE", false), BedAssignmentResult.BED_OCCUPIED);
+        service.addPatient(patient("IN1", Gender.FEMALE));
+        String placed = bedDAO.findPatientBed("IN1");
+        Assert.assertFalse(placed.startsWith(room), "Placed " + placed + " in a room holding a man");
+
+        ComplianceException mixed = Assert.expectThrows(ComplianceException.class,
+                () -> service.movePatient("IN1", room + "B2"));
+        Assert.assertTrue(mixed.getMessage().endsWith("Gender incompatibility in the target room."), mixed.getMessage());
+        ComplianceException taken = Assert.expectThrows(ComplianceException.class,
+                () -> service.movePatient("IN1", target));
+        Assert.assertTrue(taken.getMessage().endsWith("Target bed is already occupied"), taken.getMessage());
+        Assert.assertEquals(bedDAO.assignIfCompatible("NO_SUCH_BED", "IN1", "FEMALE", false), BedAssignmentResult.BED_NOT_FOUND);
+        CareHomeException unknown = Assert.expectThrows(CareHomeException.class,
+                () -> service.movePatient("IN1", "NO_SUCH_BED"));
+        Assert.assertFalse(unknown instanceof ComplianceException, "An unknown bed is not a compliance refusal");
+        Assert.assertTrue(unknown.getMessage().endsWith("Bed not found: NO_SUCH_BED"), unknown.getMessage());
+
+        Assert.assertEquals(bedDAO.findPatientBed("IN1"), placed);
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: External write to " + target + " refused by admit and move, index resynced");
+    }
+
+    @Test
+    public void testMoveIntoIsolationBedRequiresIsolationNeed() throws Exception {
+        // BUSINESS RULE: a reserved isolation bed never takes a non-isolation patient, whichever path claims it
+        service.addPatient(patient("ISO1", Gender.MALE));
+        String placed = bedDAO.findPatientBed("ISO1");
+
+        Assert.assertEquals(bedDAO.assignIfCompatible("W1R1B1", "ISO1", "MALE", false), BedAssignmentResult.ISOLATION_CONFLICT);
+        ComplianceException refused = Assert.expectThrows(ComplianceException.class,
+                () -> service.movePatient("ISO1", "W1R1B1"));
+        Assert.assertTrue(refused.getMessage().endsWith("Target bed is reserved for isolation."), refused.getMessage());
+        Assert.assertEquals(bedDAO.holdIfCompatible("W2R1B1", "FEMALE", false), BedAssignmentResult.ISOLATION_CONFLICT);
+        Assert.assertEquals(bedDAO.assignIfCompatible(placed, "ISO1", "MALE", true), BedAssignmentResult.BED_OCCUPIED);
+
+        Assert.assertEquals(bedDAO.findPatientBed("ISO1"), placed);
+        Assert.assertTrue(bedDAO.isBedAvailable("W1R1B1"));
+        Assert.assertEquals(bedDAO.holdIfCompatible("W1R1B1", "FEMALE", true), BedAssignmentResult.ASSIGNED);
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: Move and hold of a non-isolation patient into an isolation bed refused");
+    }
+
+    @Test
+    public void testConcurrentAdmissionsStayConsistent() throws Exception {
+        // RULE: parallel admissions never share a bed and leave the index in step with the table
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < 8; i++) {
+                    service.addPatient(patient("CC" + thread + "-" + i, Gender.FEMALE));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = bedDAO.getTotalBeds();
+        Assert.assertEquals(bedDAO.getAvailableBedCount(), total - 32);
+        Assert.assertEquals(index.verify(), List.of());
+        System.out.println("✓ PASSED: 32 concurrent admissions, index consistent");
+    }
+
+    // Same question answered by BedDAOImpl's SQL path, which it takes once the unit of work has
+    // written a bed; "freeing" an already free bed is that write without changing anything
+    private String fromDatabase(String gender, boolean isolation) throws Exception {
+        List<String> freeBeds = bedDAO.getAvailableBeds();
+        if (freeBeds.isEmpty()) {
+            return null;
+        }
+        return TransactionManager.inTransaction(() -> {
+            bedDAO.freeBed(freeBeds.get(0));
+            return bedDAO.findSuitableBed(gender, isolation);
+        });
+    }
+
+    private Patient patient(String id, Gender gender) {
+        return new Patient(id, "Index", "Patient", gender, 75, "PID-" + id, LocalDate.now());
+    }
+}
@@ -0,0 +1,148 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import CareHome.Service.BedReservationServiceImpl;
+import CareHome.Service.HoldExpiry;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.config.TransactionManager;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedOccupancyIndex;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for bed holds demonstrating that a held bed counts as occupied until it is used, released or expires
+
+public class BedReservationTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private BedReservationServiceImpl holds;
+    private PatientServiceImpl patients;
+    private BedDAO bedDAO;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "HB");
+        properties.setProperty("ward.HB.rooms", "2,1");
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        dbFile = File.createTempFile("carehome-holds-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        holds = new BedReservationServiceImpl();
+        patients = new PatientServiceImpl();
+        bedDAO = new BedDAOImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testHoldCountsAsOccupiedForPlacementAndGender() throws Exception {
+        // BUSINESS RULE: a held bed is not offered to anyone, and its hold gender keeps the other gender out of the room
+        BedReservation hold = holds.holdBed("HBR1B1", Gender.FEMALE, Duration.ofHours(3), "Pre-admission assessment");
+        Assert.assertEquals(hold.getBedId(), "HBR1B1");
+        Assert.assertFalse(bedDAO.isBedAvailable("HBR1B1"));
+        Assert.assertFalse(bedDAO.isRoomGenderCompatible("HBR1B2", "MALE"));
+        Assert.assertEquals(bedDAO.getAvailableBedCount(), 2);
+
+        patients.addPatient(patient("M1", Gender.MALE, false));
+        Assert.assertEquals(bedDAO.findPatientBed("M1"), "HBR2B1", "The man must not be put next to the held bed");
+        Assert.expectThrows(ComplianceException.class, () -> holds.holdBed("HBR1B2", Gender.MALE, Duration.ofHours(1), null));
+
+        // The database path (taken after a bed write in the same unit of work) sees the hold the same way
+        try {
+            TransactionManager.run(() -> {
+                bedDAO.freeBed("HBR2B1");
+                Assert.assertFalse(bedDAO.isRoomGenderCompatible("HBR1B2", "MALE"));
+                Assert.assertEquals(bedDAO.findSuitableBed("MALE", false), "HBR2B1");
+                throw new IllegalStateException("roll back");
+            });
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Held bed kept out of placement and kept the room female");
+    }
+
+    @Test
+    public void testHoldIsUsedByAdmissionOrReleased() throws Exception {
+        // RULE: a hold admits only a patient of its gender, then ends; a released hold frees the bed at once
+        HoldExpiry.getInstance().ensureScheduled();   // drop the previous test database's timeouts
+        int scheduledBefore = HoldExpiry.getInstance().getScheduledCount();
+        BedReservation hold = holds.holdSuitableBed(Gender.FEMALE, false, Duration.ofHours(2), "Assessment");
+        BedReservation other = holds.holdBed("HBR2B1", Gender.MALE, Duration.ofHours(2), "Assessment");
+        Assert.assertEquals(HoldExpiry.getInstance().getScheduledCount(), scheduledBefore + 2);
+
+        Assert.expectThrows(ComplianceException.class, () -> patients.addPatientToHold(patient("M2", Gender.MALE, false), hold.getReservationId()));
+        patients.addPatientToHold(patient("F1", Gender.FEMALE, false), hold.getReservationId());
+        Assert.assertEquals(bedDAO.findPatientBed("F1"), hold.getBedId());
+        Assert.expectThrows(ComplianceException.class, () -> patients.addPatientToHold(patient("F2", Gender.FEMALE, false), hold.getReservationId()));
+
+        holds.releaseHold(other.getReservationId());
+        Assert.assertTrue(bedDAO.isBedAvailable("HBR2B1"));
+        Assert.expectThrows(CareHomeException.class, () -> holds.releaseHold(other.getReservationId()));
+        Assert.assertEquals(holds.getHolds(), List.of());
+        Assert.assertEquals(HoldExpiry.getInstance().getScheduledCount(), scheduledBefore);
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Hold used by F1 and another released");
+    }
+
+    @Test
+    public void testExpiredHoldFreesBedForWaitlist() throws Exception {
+        // BUSINESS RULE: a hold expires on its own, even across a restart, and the bed goes to the waitlist
+        holds.holdBed("HBR2B1", Gender.MALE, Duration.ofMillis(600), "Assessment");
+        holds.holdBed("HBR1B1", Gender.MALE, Duration.ofMillis(400), "Assessment");
+        holds.holdBed("HBR1B2", Gender.MALE, Duration.ofHours(1), "Assessment");
+        Assert.assertFalse(patients.addPatientOrWaitlist(patient("W1", Gender.MALE, false), 0));
+
+        // Reopening the pools moves the generation on; the armed timeouts reschedule from the table
+        DatabaseConfig.closeConnection();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (bedDAO.findPatientBed("W1") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertNotNull(bedDAO.findPatientBed("W1"), "The expired hold's bed should go to W1");
+        while (holds.getHolds().size() > 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(holds.getHolds().size(), 1, "Only the one-hour hold is left");
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        System.out.println("✓ PASSED: Holds expired after a restart and W1 was admitted to " + bedDAO.findPatientBed("W1"));
+    }
+}
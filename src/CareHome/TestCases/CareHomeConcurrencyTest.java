@@ -0,0 +1,235 @@
+package CareHome.TestCases;
+
+import CareHome.CareHome;
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.Room;
+import CareHome.Model.Location.Ward;
+import CareHome.Model.Person.Patient;
+import CareHome.config.FacilityTopology;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+ // Core test suite for CareHome demonstrating that parallel admissions, moves and discharges never double-book or lose updates
+
+public class CareHomeConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private PrintStream originalOut;
+
+    // Every admission, move and discharge prints a line; console output is serialised, so it is muted here
+    @BeforeClass
+    public void muteConsole() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterClass
+    public void restoreConsole() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testParallelAdmissionsNeverDoubleBook() throws Exception {
+        // BUSINESS RULE: with more patients than beds, every bed is filled exactly once and rooms stay single-gender
+        CareHome home = CareHome.withTopology(FacilityTopology.uniform(4, 25, 4));
+        AtomicInteger admitted = new AtomicInteger();
+        int perThread = 75;   // 600 patients for 400 beds
+
+        runInParallel(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < perThread; i++) {
+                Gender gender = random.nextBoolean() ? Gender.MALE : Gender.FEMALE;
+                if (home.addPatient(patient("A" + thread + "-" + i, gender, random.nextInt(10) == 0))) {
+                    admitted.incrementAndGet();
+                }
+            }
+        });
+
+        Assert.assertEquals(home.getAllPatients().size(), admitted.get());
+        assertConsistent(home);
+        originalOut.println("✓ PASSED: " + admitted.get() + " parallel admissions into " + home.getTotalBeds() + " beds, none double-booked");
+    }
+
+    @Test
+    public void testMixedWorkloadLosesNoUpdates() throws Exception {
+        // RULE: concurrent admit/move/discharge leaves patient count = admissions - discharges and all indexes in step
+        CareHome home = CareHome.withTopology(FacilityTopology.uniform(2, 10, 4));
+        List<String> bedIds = new ArrayList<>();
+        for (Ward ward : home.getWards()) {
+            for (Room room : ward.getAllRooms()) {
+                room.getAllBeds().forEach(bed -> bedIds.add(bed.getBedId()));
+            }
+        }
+        AtomicInteger admissions = new AtomicInteger();
+        AtomicInteger discharges = new AtomicInteger();
+        AtomicInteger moves = new AtomicInteger();
+
+        runInParallel(thread -> {
+            Random random = new Random(100 + thread);
+            List<Patient> mine = new ArrayList<>();
+            for (int op = 0; op < 5_000; op++) {
+                int choice = random.nextInt(3);
+                if (choice == 0 || mine.isEmpty()) {
+                    Patient patient = patient("M" + thread + "-" + op, random.nextBoolean() ? Gender.MALE : Gender.FEMALE, false);
+                    if (home.addPatient(patient)) {
+                        mine.add(patient);
+                        admissions.incrementAndGet();
+                    }
+                } else if (choice == 1) {
+                    Patient patient = mine.remove(random.nextInt(mine.size()));
+                    home.dischargePatient(patient.getId());
+                    discharges.incrementAndGet();
+                } else {
+                    Patient patient = mine.get(random.nextInt(mine.size()));
+                    try {
+                        home.movePatientToBed(patient, bedIds.get(random.nextInt(bedIds.size())));
+                        moves.incrementAndGet();
+                    } catch (ComplianceException occupiedOrMixed) {
+                        // target taken or wrong gender; expected under contention
+                    }
+                }
+            }
+        });
+
+        Assert.assertEquals(home.getAllPatients().size(), admissions.get() - discharges.get());
+        Assert.assertEquals(home.getAvailableBedCount(), home.getTotalBeds() - home.getAllPatients().size());
+        assertConsistent(home);
+        originalOut.println("✓ PASSED: " + admissions.get() + " admissions, " + moves.get() + " moves, "
+                + discharges.get() + " discharges with no lost updates");
+    }
+
+    @Test
+    public void testWorkInDifferentRoomsScalesWithCores() throws Exception {
+        // RULE: changes to different rooms only contend on their own room lock, so throughput grows with cores
+        int cores = Math.min(Runtime.getRuntime().availableProcessors(), THREADS);
+        throughput(cores);   // JIT warm-up
+        double single = throughput(1);
+        double parallel = throughput(cores);
+        double speedup = parallel / single;
+
+        originalOut.printf("Bed moves: %.0f ops/s on 1 thread, %.0f ops/s on %d threads (%.1fx)%n",
+                single, parallel, cores, speedup);
+        if (cores >= 4) {
+            Assert.assertTrue(speedup > 1.5, "Expected moves to scale across " + cores + " cores, got " + speedup + "x");
+        }
+        originalOut.println("✓ PASSED: Scaling measured on " + cores + " core(s)");
+    }
+
+    // Moves per second with each thread shuttling its own residents between the beds of its own ward
+    private double throughput(int threads) throws Exception {
+        int roomsPerWard = 10;
+        int moves = 200_000;
+        CareHome home = CareHome.withTopology(FacilityTopology.uniform(threads, roomsPerWard, 4));
+
+        // One resident per room, placed before timing: thread t owns ward t+1
+        List<Patient> residents = new ArrayList<>();
+        for (int w = 1; w <= threads; w++) {
+            for (int r = 1; r <= roomsPerWard; r++) {
+                Patient patient = patient("S" + w + "-" + r, Gender.FEMALE, false);
+                Assert.assertTrue(home.addPatient(patient));
+                if (!home.getPatientBed(patient.getId()).getBedId().equals("W" + w + "R" + r + "B1")) {
+                    home.movePatientToBed(patient, "W" + w + "R" + r + "B1");
+                }
+                residents.add(patient);
+            }
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < moves; i++) {
+                    Patient patient = residents.get(thread * roomsPerWard + i % roomsPerWard);
+                    String bedId = home.getPatientBed(patient.getId()).getBedId();
+                    int bed = bedId.charAt(bedId.length() - 1) - '0';
+                    home.movePatientToBed(patient, bedId.substring(0, bedId.length() - 1) + (bed % 4 + 1));
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(120, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        executor.shutdown();
+        assertConsistent(home);
+        return (double) threads * moves / seconds;
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private void runInParallel(Worker worker) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                worker.run(thread);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    // Every listed patient holds exactly one bed that points back to them, and no room mixes genders
+    private void assertConsistent(CareHome home) {
+        Set<String> seated = new HashSet<>();
+        int occupied = 0;
+        for (Ward ward : home.getWards()) {
+            for (Room room : ward.getAllRooms()) {
+                Set<Gender> genders = new HashSet<>();
+                for (Bed bed : room.getAllBeds()) {
+                    if (!bed.isOccupied()) {
+                        continue;
+                    }
+                    occupied++;
+                    Patient patient = bed.getCurrentPatient();
+                    genders.add(patient.getGender());
+                    Assert.assertTrue(seated.add(patient.getId()), patient.getId() + " occupies two beds");
+                    Assert.assertSame(home.getPatientBed(patient.getId()), bed);
+                    Assert.assertSame(home.getPatient(patient.getId()), patient);
+                }
+                Assert.assertTrue(genders.size() <= 1, "Room " + room.getRoomId() + " mixes genders");
+            }
+        }
+        Assert.assertEquals(occupied, home.getAllPatients().size());
+    }
+
+    private Patient patient(String id, Gender gender, boolean isolation) {
+        Patient patient = new Patient(id, "Stress", "Patient", gender, 80, "PID-" + id, LocalDate.now());
+        patient.setNeedsIsolation(isolation);
+        return patient;
+    }
+}
@@ -5,9 +5,12 @@ import CareHome.Model.Person.*;
 import CareHome.Model.Gender;
 import CareHome.Model.Location.*;
 import CareHome.Exception.ComplianceException;
+import CareHome.config.FacilityTopology;
 import org.testng.annotations.*;
 import org.testng.Assert;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Core test suite for CareHome demonstrating main business rules:
@@ -151,6 +154,57 @@ public class CareHomeTest {
         System.out.println("✓ PASSED: CareHome initialized correctly - 2 wards, 38 beds");
     }
 
+    @Test
+    public void testLookupsFollowAddMoveAndDischarge() throws Exception {
+        // BUSINESS RULE: bed, room and patient lookups stay correct as residents are admitted, moved and discharged
+        CareHome home = CareHome.withTopology(FacilityTopology.getCurrent());
+        Patient patient = new Patient("LOOKUP1", "Lookup", "Patient", Gender.FEMALE, 77, "LOOKUP1_PID", LocalDate.now());
+        home.addPatient(patient);
+
+        Bed firstBed = home.getPatientBed("LOOKUP1");
+        Assert.assertNotNull(firstBed);
+        Assert.assertSame(home.getBed(firstBed.getBedId()), firstBed);
+        Assert.assertTrue(home.getRoomContainingBed(firstBed.getBedId()).getAllBeds().contains(firstBed));
+        Assert.assertSame(home.getPatient("LOOKUP1"), patient);
+
+        home.movePatientToBed(patient, "W2R6B3");
+        Assert.assertEquals(home.getPatientBed("LOOKUP1").getBedId(), "W2R6B3");
+        Assert.assertFalse(firstBed.isOccupied());
+        Assert.assertEquals(home.getRoomContainingBed("W2R6B3").getRoomId(), "W2R6");
+
+        home.dischargePatient("LOOKUP1");
+        Assert.assertNull(home.getPatientBed("LOOKUP1"));
+        Assert.assertNull(home.getPatient("LOOKUP1"));
+        Assert.assertFalse(home.getBed("W2R6B3").isOccupied());
+        Assert.assertEquals(home.getAvailableBedCount(), home.getTotalBeds());
+        Assert.expectThrows(ComplianceException.class, () -> {
+            home.addPatient(patient);
+            home.addPatient(patient);
+        });
+
+        System.out.println("✓ PASSED: Lookups followed the patient from " + firstBed.getBedId() + " to W2R6B3 and out");
+    }
+
+    @Test
+    public void testPatientsAreListedInAdmissionOrder() throws Exception {
+        // BUSINESS RULE: the resident list reads in the order residents were admitted, discharges aside
+        CareHome home = CareHome.withTopology(FacilityTopology.getCurrent());
+        List<String> admitted = new ArrayList<>();
+        for (int i = 9; i >= 1; i--) {
+            Patient patient = new Patient("ORDER" + i, "Order", "Patient", i % 2 == 0 ? Gender.MALE : Gender.FEMALE,
+                    70 + i, "ORDER" + i + "_PID", LocalDate.now());
+            home.addPatient(patient);
+            admitted.add(patient.getId());
+        }
+        home.dischargePatient("ORDER5");
+        admitted.remove("ORDER5");
+        home.addPatient(new Patient("ORDER5", "Order", "Patient", Gender.FEMALE, 75, "ORDER5_PID", LocalDate.now()));
+        admitted.add("ORDER5");
+
+        Assert.assertEquals(home.getAllPatients().stream().map(Patient::getId).toList(), admitted);
+        System.out.println("✓ PASSED: " + admitted.size() + " patients listed in admission order");
+    }
+
     //  HELPER METHODS
 
     private Bed findPatientBed(Patient patient) {
@@ -0,0 +1,170 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.CensusSnapshot;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.BedReservationServiceImpl;
+import CareHome.Service.CensusServiceImpl;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.PatientDAOImpl;
+import CareHome.view.BedNode;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for CensusService demonstrating versioned bed-state deltas for the ward map
+
+public class CensusSnapshotTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private CensusServiceImpl census;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "CS");
+        properties.setProperty("ward.CS.rooms", "2,2");
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        dbFile = File.createTempFile("carehome-census-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        census = new CensusServiceImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testChangesSinceVersionFollowAdmissionMoveAndDischarge() throws Exception {
+        // BUSINESS RULE: after one full load, each refresh returns only the beds whose state changed
+        CensusSnapshot first = census.getSnapshot();
+        Assert.assertTrue(first.isFull());
+        Assert.assertEquals(first.getBeds().size(), 4);
+        Assert.assertTrue(first.getBeds().stream().noneMatch(BedState::isOccupied));
+
+        PatientServiceImpl patients = new PatientServiceImpl();
+        patients.addPatient(patient("C1", Gender.FEMALE, false));
+        String bed = patients.getPatientBed("C1");
+        CensusSnapshot admitted = census.getChangesSince(first.getVersion());
+        Assert.assertFalse(admitted.isFull());
+        Assert.assertTrue(admitted.getVersion() > first.getVersion());
+        Assert.assertEquals(bedIds(admitted), List.of(bed), "Several writes to one bed come back as one state");
+        BedState occupied = admitted.getBeds().get(0);
+        Assert.assertEquals(occupied.getOccupantId(), "C1");
+        Assert.assertEquals(occupied.getOccupantPatientId(), "PID-C1");
+        Assert.assertEquals(occupied.getOccupantGender(), Gender.FEMALE);
+
+        String target = bed.startsWith("CSR1") ? "CSR2B1" : "CSR1B1";
+        patients.movePatient("C1", target);
+        CensusSnapshot moved = census.getChangesSince(admitted.getVersion());
+        Map<String, BedState> states = byBed(moved);
+        Assert.assertEquals(states.keySet(), Set.of(bed, target));
+        Assert.assertFalse(states.get(bed).isOccupied());
+        Assert.assertEquals(states.get(target).getOccupantId(), "C1");
+
+        CensusSnapshot idle = census.getChangesSince(moved.getVersion());
+        Assert.assertTrue(idle.isEmpty(), "Nothing changed");
+        Assert.assertEquals(idle.getVersion(), moved.getVersion());
+
+        patients.dischargePatient("C1");
+        CensusSnapshot discharged = census.getChangesSince(moved.getVersion());
+        Assert.assertEquals(bedIds(discharged), List.of(target));
+        Assert.assertFalse(discharged.getBeds().get(0).isOccupied());
+
+        // A client that missed the move still ends up with both beds right
+        Map<String, BedState> caughtUp = byBed(census.getChangesSince(admitted.getVersion()));
+        Assert.assertFalse(caughtUp.get(bed).isOccupied());
+        Assert.assertFalse(caughtUp.get(target).isOccupied());
+        System.out.println("✓ PASSED: Census versions " + first.getVersion() + " to " + discharged.getVersion() + " tracked admission, move and discharge");
+    }
+
+    @Test
+    public void testHoldsEditsAndUnknownVersions() throws Exception {
+        // RULE: holds and name changes are census changes; a version the log cannot answer from gets a full snapshot
+        long start = census.getSnapshot().getVersion();
+        BedReservationServiceImpl holds = new BedReservationServiceImpl();
+        BedReservation hold = holds.holdBed("CSR2B2", Gender.MALE, Duration.ofHours(1), "Assessment");
+        CensusSnapshot held = census.getChangesSince(start);
+        Assert.assertEquals(bedIds(held), List.of("CSR2B2"));
+        Assert.assertTrue(held.getBeds().get(0).isHeld());
+        Assert.assertEquals(held.getBeds().get(0).getHoldGender(), Gender.MALE);
+        holds.releaseHold(hold.getReservationId());
+        Assert.assertFalse(census.getChangesSince(held.getVersion()).getBeds().get(0).isHeld());
+
+        PatientServiceImpl patients = new PatientServiceImpl();
+        patients.addPatient(patient("C2", Gender.FEMALE, false));
+        long beforeEdit = census.getSnapshot().getVersion();
+        Patient renamed = new Patient("C2", "Renamed", "Patient", Gender.FEMALE, 79, "PID-C2", LocalDate.now());
+        new PatientDAOImpl().update(renamed);
+        CensusSnapshot edited = census.getChangesSince(beforeEdit);
+        Assert.assertEquals(edited.getBeds().get(0).getOccupantName(), "Renamed Patient");
+        new PatientDAOImpl().update(renamed);
+        Assert.assertTrue(census.getChangesSince(edited.getVersion()).isEmpty(), "Saving unchanged details is not a change");
+
+        CensusSnapshot ahead = census.getChangesSince(edited.getVersion() + 1_000);
+        Assert.assertTrue(ahead.isFull(), "A version from another database reloads everything");
+        Assert.assertEquals(ahead.getBeds().size(), 4);
+        Assert.expectThrows(CareHomeException.class, () -> census.getChangesSince(-1));
+        System.out.println("✓ PASSED: Holds, edits and unknown versions handled");
+    }
+
+    @Test
+    public void testBedNodeRepaintsOnlyOnChange() {
+        // RULE: a ward map bed is repainted only when its state differs from what it shows
+        BedState empty = new BedState("CSR1B1", "CS", 1, null, null, null, null, null);
+        BedState occupied = new BedState("CSR1B1", "CS", 1, "C3", "PID-C3", "Ada Patient", Gender.FEMALE, null);
+        BedNode node = new BedNode(empty);
+
+        Assert.assertFalse(node.update(new BedState("CSR1B1", "CS", 1, null, null, null, null, null)));
+        Assert.assertTrue(node.update(occupied));
+        Assert.assertSame(node.getState(), occupied);
+        Assert.assertFalse(node.update(occupied));
+        System.out.println("✓ PASSED: Unchanged beds are left alone");
+    }
+
+    private static List<String> bedIds(CensusSnapshot snapshot) {
+        return snapshot.getBeds().stream().map(BedState::getBedId).sorted().toList();
+    }
+
+    private static Map<String, BedState> byBed(CensusSnapshot snapshot) {
+        return snapshot.getBeds().stream().collect(Collectors.toMap(BedState::getBedId, Function.identity()));
+    }
+}
@@ -0,0 +1,178 @@
+package CareHome.TestCases;
+
+import CareHome.config.ConnectionPool;
+import CareHome.config.PoolStats;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+ // Core test suite for ConnectionPool demonstrating borrow/return semantics and metrics
+
+public class ConnectionPoolTest {
+    private File dbFile;
+    private ConnectionPool pool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-pool-", ".db");
+        pool = new ConnectionPool("jdbc:sqlite:" + dbFile.getAbsolutePath(), 2, 1000, null);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdown();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testClosedConnectionIsReused() throws Exception {
+        // RULE: closing a borrowed connection returns it instead of reopening the database
+        for (int i = 0; i < 50; i++) {
+            try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT 1");
+            }
+        }
+
+        PoolStats stats = pool.getStats();
+        Assert.assertEquals(stats.getCreatedCount(), 1, "Sequential borrows should share one physical connection");
+        Assert.assertEquals(stats.getBorrowCount(), 50);
+        Assert.assertEquals(stats.getActiveConnections(), 0, "Nothing should be borrowed after the loop");
+        System.out.println("✓ PASSED: " + stats);
+    }
+
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        // RULE: the pool never opens more than maxSize connections; extra borrowers time out
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        try {
+            pool.borrow();
+            Assert.fail("Third borrow should time out on a pool of two");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage().contains("Timed out"), "Unexpected message: " + e.getMessage());
+        } finally {
+            first.close();
+            second.close();
+        }
+
+        PoolStats stats = pool.getStats();
+        Assert.assertEquals(stats.getOpenConnections(), 2);
+        Assert.assertEquals(stats.getTimeoutCount(), 1);
+        System.out.println("✓ PASSED: Pool bounded at " + stats.getMaxSize() + " connections");
+    }
+
+    @Test
+    public void testReturnedHandleCannotBeUsed() throws Exception {
+        // RULE: a handle is unusable once it has been handed back to the pool
+        Connection conn = pool.borrow();
+        conn.close();
+        conn.close(); // second close is a no-op
+
+        Assert.assertTrue(conn.isClosed(), "Returned handle should report closed");
+        try {
+            conn.createStatement();
+            Assert.fail("Using a returned handle should fail");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage().contains("returned to the pool"));
+        }
+        Assert.assertEquals(pool.getStats().getIdleConnections(), 1, "Double close must not enqueue twice");
+        System.out.println("✓ PASSED: Returned handle rejected further use");
+    }
+
+    @Test
+    public void testStaleHandleCannotReturnAnotherBorrowersConnection() throws Exception {
+        // RULE: closing an old handle late must not hand back the connection a later borrower holds
+        Connection stale = pool.borrow();
+        stale.close();
+        Connection current = pool.borrow();
+        Assert.assertNotSame(current, stale, "Each borrow should get its own handle");
+
+        stale.close();
+        Assert.assertFalse(current.isClosed(), "Current borrower's handle must stay usable");
+        Assert.assertEquals(pool.getStats().getActiveConnections(), 1, "Connection should still be on loan");
+        try (Statement stmt = current.createStatement()) {
+            stmt.execute("SELECT 1");
+        }
+        current.close();
+        Assert.assertEquals(pool.getStats().getActiveConnections(), 0);
+        System.out.println("✓ PASSED: Late close of a stale handle ignored");
+    }
+
+    @Test
+    public void testUncommittedWorkIsRolledBackOnReturn() throws Exception {
+        // RULE: a borrower that forgets to commit does not leak its transaction to the next borrower
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS t (v INTEGER)");
+        }
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.executeUpdate("INSERT INTO t VALUES (1)");
+        }
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            Assert.assertTrue(conn.getAutoCommit(), "Auto-commit should be restored");
+            var rs = stmt.executeQuery("SELECT COUNT(*) FROM t");
+            rs.next();
+            Assert.assertEquals(rs.getInt(1), 0, "Uncommitted insert should have been rolled back");
+        }
+        System.out.println("✓ PASSED: Abandoned transaction rolled back on return");
+    }
+
+    @Test
+    public void testWaiterIsServedWhenAConnectionIsDiscarded() throws Exception {
+        // RULE: a slot freed by a broken connection goes to a waiting borrower instead of timing it out
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> waiter = executor.submit(() -> {
+            try (Connection conn = pool.borrow()) {
+                return conn.isValid(1);
+            }
+        });
+        Thread.sleep(200);
+
+        // Kill the physical connection so the return fails its reset and the connection is discarded
+        first.unwrap(Connection.class).close();
+        first.close();
+
+        Assert.assertTrue(waiter.get(), "Waiter should get a fresh connection before its timeout");
+        executor.shutdown();
+        second.close();
+        Assert.assertEquals(pool.getStats().getTimeoutCount(), 0, "No borrower should have timed out");
+        System.out.println("✓ PASSED: Discarded slot handed to the waiting borrower");
+    }
+
+    @Test
+    public void testConcurrentBorrowers() throws Exception {
+        // RULE: many threads can share a small pool without exceeding its bound
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> {
+                try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT 1");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        executor.shutdown();
+
+        PoolStats stats = pool.getStats();
+        Assert.assertTrue(stats.getCreatedCount() <= 2, "Pool should never exceed two connections");
+        Assert.assertEquals(stats.getBorrowCount(), 200);
+        Assert.assertEquals(stats.getActiveConnections(), 0);
+        System.out.println("✓ PASSED: " + stats);
+    }
+}
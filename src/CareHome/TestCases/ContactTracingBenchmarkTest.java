@@ -0,0 +1,110 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Medical.ContactTrace;
+import CareHome.Model.Schedule.Shift;
+import CareHome.Model.ShiftType;
+import CareHome.Service.ContactTracingServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.PatientDAOImpl;
+import CareHome.dao.ShiftDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static CareHome.TestCases.OccupancyHistoryBenchmarkTest.HISTORY_END;
+import static CareHome.TestCases.OccupancyHistoryBenchmarkTest.HISTORY_START;
+
+/**
+ * Cost of contact tracing over ten years of stays in a 400-bed home with a full weekly roster:
+ * a four-week outbreak traced three levels deep, and the whole history traced until no one new
+ * is reached. The whole-history trace should finish in under a second.
+ */
+public class ContactTracingBenchmarkTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private int stays;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+
+        List<String> bedIds = OccupancyHistoryBenchmarkTest.configureLayout();
+        dbFile = File.createTempFile("carehome-tracebench-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        stays = OccupancyHistoryBenchmarkTest.seedHistory(bedIds);
+        new PatientDAOImpl().save(BatchAdmissionTest.patient("PH0", Gender.FEMALE, false));
+
+        // Three morning and three afternoon nurses and a doctor's round every day
+        ShiftDAOImpl shiftDAO = new ShiftDAOImpl();
+        int shiftNumber = 0;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (ShiftType type : ShiftType.values()) {
+                for (int i = 0; i < (type == ShiftType.DOCTOR_ROUND ? 1 : 3); i++) {
+                    Shift shift = new Shift("SHB" + shiftNumber, day, type);
+                    shift.assignStaff("STB" + shiftNumber++);
+                    shiftDAO.saveShift(shift);
+                }
+            }
+        }
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+        dbFile.delete();
+    }
+
+    @Test
+    public void benchmarkContactTracing() throws Exception {
+        ContactTracingServiceImpl tracing = new ContactTracingServiceImpl();
+        LocalDateTime onset = HISTORY_START.plusDays(10);
+
+        // Warm up the JIT and the statement caches
+        for (int i = 0; i < 3; i++) {
+            tracing.trace("PH0", onset, onset.plusDays(28), Duration.ofHours(2), 3);
+            tracing.trace("PH0", HISTORY_START, HISTORY_END, Duration.ofHours(2), Integer.MAX_VALUE);
+        }
+
+        int outbreakRuns = 20;
+        ContactTrace outbreak = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < outbreakRuns; i++) {
+            outbreak = tracing.trace("PH0", onset, onset.plusDays(28), Duration.ofHours(2), 3);
+        }
+        double outbreakMillis = (System.nanoTime() - start) / 1e6 / outbreakRuns;
+
+        int wholeRuns = 5;
+        ContactTrace whole = null;
+        start = System.nanoTime();
+        for (int i = 0; i < wholeRuns; i++) {
+            whole = tracing.trace("PH0", HISTORY_START, HISTORY_END, Duration.ofHours(2), Integer.MAX_VALUE);
+        }
+        double wholeMillis = (System.nanoTime() - start) / 1e6 / wholeRuns;
+        int deepest = whole.getExposures().stream().mapToInt(e -> e.getDepth()).max().orElse(0);
+
+        System.out.printf("%,d stays in 400 beds over ten years, 49 rostered shifts a week%n", stays);
+        System.out.printf("Four-week outbreak, 3 levels: %.2f ms, %d patients and %d staff reached%n",
+                outbreakMillis, outbreak.getPatientExposures().size(), outbreak.getStaffExposures().size());
+        System.out.printf("Whole history, every level:   %.1f ms, %,d patients over %d levels%n",
+                wholeMillis, whole.getPatientExposures().size(), deepest);
+
+        Assert.assertTrue(outbreak.getPatientExposures().size() > 0);
+        Assert.assertTrue(whole.getPatientExposures().size() > stays / 2, "A decade of shared rooms should reach most patients");
+        Assert.assertEquals(whole.getStaffExposures().size(), 49);
+        Assert.assertTrue(wholeMillis < 1_000, "Tracing the whole history took " + wholeMillis + " ms");
+        System.out.println("✓ PASSED: Contact tracing benchmark completed");
+    }
+}
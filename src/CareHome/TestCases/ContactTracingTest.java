@@ -0,0 +1,161 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Medical.ContactTrace;
+import CareHome.Model.Medical.Exposure;
+import CareHome.Model.Schedule.Shift;
+import CareHome.Model.ShiftType;
+import CareHome.Service.ContactTracingServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.PatientDAOImpl;
+import CareHome.dao.ShiftDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+import static CareHome.TestCases.OccupancyHistoryTest.insertStay;
+
+
+ // Core test suite for ContactTracingService demonstrating room-sharing exposures, transitive depth, room linger and rostered staff
+
+public class ContactTracingTest {
+    private static final LocalDateTime MARCH_1 = LocalDateTime.parse("2025-03-01T00:00");
+    private static final LocalDateTime MARCH_31 = LocalDateTime.parse("2025-03-31T00:00");
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private ContactTracingServiceImpl tracing;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "CT");
+        properties.setProperty("ward.CT.rooms", "2,2");
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        dbFile = File.createTempFile("carehome-tracing-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        tracing = new ContactTracingServiceImpl();
+
+        // 3 March 2025 is a Monday. A is the index patient.
+        new PatientDAOImpl().save(patient("A", Gender.FEMALE, false));
+        insertStay("A", "CTR1B1", "2025-03-03T10:00", "2025-03-05T10:00");
+        insertStay("E", "CTR1B2", "2025-02-01T00:00", "2025-03-04T12:00");
+        insertStay("B", "CTR1B2", "2025-03-04T12:00", "2025-03-10T00:00");
+        insertStay("B", "CTR2B2", "2025-03-10T00:00", "2025-03-15T00:00");
+        insertStay("C", "CTR1B1", "2025-03-05T14:00", "2025-03-20T00:00");
+        insertStay("D", "CTR2B1", "2025-03-01T00:00", "2025-03-20T00:00");
+        insertStay("G", "CTR2B2", "2025-03-15T00:00", "2025-03-25T00:00");
+        insertStay("F", "CTR1B2", "2025-01-01T00:00", "2025-02-01T00:00");
+
+        ShiftDAOImpl shiftDAO = new ShiftDAOImpl();
+        shiftDAO.saveShift(shift("SH1", DayOfWeek.MONDAY, ShiftType.MORNING_NURSE, "N1"));
+        shiftDAO.saveShift(shift("SH2", DayOfWeek.WEDNESDAY, ShiftType.DOCTOR_ROUND, "DOC1"));
+        shiftDAO.saveShift(shift("SH3", DayOfWeek.THURSDAY, ShiftType.AFTERNOON_NURSE, "N2"));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testRoomContactsAreTracedToTheRequestedDepth() throws Exception {
+        // BUSINESS RULE: contacts are patients who shared a room while the source was infectious, traced level by level
+        ContactTrace direct = tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 1);
+        Assert.assertEquals(ids(direct.getPatientExposures()), List.of("E", "B"));
+        Assert.assertEquals(direct.find("E").getFrom(), LocalDateTime.parse("2025-03-03T10:00"));
+        Assert.assertEquals(direct.find("B").getFrom(), LocalDateTime.parse("2025-03-04T12:00"));
+        Assert.assertEquals(direct.find("B").getTo(), LocalDateTime.parse("2025-03-05T10:00"));
+        Assert.assertEquals(direct.find("B").getLocation(), "CT room 1");
+
+        ContactTrace second = tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 2);
+        Assert.assertEquals(ids(second.getPatientExposures()), List.of("E", "B", "C", "D"));
+        Exposure d = second.find("D");
+        Assert.assertEquals(d.getDepth(), 2);
+        Assert.assertEquals(d.getSourcePatientId(), "B");
+        Assert.assertEquals(d.getFrom(), LocalDateTime.parse("2025-03-10T00:00"));
+        Assert.assertEquals(d.getLocation(), "CT room 2");
+
+        // G only met D, after D's own exposure; F left before anyone was infectious
+        ContactTrace third = tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 10);
+        Assert.assertEquals(third.find("G").getDepth(), 3);
+        Assert.assertEquals(third.find("G").getSourcePatientId(), "D");
+        Assert.assertNull(third.find("F"));
+        Assert.assertNull(third.find("A"), "The index patient is not their own contact");
+        System.out.println("✓ PASSED: Traced " + third.getPatientExposures().size() + " patients over three levels");
+    }
+
+    @Test
+    public void testExposureWindowAndRoomLinger() throws Exception {
+        // RULE: only time inside the infectious period counts, and a room stays infectious for the linger after the source leaves
+        ContactTrace late = tracing.trace("A", LocalDateTime.parse("2025-03-04T13:00"), MARCH_31, Duration.ZERO, 1);
+        Assert.assertEquals(ids(late.getPatientExposures()), List.of("B"), "E left before the infectious period began");
+
+        ContactTrace lingering = tracing.trace("A", MARCH_1, MARCH_31, Duration.ofHours(6), 1);
+        Assert.assertEquals(ids(lingering.getPatientExposures()), List.of("E", "B", "C"));
+        Assert.assertEquals(lingering.find("C").getSourcePatientId(), "A");
+        Assert.assertEquals(lingering.find("C").getTo(), LocalDateTime.parse("2025-03-05T16:00"));
+
+        Assert.expectThrows(CareHomeException.class, () -> tracing.trace("NOBODY", MARCH_1, MARCH_31, Duration.ZERO, 1));
+        Assert.expectThrows(CareHomeException.class, () -> tracing.trace("A", MARCH_31, MARCH_1, Duration.ZERO, 1));
+        Assert.expectThrows(CareHomeException.class, () -> tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 0));
+        System.out.println("✓ PASSED: Infectious period and a 6 hour linger decided who was exposed");
+    }
+
+    @Test
+    public void testRosteredStaffAreExposedByTracedPatients() throws Exception {
+        // BUSINESS RULE: staff rostered while a traced patient was in the home are contacts at that patient's level
+        ContactTrace direct = tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 1);
+        Assert.assertEquals(ids(direct.getStaffExposures()), List.of("N1", "DOC1"));
+        Assert.assertEquals(direct.find("N1").getFrom(), LocalDateTime.parse("2025-03-03T10:00"));
+        Assert.assertEquals(direct.find("N1").getTo(), LocalDateTime.parse("2025-03-03T16:00"));
+        Assert.assertEquals(direct.find("DOC1").getLocation(), "DOCTOR_ROUND shift");
+
+        // Only B was in on a Thursday afternoon
+        ContactTrace second = tracing.trace("A", MARCH_1, MARCH_31, Duration.ZERO, 2);
+        Exposure n2 = second.find("N2");
+        Assert.assertEquals(n2.getDepth(), 2);
+        Assert.assertEquals(n2.getFrom(), LocalDateTime.parse("2025-03-06T14:00"));
+        Assert.assertEquals(second.find("N1").getDepth(), 1, "N1 keeps the nearest exposure");
+        System.out.println("✓ PASSED: Staff exposures follow the roster");
+    }
+
+    private static List<String> ids(List<Exposure> exposures) {
+        return exposures.stream().map(Exposure::getContactId).toList();
+    }
+
+    private static Shift shift(String shiftId, DayOfWeek day, ShiftType type, String staffId) {
+        Shift shift = new Shift(shiftId, day, type);
+        shift.assignStaff(staffId);
+        return shift;
+    }
+}
@@ -0,0 +1,187 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Medical.Prescription;
+import CareHome.Model.Schedule.Shift;
+import CareHome.Model.ShiftType;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.config.TransactionManager;
+import CareHome.dao.PrescriptionDAOImpl;
+import CareHome.dao.ShiftDAOImpl;
+import CareHome.event.BedAssigned;
+import CareHome.event.BedFreed;
+import CareHome.event.CoalescingDispatcher;
+import CareHome.event.DomainEvent;
+import CareHome.event.EventBus;
+import CareHome.event.PatientDischarged;
+import CareHome.event.PrescriptionAdded;
+import CareHome.event.ShiftAssigned;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for the domain event bus demonstrating after-commit publishing, typed events and coalesced delivery
+
+public class EventBusTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+    private EventBus.Subscription subscription;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        FacilityTopology.configure(FacilityTopology.uniform(1, 2, 2));
+        dbFile = File.createTempFile("carehome-events-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.WAL);
+        received.clear();
+        subscription = EventBus.getInstance().subscribe(DomainEvent.class, received::add);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        subscription.cancel();
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testEventsArriveOnlyAfterCommit() throws Exception {
+        // RULE: subscribers hear about a change once it has committed, and never about one that rolled back
+        PatientServiceImpl service = new PatientServiceImpl();
+        List<Integer> seenInside = new ArrayList<>();
+        TransactionManager.run(() -> {
+            service.addPatient(patient("E1", Gender.FEMALE, false));
+            seenInside.add(received.size());
+        });
+        Assert.assertEquals(seenInside, List.of(0), "Nothing is delivered while the unit of work is open");
+        Assert.assertEquals(received.size(), 1);
+        BedAssigned assigned = (BedAssigned) received.get(0);
+        Assert.assertEquals(assigned.getBedId(), service.getPatientBed("E1"));
+        Assert.assertEquals(assigned.getPatientId(), "E1");
+
+        received.clear();
+        Assert.expectThrows(IllegalStateException.class, () -> TransactionManager.run(() -> {
+            service.addPatient(patient("E2", Gender.FEMALE, false));
+            throw new IllegalStateException("abandon");
+        }));
+        Assert.assertTrue(received.isEmpty(), "A rolled-back admission publishes nothing");
+        Assert.assertNull(service.findPatientById("E2"));
+
+        subscription.cancel();
+        Assert.assertFalse(subscription.isActive());
+        service.addPatient(patient("E3", Gender.FEMALE, false));
+        Assert.assertTrue(received.isEmpty(), "A cancelled subscription receives nothing");
+        System.out.println("✓ PASSED: Events are delivered after commit only");
+    }
+
+    @Test
+    public void testWritesPublishTypedEvents() throws Exception {
+        // RULE: moves, discharges, prescriptions and shift assignments each publish their own event type
+        PatientServiceImpl service = new PatientServiceImpl();
+        service.addPatient(patient("E1", Gender.MALE, false));
+        String firstBed = service.getPatientBed("E1");
+        String otherRoomBed = firstBed.replace("R1", "R2");
+        received.clear();
+
+        service.movePatient("E1", otherRoomBed);
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertEquals(((BedAssigned) received.get(0)).getBedId(), otherRoomBed);
+        Assert.assertEquals(((BedFreed) received.get(1)).getBedId(), firstBed);
+
+        received.clear();
+        service.dischargePatient("E1");
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertEquals(((BedFreed) received.get(0)).getBedId(), otherRoomBed);
+        Assert.assertEquals(((PatientDischarged) received.get(1)).getPatientId(), "E1");
+
+        received.clear();
+        List<PrescriptionAdded> prescriptions = new ArrayList<>();
+        EventBus.Subscription typed = EventBus.getInstance().subscribe(PrescriptionAdded.class, prescriptions::add);
+        try {
+            new PrescriptionDAOImpl().save(new Prescription("RX-E1", "E1", "D001", "Paracetamol", "500mg", "Daily", LocalDate.now(), null));
+            Shift shift = new Shift("SH-E1", DayOfWeek.MONDAY, ShiftType.MORNING_NURSE);
+            shift.assignStaff("N001");
+            new ShiftDAOImpl().saveShift(shift);
+        } finally {
+            typed.cancel();
+        }
+        Assert.assertEquals(prescriptions.size(), 1, "A typed subscriber only sees its own type");
+        Assert.assertEquals(prescriptions.get(0).getPrescription().getPrescriptionId(), "RX-E1");
+        Assert.assertEquals(received.size(), 2);
+        Assert.assertEquals(((ShiftAssigned) received.get(1)).getShift().getAssignedStaffId(), "N001");
+        System.out.println("✓ PASSED: Writes publish " + received.size() + " typed events");
+    }
+
+    @Test
+    public void testDispatcherCoalescesBursts() throws Exception {
+        // RULE: a burst becomes one batch with the latest event per key, and a steady stream still flushes by the maximum delay
+        List<List<DomainEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch first = new CountDownLatch(1);
+        CoalescingDispatcher dispatcher = new CoalescingDispatcher(50, 200, Runnable::run, batch -> {
+            batches.add(batch);
+            first.countDown();
+        });
+
+        for (int i = 0; i < 1_000; i++) {
+            dispatcher.accept(i % 2 == 0 ? new BedAssigned("B" + (i % 20), "P" + i) : new BedFreed("B" + (i % 20)));
+        }
+        Assert.assertTrue(first.await(2, TimeUnit.SECONDS));
+        Assert.assertEquals(batches.size(), 1);
+        List<DomainEvent> burst = batches.get(0);
+        Assert.assertEquals(burst.size(), 20, "One event per bed");
+        Assert.assertEquals(burst.get(0).getKey(), "bed:B0");
+        Assert.assertEquals(((BedAssigned) burst.get(0)).getPatientId(), "P980", "The latest event for each bed wins");
+        Assert.assertTrue(burst.get(1) instanceof BedFreed);
+
+        // An event every 10 ms never leaves a 50 ms quiet gap, so only the maximum delay flushes it
+        batches.clear();
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(700)) {
+            dispatcher.accept(new BedFreed("B1"));
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(batches.size() >= 2, "A steady stream was held back: " + batches.size() + " batches");
+
+        dispatcher.close();
+        int delivered = batches.size();
+        dispatcher.accept(new BedFreed("B2"));
+        Thread.sleep(150);
+        Assert.assertEquals(batches.size(), delivered, "A closed dispatcher delivers nothing");
+        System.out.println("✓ PASSED: 1,000 events coalesced into one batch of " + burst.size());
+    }
+}
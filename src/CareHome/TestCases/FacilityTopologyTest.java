@@ -0,0 +1,199 @@
+package CareHome.TestCases;
+
+import CareHome.CareHome;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.Room;
+import CareHome.Model.Location.Ward;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.PatientDAO;
+import CareHome.dao.PatientDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+
+ // Core test suite for FacilityTopology demonstrating layouts beyond two wards of six rooms, in memory and in the database
+
+public class FacilityTopologyTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-layout-", ".db");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testBundledLayoutIsTheOriginalFacility() {
+        // BUSINESS RULE: the shipped layout is still 2 wards x 6 rooms with 38 beds
+        FacilityTopology topology = FacilityTopology.load();
+        Assert.assertEquals(topology.getWards().size(), 2);
+        Assert.assertEquals(topology.getTotalBeds(), 38);
+        Assert.assertEquals(topology.getWards().get(0).getName(), "High Care Ward");
+        Assert.assertEquals(topology.getWards().get(1).getRooms().get(5).getBedId(4), "W2R6B4");
+        System.out.println("✓ PASSED: Bundled layout has 2 wards, 38 beds");
+    }
+
+    @Test
+    public void testRoomNumbersPastNineAndFloorNumbering() throws Exception {
+        // RULE: room numbers come from the layout, not from a fixed position in the room id
+        FacilityTopology topology = FacilityTopology.fromProperties(layout(
+                "wards", "W10,N3",
+                "ward.W10.rooms", "1,4*11",
+                "ward.N3.name", "North Wing",
+                "ward.N3.floor", "3",
+                "ward.N3.firstRoom", "301",
+                "ward.N3.rooms", "2*12"));
+        CareHome careHome = CareHome.withTopology(topology);
+
+        Ward north = careHome.getWards().get(1);
+        Assert.assertEquals(north.getFloor(), 3);
+        Room last = north.getAllRooms().get(11);
+        Assert.assertEquals(last.getRoomId(), "N3R312");
+        Assert.assertEquals(last.getAllBeds().get(1).getRoomNumber(), 312);
+
+        Bed bed = careHome.getWards().get(0).getAllRooms().get(11).getAllBeds().get(3);
+        Assert.assertEquals(bed.getBedId(), "W10R12B4");
+        Assert.assertEquals(bed.getRoomNumber(), 12);
+        Assert.assertEquals(new Room("W10R12", "W10", 4).getAllBeds().get(0).getRoomNumber(), 12);
+        Assert.assertEquals(careHome.getTotalBeds(), 1 + 44 + 24);
+
+        Patient patient = new Patient("TOP1", "Layout", "Patient", Gender.MALE, 70, "PID-TOP1", LocalDate.now());
+        Assert.assertTrue(careHome.addPatient(patient));
+        Assert.assertTrue(careHome.canPatientMoveToBed(patient, "N3R312B2"));
+        System.out.println("✓ PASSED: Room 12 and room 312 resolved from the layout");
+    }
+
+    @Test
+    public void testDatabaseFollowsLayoutAndGrowsWithIt() throws Exception {
+        // BUSINESS RULE: beds added to the layout appear on the next start; occupied beds are kept
+        FacilityTopology.configure(FacilityTopology.fromProperties(layout(
+                "wards", "A1", "ward.A1.name", "Annex", "ward.A1.floor", "2", "ward.A1.rooms", "4*3")));
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        BedDAO bedDAO = new BedDAOImpl();
+        PatientDAO patientDAO = new PatientDAOImpl();
+
+        Assert.assertEquals(bedDAO.getTotalBeds(), 12);
+        Assert.assertEquals(bedDAO.findSuitableBed("FEMALE", false), "A1R1B1");
+        new PatientServiceImpl().addPatient(
+                new Patient("TOP2", "Layout", "Patient", Gender.FEMALE, 81, "PID-TOP2", LocalDate.now()));
+
+        // Add a second ward and restart
+        FacilityTopology.configure(FacilityTopology.fromProperties(layout(
+                "wards", "A1,B2", "ward.A1.name", "Annex", "ward.A1.floor", "2", "ward.A1.rooms", "4*3",
+                "ward.B2.name", "Garden Ward", "ward.B2.rooms", "1,2")));
+        DatabaseConfig.closeConnection();
+
+        Assert.assertEquals(bedDAO.getTotalBeds(), 15);
+        Assert.assertEquals(patientDAO.getPatientBed("TOP2"), "A1R1B1");
+        Assert.assertFalse(bedDAO.isBedAvailable("A1R1B1"));
+        Assert.assertTrue(bedDAO.isBedAvailable("B2R2B2"));
+
+        List<Ward> wards = bedDAO.getWards();
+        Assert.assertEquals(wards.size(), 2);
+        Assert.assertEquals(wards.get(0).getWardName(), "Garden Ward", "Floor 1 is listed first");
+        Assert.assertEquals(wards.get(1).getFloor(), 2);
+        System.out.println("✓ PASSED: Database grew from 12 to 15 beds with occupancy intact");
+    }
+
+    @Test
+    public void testUnchangedLayoutIsNotReappliedOnRestart() throws Exception {
+        // RULE: start-up only walks the wards and beds when a migration ran or the layout's checksum changed
+        FacilityTopology.configure(FacilityTopology.fromProperties(layout("wards", "C1", "ward.C1.rooms", "2*2")));
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        BedDAO bedDAO = new BedDAOImpl();
+        Assert.assertEquals(bedDAO.getTotalBeds(), 4, "Default seed replaced by the configured layout");
+
+        try (Connection conn = DatabaseConfig.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM beds WHERE bed_id = 'C1R2B2'");
+        }
+        DatabaseConfig.closeConnection();
+        Assert.assertEquals(bedDAO.getTotalBeds(), 3, "Same layout: the sync is skipped");
+
+        FacilityTopology.configure(FacilityTopology.fromProperties(
+                layout("wards", "C1", "ward.C1.name", "Courtyard", "ward.C1.rooms", "2*2")));
+        DatabaseConfig.closeConnection();
+        Assert.assertEquals(bedDAO.getTotalBeds(), 4, "Changed layout: missing beds are added again");
+        System.out.println("✓ PASSED: Layout re-applied only after its checksum changed");
+    }
+
+    @Test
+    public void testIsolationBedsComeFromTheLayout() throws Exception {
+        // BUSINESS RULE: isolation patients go to the beds the layout reserves, whatever the ward and room names
+        FacilityTopology.configure(FacilityTopology.fromProperties(layout(
+                "wards", "N3", "ward.N3.firstRoom", "301", "ward.N3.rooms", "2*2,1",
+                "ward.N3.isolationBeds", "R303B1")));
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        Assert.assertEquals(FacilityTopology.getCurrent().getIsolationBeds(), Set.of("N3R303B1"));
+        BedDAO bedDAO = new BedDAOImpl();
+        PatientServiceImpl service = new PatientServiceImpl();
+
+        Patient isolated = new Patient("TOP3", "Layout", "Patient", Gender.MALE, 77, "PID-TOP3", LocalDate.now());
+        isolated.setNeedsIsolation(true);
+        service.addPatient(isolated);
+        Assert.assertEquals(service.getPatientBed("TOP3"), "N3R303B1");
+        Assert.assertNull(bedDAO.findSuitableBed("FEMALE", true), "The only isolation room is taken");
+
+        DatabaseConfig.closeConnection();   // restart: the occupancy index is reloaded from the database
+        Assert.assertNull(bedDAO.findSuitableBed("MALE", true));
+        Assert.assertEquals(bedDAO.findSuitableBed("FEMALE", false), "N3R301B1");
+        System.out.println("✓ PASSED: Isolation patient placed in N3R303B1 from the layout");
+    }
+
+    @Test
+    public void testInvalidLayoutIsRejected() {
+        // RULE: a layout that would produce the same bed twice never reaches the database
+        Assert.expectThrows(IllegalArgumentException.class, () -> FacilityTopology.fromProperties(
+                layout("wards", "W1,W1", "ward.W1.rooms", "4")));
+        Assert.expectThrows(IllegalArgumentException.class, () -> FacilityTopology.fromProperties(
+                layout("wards", "W1", "ward.W1.rooms", "0")));
+        Assert.expectThrows(IllegalArgumentException.class, () -> FacilityTopology.fromProperties(
+                layout("wards", "W1")));
+        Assert.expectThrows(IllegalArgumentException.class, () -> FacilityTopology.fromProperties(
+                layout("wards", "W1", "ward.W1.rooms", "4", "ward.W1.isolationBeds", "R2B1")));
+        System.out.println("✓ PASSED: Duplicate wards, empty rooms, roomless wards and unknown isolation beds rejected");
+    }
+
+    private Properties layout(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,100 @@
+package CareHome.TestCases;
+
+import CareHome.util.HashedTimerWheel;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+
+ // Core test suite for HashedTimerWheel demonstrating on-time expiry, cancellation and an idle wheel that costs no CPU
+
+public class HashedTimerWheelTest {
+
+    @Test
+    public void testTimeoutsFireOnTimeAcrossTurnsOfTheWheel() throws Exception {
+        // RULE: a timeout never fires early, and fires within a few ticks of its deadline even many turns out
+        HashedTimerWheel wheel = new HashedTimerWheel("test-wheel-order", 10, TimeUnit.MILLISECONDS, 8);
+        int count = 500;
+        CountDownLatch fired = new CountDownLatch(count);
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        Random random = new Random(5);
+        for (int i = 0; i < count; i++) {
+            long delay = random.nextInt(400);   // the wheel turns every 80 ms
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            wheel.schedule(() -> {
+                long lateMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deadline);
+                if (System.nanoTime() < deadline || lateMillis > 250) {
+                    errors.add("delay " + delay + " ms fired " + lateMillis + " ms late");
+                }
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        Assert.assertTrue(fired.await(10, TimeUnit.SECONDS), "Not every timeout fired");
+        Assert.assertTrue(errors.isEmpty(), errors.toString());
+        Assert.assertEquals(wheel.getPendingCount(), 0);
+        wheel.stop();
+        System.out.println("✓ PASSED: " + count + " timeouts fired on time over five turns of the wheel");
+    }
+
+    @Test
+    public void testCancelledTimeoutsNeverRun() throws Exception {
+        // RULE: a cancelled timeout is removed and never runs; cancelling twice or after running is a no-op
+        HashedTimerWheel wheel = new HashedTimerWheel("test-wheel-cancel", 10, TimeUnit.MILLISECONDS, 16);
+        CountDownLatch kept = new CountDownLatch(1);
+        List<String> ran = new ArrayList<>();
+        HashedTimerWheel.Timeout cancelled = wheel.schedule(() -> ran.add("cancelled"), 50, TimeUnit.MILLISECONDS);
+        HashedTimerWheel.Timeout keep = wheel.schedule(kept::countDown, 100, TimeUnit.MILLISECONDS);
+
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertFalse(cancelled.cancel());
+        Assert.assertTrue(kept.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(keep.cancel(), "Already ran");
+        Assert.assertEquals(ran, List.of());
+        Assert.assertEquals(wheel.getPendingCount(), 0);
+        wheel.stop();
+        System.out.println("✓ PASSED: Cancelled timeout skipped, kept timeout ran once");
+    }
+
+    @Test
+    public void testThousandsOfDistantTimeoutsCostAlmostNoCpu() throws Exception {
+        // RULE: pending timeouts far in the future cost next to nothing, and an empty wheel stops ticking
+        HashedTimerWheel wheel = new HashedTimerWheel("test-wheel-idle", 200, TimeUnit.MILLISECONDS, 512);
+        List<HashedTimerWheel.Timeout> holds = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            holds.add(wheel.schedule(() -> { }, 2 + i % 6, TimeUnit.HOURS));
+        }
+        Thread worker = findThread("test-wheel-idle");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getThreadCpuTime(worker.threadId());
+        Thread.sleep(2_000);
+        double cpuMillis = (threads.getThreadCpuTime(worker.threadId()) - cpuBefore) / 1e6;
+
+        holds.forEach(HashedTimerWheel.Timeout::cancel);
+        Thread.sleep(300);
+        Thread.State idleState = worker.getState();
+        wheel.stop();
+
+        System.out.printf("5,000 pending timeouts: %.1f ms of wheel CPU over 2 s%n", cpuMillis);
+        Assert.assertTrue(cpuMillis < 100, "Wheel used " + cpuMillis + " ms of CPU while waiting");
+        Assert.assertEquals(idleState, Thread.State.WAITING, "An empty wheel should wait without a timeout");
+        System.out.println("✓ PASSED: Distant timeouts cost " + String.format("%.1f", cpuMillis) + " ms CPU; empty wheel parked");
+    }
+
+    private Thread findThread(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return thread;
+            }
+        }
+        throw new AssertionError("No thread named " + name);
+    }
+}
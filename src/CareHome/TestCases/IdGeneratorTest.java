@@ -0,0 +1,202 @@
+package CareHome.TestCases;
+
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.util.IdGenerator;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+ // Core test suite for IdGenerator demonstrating collision-free time-ordered ids and block-allocated sequences
+
+public class IdGeneratorTest {
+    private static final int THREADS = 8;
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private File dbFile;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-ids-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testTimeOrderedIdsAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        // RULE: concurrent callers never receive the same id, and each caller sees ids increase
+        int perThread = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = IdGenerator.nextTimeOrderedId();
+                }
+                return ids;
+            }));
+        }
+
+        Set<Long> seen = new HashSet<>(THREADS * perThread * 2);
+        for (Future<long[]> result : results) {
+            long[] ids = result.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < ids.length; i++) {
+                Assert.assertTrue(i == 0 || ids[i] > ids[i - 1], "Ids must increase within a thread");
+                Assert.assertTrue(seen.add(ids[i]), "Duplicate id " + ids[i]);
+            }
+        }
+        executor.shutdown();
+        System.out.println("✓ PASSED: " + seen.size() + " concurrent ids, no duplicates");
+    }
+
+    @Test
+    public void testTimeOrderedIdThroughput() {
+        // RULE: high-volume ids need no lock or database round-trip, so millions per second are sustainable
+        int count = 5_000_000;
+        long checksum = 0;
+        for (int i = 0; i < 200_000; i++) {
+            checksum += IdGenerator.nextTimeOrderedId();   // warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            checksum += IdGenerator.nextTimeOrderedId();
+        }
+        double perSecond = count / ((System.nanoTime() - start) / 1e9);
+
+        Assert.assertTrue(checksum != 0);
+        Assert.assertTrue(perSecond > 1_000_000, "Expected millions of ids per second, got " + (long) perSecond);
+        System.out.printf("✓ PASSED: %.1f million ids/s%n", perSecond / 1e6);
+    }
+
+    @Test
+    public void testStringIdsSortInCreationOrder() {
+        // RULE: audit, shift and prescription ids sort by creation time as plain text
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(IdGenerator.nextId("AUDIT"));
+        }
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+
+        Assert.assertEquals(sorted, ids);
+        Assert.assertTrue(ids.get(0).matches("AUDIT-[0-9A-Z]{13}"), ids.get(0));
+        System.out.println("✓ PASSED: Text order matches creation order, e.g. " + ids.get(0));
+    }
+
+    @Test
+    public void testSequencesContinueFromExistingNumbers() throws Exception {
+        // BUSINESS RULE: the default staff hold DOC001/NUR001/MGR001, so new staff numbers start at 02
+        Assert.assertEquals(IdGenerator.getNextStaffId("doctor"), "DOC02");
+        Assert.assertEquals(IdGenerator.getNextStaffId("Nurse"), "NUR02");
+        Assert.assertEquals(IdGenerator.getNextStaffId("doctor"), "DOC03");
+        Assert.assertEquals(IdGenerator.getNextPatientId(), "P01");
+        System.out.println("✓ PASSED: Sequences seeded past existing staff numbers");
+    }
+
+    @Test
+    public void testConcurrentSequenceValuesAreDistinctAndBlockAllocated() throws Exception {
+        // RULE: concurrent admissions get distinct patient numbers; the database is touched once per block
+        int perThread = 50;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(IdGenerator.getNextPatientId());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = THREADS * perThread;
+        Assert.assertEquals(ids.size(), total, "Every patient number must be unique");
+        for (int n = 1; n <= total; n++) {
+            Assert.assertTrue(ids.contains(String.format("P%02d", n)), "Missing P" + n);
+        }
+        long persisted = sequenceValue("patient");
+        Assert.assertTrue(persisted > total && persisted <= total + 20 + 1,
+                "Sequence should be reserved in blocks, stored next_value=" + persisted);
+        System.out.println("✓ PASSED: " + total + " patient numbers, next persisted value " + persisted);
+    }
+
+    @Test
+    public void testUnusedBlockIsReleasedOnShutdown() throws Exception {
+        // RULE: numbers reserved but never handed out are returned, so a restart does not leave a gap
+        Assert.assertEquals(IdGenerator.getNextStaffId("manager"), "MGR02");
+        IdGenerator.releaseUnusedBlocks();
+        DatabaseConfig.closeConnection();   // simulated restart
+
+        Assert.assertEquals(IdGenerator.getNextStaffId("manager"), "MGR03");
+        System.out.println("✓ PASSED: Unused block returned to the sequence");
+    }
+
+    @Test
+    public void testNodeNumberIsClaimedOncePerProcess() throws Exception {
+        // RULE: starting the pools does not write; the node number is claimed by the first id and never again
+        DatabaseConfig.getConnection().close();
+        Assert.assertEquals(sequenceValue("node"), 0L, "Pool start-up must not claim a node number");
+
+        IdGenerator.nextId("T");
+        long node = IdGenerator.getNodeId();
+        long claimed = sequenceValue("node");
+        Assert.assertTrue(claimed == 0 || claimed == 2,
+                "At most one node number may be taken from this database, stored next_value=" + claimed);
+
+        for (int i = 0; i < 3; i++) {
+            DatabaseConfig.closeConnection();   // simulated pool restart within the same process
+            IdGenerator.nextId("T");
+        }
+        Assert.assertEquals(IdGenerator.getNodeId(), node, "Node number is kept for the life of the process");
+        Assert.assertEquals(sequenceValue("node"), claimed, "Restarting the pools must not claim again");
+        Assert.assertEquals((IdGenerator.nextTimeOrderedId() >>> 12) & 1023, node, "Ids carry the claimed node number");
+        System.out.println("✓ PASSED: Node number " + node + " claimed once per process");
+    }
+
+    private long sequenceValue(String name) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT next_value FROM id_sequences WHERE name = ?")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+}
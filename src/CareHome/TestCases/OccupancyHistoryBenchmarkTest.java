@@ -0,0 +1,209 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Location.BedStay;
+import CareHome.Service.OccupancyHistoryServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Cost of history queries over ten years of stays in a 400-bed home: who was in a bed at an
+ * instant, the census at an instant, and a year of daily census figures. Each should answer in
+ * milliseconds without reading the history outside the period asked about.
+ */
+public class OccupancyHistoryBenchmarkTest {
+    private static final int WARDS = 20;
+    private static final String ROOMS = "4,4,4,4,4";
+    static final LocalDateTime HISTORY_START = LocalDateTime.parse("2015-01-01T00:00");
+    static final LocalDateTime HISTORY_END = LocalDateTime.parse("2025-01-01T00:00");
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private final List<String> bedIds = new ArrayList<>();
+    private int stays;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+
+        bedIds.addAll(configureLayout());
+        dbFile = File.createTempFile("carehome-historybench-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        stays = seedHistory(bedIds);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+        dbFile.delete();
+    }
+
+    @Test
+    public void benchmarkHistoryQueries() throws Exception {
+        OccupancyHistoryServiceImpl history = new OccupancyHistoryServiceImpl();
+        Random random = new Random(11);
+        long spanMinutes = Duration.between(HISTORY_START, HISTORY_END).toMinutes();
+
+        // Warm up the JIT and the statement caches
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime at = HISTORY_START.plusMinutes((long) (random.nextDouble() * spanMinutes));
+            history.getOccupantAt(bedIds.get(random.nextInt(bedIds.size())), at);
+            history.getStaysInBed(bedIds.get(random.nextInt(bedIds.size())), at, at.plusDays(1));
+        }
+        for (int i = 0; i < 10; i++) {
+            history.getCensusAt(HISTORY_START.plusDays(100 + i));
+            history.getDailyCensus(LocalDate.parse("2016-01-01"), LocalDate.parse("2016-12-31"));
+        }
+
+        int pointQueries = 2_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < pointQueries; i++) {
+            LocalDateTime at = HISTORY_START.plusMinutes((long) (random.nextDouble() * spanMinutes));
+            history.getOccupantAt(bedIds.get(random.nextInt(bedIds.size())), at);
+        }
+        double pointMillis = (System.nanoTime() - start) / 1e6 / pointQueries;
+
+        int dayQueries = 2_000;
+        start = System.nanoTime();
+        for (int i = 0; i < dayQueries; i++) {
+            LocalDateTime day = HISTORY_START.plusDays(random.nextInt(3650));
+            history.getStaysInBed(bedIds.get(random.nextInt(bedIds.size())), day, day.plusDays(1));
+        }
+        double dayMillis = (System.nanoTime() - start) / 1e6 / dayQueries;
+
+        int censusQueries = 50;
+        start = System.nanoTime();
+        for (int i = 0; i < censusQueries; i++) {
+            history.getCensusAt(HISTORY_START.plusMinutes((long) (random.nextDouble() * spanMinutes)));
+        }
+        double censusMillis = (System.nanoTime() - start) / 1e6 / censusQueries;
+
+        int seriesQueries = 20;
+        SortedMap<LocalDate, Integer> series = null;
+        start = System.nanoTime();
+        for (int i = 0; i < seriesQueries; i++) {
+            series = history.getDailyCensus(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-12-31"));
+        }
+        double seriesMillis = (System.nanoTime() - start) / 1e6 / seriesQueries;
+
+        start = System.nanoTime();
+        SortedMap<LocalDate, Integer> decade = history.getDailyCensus(HISTORY_START.toLocalDate(), HISTORY_END.toLocalDate());
+        double decadeMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("%,d stays in %d beds over ten years%n", stays, bedIds.size());
+        System.out.printf("Occupant of a bed at an instant: %.3f ms%n", pointMillis);
+        System.out.printf("Stays in a bed on one day:       %.3f ms%n", dayMillis);
+        System.out.printf("Census at an instant:            %.2f ms%n", censusMillis);
+        System.out.printf("Daily census for a year:         %.2f ms%n", seriesMillis);
+        System.out.printf("Daily census for ten years:      %.2f ms%n", decadeMillis);
+
+        // The sweep must agree with the point-in-time census it replaces
+        for (LocalDate day : List.of(LocalDate.parse("2024-01-01"), LocalDate.parse("2024-06-15"), LocalDate.parse("2024-12-31"))) {
+            List<BedStay> census = history.getCensusAt(day.atStartOfDay());
+            Assert.assertEquals((int) series.get(day), census.size(), "Census on " + day);
+            Assert.assertEquals((int) decade.get(day), census.size(), "Census on " + day);
+        }
+        Assert.assertEquals(decade.size(), 3654);
+        Assert.assertTrue(pointMillis < 1, "Point query took " + pointMillis + " ms");
+        Assert.assertTrue(dayMillis < 1, "One-day bed query took " + dayMillis + " ms");
+        Assert.assertTrue(censusMillis < 50, "Census at an instant took " + censusMillis + " ms");
+        Assert.assertTrue(seriesMillis < 200, "A year of daily census took " + seriesMillis + " ms");
+        System.out.println("✓ PASSED: Occupancy history benchmark completed");
+    }
+
+    // Twenty wards of five four-bed rooms; returns the bed ids
+    static List<String> configureLayout() {
+        Properties properties = new Properties();
+        List<String> wards = new ArrayList<>();
+        List<String> bedIds = new ArrayList<>();
+        for (int ward = 1; ward <= WARDS; ward++) {
+            wards.add("H" + ward);
+            properties.setProperty("ward.H" + ward + ".rooms", ROOMS);
+            for (int room = 1; room <= 5; room++) {
+                for (int bed = 1; bed <= 4; bed++) {
+                    bedIds.add("H" + ward + "R" + room + "B" + bed);
+                }
+            }
+        }
+        properties.setProperty("wards", String.join(",", wards));
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        return bedIds;
+    }
+
+    // Back-to-back stays of one to sixty days in every bed, with gaps of up to three days between
+    // them. One stay in five is followed by a move: the patient also takes the next stay starting
+    // in another bed within a day of them leaving. Returns the number of stays.
+    static int seedHistory(List<String> bedIds) throws Exception {
+        Random random = new Random(7);
+        List<String[]> rows = new ArrayList<>();   // bed, start, end, patient
+        for (String bedId : bedIds) {
+            LocalDateTime time = HISTORY_START.plusMinutes(random.nextInt(60 * 24 * 30));
+            while (time.isBefore(HISTORY_END)) {
+                LocalDateTime end = time.plusMinutes(60 * 24 + random.nextInt(60 * 24 * 59));
+                rows.add(new String[] {bedId, time.toString(), end.isBefore(HISTORY_END) ? end.toString() : null, "PH" + rows.size()});
+                time = end.plusMinutes(random.nextInt(60 * 24 * 3));
+            }
+        }
+
+        TreeMap<String, List<String[]>> byStart = new TreeMap<>();
+        for (String[] row : rows) {
+            byStart.computeIfAbsent(row[1], start -> new ArrayList<>()).add(row);
+        }
+        Set<String[]> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String[] row : rows) {
+            if (row[2] == null || random.nextInt(5) != 0) {
+                continue;
+            }
+            String dayLater = LocalDateTime.parse(row[2]).plusDays(1).toString();
+            moved:
+            for (List<String[]> starting : byStart.subMap(row[2], true, dayLater, false).values()) {
+                for (String[] next : starting) {
+                    if (!next[0].equals(row[0]) && taken.add(next)) {
+                        next[3] = row[3];
+                        break moved;
+                    }
+                }
+            }
+        }
+
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO patient_bed (patient_id, bed_id, start_time, end_time) VALUES (?, ?, ?, ?)")) {
+                for (String[] row : rows) {
+                    stmt.setString(1, row[3]);
+                    stmt.setString(2, row[0]);
+                    stmt.setString(3, OccupancyHistoryTest.stored(LocalDateTime.parse(row[1])));
+                    stmt.setString(4, row[2] == null ? null : OccupancyHistoryTest.stored(LocalDateTime.parse(row[2])));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            conn.commit();
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,161 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.CareHomeException;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedStay;
+import CareHome.Service.OccupancyHistoryServiceImpl;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.config.TransactionManager;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Properties;
+import java.util.SortedMap;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for OccupancyHistoryService demonstrating who was in a bed at a given time and the census at any instant or day
+
+public class OccupancyHistoryTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+    private OccupancyHistoryServiceImpl history;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "HS");
+        properties.setProperty("ward.HS.rooms", "2,1");
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        dbFile = File.createTempFile("carehome-history-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        history = new OccupancyHistoryServiceImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testHistoryFollowsAdmissionMoveAndDischarge() throws Exception {
+        // BUSINESS RULE: every admission, move and discharge is visible in the bed history
+        LocalDateTime before = LocalDateTime.now().minusMinutes(1);
+        PatientServiceImpl patients = new PatientServiceImpl();
+        patients.addPatient(patient("F1", Gender.FEMALE, false));
+        patients.addPatient(patient("F2", Gender.FEMALE, false));
+        String firstBed = patients.getPatientBed("F1");
+        String target = firstBed.equals("HSR2B1") ? "HSR1B2" : "HSR2B1";
+        if (target.equals(patients.getPatientBed("F2"))) {
+            target = "HSR1B1";
+        }
+        patients.movePatient("F1", target);
+        patients.dischargePatient("F2");
+
+        LocalDateTime now = LocalDateTime.now();
+        Assert.assertEquals(history.getOccupantAt(target, now).getPatientId(), "F1");
+        Assert.assertNull(history.getOccupantAt(firstBed, now), "F1 has left the first bed");
+        List<BedStay> census = history.getCensusAt(now);
+        Assert.assertEquals(census.size(), 1);
+        Assert.assertTrue(census.get(0).isOpen());
+
+        List<BedStay> firstBedStays = history.getStaysInBed(firstBed, before, now.plusSeconds(1));
+        Assert.assertEquals(firstBedStays.size(), 1);
+        Assert.assertEquals(firstBedStays.get(0).getPatientId(), "F1");
+        Assert.assertFalse(firstBedStays.get(0).isOpen());
+        Assert.assertTrue(history.getStaysInBed(firstBed, now.plusMinutes(1), now.plusMinutes(2)).isEmpty());
+        System.out.println("✓ PASSED: History shows F1 moved from " + firstBed + " to " + target + " and F2 discharged");
+    }
+
+    @Test
+    public void testPointRangeAndDailyQueriesOverPastStays() throws Exception {
+        // RULE: a stay covers its start up to but not including its end; the daily census counts beds at midnight
+        insertStay("A", "HSR1B1", "2025-03-01T09:00", "2025-03-03T14:30");
+        insertStay("B", "HSR1B1", "2025-03-03T14:30", "2025-03-10T08:00");
+        insertStay("C", "HSR1B1", "2025-03-12T10:00", null);
+        insertStay("D", "HSR1B2", "2025-02-20T00:00", "2025-03-03T00:00");
+        insertStay("E", "HSR2B1", "2025-03-03T23:00", "2025-03-04T01:00");
+
+        Assert.assertEquals(history.getOccupantAt("HSR1B1", LocalDateTime.parse("2025-03-03T14:29:59")).getPatientId(), "A");
+        Assert.assertEquals(history.getOccupantAt("HSR1B1", LocalDateTime.parse("2025-03-03T14:30")).getPatientId(), "B");
+        Assert.assertNull(history.getOccupantAt("HSR1B1", LocalDateTime.parse("2025-03-11T12:00")));
+        Assert.assertEquals(history.getOccupantAt("HSR1B1", LocalDateTime.parse("2030-01-01T00:00")).getPatientId(), "C");
+        Assert.assertNull(history.getOccupantAt("HSR1B2", LocalDateTime.parse("2025-03-03T00:00")), "D left at midnight");
+
+        // Who occupied HSR1B1 on 3 March
+        List<BedStay> thirdOfMarch = history.getStaysInBed("HSR1B1",
+                LocalDateTime.parse("2025-03-03T00:00"), LocalDateTime.parse("2025-03-04T00:00"));
+        Assert.assertEquals(thirdOfMarch.stream().map(BedStay::getPatientId).toList(), List.of("A", "B"));
+
+        Assert.assertEquals(history.getCensusAt(LocalDateTime.parse("2025-03-03T23:30")).stream()
+                .map(BedStay::getPatientId).toList(), List.of("B", "E"));
+
+        SortedMap<LocalDate, Integer> daily = history.getDailyCensus(LocalDate.parse("2025-03-01"), LocalDate.parse("2025-03-13"));
+        Assert.assertEquals(daily.size(), 13);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-01")), 1);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-02")), 2);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-03")), 1);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-04")), 2);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-11")), 0);
+        Assert.assertEquals((int) daily.get(LocalDate.parse("2025-03-13")), 1);
+        for (LocalDate day : daily.keySet()) {
+            Assert.assertEquals((int) daily.get(day), history.getCensusAt(day.atStartOfDay()).size(), "Census on " + day);
+        }
+
+        Assert.expectThrows(CareHomeException.class, () -> history.getDailyCensus(LocalDate.parse("2025-03-02"), LocalDate.parse("2025-03-01")));
+        Assert.expectThrows(CareHomeException.class, () -> history.getStaysInBed("HSR1B1",
+                LocalDateTime.parse("2025-03-02T00:00"), LocalDateTime.parse("2025-03-02T00:00")));
+        System.out.println("✓ PASSED: Point, range and daily census queries agree over past stays");
+    }
+
+    // Writes a past stay the way patient_bed stores times: UTC, to the second
+    static void insertStay(String patientId, String bedId, String start, String end) throws Exception {
+        TransactionManager.run(() -> {
+            String sql = "INSERT INTO patient_bed (patient_id, bed_id, start_time, end_time) VALUES (?, ?, ?, ?)";
+            try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, patientId);
+                stmt.setString(2, bedId);
+                stmt.setString(3, stored(LocalDateTime.parse(start)));
+                stmt.setString(4, end == null ? null : stored(LocalDateTime.parse(end)));
+                stmt.executeUpdate();
+            }
+        });
+    }
+
+    static String stored(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    }
+}
@@ -0,0 +1,120 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.PatientBedView;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.PatientDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static CareHome.TestCases.BatchAdmissionTest.patient;
+
+
+ // Core test suite for PatientBedView demonstrating patient listings with current bed, ward and room from a single query
+
+public class PatientBedViewTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("wards", "PV");
+        properties.setProperty("ward.PV.rooms", "2,1");
+        FacilityTopology.configure(FacilityTopology.fromProperties(properties));
+        dbFile = File.createTempFile("carehome-bedview-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.WAL);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        new AuditLogger().flush();
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.closeConnection();
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testListingShowsCurrentBedWardAndRoom() throws Exception {
+        // BUSINESS RULE: each active patient is listed once with the bed they are in now, or as unassigned
+        PatientServiceImpl service = new PatientServiceImpl();
+        service.addPatient(patient("V1", Gender.FEMALE, false));
+        service.addPatient(patient("V2", Gender.FEMALE, false));
+        service.addPatient(patient("V3", Gender.FEMALE, false));
+        new PatientDAOImpl().save(patient("V4", Gender.MALE, true));
+        // V1 moves into the bed V3 leaves, so V1 has a closed stay as well as the open one
+        String freed = service.getPatientBed("V3");
+        service.dischargePatient("V3");
+        service.movePatient("V1", freed);
+
+        Map<String, PatientBedView> views = service.getPatientBedViews().stream()
+                .collect(Collectors.toMap(PatientBedView::getId, Function.identity()));
+        Assert.assertEquals(views.keySet(), Set.of("V1", "V2", "V4"), "Discharged patients are not listed");
+
+        for (String id : List.of("V1", "V2")) {
+            PatientBedView view = views.get(id);
+            Assert.assertEquals(view.getBedId(), service.getPatientBed(id), "Only the open assignment counts");
+            Assert.assertEquals(view.getWardId(), "PV");
+            Assert.assertEquals(view.getRoomNumber(), view.getBedId().startsWith("PVR1") ? 1 : 2);
+        }
+        Assert.assertEquals(views.get("V1").getIsolationDisplay(), "No");
+
+        PatientBedView unassigned = views.get("V4");
+        Assert.assertFalse(unassigned.hasBed());
+        Assert.assertEquals(unassigned.getBedIdDisplay(), "Unassigned");
+        Assert.assertNull(unassigned.getWardId());
+        Assert.assertEquals(unassigned.getGender(), Gender.MALE);
+        Assert.assertEquals(unassigned.getIsolationDisplay(), "Yes");
+        System.out.println("✓ PASSED: Listed " + views.values());
+    }
+
+    @Test
+    public void testListingIsOneRoundTrip() throws Exception {
+        // RULE: the listing borrows one connection however many patients there are
+        PatientServiceImpl service = new PatientServiceImpl();
+        service.addPatient(patient("R1", Gender.FEMALE, false));
+        service.addPatient(patient("R2", Gender.FEMALE, false));
+        for (int i = 0; i < 20; i++) {
+            new PatientDAOImpl().save(patient("RU" + i, Gender.MALE, false));
+        }
+        new AuditLogger().flush();
+
+        long borrowsBefore = DatabaseConfig.getReadPoolStats().getBorrowCount();
+        List<PatientBedView> views = service.getPatientBedViews();
+        long borrows = DatabaseConfig.getReadPoolStats().getBorrowCount() - borrowsBefore;
+
+        Assert.assertEquals(views.size(), 22);
+        Assert.assertEquals(views.stream().filter(PatientBedView::hasBed).count(), 2);
+        Assert.assertEquals(borrows, 1, "The listing must not look up beds patient by patient");
+        System.out.println("✓ PASSED: " + views.size() + " patients listed with " + borrows + " connection borrow");
+    }
+}
@@ -0,0 +1,370 @@
+package CareHome.TestCases;
+
+import CareHome.Model.ActionType;
+import CareHome.Model.Admission.WaitlistEntry;
+import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import CareHome.Model.Medical.Prescription;
+import CareHome.Model.Person.Nurse;
+import CareHome.Model.Person.Patient;
+import CareHome.Model.Schedule.Shift;
+import CareHome.Model.ShiftType;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.TransactionManager;
+import CareHome.dao.*;
+import CareHome.util.IdGenerator;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Query-plan regression harness for the DAO layer.
+ * Seeds a large database, drives every DAO method so each SQL string lands in the
+ * pools' statement caches, then runs EXPLAIN QUERY PLAN on all of them and fails on
+ * any step that scans a table without an index (other than the listed whole-table reads).
+ */
+public class QueryPlanTest {
+    private static final int WARDS = 100;
+    private static final int[] ROOM_CAPACITIES = {1, 2, 4, 4, 4, 4};
+    private static final int PATIENTS = 20_000;
+    private static final int ACTIVE_PATIENTS = 1_500;
+    private static final int STAFF = 1_000;
+    private static final int PRESCRIPTIONS = 30_000;
+    private static final int SHIFTS = 10_000;
+    private static final int AUDIT_ENTRIES = 30_000;
+
+    // Screens that list every active row; reading the whole table is the intended plan
+    private static final Set<String> WHOLE_TABLE_READS = Set.of(
+            "SELECT * FROM patients WHERE is_active = true",
+            "SELECT * FROM staff WHERE is_active = true",
+            "SELECT ward_id, ward_name, floor FROM wards ORDER BY floor, ward_id",
+            "SELECT * FROM waitlist ORDER BY priority DESC, entry_id",
+            "SELECT * FROM bed_reservations",
+            """
+            SELECT p.id, p.patient_id, p.first_name, p.last_name, p.gender, p.age, p.admission_date, p.needs_isolation,
+                   pb.bed_id, b.ward_id, b.room_number
+            FROM patients p
+            LEFT JOIN patient_bed pb ON pb.patient_id = p.id AND pb.end_time IS NULL
+            LEFT JOIN beds b ON b.bed_id = pb.bed_id
+            WHERE p.is_active = true""",
+            """
+            SELECT b.bed_id, b.ward_id, b.room_number, b.hold_gender,
+                   p.id, p.patient_id, p.first_name, p.last_name, p.gender
+            FROM beds b
+            LEFT JOIN patient_bed pb ON pb.bed_id = b.bed_id AND pb.end_time IS NULL
+            LEFT JOIN patients p ON p.id = pb.patient_id"""
+    );
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private File dbFile;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        dbFile = File.createTempFile("carehome-plans-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.WAL);
+        seed();
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testNoDaoQueryScansATable() throws Exception {
+        // RULE: every DAO query must be answered through an index on a large dataset
+        exerciseDaos();
+        Set<String> statements = new TreeSet<>(DatabaseConfig.getPool().getCachedSql());
+        statements.addAll(DatabaseConfig.getReadPool().getCachedSql());
+        Assert.assertTrue(statements.size() >= 40, "Expected every DAO statement to be captured, got " + statements.size());
+
+        try (Connection conn = DriverManager.getConnection(DatabaseConfig.getUrl())) {
+            List<String> withoutStats = findTableScans(conn, statements);
+
+            // Plans can change once the planner has real row counts, so check again with statistics
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE");
+            }
+            List<String> withStats = findTableScans(conn, statements);
+
+            Assert.assertTrue(withoutStats.isEmpty(), "Table scans without statistics:\n" + String.join("\n", withoutStats));
+            Assert.assertTrue(withStats.isEmpty(), "Table scans after ANALYZE:\n" + String.join("\n", withStats));
+        }
+        System.out.println("✓ PASSED: " + statements.size() + " DAO statements use indexes");
+    }
+
+    // Returns "plan step <- sql" for every step that reads a whole table
+    private List<String> findTableScans(Connection conn, Set<String> statements) throws Exception {
+        List<String> scans = new ArrayList<>();
+        for (String sql : statements) {
+            if (WHOLE_TABLE_READS.contains(sql)) {
+                continue;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    if (detail.startsWith("SCAN ") && !detail.contains(" INDEX ") && !detail.equals("SCAN CONSTANT ROW")) {
+                        scans.add(detail + "  <-  " + sql.replaceAll("\\s+", " ").trim());
+                    }
+                }
+            }
+        }
+        return scans;
+    }
+
+    // Calls every DAO method once so its SQL is prepared through the statement cache
+    private void exerciseDaos() throws Exception {
+        PatientDAO patientDAO = new PatientDAOImpl();
+        BedDAO bedDAO = new BedDAOImpl();
+        StaffDAO staffDAO = new StaffDAOImpl();
+        PrescriptionDAO prescriptionDAO = new PrescriptionDAOImpl();
+        ShiftDAO shiftDAO = new ShiftDAOImpl();
+        AuditDAO auditDAO = new AuditDAOImpl();
+
+        Patient patient = new Patient("PX1", "Plan", "Check", Gender.FEMALE, 80, "PLAN-1", LocalDate.now());
+        patientDAO.save(patient);
+        patientDAO.findById("PX1");
+        patientDAO.findAll();
+        patientDAO.getAllPatients();
+        patientDAO.findActiveWithBeds();
+        patientDAO.findActiveWithBed("PX1");
+        patientDAO.update(patient);
+        patientDAO.findByWardId("W3");
+        patientDAO.findByBedId("W3R1B1");
+        patientDAO.getPatientByBed("W3R1B1");
+        patientDAO.getPatientBed("P1");
+
+        String freeBed = bedDAO.findSuitableBed("FEMALE", false);
+        bedDAO.findSuitableBed("FEMALE", true);
+        bedDAO.isBedAvailable(freeBed);
+        bedDAO.isRoomGenderCompatible(freeBed, "FEMALE");
+        bedDAO.assignPatientToBed(freeBed, "PX1");
+        patientDAO.assignBedToPatient("PX1", freeBed);
+        bedDAO.findPatientBed("PX1");
+        bedDAO.getAvailableBeds();
+        bedDAO.getAllBeds();
+        bedDAO.getWards();
+        bedDAO.getTotalBeds();
+        bedDAO.getAvailableBedCount();
+        patientDAO.endBedAssignment("PX1");
+        bedDAO.freeBed(freeBed);
+
+        // Outside a unit of work the checks above come from BedOccupancyIndex; after a bed write
+        // inside one they fall back to SQL, so run them there too to cover those plans
+        TransactionManager.run(() -> {
+            bedDAO.assignPatientToBed(freeBed, "PX1");
+            bedDAO.findSuitableBed("FEMALE", false);
+            bedDAO.findSuitableBed("FEMALE", true);
+            bedDAO.isBedAvailable(freeBed);
+            bedDAO.isRoomGenderCompatible(freeBed, "FEMALE");
+            bedDAO.findPatientBed("PX1");
+            bedDAO.getAvailableBedCount();
+            bedDAO.freeBed(freeBed);
+            bedDAO.assignIfCompatible(freeBed, "PX1", "FEMALE", false);
+            bedDAO.assignIfCompatible(freeBed, "PX1", "FEMALE", false);   // refused: reads the reason
+            bedDAO.freeBed(freeBed);
+        });
+        patientDAO.discharge("PX1");
+        patientDAO.delete("PX1");
+
+        BedReservationDAO reservationDAO = new BedReservationDAOImpl();
+        TransactionManager.run(() -> {
+            bedDAO.holdIfCompatible(freeBed, "FEMALE", false);
+            BedReservation hold = reservationDAO.save(freeBed, Gender.FEMALE, "plan", "SYSTEM", LocalDateTime.now());
+            reservationDAO.findById(hold.getReservationId());
+            reservationDAO.findAll();
+            reservationDAO.deleteIfExpired(hold.getReservationId(), LocalDateTime.now());
+            reservationDAO.delete(hold.getReservationId());
+            bedDAO.assignHeldBed(freeBed, "PX2", "FEMALE");
+            bedDAO.releaseHold(freeBed);
+            bedDAO.freeBed(freeBed);
+        });
+
+        BedHistoryDAO historyDAO = new BedHistoryDAOImpl();
+        LocalDateTime instant = LocalDateTime.parse("2024-01-15T00:00");
+        historyDAO.findStayAt("W3R3B1", instant);
+        historyDAO.findStaysInBed("W3R3B1", instant, instant.plusDays(1));
+        historyDAO.findStaysAt(instant);
+        historyDAO.findStaysBetween(instant, instant.plusDays(30));
+
+        CensusDAO censusDAO = new CensusDAOImpl();
+        censusDAO.getLatestVersion();
+        censusDAO.getOldestVersion();
+        censusDAO.findAllBedStates();
+        censusDAO.findBedStatesChangedSince(censusDAO.getLatestVersion() - 5);
+
+        WaitlistDAO waitlistDAO = new WaitlistDAOImpl();
+        WaitlistEntry waiting = waitlistDAO.add(new Patient("WX1", "Plan", "Waiting", Gender.MALE, 70, "PLAN-W1", LocalDate.now()), 1);
+        waitlistDAO.findByPatientId("WX1");
+        waitlistDAO.findAll();
+        waitlistDAO.remove(waiting.getEntryId());
+
+        Nurse nurse = new Nurse("SX1", "Plan", "Nurse", Gender.MALE, 30, "NURX1", "plannurse", "pw", "LIC-X1");
+        staffDAO.save(nurse);
+        staffDAO.findById("SX1");
+        staffDAO.findByUsername("plannurse");
+        staffDAO.findByStaffId("NURX1");
+        staffDAO.findAll();
+        staffDAO.updatePassword("plannurse", "pw2");
+        staffDAO.updatePasswordByUsername("plannurse", "pw3");
+        IdGenerator.getNextStaffId("nurse");
+        IdGenerator.getNextPatientId();
+
+        Prescription prescription = new Prescription("RX-PLAN", "PLAN-1", "D001", "Paracetamol", "500mg", "Daily",
+                LocalDate.now(), null);
+        prescriptionDAO.save(prescription);
+        prescriptionDAO.findById("RX-PLAN");
+        prescriptionDAO.findAll();
+        prescriptionDAO.findByPatientId("PLAN-1");
+        prescriptionDAO.findActivePrescriptions();
+        prescriptionDAO.update(prescription);
+        prescriptionDAO.delete("RX-PLAN");
+
+        Shift shift = new Shift("SH-PLAN", DayOfWeek.MONDAY, ShiftType.MORNING_NURSE);
+        shift.assignStaff("NURX1");
+        shiftDAO.saveShift(shift);
+        shiftDAO.findShiftById("SH-PLAN");
+        shiftDAO.findShiftsByStaffId("NURX1");
+        shiftDAO.findShiftsByDay(DayOfWeek.MONDAY);
+        shiftDAO.getAllShifts();
+        shiftDAO.updateShift(shift);
+        shiftDAO.deleteShift("SH-PLAN");
+
+        auditDAO.save(new AuditEntry("AX-PLAN", "NURX1", ActionType.ADD_PATIENT, "plan check", "PX1"));
+        auditDAO.findAll();
+        auditDAO.findByDateRange(LocalDateTime.parse("2024-01-01T01:00"), LocalDateTime.parse("2024-01-01T02:00"));
+        auditDAO.findByStaffId("STA1");
+        auditDAO.findByActionType(ActionType.DISCHARGE_PATIENT);
+        auditDAO.findByTargetId("P1");
+        auditDAO.count();
+        auditDAO.streamAll(entry -> true);
+    }
+
+    // Bulk-loads wards, patients, bed history, staff, prescriptions, shifts and audit rows
+    private void seed() throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO beds (bed_id, ward_id, room_number, room_capacity, patient_id, is_occupied) VALUES (?, ?, ?, ?, ?, ?)")) {
+                int patient = 1;
+                for (int ward = 3; ward <= WARDS; ward++) {
+                    for (int room = 1; room <= ROOM_CAPACITIES.length; room++) {
+                        for (int bed = 1; bed <= ROOM_CAPACITIES[room - 1]; bed++) {
+                            boolean occupied = patient <= ACTIVE_PATIENTS;
+                            stmt.setString(1, "W" + ward + "R" + room + "B" + bed);
+                            stmt.setString(2, "W" + ward);
+                            stmt.setInt(3, room);
+                            stmt.setInt(4, ROOM_CAPACITIES[room - 1]);
+                            stmt.setString(5, occupied ? "P" + patient : null);
+                            stmt.setBoolean(6, occupied);
+                            stmt.addBatch();
+                            patient++;
+                        }
+                    }
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement patients = conn.prepareStatement(
+                    "INSERT INTO patients (id, first_name, last_name, gender, age, patient_id, admission_date, needs_isolation, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, ?)");
+                 PreparedStatement history = conn.prepareStatement(
+                         "INSERT INTO patient_bed (patient_id, bed_id, start_time, end_time) VALUES (?, ?, '2024-01-01 10:00:00', ?)")) {
+                for (int i = 1; i <= PATIENTS; i++) {
+                    boolean active = i <= ACTIVE_PATIENTS;
+                    patients.setString(1, "P" + i);
+                    patients.setString(2, "First" + i);
+                    patients.setString(3, "Last" + i);
+                    patients.setString(4, i % 2 == 0 ? "MALE" : "FEMALE");
+                    patients.setInt(5, 60 + i % 40);
+                    patients.setString(6, "PID" + i);
+                    patients.setString(7, "2024-01-01");
+                    patients.setBoolean(8, active);
+                    patients.addBatch();
+
+                    history.setString(1, "P" + i);
+                    history.setString(2, "W" + (3 + i % (WARDS - 2)) + "R3B1");
+                    history.setString(3, active ? null : "2024-02-01 10:00:00");
+                    history.addBatch();
+                }
+                patients.executeBatch();
+                history.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO staff (id, first_name, last_name, gender, age, staff_id, username, password, staff_type, license_number, is_active) VALUES (?, ?, ?, 'FEMALE', 40, ?, ?, 'pw', 'NURSE', 'LIC', ?)")) {
+                for (int i = 1; i <= STAFF; i++) {
+                    stmt.setString(1, "S" + i);
+                    stmt.setString(2, "Staff" + i);
+                    stmt.setString(3, "Member" + i);
+                    stmt.setString(4, "STA" + i);
+                    stmt.setString(5, "user" + i);
+                    stmt.setBoolean(6, i % 10 != 0);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO prescriptions (prescription_id, patient_id, doctor_id, medication_name, dosage, frequency, start_date, is_active, created_at) VALUES (?, ?, 'D001', 'Med', '1 tab', 'Daily', '2024-01-01', ?, ?)")) {
+                for (int i = 1; i <= PRESCRIPTIONS; i++) {
+                    stmt.setString(1, "RX" + i);
+                    stmt.setString(2, "PID" + (1 + i % PATIENTS));
+                    stmt.setBoolean(3, i % 5 == 0);
+                    stmt.setString(4, "2024-01-01T10:00:" + String.format("%02d", i % 60));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO shifts (shift_id, staff_id, day_of_week, shift_type, start_hour, end_hour, duration_hours, is_assigned) VALUES (?, ?, ?, 'MORNING_NURSE', 8, 16, 8, ?)")) {
+                DayOfWeek[] days = DayOfWeek.values();
+                for (int i = 1; i <= SHIFTS; i++) {
+                    stmt.setString(1, "SH" + i);
+                    stmt.setString(2, "STA" + (1 + i % STAFF));
+                    stmt.setString(3, days[i % days.length].toString());
+                    stmt.setBoolean(4, i % 20 == 0);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO audit_log (entry_id, staff_id, action_type, target_id, details, timestamp) VALUES (?, ?, 'ADD_PATIENT', ?, 'seed', ?)")) {
+                for (int i = 1; i <= AUDIT_ENTRIES; i++) {
+                    stmt.setString(1, "A" + i);
+                    stmt.setString(2, "STA" + (1 + i % STAFF));
+                    stmt.setString(3, "P" + (1 + i % PATIENTS));
+                    stmt.setString(4, String.format("2024-01-01T%02d:%02d:%02d", (i / 3600) % 24, (i / 60) % 60, i % 60));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+
+            conn.commit();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package CareHome.TestCases;
+
+import CareHome.config.SchemaMigrator;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+ // Core test suite for SchemaMigrator demonstrating run-once, versioned schema setup
+
+public class SchemaMigratorTest {
+    private File dbFile;
+    private Connection conn;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-migrate-", ".db");
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        conn.close();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testFreshDatabaseIsMigratedToLatest() throws Exception {
+        // RULE: an empty database ends on the latest version with staff and beds seeded
+        int version = SchemaMigrator.migrate(conn);
+
+        Assert.assertEquals(version, SchemaMigrator.getLatestVersion());
+        Assert.assertEquals(SchemaMigrator.getSchemaVersion(conn), version, "user_version should be persisted");
+        Assert.assertEquals(count("SELECT COUNT(*) FROM beds"), 38, "Default facility has 38 beds");
+        Assert.assertEquals(count("SELECT COUNT(*) FROM staff"), 3, "Manager, doctor and nurse accounts");
+        System.out.println("✓ PASSED: Fresh database migrated to version " + version);
+    }
+
+    @Test
+    public void testMigrationsRunOnlyOnce() throws Exception {
+        // RULE: re-running the migrator on a current database changes nothing
+        SchemaMigrator.migrate(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM staff WHERE staff_id = 'NUR001'");
+        }
+
+        SchemaMigrator.migrate(conn);
+
+        Assert.assertEquals(count("SELECT COUNT(*) FROM staff"), 2, "Seed data must not be re-applied");
+        Assert.assertEquals(count("SELECT COUNT(*) FROM beds"), 38, "Beds must not be duplicated");
+        System.out.println("✓ PASSED: Second migrate() was a no-op");
+    }
+
+    @Test
+    public void testPreVersioningDatabaseIsAdopted() throws Exception {
+        // RULE: a database created by the old initializeTables (user_version 0) keeps its data
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE beds (bed_id TEXT PRIMARY KEY, ward_id TEXT NOT NULL, room_number INTEGER NOT NULL, "
+                    + "room_capacity INTEGER NOT NULL, patient_id TEXT, is_occupied BOOLEAN DEFAULT FALSE, created_at TEXT)");
+            stmt.executeUpdate("INSERT INTO beds (bed_id, ward_id, room_number, room_capacity) VALUES ('W1R1B1', 'W1', 1, 1)");
+        }
+
+        SchemaMigrator.migrate(conn);
+
+        Assert.assertEquals(count("SELECT COUNT(*) FROM beds"), 1, "Existing beds should be kept, not reseeded");
+        Assert.assertEquals(SchemaMigrator.getSchemaVersion(conn), SchemaMigrator.getLatestVersion());
+        System.out.println("✓ PASSED: Legacy database adopted without reseeding");
+    }
+
+    @Test
+    public void testConcurrentStartupsApplyEachStepOnce() throws Exception {
+        // RULE: two processes migrating the same fresh file together both succeed, and no step runs twice
+        // (v9 adds a column, so a second run of it would fail with a duplicate-column error)
+        for (int round = 0; round < 5; round++) {
+            File shared = File.createTempFile("carehome-migrate-race-", ".db");
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    results.add(pool.submit(() -> {
+                        try (Connection other = DriverManager.getConnection("jdbc:sqlite:" + shared.getAbsolutePath())) {
+                            try (Statement stmt = other.createStatement()) {
+                                stmt.execute("PRAGMA busy_timeout = 5000");
+                            }
+                            start.await();
+                            return SchemaMigrator.migrate(other);
+                        }
+                    }));
+                }
+                start.countDown();
+                for (Future<Integer> result : results) {
+                    Assert.assertEquals(result.get().intValue(), SchemaMigrator.getLatestVersion());
+                }
+                try (Connection check = DriverManager.getConnection("jdbc:sqlite:" + shared.getAbsolutePath());
+                     Statement stmt = check.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM beds")) {
+                    rs.next();
+                    Assert.assertEquals(rs.getInt(1), 38, "Beds must be seeded once");
+                }
+            } finally {
+                pool.shutdownNow();
+                shared.delete();
+            }
+        }
+        System.out.println("✓ PASSED: Concurrent startups migrated the same file without reapplying a step");
+    }
+
+    private int count(String sql) throws Exception {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package CareHome.TestCases;
+
+import CareHome.config.ConnectionPool;
+import CareHome.config.PoolStats;
+import CareHome.config.StatementCache;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+
+ // Core test suite for StatementCache demonstrating reuse, LRU eviction and hit/miss accounting
+
+public class StatementCacheTest {
+    private File dbFile;
+    private ConnectionPool pool;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dbFile = File.createTempFile("carehome-stmt-", ".db");
+        pool = new ConnectionPool("jdbc:sqlite:" + dbFile.getAbsolutePath(), 1, 1000, 2, null);
+        try (Connection conn = pool.borrow(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (id INTEGER PRIMARY KEY, v TEXT)");
+            stmt.execute("INSERT INTO t VALUES (1, 'a'), (2, 'b')");
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdown();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testRepeatedSqlHitsCache() throws Exception {
+        // RULE: the same SQL on the same connection is compiled once and reused
+        for (int i = 0; i < 10; i++) {
+            try (Connection conn = pool.borrow();
+                 PreparedStatement stmt = StatementCache.prepare(conn, "SELECT v FROM t WHERE id = ?")) {
+                stmt.setInt(1, 1 + (i % 2));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(rs.getString(1), i % 2 == 0 ? "a" : "b", "Parameters must not leak between uses");
+                }
+            }
+        }
+
+        PoolStats stats = pool.getStats();
+        Assert.assertEquals(stats.getStatementCacheMisses(), 1);
+        Assert.assertEquals(stats.getStatementCacheHits(), 9);
+        System.out.println("✓ PASSED: " + stats);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        // RULE: with capacity 2, a third distinct SQL evicts the least recently used one
+        String a = "SELECT 1";
+        String b = "SELECT 2";
+        String c = "SELECT 3";
+        try (Connection conn = pool.borrow()) {
+            run(conn, a);
+            run(conn, b);
+            run(conn, a);      // a is now most recently used
+            run(conn, c);      // evicts b
+            run(conn, a);      // still cached
+        }
+
+        PoolStats stats = pool.getStats();
+        Assert.assertEquals(stats.getStatementCacheEvictions(), 1);
+        Assert.assertTrue(pool.getCachedSql().contains(a), "Recently used SQL should stay cached");
+        Assert.assertFalse(pool.getCachedSql().contains(b), "Least recently used SQL should be evicted");
+        System.out.println("✓ PASSED: LRU eviction kept " + pool.getCachedSql());
+    }
+
+    @Test
+    public void testNestedUseOfSameSqlGetsSeparateStatement() throws Exception {
+        // RULE: asking for SQL that is already open on the connection must not hand out the busy statement
+        String sql = "SELECT v FROM t WHERE id = ?";
+        try (Connection conn = pool.borrow();
+             PreparedStatement outer = StatementCache.prepare(conn, sql);
+             PreparedStatement inner = StatementCache.prepare(conn, sql)) {
+            Assert.assertNotSame(outer, inner);
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet r1 = outer.executeQuery(); ResultSet r2 = inner.executeQuery()) {
+                r1.next();
+                r2.next();
+                Assert.assertEquals(r1.getString(1), "a");
+                Assert.assertEquals(r2.getString(1), "b");
+            }
+        }
+        System.out.println("✓ PASSED: Nested use of the same SQL handled");
+    }
+
+    @Test
+    public void testUnclosedStatementIsReclaimedOnReturn() throws Exception {
+        // RULE: a statement a borrower forgot to close is reusable after the connection is returned
+        try (Connection conn = pool.borrow()) {
+            StatementCache.prepare(conn, "SELECT 1").executeQuery();
+        }
+        try (Connection conn = pool.borrow()) {
+            run(conn, "SELECT 1");
+        }
+        Assert.assertEquals(pool.getStats().getStatementCacheHits(), 1, "Second use should be a cache hit");
+        System.out.println("✓ PASSED: Leaked statement reclaimed on connection return");
+    }
+
+    private void run(Connection conn, String sql) throws Exception {
+        try (PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+        }
+    }
+}
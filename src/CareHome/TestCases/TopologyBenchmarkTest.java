@@ -0,0 +1,117 @@
+package CareHome.TestCases;
+
+import CareHome.CareHome;
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.BedOccupancyIndex;
+import CareHome.view.WardViewController;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Allocation, lookup and ward-map preparation on a 10,000-bed facility
+ * (25 wards x 100 rooms x 4 beds), so a larger layout does not slow the screens down.
+ */
+public class TopologyBenchmarkTest {
+    private static final FacilityTopology LARGE = FacilityTopology.uniform(25, 100, 4);
+    private static final int ADMISSIONS = 500;
+    private static final int LOOKUPS = 10_000;
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+        dbFile = File.createTempFile("carehome-large-", ".db");
+        FacilityTopology.configure(LARGE);
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+        dbFile.delete();
+    }
+
+    @Test
+    public void benchmarkTenThousandBeds() throws Exception {
+        BedDAO bedDAO = new BedDAOImpl();
+
+        long start = System.nanoTime();
+        Assert.assertEquals(bedDAO.getTotalBeds(), 10_000);
+        double seedMs = millis(start);
+
+        start = System.nanoTime();
+        BedOccupancyIndex.getInstance().reload();
+        double indexMs = millis(start);
+
+        // Allocation: full admissions through the service, then the placement query alone
+        PatientServiceImpl service = new PatientServiceImpl();
+        start = System.nanoTime();
+        for (int i = 0; i < ADMISSIONS; i++) {
+            service.addPatient(new Patient("LB" + i, "Large", "Patient" + i, i % 2 == 0 ? Gender.MALE : Gender.FEMALE,
+                    80, "PID-LB" + i, LocalDate.now()));
+        }
+        double admitMs = millis(start) / ADMISSIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            bedDAO.findSuitableBed(i % 2 == 0 ? "MALE" : "FEMALE", false);
+            bedDAO.isBedAvailable("W" + (1 + i % 25) + "R" + (1 + i % 100) + "B1");
+        }
+        double placementUs = millis(start) * 1000 / LOOKUPS;
+
+        // In-memory model lookups
+        CareHome careHome = CareHome.withTopology(LARGE);
+        Patient resident = new Patient("LBX", "Large", "Resident", Gender.FEMALE, 80, "PID-LBX", LocalDate.now());
+        careHome.addPatient(resident);
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            careHome.canPatientMoveToBed(resident, "W25R" + (1 + i % 100) + "B4");
+        }
+        double modelUs = millis(start) * 1000 / LOOKUPS;
+
+        // Ward map data: wards, beds and the ward/room grouping the view renders from
+        start = System.nanoTime();
+        Map<String, Map<Integer, List<Bed>>> wards =
+                WardViewController.groupByWardAndRoom(bedDAO.getAllBeds());
+        int wardCount = bedDAO.getWards().size();
+        double mapMs = millis(start);
+
+        System.out.printf("10,000 beds: seed %.0f ms, index load %.1f ms, admission %.2f ms, placement %.1f us, "
+                        + "model lookup %.1f us, ward map data %.1f ms%n",
+                seedMs, indexMs, admitMs, placementUs, modelUs, mapMs);
+
+        Assert.assertEquals(wardCount, 25);
+        Assert.assertEquals(wards.get("W7").size(), 100);
+        Assert.assertEquals(bedDAO.getAvailableBedCount(), 10_000 - ADMISSIONS);
+        Assert.assertEquals(BedOccupancyIndex.getInstance().verify(), List.of());
+        // Generous bounds: these guard against per-bed SQL or quadratic scans, not machine speed
+        Assert.assertTrue(placementUs < 1_000, "Placement check should stay in memory, took " + placementUs + " us");
+        Assert.assertTrue(modelUs < 1_000, "Model lookup took " + modelUs + " us");
+        Assert.assertTrue(mapMs < 2_000, "Ward map data took " + mapMs + " ms");
+        System.out.println("✓ PASSED: 10,000-bed layout benchmark completed");
+    }
+
+    private double millis(long start) {
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
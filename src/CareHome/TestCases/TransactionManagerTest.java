@@ -0,0 +1,169 @@
+package CareHome.TestCases;
+
+import CareHome.Exception.ComplianceException;
+import CareHome.Model.Audit.AuditWriter;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.TransactionManager;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.dao.PatientDAO;
+import CareHome.dao.PatientDAOImpl;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Core test suite for TransactionManager demonstrating single-commit units of work
+
+public class TransactionManagerTest {
+    private String originalUrl;
+    private StorageMode originalMode;
+    private File dbFile;
+    private PatientDAO patientDAO;
+    private BedDAO bedDAO;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        // Entries logged by earlier tests must not be written by the background writer mid-test
+        AuditWriter.getInstance().flush();
+        dbFile = File.createTempFile("carehome-tx-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.ROLLBACK_JOURNAL);
+        patientDAO = new PatientDAOImpl();
+        bedDAO = new BedDAOImpl();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        DatabaseConfig.closeConnection();
+        dbFile.delete();
+    }
+
+    @Test
+    public void testUnitOfWorkUsesOneConnection() throws Exception {
+        // RULE: every DAO call inside a unit of work shares one connection and sees its own writes
+        TransactionManager.run(() -> {
+            patientDAO.save(patient("TX1", Gender.MALE));
+            bedDAO.assignPatientToBed("W2R2B1", "TX1");
+            patientDAO.assignBedToPatient("TX1", "W2R2B1");
+            Assert.assertEquals(bedDAO.findPatientBed("TX1"), "W2R2B1", "Reads inside the unit must see its writes");
+            Assert.assertEquals(DatabaseConfig.getPoolStats().getActiveConnections(), 1);
+        });
+
+        Assert.assertEquals(DatabaseConfig.getPoolStats().getActiveConnections(), 0, "Connection must go back to the pool");
+        Assert.assertEquals(patientDAO.getPatientBed("TX1"), "W2R2B1");
+        System.out.println("✓ PASSED: Unit of work committed on a single connection");
+    }
+
+    @Test
+    public void testFailureRollsBackEveryStep() throws Exception {
+        // RULE: a failure part-way through leaves beds and patient_bed untouched
+        try {
+            TransactionManager.run(() -> {
+                patientDAO.save(patient("TX2", Gender.FEMALE));
+                bedDAO.assignPatientToBed("W2R3B1", "TX2");
+                throw new ComplianceException("Simulated failure after the bed update");
+            });
+            Assert.fail("Expected the unit of work to fail");
+        } catch (ComplianceException expected) {
+            // expected
+        }
+
+        Assert.assertNull(patientDAO.findById("TX2"), "Patient insert must be rolled back");
+        Assert.assertTrue(bedDAO.isBedAvailable("W2R3B1"), "Bed update must be rolled back");
+        System.out.println("✓ PASSED: Failed unit of work rolled back");
+    }
+
+    @Test
+    public void testAfterCommitRunsOnlyOnCommit() throws Exception {
+        // RULE: after-commit actions run once the data is durable and are dropped on rollback
+        List<String> events = new ArrayList<>();
+        TransactionManager.run(() -> {
+            TransactionManager.afterCommit(() -> events.add("committed"));
+            Assert.assertTrue(events.isEmpty(), "Action must wait for the commit");
+        });
+        try {
+            TransactionManager.run(() -> {
+                TransactionManager.afterCommit(() -> events.add("rolled back"));
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        Assert.assertEquals(events, List.of("committed"));
+        System.out.println("✓ PASSED: After-commit hooks follow the transaction outcome");
+    }
+
+    @Test
+    public void testSwallowedNestedFailureStillRollsBack() throws Exception {
+        // RULE: an outer unit cannot commit after a nested unit failed, even if it catches the error
+        try {
+            TransactionManager.run(() -> {
+                patientDAO.save(patient("TX3", Gender.MALE));
+                try {
+                    TransactionManager.run(() -> {
+                        throw new IllegalStateException("nested failure");
+                    });
+                } catch (IllegalStateException ignored) {
+                    // caller carries on
+                }
+            });
+            Assert.fail("Expected the outer unit to be rolled back");
+        } catch (Exception expected) {
+            // expected
+        }
+
+        Assert.assertNull(patientDAO.findById("TX3"));
+        System.out.println("✓ PASSED: Nested failure marked the unit rollback-only");
+    }
+
+    @Test
+    public void testMovePatientKeepsTablesInStep() throws Exception {
+        // BUSINESS RULE: a move updates beds and patient_bed together
+        PatientServiceImpl service = new PatientServiceImpl();
+        service.addPatient(patient("TX4", Gender.FEMALE));
+        String from = service.getPatientBed("TX4");
+
+        service.movePatient("TX4", "W2R4B4");
+
+        Assert.assertEquals(service.getPatientBed("TX4"), "W2R4B4");
+        Assert.assertTrue(bedDAO.isBedAvailable(from), "Old bed must be freed");
+        Assert.assertEquals(count("SELECT COUNT(*) FROM patient_bed WHERE patient_id = 'TX4'"), 2);
+        Assert.assertEquals(count("SELECT COUNT(*) FROM patient_bed WHERE patient_id = 'TX4' AND end_time IS NULL"), 1);
+        System.out.println("✓ PASSED: Move committed beds and history together");
+    }
+
+    private Patient patient(String id, Gender gender) {
+        return new Patient(id, "Test", "Patient", gender, 70, "PID-" + id, LocalDate.now());
+    }
+
+    private int count(String sql) throws Exception {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
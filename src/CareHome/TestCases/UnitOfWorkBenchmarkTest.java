@@ -0,0 +1,127 @@
+package CareHome.TestCases;
+
+import CareHome.Model.ActionType;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.dao.*;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.time.LocalDate;
+
+/**
+ * Admission and move latency with one autocommit per DAO call (the previous service
+ * flow) against the same steps run as a single TransactionManager unit of work.
+ */
+public class UnitOfWorkBenchmarkTest {
+    private static final int PATIENTS = 12;   // per round; fits the default 38-bed facility with room to move
+    private static final int ROUNDS = 6;      // first round is JIT/page-cache warm-up and is not timed
+    private static final String[] MOVE_TARGETS = {"W2R6B1", "W2R6B2", "W2R6B3", "W2R6B4"};
+
+    private String originalUrl;
+    private StorageMode originalMode;
+
+    @BeforeClass
+    public void rememberConfig() {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+    }
+
+    @AfterClass
+    public void restoreConfig() throws Exception {
+        DatabaseConfig.configure(originalUrl, originalMode);
+    }
+
+    @Test
+    public void benchmarkAdmissionAndMove() throws Exception {
+        for (StorageMode mode : StorageMode.values()) {
+            double[] autocommit = run(mode, false);
+            double[] unitOfWork = run(mode, true);
+
+            System.out.printf("%-16s admit: %7.2f ms -> %6.2f ms (%.1fx)   move: %7.2f ms -> %6.2f ms (%.1fx)%n",
+                    mode, autocommit[0], unitOfWork[0], autocommit[0] / unitOfWork[0],
+                    autocommit[1], unitOfWork[1], autocommit[1] / unitOfWork[1]);
+            if (mode == StorageMode.ROLLBACK_JOURNAL) {
+                // WAL with synchronous=NORMAL does not fsync per commit, so only the default mode is asserted;
+                // the ratio grows with the disk's fsync cost
+                Assert.assertTrue(unitOfWork[0] < autocommit[0], "Admission should be faster as one unit of work");
+                Assert.assertTrue(unitOfWork[1] < autocommit[1], "Move should be faster as one unit of work");
+            }
+        }
+        System.out.println("✓ PASSED: Unit of work benchmark completed");
+    }
+
+    // Returns {average admission ms, average move ms} on a fresh database
+    private double[] run(StorageMode mode, boolean unitOfWork) throws Exception {
+        File dbFile = File.createTempFile("carehome-uow-", ".db");
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), mode);
+        PatientServiceImpl service = new PatientServiceImpl();
+        PatientDAO patientDAO = new PatientDAOImpl();
+        BedDAO bedDAO = new BedDAOImpl();
+        AuditLogger auditLogger = new AuditLogger();
+
+        long admitNanos = 0;
+        long moveNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean timed = round > 0;
+            for (int i = 0; i < PATIENTS; i++) {
+                String id = "B" + round + "-" + i;
+                Patient patient = new Patient(id, "Bench", "Patient" + i, Gender.FEMALE, 80, "PID-" + id, LocalDate.now());
+                long start = System.nanoTime();
+                if (unitOfWork) {
+                    service.addPatient(patient);
+                } else {
+                    patientDAO.findById(patient.getId());
+                    String bedId = bedDAO.findSuitableBed(patient.getGender().toString(), patient.needsIsolation());
+                    patientDAO.save(patient);
+                    bedDAO.assignPatientToBed(bedId, patient.getId());
+                    patientDAO.assignBedToPatient(patient.getId(), bedId);
+                    auditLogger.logAction("SYSTEM", ActionType.ADD_PATIENT, "Added new patient", patient.getPatientId());
+                }
+                if (timed) {
+                    admitNanos += System.nanoTime() - start;
+                }
+            }
+
+            for (int i = 0; i < MOVE_TARGETS.length; i++) {
+                String patientId = "B" + round + "-" + i;
+                String target = MOVE_TARGETS[i];
+                long start = System.nanoTime();
+                if (unitOfWork) {
+                    service.movePatient(patientId, target);
+                } else {
+                    patientDAO.findById(patientId);
+                    bedDAO.isBedAvailable(target);
+                    bedDAO.isRoomGenderCompatible(target, "FEMALE");
+                    String current = bedDAO.findPatientBed(patientId);
+                    bedDAO.freeBed(current);
+                    patientDAO.endBedAssignment(patientId);
+                    bedDAO.assignPatientToBed(target, patientId);
+                    patientDAO.assignBedToPatient(patientId, target);
+                    auditLogger.logAction("SYSTEM", ActionType.MOVE_PATIENT, "Moved patient to bed: " + target, patientId);
+                }
+                if (timed) {
+                    moveNanos += System.nanoTime() - start;
+                }
+            }
+
+            // Empty the facility for the next round (not timed)
+            for (int i = 0; i < PATIENTS; i++) {
+                service.dischargePatient("B" + round + "-" + i);
+            }
+        }
+
+        auditLogger.flush();
+        DatabaseConfig.closeConnection();
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+        dbFile.delete();
+        int timedRounds = ROUNDS - 1;
+        return new double[]{admitNanos / 1e6 / (PATIENTS * timedRounds), moveNanos / 1e6 / (MOVE_TARGETS.length * timedRounds)};
+    }
+}
@@ -0,0 +1,150 @@
+package CareHome.TestCases;
+
+import CareHome.view.ViewTasks;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+ // Core test suite for ViewTasks demonstrating background loading, FX-thread results, progress and cancellation
+
+public class ViewTasksTest {
+    // Stands in for the JavaFX application thread
+    private ExecutorService fxThread;
+    private ViewTasks tasks;
+
+    @BeforeMethod
+    public void setUp() {
+        fxThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "fx-test"));
+        tasks = new ViewTasks(fxThread);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        tasks.close();
+        fxThread.shutdownNow();
+    }
+
+    @Test
+    public void testWorkRunsOffTheFxThreadAndResultsComeBackOnIt() throws Exception {
+        // RULE: a slow load never blocks the FX thread, and its result is handed over on the FX thread
+        CountDownLatch databaseSlow = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+
+        tasks.run("load", () -> {
+            threads.add("work:" + Thread.currentThread().isVirtual());
+            databaseSlow.await();
+            return 42;
+        }, value -> {
+            threads.add("result:" + Thread.currentThread().getName() + ":" + value);
+            delivered.countDown();
+        }, e -> Assert.fail("Unexpected failure", e));
+        tasks.run("fail", () -> {
+            throw new IllegalStateException("database is locked");
+        }, value -> Assert.fail("Failure reported as success"), e -> {
+            threads.add("failure:" + Thread.currentThread().getName() + ":" + e.getMessage());
+            delivered.countDown();
+        });
+
+        // The FX thread keeps handling events while the load waits on the database
+        long start = System.nanoTime();
+        fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        Assert.assertTrue(tasks.isRunning("load"));
+
+        databaseSlow.countDown();
+        Assert.assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        Assert.assertTrue(threads.contains("work:true"), "Work runs on a virtual thread: " + threads);
+        Assert.assertTrue(threads.contains("result:fx-test:42"));
+        Assert.assertTrue(threads.contains("failure:fx-test:database is locked"));
+        fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(tasks.getRunningCount(), 0);
+        System.out.println("✓ PASSED: Work ran off the FX thread; " + threads.size() + " hand-offs on it");
+    }
+
+    @Test
+    public void testNewerLoadAndWindowCloseCancel() throws Exception {
+        // RULE: a second load under the same key replaces the first, and closing the window drops everything still running
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> results = new CopyOnWriteArrayList<>();
+        ViewTasks.Task<String> stale = tasks.run("patients", () -> {
+            release.await();
+            return "stale";
+        }, results::add, e -> results.add("failed"));
+        ViewTasks.Task<String> fresh = tasks.run("patients", () -> {
+            release.await();
+            return "fresh";
+        }, results::add, e -> results.add("failed"));
+        Assert.assertTrue(stale.isCancelled());
+        Assert.assertFalse(fresh.isCancelled());
+        Assert.assertEquals(tasks.getRunningCount(), 1);
+
+        ViewTasks.Task<String> other = tasks.run("beds", () -> {
+            release.await();
+            return "beds";
+        }, results::add, e -> results.add("failed"));
+        release.countDown();
+        waitUntilDone(fresh);
+        waitUntilDone(other);
+        Assert.assertEquals(results.stream().sorted().toList(), List.of("beds", "fresh"));
+
+        // Closing the window: the running load is dropped and later submissions never run
+        CountDownLatch block = new CountDownLatch(1);
+        ViewTasks.Task<String> open = tasks.run("patients", () -> {
+            block.await();
+            return "after close";
+        }, results::add, e -> results.add("failed"));
+        tasks.close();
+        block.countDown();
+        Assert.assertTrue(open.isCancelled());
+        ViewTasks.Task<String> late = tasks.run("patients", () -> "late", results::add, e -> results.add("failed"));
+        Assert.assertTrue(late.isCancelled());
+        Thread.sleep(100);
+        fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(results.size(), 2, "Nothing is delivered after close: " + results);
+        Assert.assertFalse(open.cancel(), "Already cancelled");
+        System.out.println("✓ PASSED: Stale and closed-window loads were dropped");
+    }
+
+    @Test
+    public void testProgressIsCoalescedOntoTheFxThread() throws Exception {
+        // RULE: progress reaches the FX thread as the latest value only, so a busy task cannot flood it
+        List<Double> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+        int steps = 100_000;
+        ViewTasks.Task<Integer> task = tasks.run("import", (ViewTasks.Task<Integer> self) -> {
+            for (int i = 1; i <= steps; i++) {
+                self.updateProgress(i, steps);
+            }
+            return steps;
+        }, value -> finished.countDown(), e -> Assert.fail("Unexpected failure", e));
+        // Registered right after submitting, as a view does on the FX thread
+        fxThread.submit(() -> task.setOnProgress(seen::add)).get(1, TimeUnit.SECONDS);
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+        Assert.assertEquals(task.getProgress(), 1.0);
+        Assert.assertTrue(task.isDone());
+        Assert.assertTrue(seen.size() < steps / 10, seen.size() + " progress callbacks for " + steps + " updates");
+        for (int i = 1; i < seen.size(); i++) {
+            Assert.assertTrue(seen.get(i) >= seen.get(i - 1), "Progress never goes backwards");
+        }
+        System.out.println("✓ PASSED: " + steps + " progress updates reached the FX thread as " + seen.size());
+    }
+
+    private void waitUntilDone(ViewTasks.Task<?> task) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!task.isDone() && System.nanoTime() < deadline) {
+            fxThread.submit(() -> { }).get(1, TimeUnit.SECONDS);
+            Thread.sleep(5);
+        }
+        Assert.assertTrue(task.isDone());
+    }
+}
@@ -0,0 +1,156 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.CensusSnapshot;
+import CareHome.Model.Person.Patient;
+import CareHome.Service.CensusServiceImpl;
+import CareHome.Service.PatientServiceImpl;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.DatabaseConfig.StorageMode;
+import CareHome.config.FacilityTopology;
+import CareHome.dao.BedDAO;
+import CareHome.dao.BedDAOImpl;
+import CareHome.view.BedNode;
+import CareHome.view.WardViewController;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of keeping the ward map current on a 1,200-bed home (12 wards x 25 rooms x 4 beds) with
+ * 900 patients: a full redraw, as every refresh used to be, against a refresh that reads the beds
+ * changed since the drawn version and repaints only those. Scene-graph work is measured on the
+ * bed nodes, which is what a refresh rebuilds or repaints.
+ */
+public class WardMapBenchmarkTest {
+    private static final FacilityTopology LAYOUT = FacilityTopology.uniform(12, 25, 4);
+    private static final int PATIENTS = 900;
+    private static final int TURNOVER = 5;
+
+    private String originalUrl;
+    private StorageMode originalMode;
+    private FacilityTopology originalTopology;
+    private File dbFile;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        originalUrl = DatabaseConfig.getUrl();
+        originalMode = DatabaseConfig.getStorageMode();
+        originalTopology = FacilityTopology.getCurrent();
+        dbFile = File.createTempFile("carehome-wardmap-", ".db");
+        FacilityTopology.configure(LAYOUT);
+        DatabaseConfig.configure("jdbc:sqlite:" + dbFile.getAbsolutePath(), StorageMode.WAL);
+
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(BatchAdmissionTest.patient("WM" + i, i % 2 == 0 ? Gender.FEMALE : Gender.MALE, false));
+        }
+        new PatientServiceImpl().admitPatients(patients);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+        FacilityTopology.configure(originalTopology);
+        DatabaseConfig.configure(originalUrl, originalMode);
+        new File(dbFile.getAbsolutePath() + "-wal").delete();
+        new File(dbFile.getAbsolutePath() + "-shm").delete();
+        dbFile.delete();
+    }
+
+    @Test
+    public void benchmarkWardMapRefresh() throws Exception {
+        CensusServiceImpl census = new CensusServiceImpl();
+        PatientServiceImpl patients = new PatientServiceImpl();
+        BedDAO bedDAO = new BedDAOImpl();
+
+        // Warm up the JIT and the statement caches
+        Map<String, BedNode> nodes = null;
+        for (int i = 0; i < 5; i++) {
+            nodes = redraw(census.getSnapshot(), bedDAO);
+        }
+
+        int fullRuns = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < fullRuns; i++) {
+            nodes = redraw(census.getSnapshot(), bedDAO);
+        }
+        double fullMillis = (System.nanoTime() - start) / 1e6 / fullRuns;
+
+        // Each round a few patients leave and as many arrive, then the map catches up
+        long version = census.getSnapshot().getVersion();
+        int rounds = 20;
+        int repainted = 0;
+        int reported = 0;
+        long refreshNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < TURNOVER; i++) {
+                int n = round * TURNOVER + i;
+                patients.dischargePatient("WM" + n);
+                patients.addPatient(BatchAdmissionTest.patient("WN" + n, n % 2 == 0 ? Gender.FEMALE : Gender.MALE, false));
+            }
+            start = System.nanoTime();
+            CensusSnapshot changes = census.getChangesSince(version);
+            for (BedState state : changes.getBeds()) {
+                if (nodes.get(state.getBedId()).update(state)) {
+                    repainted++;
+                }
+            }
+            refreshNanos += System.nanoTime() - start;
+            reported += changes.getBeds().size();
+            version = changes.getVersion();
+            Assert.assertFalse(changes.isFull());
+        }
+        double refreshMillis = refreshNanos / 1e6 / rounds;
+
+        int idleRuns = 1_000;
+        start = System.nanoTime();
+        for (int i = 0; i < idleRuns; i++) {
+            Assert.assertTrue(census.getChangesSince(version).isEmpty());
+        }
+        double idleMillis = (System.nanoTime() - start) / 1e6 / idleRuns;
+
+        System.out.printf("%,d beds, %d patients%n", nodes.size(), PATIENTS);
+        System.out.printf("Full redraw:                  %.2f ms, %,d bed nodes built%n", fullMillis, nodes.size());
+        System.out.printf("Refresh after %d turnovers:    %.3f ms, %.1f beds reported, %.1f repainted%n",
+                TURNOVER, refreshMillis, reported / (double) rounds, repainted / (double) rounds);
+        System.out.printf("Refresh with nothing changed: %.3f ms%n", idleMillis);
+
+        // The repainted map must match a fresh full load
+        Map<String, BedState> fresh = new HashMap<>();
+        for (BedState state : census.getSnapshot().getBeds()) {
+            fresh.put(state.getBedId(), state);
+        }
+        for (Map.Entry<String, BedNode> node : nodes.entrySet()) {
+            Assert.assertEquals(node.getValue().getState(), fresh.get(node.getKey()), "Bed " + node.getKey());
+        }
+        Assert.assertEquals(nodes.size(), 1_200);
+        Assert.assertTrue(repainted <= rounds * TURNOVER * 2, "Only beds that changed are repainted");
+        Assert.assertTrue(refreshMillis * 10 < fullMillis, "Incremental refresh took " + refreshMillis + " ms against " + fullMillis + " ms");
+        System.out.println("✓ PASSED: Ward map refresh benchmark completed");
+    }
+
+    // What a full refresh does: read the layout and census, group by ward and room, build every bed node
+    private static Map<String, BedNode> redraw(CensusSnapshot snapshot, BedDAO bedDAO) throws Exception {
+        Map<String, BedState> states = new HashMap<>();
+        for (BedState state : snapshot.getBeds()) {
+            states.put(state.getBedId(), state);
+        }
+        bedDAO.getWards();
+        Map<String, BedNode> nodes = new HashMap<>();
+        for (Map<Integer, List<Bed>> rooms : WardViewController.groupByWardAndRoom(bedDAO.getAllBeds()).values()) {
+            for (List<Bed> beds : rooms.values()) {
+                for (Bed bed : beds) {
+                    nodes.put(bed.getBedId(), new BedNode(states.get(bed.getBedId())));
+                }
+            }
+        }
+        return nodes;
+    }
+}
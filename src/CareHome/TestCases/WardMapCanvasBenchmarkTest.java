@@ -0,0 +1,109 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.Ward;
+import CareHome.view.BedNode;
+import CareHome.view.WardMapCanvas;
+import CareHome.view.WardMapLayout;
+import CareHome.view.WardViewController;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Frame cost of the canvas ward map on facilities of 1,200, 10,000 and 40,000 beds in four-bed
+ * rooms, in a 1600x900 viewport over the middle of the facility. With viewport culling a frame at
+ * a given zoom should cost about the same whatever the facility size. For comparison, the
+ * node-based map builds a bed node for every bed on each full redraw.
+ */
+public class WardMapCanvasBenchmarkTest {
+    private static final int[] WARDS = {12, 25, 100};
+    private static final int ROOMS_PER_WARD_SMALL = 25;
+    private static final int ROOMS_PER_WARD = 100;
+
+    @Test
+    public void benchmarkCanvasFrames() {
+        double[] frameAtFull = new double[WARDS.length];
+        for (int size = 0; size < WARDS.length; size++) {
+            int rooms = size == 0 ? ROOMS_PER_WARD_SMALL : ROOMS_PER_WARD;
+            List<Ward> wards = new ArrayList<>();
+            List<Bed> beds = new ArrayList<>();
+            List<BedState> states = new ArrayList<>();
+            Random random = new Random(5);
+            for (int w = 1; w <= WARDS[size]; w++) {
+                wards.add(new Ward("W" + w, "Ward " + w));
+                for (int r = 1; r <= rooms; r++) {
+                    for (int b = 1; b <= 4; b++) {
+                        String bedId = "W" + w + "R" + r + "B" + b;
+                        beds.add(new Bed(bedId, "W" + w, r));
+                        boolean occupied = random.nextInt(4) != 0;
+                        states.add(new BedState(bedId, "W" + w, r, occupied ? bedId + "P" : null, occupied ? "PID-" + bedId : null,
+                                occupied ? "Bench Patient" : null, occupied ? (r % 2 == 0 ? Gender.MALE : Gender.FEMALE) : null, null));
+                    }
+                }
+            }
+
+            long start = System.nanoTime();
+            WardMapLayout layout = new WardMapLayout(wards, WardViewController.groupByWardAndRoom(beds));
+            double layoutMillis = (System.nanoTime() - start) / 1e6;
+
+            WardMapCanvas map = new WardMapCanvas(layout, states);
+            map.resize(1600, 900);
+            map.layout();
+            map.panBy(800 - layout.getWidth() / 2, 450 - layout.getHeight() / 2);
+
+            double full = frameMillis(map);
+            int bedsAtFull = map.getBedsInLastFrame();
+            map.zoomAt(0.35, 800, 450);
+            double zoomedOut = frameMillis(map);
+            int bedsZoomedOut = map.getBedsInLastFrame();
+            map.zoomAt(1 / 0.35, 800, 450);
+
+            int hits = 100_000;
+            start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < hits; i++) {
+                if (map.bedAt(random.nextDouble() * 1600, random.nextDouble() * 900) != null) {
+                    found++;
+                }
+            }
+            double hitMicros = (System.nanoTime() - start) / 1e3 / hits;
+
+            String nodes = "";
+            if (beds.size() <= 10_000) {
+                start = System.nanoTime();
+                for (BedState state : states) {
+                    new BedNode(state);
+                }
+                nodes = String.format(", %,d bed nodes %.0f ms", beds.size(), (System.nanoTime() - start) / 1e6);
+            }
+
+            System.out.printf("%,6d beds: layout %.1f ms, frame at 100%% %.2f ms (%d beds), at 35%% %.2f ms (%d beds), hit test %.2f us%s%n",
+                    beds.size(), layoutMillis, full, bedsAtFull, zoomedOut, bedsZoomedOut, hitMicros, nodes);
+            frameAtFull[size] = full;
+            Assert.assertTrue(found > 0);
+        }
+
+        Assert.assertTrue(frameAtFull[2] < Math.max(3 * frameAtFull[0], 2),
+                "A frame on 40,000 beds took " + frameAtFull[2] + " ms against " + frameAtFull[0] + " ms on 1,200");
+        System.out.println("✓ PASSED: Canvas ward map benchmark completed");
+    }
+
+    // Average of repeated full redraws after a warm-up
+    private static double frameMillis(WardMapCanvas map) {
+        for (int i = 0; i < 50; i++) {
+            map.redraw();
+        }
+        int frames = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            map.redraw();
+        }
+        return (System.nanoTime() - start) / 1e6 / frames;
+    }
+}
@@ -0,0 +1,127 @@
+package CareHome.TestCases;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.Ward;
+import CareHome.view.WardMapCanvas;
+import CareHome.view.WardMapLayout;
+import CareHome.view.WardViewController;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+ // Core test suite for the canvas ward map demonstrating layout, viewport culling, hit-testing, zoom/pan and selection
+
+public class WardMapCanvasTest {
+    private WardMapLayout layout;
+    private List<BedState> states;
+
+    @BeforeMethod
+    public void setUp() {
+        // Ward A: rooms of 4, 1 and 2 beds. Ward B: one room of 3 beds.
+        List<Bed> beds = new ArrayList<>();
+        addRoom(beds, "A", 1, 4);
+        addRoom(beds, "A", 2, 1);
+        addRoom(beds, "A", 3, 2);
+        addRoom(beds, "B", 1, 3);
+        layout = new WardMapLayout(List.of(new Ward("A", "Ward A"), new Ward("B", "Ward B")),
+                WardViewController.groupByWardAndRoom(beds));
+
+        states = new ArrayList<>();
+        for (Bed bed : beds) {
+            boolean occupied = bed.getBedId().equals("AR1B2");
+            states.add(new BedState(bed.getBedId(), bed.getWardId(), bed.getRoomNumber(),
+                    occupied ? "M1" : null, occupied ? "PID-M1" : null, occupied ? "Map Patient" : null,
+                    occupied ? Gender.FEMALE : null, null));
+        }
+    }
+
+    @Test
+    public void testLayoutHitTestingAndCulling() {
+        // RULE: beds sit two to a row in their room, and lookups by point or viewport find exactly the beds there
+        Assert.assertEquals(layout.getBedCount(), 10);
+        int first = layout.indexOf("AR1B1");
+        int second = layout.indexOf("AR1B2");
+        int third = layout.indexOf("AR1B3");
+        Assert.assertEquals(layout.getBedY(second), layout.getBedY(first));
+        Assert.assertTrue(layout.getBedX(second) > layout.getBedX(first));
+        Assert.assertEquals(layout.getBedX(third), layout.getBedX(first));
+        Assert.assertTrue(layout.getBedY(third) > layout.getBedY(first));
+
+        double x = layout.getBedX(first);
+        double y = layout.getBedY(first);
+        Assert.assertEquals(layout.bedAt(x + 35, y + 35), first);
+        Assert.assertEquals(layout.bedAt(x + 74, y + 35), -1, "The gap between beds hits nothing");
+        Assert.assertEquals(layout.bedAt(-10, -10), -1);
+        Assert.assertEquals(layout.indexOf("NOPE"), -1);
+
+        // A viewport over room A1 alone sees its four beds and nothing else
+        List<String> seen = new ArrayList<>();
+        layout.forEachBedIn(x, y, 140, 140, bed -> seen.add(layout.getBedId(bed)));
+        Assert.assertEquals(seen.stream().sorted().toList(), List.of("AR1B1", "AR1B2", "AR1B3", "AR1B4"));
+        List<String> all = new ArrayList<>();
+        layout.forEachBedIn(0, 0, layout.getWidth(), layout.getHeight(), bed -> all.add(layout.getBedId(bed)));
+        Assert.assertEquals(all.size(), 10, "Each bed is reported once");
+        System.out.println("✓ PASSED: Layout " + (int) layout.getWidth() + "x" + (int) layout.getHeight() + " culls and hit-tests");
+    }
+
+    @Test
+    public void testZoomPanAndSelection() {
+        // RULE: zoom keeps the point under the pointer fixed, panning moves the view, and a click selects the bed under it
+        WardMapCanvas map = new WardMapCanvas(layout, states);
+        map.resize(400, 300);
+        map.layout();
+        Assert.assertTrue(map.getBedsInLastFrame() > 0 && map.getBedsInLastFrame() < 10, "Only beds in view are drawn");
+
+        int bed = layout.indexOf("AR1B2");
+        double screenX = layout.getBedX(bed) + 10;
+        double screenY = layout.getBedY(bed) + 10;
+        Assert.assertEquals(map.bedAt(screenX, screenY).getBedId(), "AR1B2");
+        map.zoomAt(2, screenX, screenY);
+        Assert.assertEquals(map.getScale(), 2.0);
+        Assert.assertEquals(map.bedAt(screenX, screenY).getBedId(), "AR1B2", "Zoom keeps the bed under the pointer");
+        map.zoomAt(0.05, screenX, screenY);
+        Assert.assertEquals(map.getBedsInLastFrame(), 10, "Zoomed out, the whole facility is in view");
+        map.zoomAt(10, screenX, screenY);
+
+        List<BedState> selections = new ArrayList<>();
+        map.setOnBedSelected(selections::add);
+        BedState selected = map.selectAt(screenX, screenY);
+        Assert.assertEquals(selected.getOccupantName(), "Map Patient");
+        Assert.assertSame(map.getSelectedBed(), selected);
+        map.panBy(-1000, 0);
+        Assert.assertNull(map.bedAt(screenX, screenY), "Panned past the last ward");
+        Assert.assertNull(map.selectAt(screenX, screenY));
+        Assert.assertNull(map.getSelectedBed());
+        Assert.assertEquals(selections.size(), 2);
+        Assert.assertNull(selections.get(1));
+        System.out.println("✓ PASSED: Zoom, pan and selection behave");
+    }
+
+    @Test
+    public void testUpdatesRepaintOnlyChangedBeds() {
+        // RULE: a census change repaints the bed only if it differs from what the map shows
+        WardMapCanvas map = new WardMapCanvas(layout, states);
+        map.resize(400, 300);
+        map.layout();
+        BedState held = new BedState("AR1B1", "A", 1, null, null, null, null, Gender.MALE);
+
+        Assert.assertFalse(map.update(states.get(0)));
+        Assert.assertTrue(map.update(held));
+        Assert.assertFalse(map.update(held));
+        Assert.assertFalse(map.update(new BedState("ZR1B1", "Z", 1, null, null, null, null, null)), "Not on this map");
+        Assert.assertFalse(map.contains("ZR1B1"));
+        Assert.assertTrue(map.bedAt(layout.getBedX(0) + 1, layout.getBedY(0) + 1).isHeld());
+        System.out.println("✓ PASSED: Only changed beds are repainted");
+    }
+
+    private static void addRoom(List<Bed> beds, String wardId, int room, int bedCount) {
+        for (int b = 1; b <= bedCount; b++) {
+            beds.add(new Bed(wardId + "R" + room + "B" + b, wardId, room));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package CareHome.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of long-lived JDBC connections.
+ * Callers borrow a connection and return it by calling close(), so the usual
+ * try-with-resources blocks in the DAOs keep working without reopening the database.
+ */
+public class ConnectionPool {
+
+    // Hook run once on every physical connection right after it is opened
+    public interface ConnectionInitializer {
+        void initialize(Connection connection) throws SQLException;
+    }
+
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+    private final ConnectionInitializer initializer;
+    private final BlockingQueue<PooledConnection> idle;
+    private final Set<PooledConnection> all = ConcurrentHashMap.newKeySet();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    private final AtomicInteger open = new AtomicInteger();       // physical connections currently open
+    private final AtomicInteger active = new AtomicInteger();     // connections currently borrowed
+    private final AtomicInteger waiting = new AtomicInteger();    // borrowers blocked on an empty pool
+    private final AtomicLong createdCount = new AtomicLong();     // physical connections opened since start
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, ConnectionInitializer initializer) {
+        this(url, maxSize, borrowTimeoutMillis, DEFAULT_STATEMENT_CACHE_SIZE, initializer);
+    }
+
+    // statementCacheSize is per connection; 0 disables statement caching
+    public ConnectionPool(String url, int maxSize, long borrowTimeoutMillis, int statementCacheSize,
+                          ConnectionInitializer initializer) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.initializer = initializer;
+        this.idle = new LinkedBlockingQueue<>();
+    }
+
+    // Hands out an idle connection, opens a new one while below maxSize, or waits for a return
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+
+        PooledConnection pooled = idle.poll();
+        if (pooled == null) {
+            pooled = tryOpen();
+        }
+        if (pooled == null) {
+            // Counted before the retry, so any slot discard() frees from here on is refilled for us
+            waiting.incrementAndGet();
+            try {
+                pooled = tryOpen();
+                if (pooled == null) {
+                    pooled = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            } finally {
+                waiting.decrementAndGet();
+            }
+            if (pooled == null) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        }
+
+        // A connection closed underneath us (e.g. driver error) is replaced transparently
+        if (pooled.isPhysicallyClosed()) {
+            discard(pooled);
+            return borrow();
+        }
+
+        recordWait(System.nanoTime() - start);
+        borrowCount.incrementAndGet();
+        active.incrementAndGet();
+        return pooled.lend();
+    }
+
+    // Called by PooledConnection.close(): resets the connection and makes it available again
+    void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        if (shutdown) {
+            discard(pooled);
+            return;
+        }
+        try {
+            pooled.reset();
+            idle.offer(pooled);
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection that could not be reset: " + e.getMessage());
+            discard(pooled);
+        }
+    }
+
+    // Closes all idle connections; borrowed ones are closed when they are returned
+    public void shutdown() {
+        shutdown = true;
+        PooledConnection pooled;
+        while ((pooled = idle.poll()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    // Point-in-time view of the pool counters
+    public PoolStats getStats() {
+        long borrows = borrowCount.get();
+        return new PoolStats(
+                maxSize,
+                open.get(),
+                active.get(),
+                idle.size(),
+                createdCount.get(),
+                borrows,
+                timeoutCount.get(),
+                borrows == 0 ? 0 : totalWaitNanos.get() / borrows,
+                maxWaitNanos.get(),
+                statementCounters.hits.sum(),
+                statementCounters.misses.sum(),
+                statementCounters.evictions.sum()
+        );
+    }
+
+    // SQL text currently held in the statement caches of all open connections
+    public Set<String> getCachedSql() {
+        Set<String> sql = new TreeSet<>();
+        for (PooledConnection pooled : all) {
+            if (pooled.getStatementCache() != null) {
+                sql.addAll(pooled.getStatementCache().cachedSql());
+            }
+        }
+        return sql;
+    }
+
+    // Reserves a slot below maxSize and opens a physical connection for it
+    private PooledConnection tryOpen() throws SQLException {
+        while (true) {
+            int current = open.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (open.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        try {
+            Connection physical = DriverManager.getConnection(url);
+            if (initializer != null) {
+                initializer.initialize(physical);
+            }
+            createdCount.incrementAndGet();
+            StatementCache cache = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCounters)
+                    : null;
+            PooledConnection pooled = new PooledConnection(this, physical, cache);
+            all.add(pooled);
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+    }
+
+    // Closes a physical connection and frees its slot. Waiters only wake on the idle queue, so a
+    // slot freed while someone waits is filled with a fresh connection for them.
+    private void discard(PooledConnection pooled) {
+        open.decrementAndGet();
+        all.remove(pooled);
+        try {
+            pooled.closePhysical();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection: " + e.getMessage());
+        }
+        if (!shutdown && waiting.get() > 0) {
+            try {
+                PooledConnection replacement = tryOpen();
+                if (replacement != null) {
+                    idle.offer(replacement);
+                }
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Could not replace discarded pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+}
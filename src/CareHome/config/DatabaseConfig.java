@@ -1,261 +1,165 @@
 package CareHome.config;
 
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DatabaseConfig {
-    private static final String URL = "jdbc:sqlite:carehome.db";
-    private static Connection connection;
 
-    public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL);
-            initializeTables();
-        }
-        return connection;
+    public enum StorageMode {
+        ROLLBACK_JOURNAL,   // SQLite default: one connection pool, readers and writers block each other
+        WAL                 // Write-ahead log: read-only pool runs alongside a small writer pool
     }
 
-    private static void initializeTables() throws SQLException {
-        Statement stmt = connection.createStatement();
-
-        // Create patients table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS patients (
-                id TEXT PRIMARY KEY,
-                first_name TEXT NOT NULL,
-                last_name TEXT NOT NULL,
-                gender TEXT NOT NULL,
-                age INTEGER NOT NULL,
-                patient_id TEXT UNIQUE NOT NULL,
-                admission_date TEXT NOT NULL,
-                needs_isolation BOOLEAN DEFAULT FALSE,
-                bed_id TEXT,
-                is_active BOOLEAN DEFAULT TRUE,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP
-            )
-        """);
-
-        // Create staff table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS staff (
-                id TEXT PRIMARY KEY,
-                first_name TEXT NOT NULL,
-                last_name TEXT NOT NULL,
-                gender TEXT NOT NULL,
-                age INTEGER NOT NULL,
-                staff_id TEXT UNIQUE NOT NULL,
-                username TEXT UNIQUE NOT NULL,
-                password TEXT NOT NULL,
-                staff_type TEXT NOT NULL,
-                license_number TEXT,
-                is_active BOOLEAN DEFAULT TRUE,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP
-            )
-        """);
-
-        // Create beds table - NEW TABLE for bed management
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS beds (
-                bed_id TEXT PRIMARY KEY,
-                ward_id TEXT NOT NULL,
-                room_number INTEGER NOT NULL,
-                room_capacity INTEGER NOT NULL,
-                patient_id TEXT,
-                is_occupied BOOLEAN DEFAULT FALSE,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (patient_id) REFERENCES patients(id)
-            )
-        """);
-
-        // Create patient_bed history table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS patient_bed (
-                assignment_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                patient_id TEXT NOT NULL,
-                bed_id TEXT NOT NULL,
-                start_time TEXT NOT NULL,
-                end_time TEXT,
-                FOREIGN KEY (patient_id) REFERENCES patients(id),
-                FOREIGN KEY (bed_id) REFERENCES beds(bed_id)
-            )
-        """);
-
-        // Create shifts table - NEW TABLE for shift management
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS shifts (
-                shift_id TEXT PRIMARY KEY,
-                staff_id TEXT NOT NULL,
-                day_of_week TEXT NOT NULL,
-                shift_type TEXT NOT NULL,
-                start_hour INTEGER NOT NULL,
-                end_hour INTEGER NOT NULL,
-                duration_hours INTEGER NOT NULL,
-                is_assigned BOOLEAN DEFAULT TRUE,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (staff_id) REFERENCES staff(staff_id)
-            )
-        """);
-
-        // Create prescriptions table - ENHANCED
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS prescriptions (
-                prescription_id TEXT PRIMARY KEY,
-                patient_id TEXT NOT NULL,
-                doctor_id TEXT NOT NULL,
-                medication_name TEXT NOT NULL,
-                dosage TEXT NOT NULL,
-                frequency TEXT NOT NULL,
-                start_date TEXT NOT NULL,
-                end_date TEXT,
-                is_active BOOLEAN DEFAULT TRUE,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (patient_id) REFERENCES patients(patient_id),
-                FOREIGN KEY (doctor_id) REFERENCES staff(id)
-            )
-        """);
+    private static final String DEFAULT_URL = "jdbc:sqlite:carehome.db";
+    private static final int POOL_SIZE = 4;
+    private static final int WAL_WRITER_POOL_SIZE = 2;
+    private static final int WAL_READER_POOL_SIZE = 4;
+    private static final long BORROW_TIMEOUT_MILLIS = 10_000;
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+
+    // Opt in with -Dcarehome.storage=WAL
+    private static volatile StorageMode storageMode =
+            StorageMode.valueOf(System.getProperty("carehome.storage", "ROLLBACK_JOURNAL").trim().toUpperCase());
+    private static volatile String url = DEFAULT_URL;
+    private static volatile ConnectionPool pool;       // writer pool (also serves reads in ROLLBACK_JOURNAL)
+    private static volatile ConnectionPool readPool;   // read-only pool, WAL mode only
+    private static final AtomicLong generation = new AtomicLong();
+
+    // Borrows a pooled read/write connection; closing it hands it back to the pool.
+    // Inside a TransactionManager unit of work this is the transaction's connection.
+    public static Connection getConnection() throws SQLException {
+        Connection bound = TransactionManager.currentConnection();
+        return bound != null ? bound : getPool().borrow();
+    }
 
-        // Create medication_administration table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS medication_administration (
-                admin_id TEXT PRIMARY KEY,
-                prescription_id TEXT NOT NULL,
-                nurse_id TEXT NOT NULL,
-                administered_at TEXT NOT NULL,
-                notes TEXT,
-                created_at TEXT DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (prescription_id) REFERENCES prescriptions(prescription_id),
-                FOREIGN KEY (nurse_id) REFERENCES staff(id)
-            )
-        """);
+    // Borrows a connection for read-only DAO methods (the reader pool in WAL mode);
+    // inside a unit of work reads go to the transaction's connection so they see its writes
+    public static Connection getReadConnection() throws SQLException {
+        Connection bound = TransactionManager.currentConnection();
+        return bound != null ? bound : getReadPool().borrow();
+    }
 
-        // Create audit_log table
-        stmt.execute("""
-            CREATE TABLE IF NOT EXISTS audit_log (
-                entry_id TEXT PRIMARY KEY,
-                staff_id TEXT NOT NULL,
-                action_type TEXT NOT NULL,
-                target_id TEXT,
-                details TEXT,
-                timestamp TEXT DEFAULT CURRENT_TIMESTAMP,
-                FOREIGN KEY (staff_id) REFERENCES staff(staff_id)
-            )
-        """);
+    // Lazily creates the writer pool and brings the schema and facility layout up to date once for it
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null || current.isShutdown()) {
+            initializePools();
+            current = pool;
+        }
+        return current;
+    }
 
-        // Insert default staff - ONLY if not exists
-        insertDefaultStaff(stmt);
+    // Reader pool in WAL mode; the shared pool otherwise
+    public static ConnectionPool getReadPool() throws SQLException {
+        if (storageMode != StorageMode.WAL) {
+            return getPool();
+        }
+        ConnectionPool current = readPool;
+        if (current == null || current.isShutdown()) {
+            initializePools();
+            current = readPool;
+        }
+        return current;
+    }
 
-        // Initialize bed structure - ONLY if beds table is empty
-        initializeBedStructure(stmt);
+    // Current pool metrics (wait time, active count, creation count, ...)
+    public static PoolStats getPoolStats() throws SQLException {
+        return getPool().getStats();
+    }
 
-        stmt.close();
+    public static PoolStats getReadPoolStats() throws SQLException {
+        return getReadPool().getStats();
     }
 
-    private static void insertDefaultStaff(Statement stmt) throws SQLException {
-        stmt.executeUpdate("""
-            INSERT OR IGNORE INTO staff (
-                id, first_name, last_name, gender, age,
-                staff_id, username, password, staff_type,
-                is_active, created_at
-            ) VALUES (
-                'M001', 'John', 'Manager', 'MALE', 45,
-                'MGR001', 'manager', 'pass123', 'MANAGER',
-                TRUE, CURRENT_TIMESTAMP
-            )
-        """);
+    public static StorageMode getStorageMode() {
+        return storageMode;
+    }
 
-        stmt.executeUpdate("""
-            INSERT OR IGNORE INTO staff (
-                id, first_name, last_name, gender, age,
-                staff_id, username, password, staff_type,
-                is_active, created_at
-            ) VALUES (
-                'D001', 'Jane', 'Smith', 'FEMALE', 40,
-                'DOC001', 'doctor', 'pass123', 'DOCTOR',
-                TRUE, CURRENT_TIMESTAMP
-            )
-        """);
+    public static String getUrl() {
+        return url;
+    }
 
-        stmt.executeUpdate("""
-            INSERT OR IGNORE INTO staff (
-                id, first_name, last_name, gender, age,
-                staff_id, username, password, staff_type,
-                license_number, is_active, created_at
-            ) VALUES (
-                'D001', 'Jane', 'Smith', 'FEMALE', 40,
-                'DOC001', 'doctor', 'pass123', 'DOCTOR',
-                'MED12345', TRUE, CURRENT_TIMESTAMP
-            )
-        """);
+    // Bumped whenever the pools are shut down; state cached from the database is stale once it changes
+    public static long getGeneration() {
+        return generation.get();
+    }
 
-        stmt.executeUpdate("""
-            INSERT OR IGNORE INTO staff (
-                id, first_name, last_name, gender, age,
-                staff_id, username, password, staff_type,
-                license_number, is_active, created_at
-            ) VALUES (
-                'N001', 'Bob', 'Johnson', 'MALE', 35,
-                'NUR001', 'nurse', 'pass123', 'NURSE',
-                'NUR67890', TRUE, CURRENT_TIMESTAMP
-            )
-        """);
+    // Points the application at another database/mode (tests, benchmarks); open pools are shut down
+    public static synchronized void configure(String newUrl, StorageMode newMode) throws SQLException {
+        closeConnection();
+        url = newUrl;
+        storageMode = newMode;
     }
 
-    private static void initializeBedStructure(Statement stmt) throws SQLException {
-        // Check if beds already exist
-        var rs = stmt.executeQuery("SELECT COUNT(*) FROM beds");
-        rs.next();
-        if (rs.getInt(1) > 0) {
-            rs.close();
-            return; // Beds already initialized
+    private static synchronized void initializePools() throws SQLException {
+        if (pool != null && !pool.isShutdown()
+                && (storageMode != StorageMode.WAL || (readPool != null && !readPool.isShutdown()))) {
+            return;
         }
-        rs.close();
-
-        // Ward 1 - High Care Ward
-        String[][] ward1Config = {
-                {"W1R1", "1"}, {"W1R2", "2"}, {"W1R3", "4"},
-                {"W1R4", "4"}, {"W1R5", "4"}, {"W1R6", "4"}
-        };
+        closeConnection();
+
+        boolean wal = storageMode == StorageMode.WAL;
+        ConnectionPool writer = new ConnectionPool(url, wal ? WAL_WRITER_POOL_SIZE : POOL_SIZE,
+                BORROW_TIMEOUT_MILLIS, DatabaseConfig::configureConnection);
+        try (Connection conn = writer.borrow()) {
+            applyJournalMode(conn);
+            int before = SchemaMigrator.getSchemaVersion(conn);
+            boolean migrated = SchemaMigrator.migrate(conn) != before;
+            FacilityTopology.getCurrent().synchronize(conn, migrated);
+        }
+        pool = writer;
 
-        // Ward 2 - Standard Care Ward
-        String[][] ward2Config = {
-                {"W2R1", "1"}, {"W2R2", "2"}, {"W2R3", "4"},
-                {"W2R4", "4"}, {"W2R5", "4"}, {"W2R6", "4"}
-        };
+        if (wal) {
+            readPool = new ConnectionPool(url, WAL_READER_POOL_SIZE,
+                    BORROW_TIMEOUT_MILLIS, DatabaseConfig::configureReadConnection);
+        }
+    }
 
-        // Initialize Ward 1
-        for (String[] roomConfig : ward1Config) {
-            String roomId = roomConfig[0];
-            int capacity = Integer.parseInt(roomConfig[1]);
+    // Journal mode is persistent in the database file, so it is set once when the pools start
+    private static void applyJournalMode(Connection connection) throws SQLException {
+        String mode = storageMode == StorageMode.WAL ? "WAL" : "DELETE";
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = " + mode);
+        }
+    }
 
-            for (int bedNum = 1; bedNum <= capacity; bedNum++) {
-                String bedId = roomId + "B" + bedNum;
-                stmt.executeUpdate(String.format(
-                        "INSERT INTO beds (bed_id, ward_id, room_number, room_capacity, is_occupied) VALUES ('%s', 'W1', %d, %d, FALSE)",
-                        bedId, Integer.parseInt(roomId.substring(3)), capacity
-                ));
+    // Per-connection settings applied when the pool opens a physical connection
+    private static void configureConnection(Connection connection) throws SQLException {
+        // Take the write lock at BEGIN: a deferred transaction that reads first can fail with
+        // SQLITE_BUSY when it later upgrades to write, and busy_timeout does not retry that case
+        connection.unwrap(SQLiteConnection.class).getConnectionConfig()
+                .setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            if (storageMode == StorageMode.WAL) {
+                // NORMAL is crash-safe in WAL mode and skips the fsync on every commit
+                stmt.execute("PRAGMA synchronous = NORMAL");
             }
         }
+    }
 
-        // Initialize Ward 2
-        for (String[] roomConfig : ward2Config) {
-            String roomId = roomConfig[0];
-            int capacity = Integer.parseInt(roomConfig[1]);
-
-            for (int bedNum = 1; bedNum <= capacity; bedNum++) {
-                String bedId = roomId + "B" + bedNum;
-                stmt.executeUpdate(String.format(
-                        "INSERT INTO beds (bed_id, ward_id, room_number, room_capacity, is_occupied) VALUES ('%s', 'W2', %d, %d, FALSE)",
-                        bedId, Integer.parseInt(roomId.substring(3)), capacity
-                ));
-            }
+    private static void configureReadConnection(Connection connection) throws SQLException {
+        configureConnection(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA query_only = ON");
         }
     }
 
-    public static void closeConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
+    // Shuts the pools down; the next getConnection() call starts fresh ones
+    public static synchronized void closeConnection() throws SQLException {
+        generation.incrementAndGet();
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (readPool != null) {
+            readPool.shutdown();
+            readPool = null;
         }
     }
-}
\ No newline at end of file
+}
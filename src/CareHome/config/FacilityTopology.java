@@ -0,0 +1,424 @@
+package CareHome.config;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Layout of the facility: wards (with their floor), the numbered rooms in each ward
+ * and how many beds each room holds. Bed ids are derived as ward + "R" + room + "B" + bed.
+ * Each ward may name beds reserved for isolation patients (see IsolationConfig); they are
+ * flagged in beds.is_isolation.
+ *
+ * The layout is read from /CareHome/config/facility.properties on the classpath, or from the
+ * file named by -Dcarehome.topology. Both the beds/wards tables and the in-memory CareHome
+ * model are built from it; beds missing from the database are added when the pools start after
+ * a migration or a change to the layout (detected by a checksum kept in schema_meta).
+ * Beds that were ever used are never removed, since admissions history refers to them.
+ */
+public final class FacilityTopology {
+    private static final String RESOURCE = "/CareHome/config/facility.properties";
+    private static final String ID_PATTERN = "[A-Za-z0-9_]+";
+    private static final String CHECKSUM_KEY = "facility_layout_checksum";
+
+    private static volatile FacilityTopology current;
+
+    // One room and its bed count
+    public static final class RoomLayout {
+        private final String wardId;
+        private final int roomNumber;
+        private final int capacity;
+
+        private RoomLayout(String wardId, int roomNumber, int capacity) {
+            this.wardId = wardId;
+            this.roomNumber = roomNumber;
+            this.capacity = capacity;
+        }
+
+        public String getRoomId() { return wardId + "R" + roomNumber; }
+        public String getBedId(int bedNumber) { return getRoomId() + "B" + bedNumber; }
+        public String getWardId() { return wardId; }
+        public int getRoomNumber() { return roomNumber; }
+        public int getCapacity() { return capacity; }
+    }
+
+    // One ward, the floor it is on, its rooms in room-number order and its isolation beds
+    public static final class WardLayout {
+        private final String wardId;
+        private final String name;
+        private final int floor;
+        private final List<RoomLayout> rooms;
+        private final List<String> isolationBeds;
+
+        private WardLayout(String wardId, String name, int floor, List<RoomLayout> rooms, List<String> isolationBeds) {
+            this.wardId = wardId;
+            this.name = name;
+            this.floor = floor;
+            this.rooms = Collections.unmodifiableList(rooms);
+            this.isolationBeds = Collections.unmodifiableList(isolationBeds);
+        }
+
+        public String getWardId() { return wardId; }
+        public String getName() { return name; }
+        public int getFloor() { return floor; }
+        public List<RoomLayout> getRooms() { return rooms; }
+        public List<String> getIsolationBeds() { return isolationBeds; }
+    }
+
+    private final List<WardLayout> wards;
+    private final Set<String> isolationBeds;
+    private final int totalBeds;
+    private final String checksum;
+
+    private FacilityTopology(List<WardLayout> wards, Set<String> isolationBeds) {
+        this.wards = Collections.unmodifiableList(wards);
+        this.isolationBeds = Collections.unmodifiableSet(isolationBeds);
+        this.totalBeds = wards.stream()
+                .flatMap(ward -> ward.rooms.stream())
+                .mapToInt(RoomLayout::getCapacity)
+                .sum();
+        this.checksum = computeChecksum(wards);
+    }
+
+    // The layout in use, loaded on first call
+    public static FacilityTopology getCurrent() {
+        FacilityTopology topology = current;
+        if (topology == null) {
+            synchronized (FacilityTopology.class) {
+                if (current == null) {
+                    current = load();
+                }
+                topology = current;
+            }
+        }
+        return topology;
+    }
+
+    // Replaces the layout in use (tests, benchmarks); takes effect for pools started afterwards
+    public static synchronized void configure(FacilityTopology topology) {
+        current = topology;
+    }
+
+    // Reads the -Dcarehome.topology file if set, otherwise the bundled facility.properties
+    public static FacilityTopology load() {
+        Properties properties = new Properties();
+        String path = System.getProperty("carehome.topology");
+        try (InputStream in = path != null
+                ? new FileInputStream(path)
+                : FacilityTopology.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Facility layout not found on the classpath: " + RESOURCE);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read facility layout " + (path != null ? path : RESOURCE), e);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Builds a layout from properties of the form
+     *   wards=W1,W2
+     *   ward.W1.name=High Care Ward
+     *   ward.W1.floor=1              (default 1)
+     *   ward.W1.firstRoom=101        (default 1; rooms are numbered consecutively)
+     *   ward.W1.rooms=1,2,4*4        (bed count per room; "4*4" is four rooms of four beds)
+     *   ward.W1.isolationBeds=R1B1   (beds reserved for isolation, as room + bed; default none)
+     */
+    public static FacilityTopology fromProperties(Properties properties) {
+        String wardList = properties.getProperty("wards", "").trim();
+        if (wardList.isEmpty()) {
+            throw new IllegalArgumentException("Facility layout lists no wards");
+        }
+
+        List<WardLayout> wards = new ArrayList<>();
+        for (String rawId : wardList.split(",")) {
+            String wardId = rawId.trim();
+            String prefix = "ward." + wardId + ".";
+            String name = properties.getProperty(prefix + "name", wardId).trim();
+            int floor = intProperty(properties, prefix + "floor", 1);
+            int roomNumber = intProperty(properties, prefix + "firstRoom", 1);
+
+            List<Integer> capacities = new ArrayList<>();
+            for (String token : properties.getProperty(prefix + "rooms", "").split(",")) {
+                token = token.trim();
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int star = token.indexOf('*');
+                int capacity = parsePositive(star < 0 ? token : token.substring(0, star), prefix + "rooms");
+                int repeat = star < 0 ? 1 : parsePositive(token.substring(star + 1), prefix + "rooms");
+                for (int i = 0; i < repeat; i++) {
+                    capacities.add(capacity);
+                }
+            }
+
+            List<RoomLayout> rooms = new ArrayList<>(capacities.size());
+            for (int capacity : capacities) {
+                rooms.add(new RoomLayout(wardId, roomNumber++, capacity));
+            }
+            List<String> isolationBeds = new ArrayList<>();
+            for (String token : properties.getProperty(prefix + "isolationBeds", "").split(",")) {
+                if (!token.isBlank()) {
+                    isolationBeds.add(wardId + token.trim());
+                }
+            }
+            wards.add(new WardLayout(wardId, name, floor, rooms, isolationBeds));
+        }
+        return of(wards);
+    }
+
+    // Identical wards of identical rooms: W1..Wn named "Ward n", one ward per floor, no isolation beds (benchmarks, tests)
+    public static FacilityTopology uniform(int wardCount, int roomsPerWard, int bedsPerRoom) {
+        List<WardLayout> wards = new ArrayList<>(wardCount);
+        for (int w = 1; w <= wardCount; w++) {
+            List<RoomLayout> rooms = new ArrayList<>(roomsPerWard);
+            for (int r = 1; r <= roomsPerWard; r++) {
+                rooms.add(new RoomLayout("W" + w, r, bedsPerRoom));
+            }
+            wards.add(new WardLayout("W" + w, "Ward " + w, w, rooms, List.of()));
+        }
+        return of(wards);
+    }
+
+    private static FacilityTopology of(List<WardLayout> wards) {
+        Set<String> wardIds = new HashSet<>();
+        Set<String> bedIds = new HashSet<>();
+        Set<String> isolationBeds = new HashSet<>();
+        for (WardLayout ward : wards) {
+            if (!ward.wardId.matches(ID_PATTERN) || !wardIds.add(ward.wardId)) {
+                throw new IllegalArgumentException("Invalid or duplicate ward id: '" + ward.wardId + "'");
+            }
+            if (ward.rooms.isEmpty()) {
+                throw new IllegalArgumentException("Ward " + ward.wardId + " has no rooms");
+            }
+            for (RoomLayout room : ward.rooms) {
+                for (int bed = 1; bed <= room.capacity; bed++) {
+                    if (!bedIds.add(room.getBedId(bed))) {
+                        throw new IllegalArgumentException("Bed id " + room.getBedId(bed) + " is defined twice");
+                    }
+                }
+            }
+            for (String bedId : ward.isolationBeds) {
+                if (!bedIds.contains(bedId) || !bedId.startsWith(ward.wardId + "R")) {
+                    throw new IllegalArgumentException("Isolation bed " + bedId + " is not a bed of ward " + ward.wardId);
+                }
+                isolationBeds.add(bedId);
+            }
+        }
+        return new FacilityTopology(wards, isolationBeds);
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : parsePositive(value, key);
+    }
+
+    private static int parsePositive(String value, String key) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a positive number for " + key + ", got '" + value + "'");
+    }
+
+    public List<WardLayout> getWards() { return wards; }
+    public int getTotalBeds() { return totalBeds; }
+    public Set<String> getIsolationBeds() { return isolationBeds; }
+    public boolean isIsolationBed(String bedId) { return isolationBeds.contains(bedId); }
+    public String getChecksum() { return checksum; }
+
+    // Adds the beds of this layout that the beds table does not have yet
+    public int insertMissingBeds(Connection connection) throws SQLException {
+        Set<String> existing = existingIds(connection, "SELECT bed_id FROM beds");
+        int added = 0;
+        String sql = "INSERT INTO beds (bed_id, ward_id, room_number, room_capacity, is_occupied) VALUES (?, ?, ?, ?, FALSE)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (WardLayout ward : wards) {
+                for (RoomLayout room : ward.rooms) {
+                    for (int bed = 1; bed <= room.capacity; bed++) {
+                        if (existing.contains(room.getBedId(bed))) {
+                            continue;
+                        }
+                        stmt.setString(1, room.getBedId(bed));
+                        stmt.setString(2, ward.wardId);
+                        stmt.setInt(3, room.roomNumber);
+                        stmt.setInt(4, room.capacity);
+                        stmt.addBatch();
+                        added++;
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+        return added;
+    }
+
+    // Adds this layout's wards the wards table does not have yet
+    public int insertMissingWards(Connection connection) throws SQLException {
+        Set<String> existing = existingIds(connection, "SELECT ward_id FROM wards");
+        int added = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO wards (ward_id, ward_name, floor) VALUES (?, ?, ?)")) {
+            for (WardLayout ward : wards) {
+                if (existing.contains(ward.wardId)) {
+                    continue;
+                }
+                stmt.setString(1, ward.wardId);
+                stmt.setString(2, ward.name);
+                stmt.setInt(3, ward.floor);
+                stmt.addBatch();
+                added++;
+            }
+            stmt.executeBatch();
+        }
+        return added;
+    }
+
+    // Deletes beds this layout does not have, or has in a room of another size, as long as they were
+    // never occupied, held or assigned; wards left without beds go too. Returns the beds removed.
+    public int removeUnusedBeds(Connection connection) throws SQLException {
+        Map<String, Integer> capacities = new HashMap<>();
+        for (WardLayout ward : wards) {
+            for (RoomLayout room : ward.rooms) {
+                for (int bed = 1; bed <= room.capacity; bed++) {
+                    capacities.put(room.getBedId(bed), room.capacity);
+                }
+            }
+        }
+        List<String> outsideLayout = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT bed_id, room_capacity FROM beds")) {
+            while (rs.next()) {
+                Integer capacity = capacities.get(rs.getString(1));
+                if (capacity == null || capacity != rs.getInt(2)) {
+                    outsideLayout.add(rs.getString(1));
+                }
+            }
+        }
+        if (outsideLayout.isEmpty()) {
+            return 0;
+        }
+
+        int removed = 0;
+        try (PreparedStatement stmt = connection.prepareStatement("""
+                DELETE FROM beds
+                WHERE bed_id = ?1 AND is_occupied = FALSE AND patient_id IS NULL
+                  AND NOT EXISTS (SELECT 1 FROM patient_bed WHERE bed_id = ?1)
+                  AND NOT EXISTS (SELECT 1 FROM bed_reservations WHERE bed_id = ?1)
+                  AND NOT EXISTS (SELECT 1 FROM patients WHERE bed_id = ?1)
+            """)) {
+            for (String bedId : outsideLayout) {
+                stmt.setString(1, bedId);
+                removed += stmt.executeUpdate();
+            }
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM wards WHERE NOT EXISTS (SELECT 1 FROM beds WHERE beds.ward_id = wards.ward_id)");
+        }
+        return removed;
+    }
+
+    // Adds the wards and beds of this layout the database is missing and flags its isolation beds, in one transaction.
+    // Skipped after a single point read when the layout matches the checksum stored by the last
+    // run, unless force is set (a migration was just applied).
+    public void synchronize(Connection connection, boolean force) throws SQLException {
+        if (!force && checksum.equals(storedChecksum(connection))) {
+            return;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int wardsAdded = insertMissingWards(connection);
+            int bedsAdded = insertMissingBeds(connection);
+            markIsolationBeds(connection);
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT OR REPLACE INTO schema_meta (name, value) VALUES (?, ?)")) {
+                stmt.setString(1, CHECKSUM_KEY);
+                stmt.setString(2, checksum);
+                stmt.executeUpdate();
+            }
+            connection.commit();
+            if (wardsAdded > 0 || bedsAdded > 0) {
+                System.out.println("Facility layout: added " + wardsAdded + " wards, " + bedsAdded + " beds");
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void markIsolationBeds(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE beds SET is_isolation = FALSE WHERE is_isolation = TRUE");
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("UPDATE beds SET is_isolation = TRUE WHERE bed_id = ?")) {
+            for (String bedId : isolationBeds) {
+                stmt.setString(1, bedId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static String storedChecksum(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT value FROM schema_meta WHERE name = ?")) {
+            stmt.setString(1, CHECKSUM_KEY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    // SHA-256 over every ward, room size and isolation bed, in layout order
+    private static String computeChecksum(List<WardLayout> wards) {
+        StringBuilder text = new StringBuilder();
+        for (WardLayout ward : wards) {
+            text.append(ward.wardId).append('|').append(ward.name).append('|').append(ward.floor).append('|');
+            for (RoomLayout room : ward.rooms) {
+                text.append(room.roomNumber).append(':').append(room.capacity).append(',');
+            }
+            text.append('|').append(String.join(",", ward.isolationBeds)).append('\n');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Set<String> existingIds(Connection connection, String sql) throws SQLException {
+        Set<String> ids = new HashSet<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+package CareHome.config;
+
+// Immutable snapshot of connection pool metrics
+public class PoolStats {
+    private final int maxSize;
+    private final int openConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long createdCount;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long averageWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int maxSize, int openConnections, int activeConnections, int idleConnections,
+                     long createdCount, long borrowCount, long timeoutCount,
+                     long averageWaitNanos, long maxWaitNanos,
+                     long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.maxSize = maxSize;
+        this.openConnections = openConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.createdCount = createdCount;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.averageWaitNanos = averageWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    // Getters
+    public int getMaxSize() { return maxSize; }
+    public int getOpenConnections() { return openConnections; }
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public long getCreatedCount() { return createdCount; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getTimeoutCount() { return timeoutCount; }
+    public long getAverageWaitNanos() { return averageWaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+    public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool[max=%d, open=%d, active=%d, idle=%d, created=%d, borrows=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms, stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+                maxSize, openConnections, activeConnections, idleConnections, createdCount, borrowCount,
+                timeoutCount, averageWaitNanos / 1_000_000.0, maxWaitNanos / 1_000_000.0,
+                statementCacheHits, statementCacheMisses, statementCacheEvictions);
+    }
+}
@@ -0,0 +1,134 @@
+package CareHome.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A physical connection owned by a ConnectionPool.
+ * Borrowers only ever see a proxy handle; calling close() on it returns the
+ * connection to the pool instead of closing the underlying SQLite handle.
+ * Every borrow gets its own handle, so a stale handle closed late cannot
+ * return the connection while a later borrower is still using it.
+ */
+class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final AtomicReference<Lease> lease = new AtomicReference<>();   // current borrow, null while idle
+    private volatile boolean pinned;   // held by a TransactionManager unit of work; close() is ignored
+
+    PooledConnection(ConnectionPool pool, Connection physical, StatementCache statementCache) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCache;
+    }
+
+    // The PooledConnection behind a pool handle, or null for any other connection
+    static PooledConnection unwrap(Connection conn) {
+        if (Proxy.isProxyClass(conn.getClass()) && Proxy.getInvocationHandler(conn) instanceof Lease borrowed) {
+            return borrowed.owner();
+        }
+        return null;
+    }
+
+    // Starts a new borrow and returns the handle that is valid for it alone
+    Connection lend() {
+        Lease next = new Lease();
+        lease.set(next);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                next
+        );
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    void pin() {
+        pinned = true;
+    }
+
+    void unpin() {
+        pinned = false;
+    }
+
+    boolean isPhysicallyClosed() {
+        try {
+            return physical.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    // Rolls back anything a borrower left open so the next borrower starts clean
+    void reset() throws SQLException {
+        if (statementCache != null) {
+            statementCache.releaseAll();
+        }
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        physical.clearWarnings();
+    }
+
+    void closePhysical() throws SQLException {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        physical.close();
+    }
+
+    // One borrow of the connection; its handle stops working once the borrow ends
+    private final class Lease implements InvocationHandler {
+
+        PooledConnection owner() {
+            return PooledConnection.this;
+        }
+
+        private boolean isCurrent() {
+            return lease.get() == this;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!pinned && lease.compareAndSet(this, null)) {
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !isCurrent() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pool.getUrl() + (isCurrent() ? ", borrowed]" : ", returned]");
+                default:
+                    break;
+            }
+
+            if (!isCurrent()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,566 @@
+package CareHome.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Applies numbered schema migrations exactly once per database file.
+ * The applied version is tracked in PRAGMA user_version, so once the schema is
+ * current a new pool only pays for a single version check.
+ */
+public final class SchemaMigrator {
+
+    // One schema step; runs inside its own transaction together with the version bump
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // Changes the census log keeps; baked into its trim trigger by migration 11
+    private static final int CENSUS_LOG_RETAINED = 10_000;
+
+    // Append new migrations here; never renumber or edit one that has shipped
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create core tables", SchemaMigrator::createCoreTables),
+            new Migration(2, "Insert default staff", SchemaMigrator::insertDefaultStaff),
+            new Migration(3, "Seed bed topology", SchemaMigrator::initializeBedStructure),
+            new Migration(4, "Add secondary indexes", SchemaMigrator::createSecondaryIndexes),
+            new Migration(5, "Add id sequences", SchemaMigrator::createIdSequences),
+            new Migration(6, "Index audit queries", SchemaMigrator::createAuditQuerySupport),
+            new Migration(7, "Add wards table", SchemaMigrator::createWardsTable),
+            new Migration(8, "Add admission waitlist", SchemaMigrator::createWaitlistTable),
+            new Migration(9, "Add bed reservations", SchemaMigrator::createBedReservations),
+            new Migration(10, "Index bed history by time", SchemaMigrator::createBedHistoryIndexes),
+            new Migration(11, "Add census change log", SchemaMigrator::createCensusLog),
+            new Migration(12, "Replace unused default beds with the facility layout", SchemaMigrator::applyFacilityLayout),
+            new Migration(13, "Flag isolation beds", SchemaMigrator::addIsolationFlag)
+    );
+
+    private SchemaMigrator() {
+    }
+
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Brings the database up to the latest version and returns the version it ends on.
+    // Each step takes the write lock before re-reading the version, so when two processes start
+    // on the same file together the second waits for the first and then skips what it applied.
+    public static int migrate(Connection connection) throws SQLException {
+        int current = getSchemaVersion(connection);
+        if (current >= getLatestVersion()) {
+            return current;
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try (Statement tx = connection.createStatement()) {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                tx.execute("BEGIN IMMEDIATE");
+                try {
+                    current = getSchemaVersion(connection);
+                    if (migration.version <= current) {
+                        tx.execute("COMMIT");
+                        continue;
+                    }
+                    migration.step.apply(connection);
+                    setSchemaVersion(connection, migration.version);
+                    tx.execute("COMMIT");
+                    current = migration.version;
+                    System.out.println("Applied schema migration " + migration.version + ": " + migration.description);
+                } catch (SQLException e) {
+                    tx.execute("ROLLBACK");
+                    throw new SQLException("Schema migration " + migration.version
+                            + " (" + migration.description + ") failed: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    public static int getSchemaVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void setSchemaVersion(Connection connection, int version) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    // v1: core tables (IF NOT EXISTS so databases created before versioning are adopted as-is)
+    private static void createCoreTables(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // Create patients table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS patients (
+                    id TEXT PRIMARY KEY,
+                    first_name TEXT NOT NULL,
+                    last_name TEXT NOT NULL,
+                    gender TEXT NOT NULL,
+                    age INTEGER NOT NULL,
+                    patient_id TEXT UNIQUE NOT NULL,
+                    admission_date TEXT NOT NULL,
+                    needs_isolation BOOLEAN DEFAULT FALSE,
+                    bed_id TEXT,
+                    is_active BOOLEAN DEFAULT TRUE,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+
+            // Create staff table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS staff (
+                    id TEXT PRIMARY KEY,
+                    first_name TEXT NOT NULL,
+                    last_name TEXT NOT NULL,
+                    gender TEXT NOT NULL,
+                    age INTEGER NOT NULL,
+                    staff_id TEXT UNIQUE NOT NULL,
+                    username TEXT UNIQUE NOT NULL,
+                    password TEXT NOT NULL,
+                    staff_type TEXT NOT NULL,
+                    license_number TEXT,
+                    is_active BOOLEAN DEFAULT TRUE,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+
+            // Create beds table - NEW TABLE for bed management
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS beds (
+                    bed_id TEXT PRIMARY KEY,
+                    ward_id TEXT NOT NULL,
+                    room_number INTEGER NOT NULL,
+                    room_capacity INTEGER NOT NULL,
+                    patient_id TEXT,
+                    is_occupied BOOLEAN DEFAULT FALSE,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (patient_id) REFERENCES patients(id)
+                )
+            """);
+
+            // Create patient_bed history table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS patient_bed (
+                    assignment_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    patient_id TEXT NOT NULL,
+                    bed_id TEXT NOT NULL,
+                    start_time TEXT NOT NULL,
+                    end_time TEXT,
+                    FOREIGN KEY (patient_id) REFERENCES patients(id),
+                    FOREIGN KEY (bed_id) REFERENCES beds(bed_id)
+                )
+            """);
+
+            // Create shifts table - NEW TABLE for shift management
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS shifts (
+                    shift_id TEXT PRIMARY KEY,
+                    staff_id TEXT NOT NULL,
+                    day_of_week TEXT NOT NULL,
+                    shift_type TEXT NOT NULL,
+                    start_hour INTEGER NOT NULL,
+                    end_hour INTEGER NOT NULL,
+                    duration_hours INTEGER NOT NULL,
+                    is_assigned BOOLEAN DEFAULT TRUE,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (staff_id) REFERENCES staff(staff_id)
+                )
+            """);
+
+            // Create prescriptions table - ENHANCED
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS prescriptions (
+                    prescription_id TEXT PRIMARY KEY,
+                    patient_id TEXT NOT NULL,
+                    doctor_id TEXT NOT NULL,
+                    medication_name TEXT NOT NULL,
+                    dosage TEXT NOT NULL,
+                    frequency TEXT NOT NULL,
+                    start_date TEXT NOT NULL,
+                    end_date TEXT,
+                    is_active BOOLEAN DEFAULT TRUE,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (patient_id) REFERENCES patients(patient_id),
+                    FOREIGN KEY (doctor_id) REFERENCES staff(id)
+                )
+            """);
+
+            // Create medication_administration table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS medication_administration (
+                    admin_id TEXT PRIMARY KEY,
+                    prescription_id TEXT NOT NULL,
+                    nurse_id TEXT NOT NULL,
+                    administered_at TEXT NOT NULL,
+                    notes TEXT,
+                    created_at TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (prescription_id) REFERENCES prescriptions(prescription_id),
+                    FOREIGN KEY (nurse_id) REFERENCES staff(id)
+                )
+            """);
+
+            // Create audit_log table
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS audit_log (
+                    entry_id TEXT PRIMARY KEY,
+                    staff_id TEXT NOT NULL,
+                    action_type TEXT NOT NULL,
+                    target_id TEXT,
+                    details TEXT,
+                    timestamp TEXT DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (staff_id) REFERENCES staff(staff_id)
+                )
+            """);
+        }
+    }
+
+    // v2: default manager, doctor and nurse accounts
+    private static void insertDefaultStaff(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("""
+                INSERT OR IGNORE INTO staff (
+                    id, first_name, last_name, gender, age,
+                    staff_id, username, password, staff_type,
+                    is_active, created_at
+                ) VALUES (
+                    'M001', 'John', 'Manager', 'MALE', 45,
+                    'MGR001', 'manager', 'pass123', 'MANAGER',
+                    TRUE, CURRENT_TIMESTAMP
+                )
+            """);
+
+            stmt.executeUpdate("""
+                INSERT OR IGNORE INTO staff (
+                    id, first_name, last_name, gender, age,
+                    staff_id, username, password, staff_type,
+                    license_number, is_active, created_at
+                ) VALUES (
+                    'D001', 'Jane', 'Smith', 'FEMALE', 40,
+                    'DOC001', 'doctor', 'pass123', 'DOCTOR',
+                    'MED12345', TRUE, CURRENT_TIMESTAMP
+                )
+            """);
+
+            stmt.executeUpdate("""
+                INSERT OR IGNORE INTO staff (
+                    id, first_name, last_name, gender, age,
+                    staff_id, username, password, staff_type,
+                    license_number, is_active, created_at
+                ) VALUES (
+                    'N001', 'Bob', 'Johnson', 'MALE', 35,
+                    'NUR001', 'nurse', 'pass123', 'NURSE',
+                    'NUR67890', TRUE, CURRENT_TIMESTAMP
+                )
+            """);
+        }
+    }
+
+    // v3: 2 wards x 6 rooms, 1-4 beds per room, inserted with one batched statement
+    private static void initializeBedStructure(Connection connection) throws SQLException {
+        // Databases created before versioning already have their beds
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM beds")) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+
+        // Room capacities by room number (index 0 = room 1)
+        int[] roomCapacities = {1, 2, 4, 4, 4, 4};
+        String[] wardIds = {"W1", "W2"}; // W1 High Care, W2 Standard Care
+
+        String sql = "INSERT INTO beds (bed_id, ward_id, room_number, room_capacity, is_occupied) VALUES (?, ?, ?, ?, FALSE)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (String wardId : wardIds) {
+                for (int room = 1; room <= roomCapacities.length; room++) {
+                    int capacity = roomCapacities[room - 1];
+                    for (int bedNum = 1; bedNum <= capacity; bedNum++) {
+                        stmt.setString(1, wardId + "R" + room + "B" + bedNum);
+                        stmt.setString(2, wardId);
+                        stmt.setInt(3, room);
+                        stmt.setInt(4, capacity);
+                        stmt.addBatch();
+                    }
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // v4: indexes behind the DAO filters; QueryPlanTest fails if a DAO query falls back to a table scan.
+    // Flags most rows share (is_occupied, is_active, is_assigned) go in partial-index WHERE clauses
+    // rather than key columns, so the planner never prefers them over a selective key.
+    private static void createSecondaryIndexes(Connection connection) throws SQLException {
+        String[] indexes = {
+                // Room occupancy checks in findSuitableBed / isRoomGenderCompatible and ward lookups
+                "CREATE INDEX IF NOT EXISTS idx_beds_ward_room ON beds(ward_id, room_number, is_occupied)",
+                "CREATE INDEX IF NOT EXISTS idx_beds_patient ON beds(patient_id)",
+                "CREATE INDEX IF NOT EXISTS idx_beds_free ON beds(bed_id) WHERE is_occupied = FALSE",
+                // Current assignment is the row with end_time IS NULL
+                "CREATE INDEX IF NOT EXISTS idx_patient_bed_patient ON patient_bed(patient_id, end_time)",
+                "CREATE INDEX IF NOT EXISTS idx_patient_bed_bed ON patient_bed(bed_id, end_time)",
+                "CREATE INDEX IF NOT EXISTS idx_prescriptions_patient ON prescriptions(patient_id, is_active)",
+                "CREATE INDEX IF NOT EXISTS idx_prescriptions_active ON prescriptions(created_at) WHERE is_active = TRUE",
+                "CREATE INDEX IF NOT EXISTS idx_shifts_staff ON shifts(staff_id, is_assigned)",
+                "CREATE INDEX IF NOT EXISTS idx_shifts_day ON shifts(day_of_week, start_hour) WHERE is_assigned = TRUE",
+                "CREATE INDEX IF NOT EXISTS idx_audit_timestamp ON audit_log(timestamp)"
+        };
+        try (Statement stmt = connection.createStatement()) {
+            for (String ddl : indexes) {
+                stmt.execute(ddl);
+            }
+        }
+    }
+
+    // v5: counters behind IdGenerator's staff and patient numbers, seeded past the numbers already
+    // in use (the old generator used COUNT(*) + 1, so take whichever of the two is higher)
+    private static void createIdSequences(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS id_sequences (
+                    name TEXT PRIMARY KEY,
+                    next_value INTEGER NOT NULL
+                )
+            """);
+        }
+
+        String seedSql = """
+                INSERT OR IGNORE INTO id_sequences (name, next_value)
+                SELECT ?, MAX(
+                    (SELECT COUNT(*) FROM %1$s WHERE %2$s LIKE ?),
+                    (SELECT COALESCE(MAX(CAST(SUBSTR(%2$s, ?) AS INTEGER)), 0) FROM %1$s
+                     WHERE %2$s GLOB ? AND LENGTH(%2$s) <= ?)
+                ) + 1
+            """;
+        try (PreparedStatement patients = connection.prepareStatement(String.format(seedSql, "patients", "id"));
+             PreparedStatement staff = connection.prepareStatement(String.format(seedSql, "staff", "staff_id"))) {
+            bindSeed(patients, "patient", "P");
+            patients.executeUpdate();
+            for (String prefix : new String[]{"DOC", "NUR", "MGR", "STA"}) {
+                bindSeed(staff, "staff." + prefix, prefix);
+                staff.executeUpdate();
+            }
+        }
+    }
+
+    // Only short numeric suffixes count, so millisecond-based ids from older builds are ignored
+    private static void bindSeed(PreparedStatement stmt, String name, String prefix) throws SQLException {
+        stmt.setString(1, name);
+        stmt.setString(2, prefix + "%");
+        stmt.setInt(3, prefix.length() + 1);
+        stmt.setString(4, prefix + "[0-9]*");
+        stmt.setInt(5, prefix.length() + 6);
+    }
+
+    // v6: indexes behind AuditDAO's date, staff, action and target lookups, each ending in
+    // (timestamp, entry_id) so newest-first results come straight off the index without a sort,
+    // and a row count kept current by triggers so count() does not walk an ever-growing table
+    private static void createAuditQuerySupport(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP INDEX IF EXISTS idx_audit_timestamp");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_audit_time ON audit_log(timestamp, entry_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_audit_staff ON audit_log(staff_id, timestamp, entry_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_audit_action ON audit_log(action_type, timestamp, entry_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_audit_target ON audit_log(target_id, timestamp, entry_id)");
+
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS audit_log_count (
+                    id INTEGER PRIMARY KEY CHECK (id = 1),
+                    total INTEGER NOT NULL
+                )
+            """);
+            stmt.execute("INSERT OR REPLACE INTO audit_log_count (id, total) SELECT 1, COUNT(*) FROM audit_log");
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_audit_log_insert AFTER INSERT ON audit_log
+                BEGIN
+                    UPDATE audit_log_count SET total = total + 1 WHERE id = 1;
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_audit_log_delete AFTER DELETE ON audit_log
+                BEGIN
+                    UPDATE audit_log_count SET total = total - 1 WHERE id = 1;
+                END
+            """);
+        }
+    }
+
+    // v7: ward names and floors, so views and reports no longer assume W1/W2.
+    // Wards that only exist in the beds table (layout edited since) keep their id as name.
+    private static void createWardsTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS wards (
+                    ward_id TEXT PRIMARY KEY,
+                    ward_name TEXT NOT NULL,
+                    floor INTEGER NOT NULL DEFAULT 1
+                )
+            """);
+        }
+        FacilityTopology.getCurrent().insertMissingWards(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("INSERT OR IGNORE INTO wards (ward_id, ward_name) SELECT DISTINCT ward_id, ward_id FROM beds");
+        }
+    }
+
+    // v8: patients waiting for a suitable bed. They are not in the patients table until admitted,
+    // so the columns needed to save them later are kept here.
+    private static void createWaitlistTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS waitlist (
+                    entry_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    id TEXT UNIQUE NOT NULL,
+                    first_name TEXT NOT NULL,
+                    last_name TEXT NOT NULL,
+                    gender TEXT NOT NULL,
+                    age INTEGER NOT NULL,
+                    patient_id TEXT UNIQUE NOT NULL,
+                    admission_date TEXT NOT NULL,
+                    needs_isolation BOOLEAN DEFAULT FALSE,
+                    priority INTEGER NOT NULL DEFAULT 0,
+                    requested_at TEXT NOT NULL
+                )
+            """);
+        }
+    }
+
+    // v9: time-limited holds on beds. A held bed is occupied with no patient and carries the gender
+    // it is held for, so placement and room gender checks treat it like an occupant.
+    private static void createBedReservations(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE beds ADD COLUMN hold_gender TEXT");
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS bed_reservations (
+                    reservation_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    bed_id TEXT UNIQUE NOT NULL,
+                    hold_gender TEXT NOT NULL,
+                    reason TEXT,
+                    created_by TEXT NOT NULL,
+                    created_at TEXT NOT NULL,
+                    expires_at TEXT NOT NULL,
+                    FOREIGN KEY (bed_id) REFERENCES beds(bed_id)
+                )
+            """);
+        }
+    }
+
+    // v10: indexes behind BedHistoryDAO. (bed_id, start_time) finds the stay covering an instant
+    // in one bed with a single seek; (end_time, ...) finds the stays still running at the start of
+    // a period, open ones included, without reading the history before it. The latter carries
+    // every column so home-wide reads never go back to the table.
+    private static void createBedHistoryIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_patient_bed_bed_start ON patient_bed(bed_id, start_time)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_patient_bed_end ON patient_bed(end_time, start_time, bed_id, patient_id)");
+        }
+    }
+
+    // v11: one row per change to what the ward map shows for a bed, numbered by version, so screens
+    // can ask what changed since the version they last drew. Triggers fill it whichever code path
+    // writes, and trim it to the last CENSUS_LOG_RETAINED changes; a screen further behind than that
+    // reloads the whole census.
+    private static void createCensusLog(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS census_log (
+                    version INTEGER PRIMARY KEY AUTOINCREMENT,
+                    bed_id TEXT NOT NULL
+                )
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_log_trim AFTER INSERT ON census_log
+                BEGIN
+                    DELETE FROM census_log WHERE version <= NEW.version - %d;
+                END
+            """.formatted(CENSUS_LOG_RETAINED));
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_bed_added AFTER INSERT ON beds
+                BEGIN
+                    INSERT INTO census_log (bed_id) VALUES (NEW.bed_id);
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_bed_changed AFTER UPDATE OF is_occupied, patient_id, hold_gender ON beds
+                WHEN OLD.is_occupied IS NOT NEW.is_occupied OR OLD.patient_id IS NOT NEW.patient_id
+                  OR OLD.hold_gender IS NOT NEW.hold_gender
+                BEGIN
+                    INSERT INTO census_log (bed_id) VALUES (NEW.bed_id);
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_stay_started AFTER INSERT ON patient_bed
+                WHEN NEW.end_time IS NULL
+                BEGIN
+                    INSERT INTO census_log (bed_id) VALUES (NEW.bed_id);
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_stay_ended AFTER UPDATE OF end_time ON patient_bed
+                WHEN OLD.end_time IS NULL AND NEW.end_time IS NOT NULL
+                BEGIN
+                    INSERT INTO census_log (bed_id) VALUES (NEW.bed_id);
+                END
+            """);
+            // Name and gender show on the map, so edits reach the bed the patient is in
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_census_patient_changed AFTER UPDATE OF first_name, last_name, gender, patient_id ON patients
+                WHEN OLD.first_name IS NOT NEW.first_name OR OLD.last_name IS NOT NEW.last_name
+                  OR OLD.gender IS NOT NEW.gender OR OLD.patient_id IS NOT NEW.patient_id
+                BEGIN
+                    INSERT INTO census_log (bed_id)
+                    SELECT bed_id FROM patient_bed WHERE patient_id = NEW.id AND end_time IS NULL;
+                END
+            """);
+        }
+    }
+
+    // v12: v3 always seeds the default 2-ward layout. Beds of it that facility.properties does not
+    // have, or sizes differently, are dropped as long as nothing ever used them; the configured beds
+    // are added by FacilityTopology.synchronize when the pools start. schema_meta keeps the checksum
+    // of the layout last applied, so later start-ups only re-apply it when it has changed.
+    private static void applyFacilityLayout(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_meta (
+                    name TEXT PRIMARY KEY,
+                    value TEXT NOT NULL
+                )
+            """);
+        }
+        FacilityTopology.getCurrent().removeUnusedBeds(connection);
+    }
+
+    // v13: whether a bed is kept for isolation, so the conditional bed claim can enforce it in SQL.
+    // FacilityTopology.synchronize sets it from the layout; it runs after every migration.
+    private static void addIsolationFlag(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE beds ADD COLUMN is_isolation BOOLEAN NOT NULL DEFAULT FALSE");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package CareHome.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of compiled PreparedStatements for one pooled connection, keyed by SQL text.
+ * DAOs call StatementCache.prepare(conn, sql) instead of conn.prepareStatement(sql);
+ * closing the returned statement hands it back to the cache instead of finalizing it.
+ */
+public class StatementCache {
+
+    // Hit/miss/eviction totals shared by every cache in a pool
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    private final Connection physical;
+    private final int capacity;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int capacity, Counters counters) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.capacity) {
+                    counters.evictions.increment();
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns a cached statement for pooled connections, or a plain one for anything else
+    public static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PooledConnection pooled = PooledConnection.unwrap(conn);
+        if (pooled != null && pooled.getStatementCache() != null) {
+            if (conn.isClosed()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            return pooled.getStatementCache().get(sql);
+        }
+        return conn.prepareStatement(sql);
+    }
+
+    synchronized PreparedStatement get(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            counters.hits.increment();
+            cached.inUse = true;
+            return cached.handle;
+        }
+
+        counters.misses.increment();
+        if (cached != null) {
+            // Same SQL already open on this connection (nested use): hand out an uncached statement
+            return physical.prepareStatement(sql);
+        }
+        cached = new CachedStatement(physical.prepareStatement(sql));
+        cached.inUse = true;
+        statements.put(sql, cached);
+        return cached.handle;
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    synchronized List<String> cachedSql() {
+        return new ArrayList<>(statements.keySet());
+    }
+
+    // Called when the connection goes back to the pool: statements a borrower forgot to close are reclaimed
+    synchronized void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.recycle();
+            }
+        }
+    }
+
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    // Proxy around one compiled statement; close() resets it for reuse instead of closing it
+    private final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement handle;
+        private ResultSet openResultSet;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.handle = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this
+            );
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (StatementCache.this) {
+                        if (evicted) {
+                            statement.close();
+                        } else if (inUse) {
+                            recycle();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet rs) {
+                    openResultSet = rs;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void recycle() {
+            inUse = false;
+            try {
+                if (openResultSet != null) {
+                    openResultSet.close();
+                    openResultSet = null;
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                System.err.println("Failed to reset cached statement: " + e.getMessage());
+            }
+        }
+
+        // Closes the physical statement now, or when its current user closes it
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println("Failed to close cached statement: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
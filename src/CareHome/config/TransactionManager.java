@@ -0,0 +1,167 @@
+package CareHome.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Unit of work spanning several DAO calls.
+ * While a transaction is open on a thread, DatabaseConfig.getConnection() and
+ * getReadConnection() hand every DAO the same pooled connection, and the DAOs'
+ * try-with-resources close() calls leave it borrowed until the outermost unit commits.
+ * Nested calls join the enclosing transaction.
+ */
+public final class TransactionManager {
+
+    // Body of a unit of work that returns a value
+    public interface Work<T> {
+        T execute() throws Exception;
+    }
+
+    // Body of a unit of work with no result
+    public interface VoidWork {
+        void execute() throws Exception;
+    }
+
+    // State that follows one unit of work through its commit (e.g. a cache's pending changes)
+    public interface Synchronization {
+        // Runs just before the commit; throwing rolls the unit back
+        void beforeCommit() throws Exception;
+
+        // Runs once the unit has committed or rolled back, before any afterCommit actions
+        void afterCompletion(boolean committed);
+    }
+
+    private static final class Transaction {
+        private final Connection connection;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private final Map<Object, Synchronization> synchronizations = new LinkedHashMap<>();
+        private boolean rollbackOnly;
+
+        private Transaction(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+
+    private TransactionManager() {
+    }
+
+    public static void run(VoidWork work) throws Exception {
+        inTransaction(() -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    // Runs work on one connection and commits once; any exception rolls the whole unit back
+    public static <T> T inTransaction(Work<T> work) throws Exception {
+        Transaction tx = CURRENT.get();
+        if (tx != null) {
+            return joinExisting(tx, work);
+        }
+
+        Connection conn = DatabaseConfig.getPool().borrow();
+        PooledConnection pooled = PooledConnection.unwrap(conn);
+        tx = new Transaction(conn);
+        T result;
+        boolean committed = false;
+        try {
+            pooled.pin();
+            conn.setAutoCommit(false);
+            CURRENT.set(tx);
+
+            result = work.execute();
+            if (tx.rollbackOnly) {
+                throw new SQLException("Transaction rolled back: a nested unit of work failed");
+            }
+            for (Synchronization sync : tx.synchronizations.values()) {
+                sync.beforeCommit();
+            }
+            // Leaving autocommit mode commits; commit() would also open the next BEGIN IMMEDIATE and
+            // take the write lock again only for the pool to roll it back
+            conn.setAutoCommit(true);
+            committed = true;
+        } catch (Exception | Error e) {
+            rollbackQuietly(conn, e);
+            throw e;
+        } finally {
+            CURRENT.remove();
+            pooled.unpin();
+            conn.close();
+            for (Synchronization sync : tx.synchronizations.values()) {
+                sync.afterCompletion(committed);
+            }
+        }
+
+        // Connection is already back in the pool, so these may run their own DAO calls
+        runAfterCommit(tx);
+        return result;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // Defers action until the current transaction commits (dropped on rollback); runs now if none is open
+    public static void afterCommit(Runnable action) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) {
+            action.run();
+        } else {
+            tx.afterCommit.add(action);
+        }
+    }
+
+    // The synchronization registered under key in the current unit of work, created on first use;
+    // null outside a transaction
+    @SuppressWarnings("unchecked")
+    public static <S extends Synchronization> S synchronization(Object key, Supplier<S> factory) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) {
+            return null;
+        }
+        return (S) tx.synchronizations.computeIfAbsent(key, k -> factory.get());
+    }
+
+    // Connection bound to this thread's transaction, or null outside one
+    static Connection currentConnection() {
+        Transaction tx = CURRENT.get();
+        return tx != null ? tx.connection : null;
+    }
+
+    private static <T> T joinExisting(Transaction tx, Work<T> work) throws Exception {
+        try {
+            return work.execute();
+        } catch (Exception | Error e) {
+            // The outer unit may catch this, but it must not commit the partial work
+            tx.rollbackOnly = true;
+            throw e;
+        }
+    }
+
+    private static void runAfterCommit(Transaction tx) {
+        for (Runnable action : tx.afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("After-commit action failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void rollbackQuietly(Connection conn, Throwable cause) {
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
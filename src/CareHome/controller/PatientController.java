@@ -3,6 +3,7 @@ package CareHome.controller;
 import CareHome.Service.AuthenticationService;
 import CareHome.Service.PatientService;
 import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import CareHome.Model.Person.Staff;
 import CareHome.Model.Person.Manager;
 import CareHome.Model.Person.Nurse;
@@ -42,6 +43,18 @@ public class PatientController extends BaseController {
         return patientService.getAllPatients();
     }
 
+    // Returns patient listing rows with their beds after ensuring a user is authenticated
+    public List<PatientBedView> getPatientBedViews() throws Exception {
+        validateAuthentication();
+        return patientService.getPatientBedViews();
+    }
+
+    // Returns one patient's listing row (null once discharged) after ensuring a user is authenticated
+    public PatientBedView getPatientBedView(String id) throws Exception {
+        validateAuthentication();
+        return patientService.getPatientBedView(id);
+    }
+
     // Moves a patient to a new bed via service and writes an audit entry
     public void movePatient(String patientId, String newBedId) throws Exception {
         validateAuthorization("MOVE_PATIENT");
@@ -14,6 +14,7 @@ import CareHome.dao.StaffDAO;
 import CareHome.dao.StaffDAOImpl;
 import CareHome.dao.ShiftDAO;
 import CareHome.dao.ShiftDAOImpl;
+import CareHome.util.IdGenerator;
 
 import java.time.DayOfWeek;
 import java.util.ArrayList;
@@ -146,8 +147,7 @@ public class ShiftController extends BaseController {
 
     //Generate unique shift ID
     private String generateShiftId(String staffId, DayOfWeek day, ShiftType shiftType) {
-        return String.format("SH_%s_%s_%s_%d",
-                staffId, day.name(), shiftType.name(), System.currentTimeMillis());
+        return IdGenerator.nextId(String.format("SH_%s_%s_%s", staffId, day.name(), shiftType.name()));
     }
 
     //Find shift by ID
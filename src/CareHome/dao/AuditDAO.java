@@ -1,9 +1,26 @@
 package CareHome.dao;
 
+import CareHome.Model.ActionType;
 import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Audit.AuditPage;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AuditDAO {
+
+    // Receives entries one at a time from streamAll; return false to stop early
+    interface EntryHandler {
+        boolean handle(AuditEntry entry) throws Exception;
+    }
+
     void save(AuditEntry entry) throws Exception;
+    void saveAll(List<AuditEntry> entries) throws Exception;
     List<AuditEntry> findAll() throws Exception;
+    List<AuditEntry> findByDateRange(LocalDateTime from, LocalDateTime to) throws Exception;
+    List<AuditEntry> findByStaffId(String staffId) throws Exception;
+    List<AuditEntry> findByActionType(ActionType actionType) throws Exception;
+    List<AuditEntry> findByTargetId(String targetId) throws Exception;
+    long count() throws Exception;
+    AuditPage findPage(AuditPage after, int pageSize) throws Exception;
+    void streamAll(EntryHandler handler) throws Exception;
 }
@@ -2,7 +2,10 @@ package CareHome.dao;
 
 import CareHome.Model.ActionType;
 import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Audit.AuditPage;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+import CareHome.config.TransactionManager;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,27 +17,38 @@ import java.util.List;
 
 public class AuditDAOImpl implements AuditDAO {
 
+    private static final int STREAM_PAGE_SIZE = 1_000;
+    private static final String INSERT_SQL = "INSERT INTO audit_log (entry_id, staff_id, action_type, target_id, details, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
+
     // Persists a single audit entry row into audit_log
     @Override
     public void save(AuditEntry entry) throws Exception {
-        String sql = "INSERT INTO audit_log (entry_id, staff_id, action_type, target_id, details, timestamp) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, entry.getEntryId());
-            stmt.setString(2, entry.getStaffId());
-            stmt.setString(3, entry.getActionType().name());
-            stmt.setString(4, entry.getTargetId());
-            stmt.setString(5, entry.getDetails());
-            stmt.setString(6, entry.getTimestamp().toString());
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, INSERT_SQL)) {
+            bindEntry(stmt, entry);
             stmt.executeUpdate();
         }
     }
 
+    // Inserts a batch of audit entries with one commit; all or none are stored
+    @Override
+    public void saveAll(List<AuditEntry> entries) throws Exception {
+        TransactionManager.run(() -> {
+            try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, INSERT_SQL)) {
+                for (AuditEntry entry : entries) {
+                    bindEntry(stmt, entry);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        });
+    }
+
     // Retrieves all audit entries ordered by most recent first
     @Override
     public List<AuditEntry> findAll() throws Exception {
         List<AuditEntry> entries = new ArrayList<>();
-        String sql = "SELECT * FROM audit_log ORDER BY timestamp DESC";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+        String sql = "SELECT * FROM audit_log ORDER BY timestamp DESC, entry_id DESC";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 entries.add(createEntryFromResultSet(rs));
             }
@@ -42,6 +56,118 @@ public class AuditDAOImpl implements AuditDAO {
         return entries;
     }
 
+    // Entries with from <= timestamp < to, newest first; a range seek on idx_audit_time
+    @Override
+    public List<AuditEntry> findByDateRange(LocalDateTime from, LocalDateTime to) throws Exception {
+        String sql = "SELECT * FROM audit_log WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp DESC, entry_id DESC";
+        return query(sql, from.toString(), to.toString());
+    }
+
+    // Entries recorded by one staff member, newest first (idx_audit_staff)
+    @Override
+    public List<AuditEntry> findByStaffId(String staffId) throws Exception {
+        String sql = "SELECT * FROM audit_log WHERE staff_id = ? ORDER BY timestamp DESC, entry_id DESC";
+        return query(sql, staffId);
+    }
+
+    // Entries of one action type, newest first (idx_audit_action)
+    @Override
+    public List<AuditEntry> findByActionType(ActionType actionType) throws Exception {
+        String sql = "SELECT * FROM audit_log WHERE action_type = ? ORDER BY timestamp DESC, entry_id DESC";
+        return query(sql, actionType.name());
+    }
+
+    // Entries about one patient, staff member or bed, newest first (idx_audit_target)
+    @Override
+    public List<AuditEntry> findByTargetId(String targetId) throws Exception {
+        String sql = "SELECT * FROM audit_log WHERE target_id = ? ORDER BY timestamp DESC, entry_id DESC";
+        return query(sql, targetId);
+    }
+
+    // Total rows, read from the trigger-maintained audit_log_count row instead of counting the table
+    @Override
+    public long count() throws Exception {
+        String sql = "SELECT total FROM audit_log_count WHERE id = 1";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Next pageSize entries, newest first, after the given page (null for the first page).
+    // Keyset pagination: seeks on idx_audit_time past the last (timestamp, entry_id) seen,
+    // so page n costs the same as page 1 and rows written meanwhile never shift the pages.
+    @Override
+    public AuditPage findPage(AuditPage after, int pageSize) throws Exception {
+        boolean first = after == null || after.getLastEntryId() == null;
+        String sql = first
+                ? "SELECT * FROM audit_log ORDER BY timestamp DESC, entry_id DESC LIMIT ?"
+                : "SELECT * FROM audit_log WHERE (timestamp, entry_id) < (?, ?) ORDER BY timestamp DESC, entry_id DESC LIMIT ?";
+        List<AuditEntry> entries = new ArrayList<>(pageSize);
+        String lastTimestamp = first ? null : after.getLastTimestamp();
+        String lastEntryId = first ? null : after.getLastEntryId();
+        boolean hasMore = false;
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            int index = 1;
+            if (!first) {
+                stmt.setString(index++, after.getLastTimestamp());
+                stmt.setString(index++, after.getLastEntryId());
+            }
+            stmt.setInt(index, pageSize + 1);   // one extra row tells whether another page exists
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (entries.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    entries.add(createEntryFromResultSet(rs));
+                    lastTimestamp = rs.getString("timestamp");
+                    lastEntryId = rs.getString("entry_id");
+                }
+            }
+        }
+        return new AuditPage(entries, lastTimestamp, lastEntryId, hasMore);
+    }
+
+    // Feeds every entry, newest first, to the handler without building the full list.
+    // Reads page by page and returns the connection between pages, so a long export
+    // never holds a read lock that would stall the audit writer.
+    @Override
+    public void streamAll(EntryHandler handler) throws Exception {
+        AuditPage page = null;
+        do {
+            page = findPage(page, STREAM_PAGE_SIZE);
+            for (AuditEntry entry : page.getEntries()) {
+                if (!handler.handle(entry)) {
+                    return;
+                }
+            }
+        } while (page.hasMore());
+    }
+
+    private List<AuditEntry> query(String sql, String... params) throws SQLException {
+        List<AuditEntry> entries = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(createEntryFromResultSet(rs));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void bindEntry(PreparedStatement stmt, AuditEntry entry) throws SQLException {
+        stmt.setString(1, entry.getEntryId());
+        stmt.setString(2, entry.getStaffId());
+        stmt.setString(3, entry.getActionType().name());
+        stmt.setString(4, entry.getTargetId());
+        stmt.setString(5, entry.getDetails());
+        stmt.setString(6, entry.getTimestamp().toString());
+    }
+
     private AuditEntry createEntryFromResultSet(ResultSet rs) throws SQLException {
         AuditEntry entry = new AuditEntry(
                 rs.getString("entry_id"),
@@ -0,0 +1,10 @@
+package CareHome.dao;
+
+// Outcome of a conditional bed assignment; the write and its checks were one statement
+public enum BedAssignmentResult {
+    ASSIGNED,          // bed was free and the room had no one of another gender
+    BED_NOT_FOUND,
+    BED_OCCUPIED,
+    GENDER_CONFLICT,   // someone of another gender is in the room
+    ISOLATION_CONFLICT // isolation bed, and the patient does not need isolation or the room is not empty
+}
@@ -1,14 +1,20 @@
 package CareHome.dao;
 
 import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.Ward;
 import java.util.List;
 
 public interface BedDAO {
     void assignPatientToBed(String bedId, String patientId) throws Exception;
+    BedAssignmentResult assignIfCompatible(String bedId, String patientId, String patientGender, boolean needsIsolation) throws Exception;
+    BedAssignmentResult holdIfCompatible(String bedId, String holdGender, boolean needsIsolation) throws Exception;
+    boolean assignHeldBed(String bedId, String patientId, String patientGender) throws Exception;
+    boolean releaseHold(String bedId) throws Exception;
     void freeBed(String bedId) throws Exception;
     String findPatientBed(String patientId) throws Exception;
     List<String> getAvailableBeds() throws Exception;
     List<Bed> getAllBeds() throws Exception;
+    List<Ward> getWards() throws Exception;
     boolean isBedAvailable(String bedId) throws Exception;
     String findSuitableBed(String patientGender, boolean needsIsolation) throws Exception;
     boolean isRoomGenderCompatible(String bedId, String patientGender) throws Exception;
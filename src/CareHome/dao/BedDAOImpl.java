@@ -1,54 +1,218 @@
 package CareHome.dao;
 
 import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.Ward;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.FacilityTopology;
+import CareHome.config.StatementCache;
 import CareHome.config.IsolationConfig;
+import CareHome.config.TransactionManager;
+import CareHome.event.BedAssigned;
+import CareHome.event.BedFreed;
+import CareHome.event.BedHeld;
+import CareHome.event.EventBus;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
 
 public class BedDAOImpl implements BedDAO {
+    private final BedOccupancyIndex occupancyIndex = BedOccupancyIndex.getInstance();
+    private final EventBus events = EventBus.getInstance();
 
     // Assigns a patient to a free bed atomically and marks it occupied
     @Override
     public void assignPatientToBed(String bedId, String patientId) throws Exception {
         String sql = "UPDATE beds SET patient_id = ?, is_occupied = TRUE WHERE bed_id = ? AND is_occupied = FALSE";
+        String genderSql = "SELECT gender FROM patients WHERE id = ?";
+
+        // Own unit of work when called alone, so the occupancy index changes with the commit
+        TransactionManager.run(() -> {
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                try (PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+                    stmt.setString(1, patientId);
+                    stmt.setString(2, bedId);
+
+                    int rowsUpdated = stmt.executeUpdate();
+                    if (rowsUpdated == 0) {
+                        throw new Exception("Bed " + bedId + " is not available or doesn't exist");
+                    }
+                }
+
+                // The index tracks occupant gender for the room compatibility checks
+                String gender = null;
+                try (PreparedStatement stmt = StatementCache.prepare(conn, genderSql)) {
+                    stmt.setString(1, patientId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            gender = rs.getString("gender");
+                        }
+                    }
+                }
+                occupancyIndex.bedAssigned(bedId, patientId, gender);
+                events.publish(new BedAssigned(bedId, patientId));
+            }
+        });
+    }
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // Assigns the bed only if it is free and no one of another gender occupies its room; a reserved isolation bed
+    // also needs an isolation patient and an otherwise empty room. Check and write are one UPDATE, so a concurrent
+    // client (another terminal or process) cannot slip in between them; the reason for a refusal is looked up
+    // only after the write was refused.
+    @Override
+    public BedAssignmentResult assignIfCompatible(String bedId, String patientId, String patientGender,
+                                                  boolean needsIsolation) throws Exception {
+        return claimIfCompatible(bedId, patientId, patientGender, needsIsolation);
+    }
 
-            stmt.setString(1, patientId);
-            stmt.setString(2, bedId);
+    // Holds a free bed empty for a patient of the given gender, under the same conditions as assignIfCompatible
+    @Override
+    public BedAssignmentResult holdIfCompatible(String bedId, String holdGender, boolean needsIsolation) throws Exception {
+        return claimIfCompatible(bedId, null, holdGender, needsIsolation);
+    }
 
-            int rowsUpdated = stmt.executeUpdate();
-            if (rowsUpdated == 0) {
-                throw new Exception("Bed " + bedId + " is not available or doesn't exist");
+    // Gives a held bed to a patient of the gender it was held for; false if it is no longer held for them
+    @Override
+    public boolean assignHeldBed(String bedId, String patientId, String patientGender) throws Exception {
+        String sql = "UPDATE beds SET patient_id = ?, hold_gender = NULL WHERE bed_id = ? AND patient_id IS NULL AND hold_gender = ?";
+
+        return TransactionManager.inTransaction(() -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+                stmt.setString(1, patientId);
+                stmt.setString(2, bedId);
+                stmt.setString(3, patientGender);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+                occupancyIndex.bedAssigned(bedId, patientId, patientGender);
+                events.publish(new BedAssigned(bedId, patientId));
+                return true;
             }
-        }
+        });
     }
 
-    // Frees a bed by clearing patient_id and setting is_occupied = FALSE
+    // Frees a held bed; false if it holds a patient or no hold
+    @Override
+    public boolean releaseHold(String bedId) throws Exception {
+        String sql = "UPDATE beds SET is_occupied = FALSE, hold_gender = NULL WHERE bed_id = ? AND patient_id IS NULL AND hold_gender IS NOT NULL";
+
+        return TransactionManager.inTransaction(() -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+                stmt.setString(1, bedId);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+                occupancyIndex.bedFreed(bedId);
+                events.publish(new BedFreed(bedId));
+                return true;
+            }
+        });
+    }
+
+    // One conditional UPDATE for assignments (patientId set) and holds (patientId null). An occupant's
+    // gender is the patient's, or the hold gender for a held bed; a patient never conflicts with their own bed.
+    // Isolation beds (beds.is_isolation, set from the layout) take isolation patients only, and only while
+    // nobody else is in the room.
+    private BedAssignmentResult claimIfCompatible(String bedId, String patientId, String gender,
+                                                  boolean needsIsolation) throws Exception {
+        String sql = """
+            UPDATE beds SET patient_id = ?, hold_gender = ?, is_occupied = TRUE
+            WHERE bed_id = ? AND is_occupied = FALSE
+              AND (is_isolation = FALSE OR ?)
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM beds o
+                  LEFT JOIN patients p ON p.id = o.patient_id
+                  WHERE o.ward_id = beds.ward_id
+                    AND o.room_number = beds.room_number
+                    AND o.is_occupied = TRUE
+                    AND (o.patient_id IS NULL OR o.patient_id IS NOT ?)
+                    AND (beds.is_isolation OR COALESCE(p.gender, o.hold_gender) <> ?)
+              )
+        """;
+        String reasonSql = "SELECT is_occupied, is_isolation FROM beds WHERE bed_id = ?";
+
+        return TransactionManager.inTransaction(() -> {
+            try (Connection conn = DatabaseConfig.getConnection()) {
+                try (PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+                    stmt.setString(1, patientId);
+                    stmt.setString(2, patientId == null ? gender : null);
+                    stmt.setString(3, bedId);
+                    stmt.setBoolean(4, needsIsolation);
+                    stmt.setString(5, patientId);
+                    stmt.setString(6, gender);
+                    if (stmt.executeUpdate() == 1) {
+                        if (patientId == null) {
+                            occupancyIndex.bedHeld(bedId, gender);
+                            events.publish(new BedHeld(bedId, gender));
+                        } else {
+                            occupancyIndex.bedAssigned(bedId, patientId, gender);
+                            events.publish(new BedAssigned(bedId, patientId));
+                        }
+                        return BedAssignmentResult.ASSIGNED;
+                    }
+                }
+
+                BedAssignmentResult refusal;
+                try (PreparedStatement stmt = StatementCache.prepare(conn, reasonSql)) {
+                    stmt.setString(1, bedId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            return BedAssignmentResult.BED_NOT_FOUND;
+                        }
+                        if (rs.getBoolean("is_occupied")) {
+                            refusal = BedAssignmentResult.BED_OCCUPIED;
+                        } else if (rs.getBoolean("is_isolation")) {
+                            refusal = BedAssignmentResult.ISOLATION_CONFLICT;
+                        } else {
+                            refusal = BedAssignmentResult.GENDER_CONFLICT;
+                        }
+                    }
+                }
+
+                // The index expected the bed to be claimable: another client wrote to the beds table, so resync
+                if (refusal != BedAssignmentResult.ISOLATION_CONFLICT
+                        && !occupancyIndex.hasPendingChanges() && occupancyIndex.isBedAvailable(bedId)
+                        && occupancyIndex.isRoomGenderCompatible(bedId, gender)) {
+                    occupancyIndex.reload();
+                }
+                return refusal;
+            }
+        });
+    }
+
+    // Frees a bed by clearing patient_id (and any hold) and setting is_occupied = FALSE
     @Override
     public void freeBed(String bedId) throws Exception {
-        String sql = "UPDATE beds SET patient_id = NULL, is_occupied = FALSE WHERE bed_id = ?";
+        String sql = "UPDATE beds SET patient_id = NULL, hold_gender = NULL, is_occupied = FALSE WHERE bed_id = ?";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        TransactionManager.run(() -> {
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
-            stmt.setString(1, bedId);
-            stmt.executeUpdate();
-        }
+                stmt.setString(1, bedId);
+                if (stmt.executeUpdate() > 0) {
+                    occupancyIndex.bedFreed(bedId);
+                    events.publish(new BedFreed(bedId));
+                }
+            }
+        });
     }
 
     // Returns the bed_id currently occupied by the given patient, or null if none
     @Override
     public String findPatientBed(String patientId) throws Exception {
+        if (!occupancyIndex.hasPendingChanges()) {
+            return occupancyIndex.findPatientBed(patientId);
+        }
         String sql = "SELECT bed_id FROM beds WHERE patient_id = ? AND is_occupied = TRUE";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, patientId);
             ResultSet rs = stmt.executeQuery();
@@ -66,8 +230,8 @@ public class BedDAOImpl implements BedDAO {
         String sql = "SELECT bed_id FROM beds WHERE is_occupied = FALSE ORDER BY bed_id";
         List<String> availableBeds = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -82,8 +246,8 @@ public class BedDAOImpl implements BedDAO {
     public List<Bed> getAllBeds() throws Exception {
         List<Bed> allBeds = new ArrayList<>();
         String sql = "SELECT * FROM beds ORDER BY ward_id, room_number, bed_id";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 allBeds.add(new Bed(rs.getString("bed_id"), rs.getString("ward_id"), rs.getInt("room_number")));
@@ -92,13 +256,31 @@ public class BedDAOImpl implements BedDAO {
         return allBeds;
     }
 
+    // Lists the wards (without rooms) by floor, then ward id
+    @Override
+    public List<Ward> getWards() throws Exception {
+        List<Ward> wards = new ArrayList<>();
+        String sql = "SELECT ward_id, ward_name, floor FROM wards ORDER BY floor, ward_id";
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                wards.add(new Ward(rs.getString("ward_id"), rs.getString("ward_name"), rs.getInt("floor")));
+            }
+        }
+        return wards;
+    }
+
     // Checks whether a bed exists and is currently free to be assigned
     @Override
     public boolean isBedAvailable(String bedId) throws Exception {
+        if (!occupancyIndex.hasPendingChanges()) {
+            return occupancyIndex.isBedAvailable(bedId);
+        }
         String sql = "SELECT is_occupied FROM beds WHERE bed_id = ?";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, bedId);
             ResultSet rs = stmt.executeQuery();
@@ -113,16 +295,21 @@ public class BedDAOImpl implements BedDAO {
     // Returns a single free bed id according to gender compatibility
     @Override
     public String findSuitableBed(String patientGender, boolean needsIsolation) throws Exception {
-        try (Connection conn = DatabaseConfig.getConnection()) {
+        if (!occupancyIndex.hasPendingChanges()) {
+            return occupancyIndex.findSuitableBed(patientGender, needsIsolation);
+        }
+        // Database path: this unit of work has bed changes the index does not show yet
+        try (Connection conn = DatabaseConfig.getReadConnection()) {
+            Set<String> reservedBeds = FacilityTopology.getCurrent().getIsolationBeds();
 
             // ===== ISOLATION PATIENTS =====
             if (needsIsolation) {
                 if (IsolationConfig.MODE == IsolationConfig.Mode.RESERVED_ONLY) {
-                    // OPTION 1: Use only RESERVED_ISOLATION_BEDS, but ensure the ENTIRE room is empty
-                    if (!IsolationConfig.RESERVED_ISOLATION_BEDS.isEmpty()) {
+                    // OPTION 1: Use only the layout's isolation beds, but ensure the ENTIRE room is empty
+                    if (!reservedBeds.isEmpty()) {
                         // Build IN (?, ?, ?, ?)
                         StringJoiner sj = new StringJoiner(",", "(", ")");
-                        int placeholders = IsolationConfig.RESERVED_ISOLATION_BEDS.size();
+                        int placeholders = reservedBeds.size();
                         for (int i = 0; i < placeholders; i++) sj.add("?");
 
                         String sql = """
@@ -141,9 +328,9 @@ public class BedDAOImpl implements BedDAO {
                             LIMIT 1
                         """.formatted(sj.toString());
 
-                        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        try (PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
                             int i = 1;
-                            for (String bedId : IsolationConfig.RESERVED_ISOLATION_BEDS) {
+                            for (String bedId : reservedBeds) {
                                 stmt.setString(i++, bedId);
                             }
                             try (ResultSet rs = stmt.executeQuery()) {
@@ -170,7 +357,7 @@ public class BedDAOImpl implements BedDAO {
                         ORDER BY b1.ward_id, b1.room_number, b1.bed_id
                         LIMIT 1
                     """;
-                    try (PreparedStatement stmt = conn.prepareStatement(emptyRoomSql);
+                    try (PreparedStatement stmt = StatementCache.prepare(conn, emptyRoomSql);
                          ResultSet rs = stmt.executeQuery()) {
                         if (rs.next()) return rs.getString("bed_id");
                     }
@@ -182,7 +369,7 @@ public class BedDAOImpl implements BedDAO {
             // Gender-compatible room (no occupant in that room with opposite gender).
             // If using RESERVED_ONLY, keep non-isolation patients OUT of reserved rooms.
             String reservedExclusion = "";
-            List<String> reserved = new ArrayList<>(IsolationConfig.RESERVED_ISOLATION_BEDS);
+            List<String> reserved = new ArrayList<>(reservedBeds);
             if (IsolationConfig.MODE == IsolationConfig.Mode.RESERVED_ONLY && !reserved.isEmpty()) {
                 StringJoiner sj = new StringJoiner(",", "(", ")");
                 for (int i = 0; i < reserved.size(); i++) sj.add("?");
@@ -197,17 +384,17 @@ public class BedDAOImpl implements BedDAO {
                   AND NOT EXISTS (
                         SELECT 1
                         FROM beds b2
-                        JOIN patients p ON p.id = b2.patient_id
+                        LEFT JOIN patients p ON p.id = b2.patient_id
                         WHERE b2.ward_id = b1.ward_id
                           AND b2.room_number = b1.room_number
                           AND b2.is_occupied = TRUE
-                          AND p.gender <> ?
+                          AND COALESCE(p.gender, b2.hold_gender) <> ?
                   )
                 ORDER BY b1.ward_id, b1.room_number, b1.bed_id
                 LIMIT 1
             """.formatted(reservedExclusion);
 
-            try (PreparedStatement stmt = conn.prepareStatement(compatibleSql)) {
+            try (PreparedStatement stmt = StatementCache.prepare(conn, compatibleSql)) {
                 int idx = 1;
                 if (!reservedExclusion.isBlank()) {
                     for (String bedId : reserved) {
@@ -227,18 +414,21 @@ public class BedDAOImpl implements BedDAO {
 
     @Override
     public boolean isRoomGenderCompatible(String bedId, String patientGender) throws Exception {
+        if (!occupancyIndex.hasPendingChanges()) {
+            return occupancyIndex.isRoomGenderCompatible(bedId, patientGender);
+        }
         String sql = """
             SELECT COUNT(*)
             FROM beds b
-            JOIN patients p ON p.id = b.patient_id
+            LEFT JOIN patients p ON p.id = b.patient_id
             WHERE b.ward_id = (SELECT ward_id FROM beds WHERE bed_id = ?)
               AND b.room_number = (SELECT room_number FROM beds WHERE bed_id = ?)
               AND b.is_occupied = TRUE
-              AND p.gender <> ?
+              AND COALESCE(p.gender, b.hold_gender) <> ?
         """;
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, bedId);
             stmt.setString(2, bedId);
@@ -259,8 +449,8 @@ public class BedDAOImpl implements BedDAO {
     public int getTotalBeds() throws Exception {
         String sql = "SELECT COUNT(*) FROM beds";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
@@ -273,10 +463,13 @@ public class BedDAOImpl implements BedDAO {
     // Returns number of currently free beds
     @Override
     public int getAvailableBedCount() throws Exception {
+        if (!occupancyIndex.hasPendingChanges()) {
+            return occupancyIndex.getAvailableBedCount();
+        }
         String sql = "SELECT COUNT(*) FROM beds WHERE is_occupied = FALSE";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
@@ -0,0 +1,12 @@
+package CareHome.dao;
+
+import CareHome.Model.Location.BedStay;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BedHistoryDAO {
+    BedStay findStayAt(String bedId, LocalDateTime at) throws Exception;
+    List<BedStay> findStaysInBed(String bedId, LocalDateTime from, LocalDateTime to) throws Exception;
+    List<BedStay> findStaysAt(LocalDateTime at) throws Exception;
+    List<BedStay> findStaysBetween(LocalDateTime from, LocalDateTime to) throws Exception;
+}
@@ -0,0 +1,146 @@
+package CareHome.dao;
+
+import CareHome.Model.Location.BedStay;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point-in-time and range reads over patient_bed, the record of who was in which bed when.
+ *
+ * Stays in one bed never overlap, so the stay covering an instant is the one that started
+ * last at or before it: one seek on (bed_id, start_time). That also bounds range queries to
+ * the stay covering the start of the range plus the stays starting inside it. Home-wide ranges
+ * read the stays still running after the range starts off (end_time, start_time), so neither
+ * kind of query walks the years of history before the period asked about.
+ *
+ * patient_bed times are written by SQLite's CURRENT_TIMESTAMP, which is UTC to the second;
+ * callers pass and get back local times. Rows come back with the times as epoch seconds, which
+ * read several times faster than parsing the text when a query returns years of stays.
+ */
+public class BedHistoryDAOImpl implements BedHistoryDAO {
+    private static final DateTimeFormatter STORED_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String STAY_COLUMNS =
+            "assignment_id, patient_id, bed_id, unixepoch(start_time) AS start_epoch, unixepoch(end_time) AS end_epoch";
+
+    // The stay covering this instant, or null if the bed was empty
+    @Override
+    public BedStay findStayAt(String bedId, LocalDateTime at) throws Exception {
+        String sql = "SELECT " + STAY_COLUMNS + " FROM patient_bed WHERE bed_id = ? AND start_time <= ? ORDER BY start_time DESC, assignment_id DESC LIMIT 1";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, bedId);
+            stmt.setString(2, toStored(at));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    BedStay stay = createStayFromResultSet(rs);
+                    return stay.covers(at) ? stay : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Stays in one bed overlapping [from, to), oldest first
+    @Override
+    public List<BedStay> findStaysInBed(String bedId, LocalDateTime from, LocalDateTime to) throws Exception {
+        List<BedStay> stays = new ArrayList<>();
+        String sql = "SELECT " + STAY_COLUMNS + " FROM patient_bed"
+                + " WHERE bed_id = ? AND start_time < ? AND (end_time IS NULL OR end_time > ?)"
+                + " AND start_time >= COALESCE((SELECT MAX(start_time) FROM patient_bed WHERE bed_id = ? AND start_time <= ?), '')"
+                + " ORDER BY start_time, assignment_id";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, bedId);
+            stmt.setString(2, toStored(to));
+            stmt.setString(3, toStored(from));
+            stmt.setString(4, bedId);
+            stmt.setString(5, toStored(from));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stays.add(createStayFromResultSet(rs));
+                }
+            }
+        }
+        return stays;
+    }
+
+    // Every bed's stay at this instant, by bed id: the census at that moment
+    @Override
+    public List<BedStay> findStaysAt(LocalDateTime at) throws Exception {
+        List<BedStay> stays = new ArrayList<>();
+        String sql = """
+                SELECT pb.assignment_id, pb.patient_id, pb.bed_id,
+                       unixepoch(pb.start_time) AS start_epoch, unixepoch(pb.end_time) AS end_epoch
+                FROM beds b
+                JOIN patient_bed pb ON pb.assignment_id = (
+                    SELECT s.assignment_id FROM patient_bed s
+                    WHERE s.bed_id = b.bed_id AND s.start_time <= ?
+                    ORDER BY s.start_time DESC, s.assignment_id DESC LIMIT 1)
+                WHERE pb.end_time IS NULL OR pb.end_time > ?
+                ORDER BY b.bed_id""";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, toStored(at));
+            stmt.setString(2, toStored(at));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stays.add(createStayFromResultSet(rs));
+                }
+            }
+        }
+        return stays;
+    }
+
+    // Stays in any bed overlapping [from, to), in no particular order
+    @Override
+    public List<BedStay> findStaysBetween(LocalDateTime from, LocalDateTime to) throws Exception {
+        List<BedStay> stays = new ArrayList<>();
+        // Two arms so each is a range on idx_patient_bed_end rather than an OR the planner scans for
+        String sql = "SELECT " + STAY_COLUMNS + " FROM patient_bed WHERE end_time > ? AND start_time < ?"
+                + " UNION ALL SELECT " + STAY_COLUMNS + " FROM patient_bed WHERE end_time IS NULL AND start_time < ?";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, toStored(from));
+            stmt.setString(2, toStored(to));
+            stmt.setString(3, toStored(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stays.add(createStayFromResultSet(rs));
+                }
+            }
+        }
+        return stays;
+    }
+
+    private static String toStored(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).format(STORED_TIME);
+    }
+
+    // Epoch seconds (UTC) to local time; null stays null
+    private static LocalDateTime fromEpoch(ResultSet rs, String column) throws SQLException {
+        long seconds = rs.getLong(column);
+        if (rs.wasNull()) {
+            return null;
+        }
+        Instant instant = Instant.ofEpochSecond(seconds);
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneId.systemDefault().getRules().getOffset(instant));
+    }
+
+    private BedStay createStayFromResultSet(ResultSet rs) throws SQLException {
+        return new BedStay(
+                rs.getLong("assignment_id"),
+                rs.getString("patient_id"),
+                rs.getString("bed_id"),
+                fromEpoch(rs, "start_epoch"),
+                fromEpoch(rs, "end_epoch")
+        );
+    }
+}
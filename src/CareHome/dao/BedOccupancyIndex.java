@@ -0,0 +1,458 @@
+package CareHome.dao;
+
+import CareHome.config.DatabaseConfig;
+import CareHome.config.FacilityTopology;
+import CareHome.config.StatementCache;
+import CareHome.config.TransactionManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process mirror of the beds table that answers BedDAOImpl's placement checks
+ * (suitable bed, availability, room gender, current bed) from memory.
+ * Each room keeps an occupancy bitset, a per-gender occupant count and its reserved
+ * isolation beds, so findSuitableBed is one pass over the rooms with no SQL. A bed held by
+ * a reservation counts as occupied by its hold gender, with no patient.
+ *
+ * The index is loaded on first use and again whenever DatabaseConfig's generation moves on.
+ * BedDAOImpl stages every bed write in the current unit of work; the changes are applied
+ * under the write lock, which is taken just before the commit and released just after it,
+ * so no reader (including the next writer's checks) can see the database ahead of the index.
+ * Inside a unit of work that has already changed beds, BedDAOImpl reads the database
+ * instead, since only the transaction's own connection can see those changes yet.
+ */
+public final class BedOccupancyIndex {
+    private static final BedOccupancyIndex INSTANCE = new BedOccupancyIndex();
+
+    private static final String LOAD_SQL = """
+            SELECT b.bed_id, b.ward_id, b.room_number, b.is_occupied, b.patient_id,
+                   COALESCE(p.gender, b.hold_gender) AS gender
+            FROM beds b
+            LEFT JOIN patients p ON p.id = b.patient_id
+            ORDER BY b.ward_id, b.room_number, b.bed_id
+        """;
+
+    private static final class RoomState {
+        private final String wardId;
+        private final int roomNumber;
+        private final List<String> bedIds = new ArrayList<>();   // in bed_id order
+        private final BitSet occupied = new BitSet();
+        private final BitSet reservedIsolation = new BitSet();
+        private final List<String> occupantIds = new ArrayList<>();
+        private final List<String> occupantGenders = new ArrayList<>();
+        private final Map<String, Integer> genderCounts = new HashMap<>(4);
+
+        private RoomState(String wardId, int roomNumber) {
+            this.wardId = wardId;
+            this.roomNumber = roomNumber;
+        }
+
+        // True if someone of a different gender occupies this room
+        private boolean hasOtherGender(String gender) {
+            return genderCounts.size() > (genderCounts.containsKey(gender) ? 1 : 0);
+        }
+
+        private void occupy(int slot, String patientId, String gender) {
+            vacate(slot);
+            occupied.set(slot);
+            occupantIds.set(slot, patientId);
+            occupantGenders.set(slot, gender);
+            if (gender != null) {
+                genderCounts.merge(gender, 1, Integer::sum);
+            }
+        }
+
+        private void vacate(int slot) {
+            String gender = occupantGenders.get(slot);
+            if (gender != null) {
+                genderCounts.computeIfPresent(gender, (key, count) -> count == 1 ? null : count - 1);
+            }
+            occupied.clear(slot);
+            occupantIds.set(slot, null);
+            occupantGenders.set(slot, null);
+        }
+    }
+
+    private static final class BedSlot {
+        private final RoomState room;
+        private final int slot;
+
+        private BedSlot(RoomState room, int slot) {
+            this.room = room;
+            this.slot = slot;
+        }
+    }
+
+    // Free beds of one room as seen by the index; input to batch placement planning and waitlist matching
+    public static final class RoomVacancy {
+        private final String wardId;
+        private final int roomNumber;
+        private final boolean empty;
+        private final Set<String> occupantGenders;
+        private final List<String> freeBeds;            // not reserved for isolation, bed_id order
+        private final List<String> freeIsolationBeds;   // reserved for isolation, bed_id order
+
+        private RoomVacancy(RoomState room) {
+            this.wardId = room.wardId;
+            this.roomNumber = room.roomNumber;
+            this.empty = room.occupied.isEmpty();
+            this.occupantGenders = Set.copyOf(room.genderCounts.keySet());
+            List<String> free = new ArrayList<>();
+            List<String> isolation = new ArrayList<>();
+            for (int slot = room.occupied.nextClearBit(0); slot < room.bedIds.size(); slot = room.occupied.nextClearBit(slot + 1)) {
+                (room.reservedIsolation.get(slot) ? isolation : free).add(room.bedIds.get(slot));
+            }
+            this.freeBeds = List.copyOf(free);
+            this.freeIsolationBeds = List.copyOf(isolation);
+        }
+
+        public String getWardId() { return wardId; }
+        public int getRoomNumber() { return roomNumber; }
+        public boolean isEmpty() { return empty; }
+        public Set<String> getOccupantGenders() { return occupantGenders; }
+        public List<String> getFreeBeds() { return freeBeds; }
+        public List<String> getFreeIsolationBeds() { return freeIsolationBeds; }
+    }
+
+    // Bed writes made by one unit of work, applied to the index only if it commits
+    private final class PendingChanges implements TransactionManager.Synchronization {
+        private final List<String[]> changes = new ArrayList<>();   // {bedId, patientId, gender}; both null = freed, no patient = held
+        private boolean locked;
+
+        @Override
+        public void beforeCommit() {
+            lock.writeLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCompletion(boolean committed) {
+            try {
+                if (committed) {
+                    for (String[] change : changes) {
+                        apply(change[0], change[1], change[2]);
+                    }
+                }
+            } finally {
+                if (locked) {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    // Snapshot built from the database; the live index is replaced by one on (re)load
+    private static final class Snapshot {
+        private final List<RoomState> rooms = new ArrayList<>();        // ward_id, room_number order
+        private final Map<String, BedSlot> beds = new HashMap<>();
+        private final Map<String, String> bedByPatient = new HashMap<>();
+        private int freeBeds;
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot state = new Snapshot();
+    private volatile long loadedGeneration = -1;
+
+    private BedOccupancyIndex() {
+    }
+
+    public static BedOccupancyIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // First free bed (ward, room, bed order) for the patient, or null; same rules as the SQL it replaces
+    public String findSuitableBed(String patientGender, boolean needsIsolation) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            for (RoomState room : state.rooms) {
+                if (needsIsolation) {
+                    // Isolation needs a reserved bed in a completely empty room
+                    int slot = room.occupied.isEmpty() ? room.reservedIsolation.nextSetBit(0) : -1;
+                    if (slot >= 0) {
+                        return room.bedIds.get(slot);
+                    }
+                    continue;
+                }
+                if (room.hasOtherGender(patientGender)) {
+                    continue;
+                }
+                for (int slot = room.occupied.nextClearBit(0); slot < room.bedIds.size(); slot = room.occupied.nextClearBit(slot + 1)) {
+                    if (!room.reservedIsolation.get(slot)) {
+                        return room.bedIds.get(slot);
+                    }
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every room with at least one free bed (ward, room order), for planning many placements at once.
+    // Call it before the unit of work writes any bed; the index cannot see uncommitted changes.
+    public List<RoomVacancy> getRoomVacancies() throws SQLException {
+        checkNoPendingChanges();
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<RoomVacancy> vacancies = new ArrayList<>();
+            for (RoomState room : state.rooms) {
+                if (room.occupied.cardinality() < room.bedIds.size()) {
+                    vacancies.add(new RoomVacancy(room));
+                }
+            }
+            return vacancies;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The free beds of the room holding bedId (empty lists when it is full), or null for an unknown bed.
+    // Like getRoomVacancies, only for callers that have not written beds in their unit of work.
+    public RoomVacancy getRoomVacancy(String bedId) throws SQLException {
+        checkNoPendingChanges();
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BedSlot bed = state.beds.get(bedId);
+            return bed == null ? null : new RoomVacancy(bed.room);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isBedAvailable(String bedId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BedSlot bed = state.beds.get(bedId);
+            return bed != null && !bed.room.occupied.get(bed.slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Unknown beds count as compatible, as they did with the SQL check
+    public boolean isRoomGenderCompatible(String bedId, String patientGender) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            BedSlot bed = state.beds.get(bedId);
+            return bed == null || !bed.room.hasOtherGender(patientGender);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String findPatientBed(String patientId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return state.bedByPatient.get(patientId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getAvailableBedCount() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return state.freeBeds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Records that bedId now holds patientId; must be called inside the unit of work that wrote it
+    void bedAssigned(String bedId, String patientId, String gender) {
+        pendingChanges().changes.add(new String[]{bedId, patientId, gender});
+    }
+
+    // Records that bedId is held empty for a patient of the given gender; inside the unit of work that wrote it
+    void bedHeld(String bedId, String gender) {
+        pendingChanges().changes.add(new String[]{bedId, null, gender});
+    }
+
+    // Records that bedId was freed; must be called inside the unit of work that wrote it
+    void bedFreed(String bedId) {
+        pendingChanges().changes.add(new String[]{bedId, null, null});
+    }
+
+    // True when the current unit of work has bed writes the index does not show yet
+    boolean hasPendingChanges() {
+        return TransactionManager.synchronization(this, () -> null) != null;
+    }
+
+    // Compares the index with the beds table and returns one line per difference (empty when in sync)
+    public List<String> verify() throws SQLException {
+        checkNoPendingChanges();
+        ensureLoaded();
+        List<String> differences = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getReadConnection()) {
+            // Holding the read lock stops commits from applying bed changes while the two are compared
+            lock.readLock().lock();
+            try {
+                Snapshot database = loadSnapshot(conn);
+                for (Map.Entry<String, BedSlot> entry : database.beds.entrySet()) {
+                    BedSlot expected = entry.getValue();
+                    BedSlot actual = state.beds.get(entry.getKey());
+                    if (actual == null) {
+                        differences.add("Bed " + entry.getKey() + " is missing from the index");
+                        continue;
+                    }
+                    String expectedPatient = expected.room.occupantIds.get(expected.slot);
+                    String actualPatient = actual.room.occupantIds.get(actual.slot);
+                    boolean expectedOccupied = expected.room.occupied.get(expected.slot);
+                    if (expectedOccupied != actual.room.occupied.get(actual.slot)
+                            || !Objects.equals(expectedPatient, actualPatient)) {
+                        differences.add("Bed " + entry.getKey() + ": database has " + describe(expectedOccupied, expectedPatient)
+                                + ", index has " + describe(actual.room.occupied.get(actual.slot), actualPatient));
+                    } else if (!Objects.equals(expected.room.occupantGenders.get(expected.slot),
+                            actual.room.occupantGenders.get(actual.slot))) {
+                        differences.add("Bed " + entry.getKey() + ": occupant gender differs");
+                    }
+                }
+                for (String bedId : state.beds.keySet()) {
+                    if (!database.beds.containsKey(bedId)) {
+                        differences.add("Bed " + bedId + " is in the index but not in the database");
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return differences;
+    }
+
+    // Rebuilds the index from the beds table
+    public void reload() throws SQLException {
+        checkNoPendingChanges();
+        load(true);
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loadedGeneration != DatabaseConfig.getGeneration()) {
+            load(false);
+        }
+    }
+
+    // The connection is taken before the lock, the same order as a committing unit of work, so a
+    // load can never hold the lock while waiting for a pooled connection a lock waiter is holding.
+    // Inside a unit of work without bed writes the transaction's connection sees exactly the
+    // committed beds, and its write lock keeps anyone else from committing during the load.
+    private void load(boolean force) throws SQLException {
+        try (Connection conn = DatabaseConfig.getReadConnection()) {
+            lock.writeLock().lock();
+            try {
+                // Read after borrowing: starting the pools moves the generation on
+                long generation = DatabaseConfig.getGeneration();
+                if (force || loadedGeneration != generation) {
+                    state = loadSnapshot(conn);
+                    loadedGeneration = generation;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void checkNoPendingChanges() {
+        if (hasPendingChanges()) {
+            throw new IllegalStateException("The current unit of work has uncommitted bed changes");
+        }
+    }
+
+    private Snapshot loadSnapshot(Connection conn) throws SQLException {
+        Snapshot snapshot = new Snapshot();
+        Set<String> isolationBeds = FacilityTopology.getCurrent().getIsolationBeds();
+        RoomState room = null;
+        try (PreparedStatement stmt = StatementCache.prepare(conn, LOAD_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String bedId = rs.getString("bed_id");
+                String wardId = rs.getString("ward_id");
+                int roomNumber = rs.getInt("room_number");
+                if (room == null || !room.wardId.equals(wardId) || room.roomNumber != roomNumber) {
+                    room = new RoomState(wardId, roomNumber);
+                    snapshot.rooms.add(room);
+                }
+                int slot = room.bedIds.size();
+                room.bedIds.add(bedId);
+                room.occupantIds.add(null);
+                room.occupantGenders.add(null);
+                if (isolationBeds.contains(bedId)) {
+                    room.reservedIsolation.set(slot);
+                }
+                snapshot.beds.put(bedId, new BedSlot(room, slot));
+
+                String patientId = rs.getString("patient_id");
+                if (rs.getBoolean("is_occupied")) {
+                    room.occupy(slot, patientId, rs.getString("gender"));
+                    if (patientId != null) {
+                        snapshot.bedByPatient.put(patientId, bedId);
+                    }
+                } else {
+                    snapshot.freeBeds++;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    // Called with the write lock held
+    private void apply(String bedId, String patientId, String gender) {
+        if (loadedGeneration != DatabaseConfig.getGeneration()) {
+            return;   // not loaded for this database; the next load reads the committed rows
+        }
+        BedSlot bed = state.beds.get(bedId);
+        if (bed == null) {
+            loadedGeneration = -1;   // a bed this index has never seen; reload on next use
+            return;
+        }
+        RoomState room = bed.room;
+        boolean wasOccupied = room.occupied.get(bed.slot);
+        String previousPatient = room.occupantIds.get(bed.slot);
+        if (previousPatient != null) {
+            state.bedByPatient.remove(previousPatient, bedId);
+        }
+        if (patientId == null && gender == null) {
+            room.vacate(bed.slot);
+            if (wasOccupied) {
+                state.freeBeds++;
+            }
+        } else {
+            room.occupy(bed.slot, patientId, gender);
+            if (patientId != null) {
+                state.bedByPatient.put(patientId, bedId);
+            }
+            if (!wasOccupied) {
+                state.freeBeds--;
+            }
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = TransactionManager.synchronization(this, PendingChanges::new);
+        if (pending == null) {
+            throw new IllegalStateException("Bed changes must be recorded inside a unit of work");
+        }
+        return pending;
+    }
+
+    private static String describe(boolean occupied, String patientId) {
+        return !occupied ? "free" : patientId != null ? "patient " + patientId : "a hold";
+    }
+}
@@ -0,0 +1,14 @@
+package CareHome.dao;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BedReservationDAO {
+    BedReservation save(String bedId, Gender holdGender, String reason, String createdBy, LocalDateTime expiresAt) throws Exception;
+    BedReservation findById(long reservationId) throws Exception;
+    List<BedReservation> findAll() throws Exception;
+    boolean delete(long reservationId) throws Exception;
+    boolean deleteIfExpired(long reservationId, LocalDateTime now) throws Exception;
+}
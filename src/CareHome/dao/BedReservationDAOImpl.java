@@ -0,0 +1,100 @@
+package CareHome.dao;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedReservation;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Rows of bed_reservations only; the hold on the bed itself is written through BedDAO
+public class BedReservationDAOImpl implements BedReservationDAO {
+
+    // Inserts a reservation and returns it with its generated id
+    @Override
+    public BedReservation save(String bedId, Gender holdGender, String reason, String createdBy, LocalDateTime expiresAt) throws Exception {
+        String sql = "INSERT INTO bed_reservations (bed_id, hold_gender, reason, created_by, created_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+        LocalDateTime createdAt = LocalDateTime.now();
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, bedId);
+            stmt.setString(2, holdGender.toString());
+            stmt.setString(3, reason);
+            stmt.setString(4, createdBy);
+            stmt.setString(5, createdAt.toString());
+            stmt.setString(6, expiresAt.toString());
+            stmt.executeUpdate();
+
+            try (PreparedStatement idStmt = StatementCache.prepare(conn, "SELECT last_insert_rowid()");
+                 ResultSet rs = idStmt.executeQuery()) {
+                rs.next();
+                return new BedReservation(rs.getLong(1), bedId, holdGender, reason, createdBy, createdAt, expiresAt);
+            }
+        }
+    }
+
+    @Override
+    public BedReservation findById(long reservationId) throws Exception {
+        String sql = "SELECT * FROM bed_reservations WHERE reservation_id = ?";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setLong(1, reservationId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return createReservationFromResultSet(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Every current hold; read once per database to schedule expiries, never polled
+    @Override
+    public List<BedReservation> findAll() throws Exception {
+        List<BedReservation> reservations = new ArrayList<>();
+        String sql = "SELECT * FROM bed_reservations";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                reservations.add(createReservationFromResultSet(rs));
+            }
+        }
+        return reservations;
+    }
+
+    // False if the reservation was already gone
+    @Override
+    public boolean delete(long reservationId) throws Exception {
+        String sql = "DELETE FROM bed_reservations WHERE reservation_id = ?";
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setLong(1, reservationId);
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    // Deletes the reservation only if it has expired by now; false if it is gone or still running
+    @Override
+    public boolean deleteIfExpired(long reservationId, LocalDateTime now) throws Exception {
+        String sql = "DELETE FROM bed_reservations WHERE reservation_id = ? AND expires_at <= ?";
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setLong(1, reservationId);
+            stmt.setString(2, now.toString());
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    private BedReservation createReservationFromResultSet(ResultSet rs) throws SQLException {
+        return new BedReservation(
+                rs.getLong("reservation_id"),
+                rs.getString("bed_id"),
+                Gender.valueOf(rs.getString("hold_gender")),
+                rs.getString("reason"),
+                rs.getString("created_by"),
+                LocalDateTime.parse(rs.getString("created_at")),
+                LocalDateTime.parse(rs.getString("expires_at"))
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package CareHome.dao;
+
+import CareHome.Model.Location.BedState;
+import java.util.List;
+
+public interface CensusDAO {
+    long getLatestVersion() throws Exception;
+    long getOldestVersion() throws Exception;
+    List<BedState> findAllBedStates() throws Exception;
+    List<BedState> findBedStatesChangedSince(long version) throws Exception;
+}
@@ -0,0 +1,92 @@
+package CareHome.dao;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedState;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Current bed states for the ward map, whole or by change since a census_log version.
+ *
+ * census_log is filled by triggers, so every write path is covered without the DAOs that write
+ * beds, stays and patients knowing about it. A bed changed several times since the version asked
+ * about comes back once, in its current state.
+ */
+public class CensusDAOImpl implements CensusDAO {
+    private static final String BED_STATE_QUERY = """
+            SELECT b.bed_id, b.ward_id, b.room_number, b.hold_gender,
+                   p.id, p.patient_id, p.first_name, p.last_name, p.gender
+            FROM beds b
+            LEFT JOIN patient_bed pb ON pb.bed_id = b.bed_id AND pb.end_time IS NULL
+            LEFT JOIN patients p ON p.id = pb.patient_id""";
+
+    // Version of the most recent change; 0 before the first
+    @Override
+    public long getLatestVersion() throws Exception {
+        return readVersion("SELECT COALESCE(MAX(version), 0) FROM census_log");
+    }
+
+    // Oldest change still in the log; 0 if the log is empty
+    @Override
+    public long getOldestVersion() throws Exception {
+        return readVersion("SELECT COALESCE(MIN(version), 0) FROM census_log");
+    }
+
+    // Every bed with its occupant or hold
+    @Override
+    public List<BedState> findAllBedStates() throws Exception {
+        List<BedState> states = new ArrayList<>();
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, BED_STATE_QUERY);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                states.add(createStateFromResultSet(rs));
+            }
+        }
+        return states;
+    }
+
+    // Beds changed after this version, each once in its current state
+    @Override
+    public List<BedState> findBedStatesChangedSince(long version) throws Exception {
+        List<BedState> states = new ArrayList<>();
+        String sql = BED_STATE_QUERY + " WHERE b.bed_id IN (SELECT bed_id FROM census_log WHERE version > ?)";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setLong(1, version);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    states.add(createStateFromResultSet(rs));
+                }
+            }
+        }
+        return states;
+    }
+
+    private long readVersion(String sql) throws SQLException {
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private BedState createStateFromResultSet(ResultSet rs) throws SQLException {
+        String occupantId = rs.getString("id");
+        String holdGender = rs.getString("hold_gender");
+        return new BedState(
+                rs.getString("bed_id"),
+                rs.getString("ward_id"),
+                rs.getInt("room_number"),
+                occupantId,
+                rs.getString("patient_id"),
+                occupantId == null ? null : rs.getString("first_name") + " " + rs.getString("last_name"),
+                occupantId == null ? null : Gender.valueOf(rs.getString("gender")),
+                holdGender == null ? null : Gender.valueOf(holdGender)
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package CareHome.dao;
 
 import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import java.util.List;
 
 public interface PatientDAO extends BaseDAO<Patient, String> {
@@ -9,6 +10,8 @@ public interface PatientDAO extends BaseDAO<Patient, String> {
     void updateBedAssignment(String patientId, String bedId) throws Exception;
     void discharge(String patientId) throws Exception;
     List<Patient> getAllPatients() throws Exception;
+    List<PatientBedView> findActiveWithBeds() throws Exception;
+    PatientBedView findActiveWithBed(String id) throws Exception;
     Patient getPatientByBed(String bedId) throws Exception;
     void update(Patient patient) throws Exception;
     void delete(String id) throws Exception;
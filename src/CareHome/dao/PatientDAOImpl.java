@@ -2,7 +2,12 @@ package CareHome.dao;
 
 import CareHome.Model.Gender;
 import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+import CareHome.config.TransactionManager;
+import CareHome.event.EventBus;
+import CareHome.event.PatientDischarged;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -18,7 +23,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public void save(Patient patient) throws Exception {
         String sql = "INSERT INTO patients (id, first_name, last_name, gender, age, patient_id, admission_date, needs_isolation, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, patient.getId());
             stmt.setString(2, patient.getFirstName());
             stmt.setString(3, patient.getLastName());
@@ -36,7 +41,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public Patient findById(String id) throws Exception {
         String sql = "SELECT * FROM patients WHERE id = ? AND is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -57,7 +62,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public void update(Patient patient) throws Exception {
         String sql = "UPDATE patients SET first_name = ?, last_name = ?, age = ?, needs_isolation = ? WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, patient.getFirstName());
             stmt.setString(2, patient.getLastName());
             stmt.setInt(3, patient.getAge());
@@ -70,7 +75,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public void delete(String id) throws Exception {
         String sql = "UPDATE patients SET is_active = false WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, id);
             stmt.executeUpdate();
         }
@@ -80,7 +85,7 @@ public class PatientDAOImpl implements PatientDAO {
     public List<Patient> getAllPatients() throws Exception {
         List<Patient> patients = new ArrayList<>();
         String sql = "SELECT * FROM patients WHERE is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 patients.add(createPatientFromResultSet(rs));
             }
@@ -88,10 +93,47 @@ public class PatientDAOImpl implements PatientDAO {
         return patients;
     }
 
+    // Every active patient with their current bed, ward and room in one round trip; no bed leaves those null
+    @Override
+    public List<PatientBedView> findActiveWithBeds() throws Exception {
+        List<PatientBedView> views = new ArrayList<>();
+        String sql = """
+                SELECT p.id, p.patient_id, p.first_name, p.last_name, p.gender, p.age, p.admission_date, p.needs_isolation,
+                       pb.bed_id, b.ward_id, b.room_number
+                FROM patients p
+                LEFT JOIN patient_bed pb ON pb.patient_id = p.id AND pb.end_time IS NULL
+                LEFT JOIN beds b ON b.bed_id = pb.bed_id
+                WHERE p.is_active = true""";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                views.add(createBedViewFromResultSet(rs));
+            }
+        }
+        return views;
+    }
+
+    // One active patient's listing row, as findActiveWithBeds builds it; null if discharged or unknown
+    @Override
+    public PatientBedView findActiveWithBed(String id) throws Exception {
+        String sql = """
+                SELECT p.id, p.patient_id, p.first_name, p.last_name, p.gender, p.age, p.admission_date, p.needs_isolation,
+                       pb.bed_id, b.ward_id, b.room_number
+                FROM patients p
+                LEFT JOIN patient_bed pb ON pb.patient_id = p.id AND pb.end_time IS NULL
+                LEFT JOIN beds b ON b.bed_id = pb.bed_id
+                WHERE p.is_active = true AND p.id = ?""";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? createBedViewFromResultSet(rs) : null;
+            }
+        }
+    }
+
     @Override
     public String getPatientBed(String patientId) throws Exception {
         String sql = "SELECT bed_id FROM patient_bed WHERE patient_id = ? AND end_time IS NULL";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, patientId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -105,7 +147,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public Patient getPatientByBed(String bedId) throws Exception {
         String sql = "SELECT p.* FROM patients p JOIN patient_bed pb ON p.id = pb.patient_id WHERE pb.bed_id = ? AND pb.end_time IS NULL";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, bedId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -119,9 +161,10 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public List<Patient> findByWardId(String wardId) throws Exception {
         List<Patient> patients = new ArrayList<>();
-        String sql = "SELECT p.* FROM patients p JOIN patient_bed pb ON p.id = pb.patient_id WHERE pb.bed_id LIKE ? AND pb.end_time IS NULL AND p.is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, wardId + "%");
+        // Join through beds.ward_id so the ward lookup uses idx_beds_ward_room instead of a LIKE scan on bed ids
+        String sql = "SELECT p.* FROM beds b JOIN patient_bed pb ON pb.bed_id = b.bed_id JOIN patients p ON p.id = pb.patient_id WHERE b.ward_id = ? AND pb.end_time IS NULL AND p.is_active = true";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, wardId);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     patients.add(createPatientFromResultSet(rs));
@@ -145,23 +188,26 @@ public class PatientDAOImpl implements PatientDAO {
     // Soft-deactivates a patient and closes their active bed assignment
     @Override
     public void discharge(String patientId) throws Exception {
-        String sql = "UPDATE patients SET is_active = false WHERE id = ?";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, patientId);
-            stmt.executeUpdate();
-        }
-        String sql2 = "UPDATE patient_bed SET end_time = CURRENT_TIMESTAMP WHERE patient_id = ? AND end_time IS NULL";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql2)) {
-            stmt.setString(1, patientId);
-            stmt.executeUpdate();
-        }
+        TransactionManager.run(() -> {
+            String sql = "UPDATE patients SET is_active = false WHERE id = ?";
+            try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+                stmt.setString(1, patientId);
+                stmt.executeUpdate();
+            }
+            String sql2 = "UPDATE patient_bed SET end_time = CURRENT_TIMESTAMP WHERE patient_id = ? AND end_time IS NULL";
+            try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql2)) {
+                stmt.setString(1, patientId);
+                stmt.executeUpdate();
+            }
+            EventBus.getInstance().publish(new PatientDischarged(patientId));
+        });
     }
 
     // Starts a new patient_bed assignment for a patient
     @Override
     public void assignBedToPatient(String patientId, String bedId) throws Exception {
         String sql = "INSERT INTO patient_bed (patient_id, bed_id, start_time) VALUES (?, ?, CURRENT_TIMESTAMP)";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, patientId);
             stmt.setString(2, bedId);
             stmt.executeUpdate();
@@ -172,7 +218,7 @@ public class PatientDAOImpl implements PatientDAO {
     @Override
     public void endBedAssignment(String patientId) throws Exception {
         String sql = "UPDATE patient_bed SET end_time = CURRENT_TIMESTAMP WHERE patient_id = ? AND end_time IS NULL";
-        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, patientId);
             stmt.executeUpdate();
         }
@@ -192,4 +238,21 @@ public class PatientDAOImpl implements PatientDAO {
         patient.setNeedsIsolation(rs.getBoolean("needs_isolation"));
         return patient;
     }
-}
\ No newline at end of file
+
+    // Maps a row of the patient listing query to a view
+    private PatientBedView createBedViewFromResultSet(ResultSet rs) throws SQLException {
+        return new PatientBedView(
+                rs.getString("id"),
+                rs.getString("patient_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                Gender.valueOf(rs.getString("gender")),
+                rs.getInt("age"),
+                LocalDate.parse(rs.getString("admission_date")),
+                rs.getBoolean("needs_isolation"),
+                rs.getString("bed_id"),
+                rs.getString("ward_id"),
+                rs.getInt("room_number")
+        );
+    }
+}
@@ -2,6 +2,9 @@ package CareHome.dao;
 
 import CareHome.Model.Medical.Prescription;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+import CareHome.event.EventBus;
+import CareHome.event.PrescriptionAdded;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,7 +23,7 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         """;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, prescription.getPrescriptionId());
             stmt.setString(2, prescription.getPatientId());
@@ -35,6 +38,7 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
 
             stmt.executeUpdate();
         }
+        EventBus.getInstance().publish(new PrescriptionAdded(prescription));
     }
 
     // Retrieves a prescription by primary key
@@ -42,8 +46,8 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
     public Prescription findById(String prescriptionId) throws Exception {
         String sql = "SELECT * FROM prescriptions WHERE prescription_id = ?";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, prescriptionId);
             ResultSet rs = stmt.executeQuery();
@@ -61,8 +65,8 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         String sql = "SELECT * FROM prescriptions WHERE is_active = TRUE ORDER BY created_at DESC";
         List<Prescription> prescriptions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -81,7 +85,7 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         """;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, prescription.getMedicationName());
             stmt.setString(2, prescription.getDosage());
@@ -106,8 +110,8 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         String sql = "SELECT * FROM prescriptions WHERE patient_id = ? AND is_active = TRUE ORDER BY created_at DESC";
         List<Prescription> prescriptions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, patientId);
             ResultSet rs = stmt.executeQuery();
@@ -126,8 +130,8 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         String sql = "SELECT * FROM prescriptions WHERE is_active = TRUE ORDER BY created_at DESC";
         List<Prescription> prescriptions = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -143,7 +147,7 @@ public class PrescriptionDAOImpl implements PrescriptionDAO {
         String sql = "UPDATE prescriptions SET is_active = FALSE WHERE prescription_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, prescriptionId);
             stmt.executeUpdate();
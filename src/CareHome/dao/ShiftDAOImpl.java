@@ -3,6 +3,9 @@ package CareHome.dao;
 import CareHome.Model.Schedule.Shift;
 import CareHome.Model.ShiftType;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+import CareHome.event.EventBus;
+import CareHome.event.ShiftAssigned;
 import java.sql.*;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
@@ -21,7 +24,7 @@ public class ShiftDAOImpl implements ShiftDAO {
         """;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, shift.getShiftId());
             stmt.setString(2, shift.getAssignedStaffId());
@@ -35,6 +38,9 @@ public class ShiftDAOImpl implements ShiftDAO {
 
             stmt.executeUpdate();
         }
+        if (shift.isAssigned()) {
+            EventBus.getInstance().publish(new ShiftAssigned(shift));
+        }
     }
 
     // Returns all assigned shifts for a given staff member
@@ -43,8 +49,8 @@ public class ShiftDAOImpl implements ShiftDAO {
         String sql = "SELECT * FROM shifts WHERE staff_id = ? AND is_assigned = TRUE ORDER BY day_of_week";
         List<Shift> shifts = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, staffId);
             ResultSet rs = stmt.executeQuery();
@@ -62,8 +68,8 @@ public class ShiftDAOImpl implements ShiftDAO {
         String sql = "SELECT * FROM shifts WHERE day_of_week = ? AND is_assigned = TRUE ORDER BY start_hour";
         List<Shift> shifts = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, day.toString());
             ResultSet rs = stmt.executeQuery();
@@ -84,7 +90,7 @@ public class ShiftDAOImpl implements ShiftDAO {
         """;
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, shift.getAssignedStaffId());
             stmt.setString(2, shift.getDayOfWeek().toString());
@@ -104,7 +110,7 @@ public class ShiftDAOImpl implements ShiftDAO {
         String sql = "UPDATE shifts SET is_assigned = FALSE WHERE shift_id = ?";
 
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, shiftId);
             stmt.executeUpdate();
@@ -115,8 +121,8 @@ public class ShiftDAOImpl implements ShiftDAO {
     public Shift findShiftById(String shiftId) throws Exception {
         String sql = "SELECT * FROM shifts WHERE shift_id = ?";
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
 
             stmt.setString(1, shiftId);
             ResultSet rs = stmt.executeQuery();
@@ -134,8 +140,8 @@ public class ShiftDAOImpl implements ShiftDAO {
         String sql = "SELECT * FROM shifts WHERE is_assigned = TRUE ORDER BY day_of_week, start_hour";
         List<Shift> shifts = new ArrayList<>();
 
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -3,6 +3,7 @@ package CareHome.dao;
 import CareHome.Model.Person.*;
 import CareHome.Model.Gender;
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +14,7 @@ public class StaffDAOImpl implements StaffDAO {
     public void save(Staff staff) throws Exception {
         String sql = "INSERT INTO staff(id, first_name, last_name, gender, age, staff_id, username, password, staff_type, license_number, is_active) VALUES(?,?,?,?,?,?,?,?,?,?,?)";
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
             pstmt.setString(1, staff.getId());
             pstmt.setString(2, staff.getFirstName());
             pstmt.setString(3, staff.getLastName());
@@ -34,7 +35,7 @@ public class StaffDAOImpl implements StaffDAO {
     public void updatePassword(String username, String newPassword) throws Exception {
         String sql = "UPDATE staff SET password = ? WHERE username = ?";
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
             pstmt.setString(1, newPassword);
             pstmt.setString(2, username);
             pstmt.executeUpdate();
@@ -45,8 +46,8 @@ public class StaffDAOImpl implements StaffDAO {
     @Override
     public Staff findById(String id) throws Exception {
         String sql = "SELECT * FROM staff WHERE id = ? AND is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, id);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) return createStaffFromResultSet(rs);
@@ -58,8 +59,8 @@ public class StaffDAOImpl implements StaffDAO {
     @Override
     public Staff findByUsername(String username) throws Exception {
         String sql = "SELECT * FROM staff WHERE username = ? AND is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) return createStaffFromResultSet(rs);
@@ -71,8 +72,8 @@ public class StaffDAOImpl implements StaffDAO {
     @Override
     public Staff findByStaffId(String staffId) throws Exception {
         String sql = "SELECT * FROM staff WHERE staff_id = ? AND is_active = true";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, staffId);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) return createStaffFromResultSet(rs);
@@ -85,8 +86,8 @@ public class StaffDAOImpl implements StaffDAO {
     public List<Staff> findAll() throws Exception {
         String sql = "SELECT * FROM staff WHERE is_active = true";
         List<Staff> staffList = new ArrayList<>();
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = DatabaseConfig.getReadConnection();
+             PreparedStatement stmt = StatementCache.prepare(conn, sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 try {
@@ -104,7 +105,7 @@ public class StaffDAOImpl implements StaffDAO {
     public void updatePasswordByUsername(String username, String newPassword) throws Exception {
         String sql = "UPDATE staff SET password = ? WHERE username = ?";
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
             stmt.setString(1, newPassword);
             stmt.setString(2, username);
             stmt.executeUpdate();
@@ -0,0 +1,12 @@
+package CareHome.dao;
+
+import CareHome.Model.Admission.WaitlistEntry;
+import CareHome.Model.Person.Patient;
+import java.util.List;
+
+public interface WaitlistDAO {
+    WaitlistEntry add(Patient patient, int priority) throws Exception;
+    boolean remove(long entryId) throws Exception;
+    WaitlistEntry findByPatientId(String id) throws Exception;
+    List<WaitlistEntry> findAll() throws Exception;
+}
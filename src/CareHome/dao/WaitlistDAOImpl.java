@@ -0,0 +1,98 @@
+package CareHome.dao;
+
+import CareHome.Model.Admission.WaitlistEntry;
+import CareHome.Model.Gender;
+import CareHome.Model.Person.Patient;
+import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WaitlistDAOImpl implements WaitlistDAO {
+
+    // Inserts a pending admission and returns it with its generated entry id
+    @Override
+    public WaitlistEntry add(Patient patient, int priority) throws Exception {
+        String sql = "INSERT INTO waitlist (id, first_name, last_name, gender, age, patient_id, admission_date, needs_isolation, priority, requested_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime requestedAt = LocalDateTime.now();
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, patient.getId());
+            stmt.setString(2, patient.getFirstName());
+            stmt.setString(3, patient.getLastName());
+            stmt.setString(4, patient.getGender().toString());
+            stmt.setInt(5, patient.getAge());
+            stmt.setString(6, patient.getPatientId());
+            stmt.setString(7, patient.getAdmissionDate().toString());
+            stmt.setBoolean(8, patient.needsIsolation());
+            stmt.setInt(9, priority);
+            stmt.setString(10, requestedAt.toString());
+            stmt.executeUpdate();
+
+            try (PreparedStatement idStmt = StatementCache.prepare(conn, "SELECT last_insert_rowid()");
+                 ResultSet rs = idStmt.executeQuery()) {
+                rs.next();
+                return new WaitlistEntry(rs.getLong(1), patient, priority, requestedAt);
+            }
+        }
+    }
+
+    // Deletes the entry; false if it was already gone (admitted or cancelled by another client)
+    @Override
+    public boolean remove(long entryId) throws Exception {
+        String sql = "DELETE FROM waitlist WHERE entry_id = ?";
+        try (Connection conn = DatabaseConfig.getConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setLong(1, entryId);
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    // Retrieves the waiting entry for a patient's internal id, or null
+    @Override
+    public WaitlistEntry findByPatientId(String id) throws Exception {
+        String sql = "SELECT * FROM waitlist WHERE id = ?";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql)) {
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return createEntryFromResultSet(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Returns every waiting entry, most urgent first
+    @Override
+    public List<WaitlistEntry> findAll() throws Exception {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        String sql = "SELECT * FROM waitlist ORDER BY priority DESC, entry_id";
+        try (Connection conn = DatabaseConfig.getReadConnection(); PreparedStatement stmt = StatementCache.prepare(conn, sql); ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(createEntryFromResultSet(rs));
+            }
+        }
+        return entries;
+    }
+
+    private WaitlistEntry createEntryFromResultSet(ResultSet rs) throws SQLException {
+        Patient patient = new Patient(
+                rs.getString("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                Gender.valueOf(rs.getString("gender")),
+                rs.getInt("age"),
+                rs.getString("patient_id"),
+                LocalDate.parse(rs.getString("admission_date"))
+        );
+        patient.setNeedsIsolation(rs.getBoolean("needs_isolation"));
+        return new WaitlistEntry(rs.getLong("entry_id"), patient, rs.getInt("priority"),
+                LocalDateTime.parse(rs.getString("requested_at")));
+    }
+}
@@ -0,0 +1,19 @@
+package CareHome.event;
+
+// A patient took a bed, on admission or on a move
+public class BedAssigned extends BedEvent {
+    private final String patientId;
+
+    public BedAssigned(String bedId, String patientId) {
+        super(bedId);
+        this.patientId = patientId;
+    }
+
+    // The patient's internal id (patients.id)
+    public String getPatientId() { return patientId; }
+
+    @Override
+    public String toString() {
+        return "BedAssigned{" + getBedId() + " -> " + patientId + "}";
+    }
+}
@@ -0,0 +1,17 @@
+package CareHome.event;
+
+// A change to what one bed holds: a patient, a hold or nothing
+public abstract class BedEvent extends DomainEvent {
+    private final String bedId;
+
+    protected BedEvent(String bedId) {
+        this.bedId = bedId;
+    }
+
+    @Override
+    public String getKey() {
+        return "bed:" + bedId;
+    }
+
+    public String getBedId() { return bedId; }
+}
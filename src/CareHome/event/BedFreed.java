@@ -0,0 +1,14 @@
+package CareHome.event;
+
+// A bed was emptied by a discharge or move, or its hold was released
+public class BedFreed extends BedEvent {
+
+    public BedFreed(String bedId) {
+        super(bedId);
+    }
+
+    @Override
+    public String toString() {
+        return "BedFreed{" + getBedId() + "}";
+    }
+}
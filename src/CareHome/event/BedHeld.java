@@ -0,0 +1,18 @@
+package CareHome.event;
+
+// A free bed was held empty for an incoming patient of the given gender
+public class BedHeld extends BedEvent {
+    private final String holdGender;
+
+    public BedHeld(String bedId, String holdGender) {
+        super(bedId);
+        this.holdGender = holdGender;
+    }
+
+    public String getHoldGender() { return holdGender; }
+
+    @Override
+    public String toString() {
+        return "BedHeld{" + getBedId() + " for " + holdGender + "}";
+    }
+}
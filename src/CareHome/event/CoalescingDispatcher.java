@@ -0,0 +1,108 @@
+package CareHome.event;
+
+import CareHome.util.HashedTimerWheel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Turns a stream of events into occasional batches handed to one handler on a target executor,
+ * usually the JavaFX application thread (Platform::runLater).
+ *
+ * A batch is handed over once no event has arrived for the quiet period, or at the latest the
+ * maximum delay after its first event, so a steady stream of changes still reaches the screen.
+ * Within a batch an event replaces any earlier one with the same key, and events come in the order
+ * of their latest occurrence. A burst of admissions therefore costs the view one update, not one
+ * per bed. Flushes are timed on a shared timer wheel, so idle dispatchers cost nothing.
+ */
+public final class CoalescingDispatcher implements Consumer<DomainEvent> {
+    private static final HashedTimerWheel TIMER = new HashedTimerWheel("event-dispatch", 10, TimeUnit.MILLISECONDS, 128);
+
+    private final long quietNanos;
+    private final long maxDelayNanos;
+    private final Executor target;
+    private final Consumer<List<DomainEvent>> handler;
+
+    private final Map<String, DomainEvent> pending = new LinkedHashMap<>();
+    private long firstEventNanos;
+    private long lastEventNanos;
+    private HashedTimerWheel.Timeout flush;
+    private boolean closed;
+    private long receivedCount;
+    private long batchCount;
+
+    public CoalescingDispatcher(long quietMillis, long maxDelayMillis, Executor target, Consumer<List<DomainEvent>> handler) {
+        if (quietMillis <= 0 || maxDelayMillis < quietMillis) {
+            throw new IllegalArgumentException("Quiet period must be positive and no longer than the maximum delay");
+        }
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.target = target;
+        this.handler = handler;
+    }
+
+    // Queues the event for the next batch; called on the publishing thread, so it only records it
+    @Override
+    public synchronized void accept(DomainEvent event) {
+        if (closed) {
+            return;
+        }
+        receivedCount++;
+        pending.remove(event.getKey());
+        pending.put(event.getKey(), event);
+        lastEventNanos = System.nanoTime();
+        if (flush == null) {
+            firstEventNanos = lastEventNanos;
+            flush = TIMER.schedule(this::flushIfDue, quietNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Stops delivery; pending events are dropped and a batch already handed over is skipped
+    public synchronized void close() {
+        closed = true;
+        pending.clear();
+        if (flush != null) {
+            flush.cancel();
+            flush = null;
+        }
+    }
+
+    public synchronized boolean isClosed() { return closed; }
+    public synchronized long getReceivedCount() { return receivedCount; }
+    public synchronized long getBatchCount() { return batchCount; }
+
+    // Runs on the timer: hands over the batch, or waits on while events keep arriving
+    private void flushIfDue() {
+        List<DomainEvent> batch;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            long now = System.nanoTime();
+            long due = Math.min(lastEventNanos + quietNanos, firstEventNanos + maxDelayNanos);
+            if (now < due) {
+                flush = TIMER.schedule(this::flushIfDue, due - now, TimeUnit.NANOSECONDS);
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            flush = null;
+            batchCount++;
+        }
+        target.execute(() -> {
+            if (isClosed()) {
+                return;
+            }
+            try {
+                handler.accept(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Event batch handler failed: " + e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package CareHome.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Something that changed in the care home, published on the EventBus once the change has
+ * committed. Events with the same key describe the same thing (one bed, one patient, ...), so a
+ * subscriber that batches them only needs the latest.
+ */
+public abstract class DomainEvent {
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+
+    // Later events with the same key supersede earlier ones in a coalesced batch
+    public abstract String getKey();
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
@@ -0,0 +1,97 @@
+package CareHome.event;
+
+import CareHome.config.TransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process publish/subscribe for domain events.
+ *
+ * The DAOs publish an event for each write that views care about. Publishing inside a unit of
+ * work defers delivery until it commits and drops the event if it rolls back, so subscribers never
+ * hear about changes they cannot read yet. Listeners run on the committing thread, one after the
+ * other, and must be quick: views subscribe through a CoalescingDispatcher, which only queues the
+ * event. A listener that throws is reported and does not stop the others.
+ *
+ * Changes made by another process (a second terminal on the same database) publish nothing here.
+ */
+public final class EventBus {
+    private static final EventBus INSTANCE = new EventBus();
+
+    // A listener and the event types it receives; cancel() unsubscribes it
+    public final class Subscription {
+        private final List<Class<? extends DomainEvent>> types;
+        private final Consumer<DomainEvent> listener;
+
+        private Subscription(List<Class<? extends DomainEvent>> types, Consumer<DomainEvent> listener) {
+            this.types = types;
+            this.listener = listener;
+        }
+
+        private boolean wants(DomainEvent event) {
+            for (Class<? extends DomainEvent> type : types) {
+                if (type.isInstance(event)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+
+        public boolean isActive() {
+            return subscriptions.contains(this);
+        }
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private EventBus() {
+    }
+
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    // Delivers the event once the current unit of work commits (dropped on rollback); at once outside one
+    public void publish(DomainEvent event) {
+        TransactionManager.afterCommit(() -> deliver(event));
+    }
+
+    // Receives events of the given type and its subtypes
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+        return subscribe(List.of(type), event -> listener.accept(type.cast(event)));
+    }
+
+    // Receives events of any of the given types and their subtypes
+    public Subscription subscribe(Collection<Class<? extends DomainEvent>> types, Consumer<DomainEvent> listener) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("Subscribe to at least one event type");
+        }
+        Subscription subscription = new Subscription(List.copyOf(types), listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    private void deliver(DomainEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.wants(event)) {
+                continue;
+            }
+            try {
+                subscription.listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Listener for " + event + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
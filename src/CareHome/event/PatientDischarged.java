@@ -0,0 +1,23 @@
+package CareHome.event;
+
+// A patient was discharged; their bed is freed separately
+public class PatientDischarged extends DomainEvent {
+    private final String patientId;
+
+    public PatientDischarged(String patientId) {
+        this.patientId = patientId;
+    }
+
+    @Override
+    public String getKey() {
+        return "patient:" + patientId;
+    }
+
+    // The patient's internal id (patients.id)
+    public String getPatientId() { return patientId; }
+
+    @Override
+    public String toString() {
+        return "PatientDischarged{" + patientId + "}";
+    }
+}
@@ -0,0 +1,24 @@
+package CareHome.event;
+
+import CareHome.Model.Medical.Prescription;
+
+// A prescription was saved; carries the prescription as written
+public class PrescriptionAdded extends DomainEvent {
+    private final Prescription prescription;
+
+    public PrescriptionAdded(Prescription prescription) {
+        this.prescription = prescription;
+    }
+
+    @Override
+    public String getKey() {
+        return "prescription:" + prescription.getPrescriptionId();
+    }
+
+    public Prescription getPrescription() { return prescription; }
+
+    @Override
+    public String toString() {
+        return "PrescriptionAdded{" + prescription.getPrescriptionId() + " for " + prescription.getPatientId() + "}";
+    }
+}
@@ -0,0 +1,24 @@
+package CareHome.event;
+
+import CareHome.Model.Schedule.Shift;
+
+// A shift was saved with a staff member assigned to it
+public class ShiftAssigned extends DomainEvent {
+    private final Shift shift;
+
+    public ShiftAssigned(Shift shift) {
+        this.shift = shift;
+    }
+
+    @Override
+    public String getKey() {
+        return "shift:" + shift.getShiftId();
+    }
+
+    public Shift getShift() { return shift; }
+
+    @Override
+    public String toString() {
+        return "ShiftAssigned{" + shift.getShiftId() + " -> " + shift.getAssignedStaffId() + "}";
+    }
+}
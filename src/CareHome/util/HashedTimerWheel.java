@@ -0,0 +1,160 @@
+package CareHome.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding the timeouts whose
+ * deadline falls on a tick that hashes to it. Scheduling and cancelling cost O(1) plus the
+ * bucket size, and each tick only looks at one bucket, so thousands of pending timeouts cost
+ * next to nothing between deadlines. Deadlines further out than one turn of the wheel simply
+ * stay in their bucket until the turn they are due.
+ *
+ * One daemon thread advances the wheel and runs expired tasks, so tasks should be short.
+ * While nothing is scheduled the thread waits without ticking at all.
+ */
+public final class HashedTimerWheel {
+
+    // A scheduled task; cancel() stops it from running if it has not started yet
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private boolean done;   // ran or cancelled; guarded by the wheel
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        // True if this call cancelled it; false once it has run or was already cancelled
+        public boolean cancel() {
+            synchronized (HashedTimerWheel.this) {
+                if (done) {
+                    return false;
+                }
+                done = true;
+                bucketFor(deadlineTick).remove(this);
+                pending--;
+                return true;
+            }
+        }
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] buckets;
+    private final long startNanos = System.nanoTime();
+    private long processedTick;   // every bucket up to this tick has been checked
+    private int pending;
+    private Thread worker;
+    private boolean stopped;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HashedTimerWheel(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    // Runs task on the wheel's thread no earlier than delay from now (up to one tick later)
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timer wheel " + name + " has been stopped");
+        }
+        long deadlineNanos = System.nanoTime() - startNanos + unit.toNanos(Math.max(delay, 0));
+        long deadlineTick = Math.max(deadlineNanos / tickNanos + 1, processedTick + 1);
+        Timeout timeout = new Timeout(task, deadlineTick);
+        bucketFor(deadlineTick).add(timeout);
+        pending++;
+
+        if (worker == null) {
+            worker = new Thread(this::run, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        notifyAll();
+        return timeout;
+    }
+
+    // Timeouts that have neither run nor been cancelled
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    // Drops every pending timeout and ends the thread
+    public synchronized void stop() {
+        stopped = true;
+        for (ArrayDeque<Timeout> bucket : buckets) {
+            bucket.forEach(timeout -> timeout.done = true);
+            bucket.clear();
+        }
+        pending = 0;
+        notifyAll();
+    }
+
+    private ArrayDeque<Timeout> bucketFor(long tick) {
+        return buckets[(int) (tick % buckets.length)];
+    }
+
+    private void run() {
+        while (true) {
+            List<Timeout> due = new ArrayList<>();
+            synchronized (this) {
+                try {
+                    // Idle: no ticking until something is scheduled
+                    while (pending == 0 && !stopped) {
+                        wait();
+                    }
+                    if (stopped) {
+                        return;
+                    }
+                    long elapsed = System.nanoTime() - startNanos;
+                    long currentTick = elapsed / tickNanos;
+                    if (currentTick <= processedTick) {
+                        long waitNanos = (processedTick + 1) * tickNanos - elapsed;
+                        TimeUnit.NANOSECONDS.timedWait(this, Math.max(waitNanos, 1));
+                        continue;
+                    }
+                    // After an idle spell one pass over the wheel is enough to catch up
+                    long from = Math.max(processedTick + 1, currentTick - buckets.length + 1);
+                    for (long tick = from; tick <= currentTick; tick++) {
+                        collectDue(bucketFor(tick), currentTick, due);
+                    }
+                    processedTick = currentTick;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            for (Timeout timeout : due) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Timer task on " + name + " failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void collectDue(ArrayDeque<Timeout> bucket, long currentTick, List<Timeout> due) {
+        for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+            Timeout timeout = it.next();
+            if (timeout.deadlineTick <= currentTick) {
+                it.remove();
+                timeout.done = true;
+                pending--;
+                due.add(timeout);
+            }
+        }
+    }
+}
@@ -2,13 +2,106 @@
 package CareHome.util;
 
 import CareHome.config.DatabaseConfig;
+import CareHome.config.StatementCache;
+import CareHome.config.TransactionManager;
+import java.security.SecureRandom;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Central source of ids.
+ * High-volume records (audit entries, shifts, prescriptions) use nextId(), a lock-free
+ * time-ordered 64-bit id: 41 bits of milliseconds since EPOCH_MILLIS, a 10-bit node number and a
+ * 12-bit sequence. Ids from one process are strictly increasing even if the clock steps back.
+ * The node number is handed out in turn from the id_sequences table, once per process on the
+ * first id, so processes on one database only share a node number if 1024 others started in
+ * between while the first was still running. Ids taken before the claim completes (the first id
+ * of a process, or any taken inside the unit of work that triggered the claim) use a random node
+ * number, which two processes share with probability 1/1024.
+ * Human-readable staff and patient numbers come from the id_sequences table, reserved
+ * BLOCK_SIZE at a time so only one id in BLOCK_SIZE costs a database round-trip.
+ */
 public class IdGenerator {
+    private static final long EPOCH_MILLIS = 1704067200000L;   // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final String NODE_SEQUENCE = "node";
+    private static final int ID_WIDTH = 13;                    // Long.MAX_VALUE in base 36
+    private static final int BLOCK_SIZE = 20;
 
-    // Generic method to get next incremental ID per prefix
+    private static volatile long nodeId = new SecureRandom().nextInt(1 << NODE_BITS);
+    private static volatile boolean nodeClaimed;   // claim attempted; it is not repeated even if it failed
+
+    // (millis << SEQUENCE_BITS) | sequence of the last id handed out
+    private static final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+    // Reserved ranges per sequence; tied to the database generation they were taken from
+    private static final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private static final Map<String, Object> refillLocks = new ConcurrentHashMap<>();
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;          // exclusive
+        private final long generation;
+
+        private Block(long first, long end, long generation) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+            this.generation = generation;
+        }
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(IdGenerator::releaseUnusedBlocks, "id-sequence-release"));
+    }
+
+    // Next time-ordered id; a compare-and-set loop, no locks and, after the node claim, no database access
+    public static long nextTimeOrderedId() {
+        if (!nodeClaimed) {
+            // Claiming inside a unit of work would tie the node number to its commit, so wait for it
+            TransactionManager.afterCommit(IdGenerator::claimNodeId);
+        }
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        // More than 4096 ids in one millisecond borrow from the next millisecond instead of waiting
+        long timeAndSequence = lastTimeAndSequence.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = timeAndSequence >>> SEQUENCE_BITS;
+        long sequence = timeAndSequence & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    // Takes the next node number from the database, once per process
+    private static synchronized void claimNodeId() {
+        if (nodeClaimed) {
+            return;
+        }
+        try {
+            nodeId = (reserve(NODE_SEQUENCE, 1) - 1) % (1 << NODE_BITS);
+        } catch (SQLException e) {
+            System.err.println("Could not claim an id node number, keeping " + nodeId + ": " + e.getMessage());
+        }
+        nodeClaimed = true;
+    }
+
+    public static long getNodeId() {
+        return nodeId;
+    }
+
+    // Prefixed, fixed-width base-36 form of nextTimeOrderedId(); sorts in creation order as text
+    public static String nextId(String prefix) {
+        String digits = Long.toString(nextTimeOrderedId(), 36).toUpperCase();
+        StringBuilder id = new StringBuilder(prefix.length() + 1 + ID_WIDTH).append(prefix).append('-');
+        for (int i = digits.length(); i < ID_WIDTH; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    // Next staff number for a role, e.g. DOC02
     public static String getNextStaffId(String rolePrefix) throws Exception {
         String prefix;
         switch (rolePrefix.toLowerCase()) {
@@ -17,34 +110,96 @@ public class IdGenerator {
             case "manager": prefix = "MGR"; break;
             default: prefix = "STA"; // fallback
         }
+        return String.format("%s%02d", prefix, nextSequenceValue("staff." + prefix));
+    }
 
-        // Count how many existing staff IDs start with this prefix
-        String sql = "SELECT COUNT(*) FROM staff WHERE staff_id LIKE ?";
-
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, prefix + "%");
-            ResultSet rs = stmt.executeQuery();
+    // Next patient number, e.g. P07
+    public static String getNextPatientId() throws Exception {
+        return String.format("%s%02d", "P", nextSequenceValue("patient"));
+    }
 
-            int count = 0;
-            if (rs.next()) count = rs.getInt(1);
+    // Next value of a persisted sequence; only a block refill touches the database
+    public static long nextSequenceValue(String name) throws SQLException {
+        if (TransactionManager.isActive()) {
+            // A block reserved here would be handed to other threads before this unit commits and
+            // reissued if it rolled back, so take a single value that rolls back with the unit
+            return reserve(name, 1);
+        }
+        while (true) {
+            long generation = DatabaseConfig.getGeneration();
+            Block block = blocks.get(name);
+            if (block != null && block.generation == generation) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+            }
+            synchronized (refillLocks.computeIfAbsent(name, key -> new Object())) {
+                // Another thread may have refilled while this one waited
+                if (blocks.get(name) == block) {
+                    long first = reserve(name, BLOCK_SIZE);
+                    // Read again: the reservation may have started the pools and moved the generation on
+                    blocks.put(name, new Block(first, first + BLOCK_SIZE, DatabaseConfig.getGeneration()));
+                }
+            }
+        }
+    }
 
-            // If default 01 exists, next is count + 1
-            int nextNum = count + 1;
-            return String.format("%s%02d", prefix, nextNum);
+    // Advances the sequence by count and returns the first reserved value
+    private static long reserve(String name, int count) throws SQLException {
+        try {
+            return TransactionManager.inTransaction(() -> {
+                try (Connection conn = DatabaseConfig.getConnection()) {
+                    try (PreparedStatement create = StatementCache.prepare(conn,
+                            "INSERT OR IGNORE INTO id_sequences (name, next_value) VALUES (?, 1)")) {
+                        create.setString(1, name);
+                        create.executeUpdate();
+                    }
+                    try (PreparedStatement advance = StatementCache.prepare(conn,
+                            "UPDATE id_sequences SET next_value = next_value + ? WHERE name = ?")) {
+                        advance.setInt(1, count);
+                        advance.setString(2, name);
+                        advance.executeUpdate();
+                    }
+                    try (PreparedStatement read = StatementCache.prepare(conn,
+                            "SELECT next_value FROM id_sequences WHERE name = ?")) {
+                        read.setString(1, name);
+                        try (ResultSet rs = read.executeQuery()) {
+                            rs.next();
+                            return rs.getLong(1) - count;
+                        }
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException("Could not reserve ids from sequence " + name, e);
         }
     }
 
-    public static String getNextPatientId() throws Exception {
-        String prefix = "P";
-        String sql = "SELECT COUNT(*) FROM patients";
-        try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            int count = 0;
-            if (rs.next()) count = rs.getInt(1);
-            int nextNum = count + 1;
-            return String.format("%s%02d", prefix, nextNum);
+    // Hands the unused tail of each block back, unless another process has reserved past it since
+    public static void releaseUnusedBlocks() {
+        long generation = DatabaseConfig.getGeneration();
+        for (Map.Entry<String, Block> entry : blocks.entrySet()) {
+            Block block = entry.getValue();
+            if (block.generation != generation || !blocks.remove(entry.getKey(), block)) {
+                continue;
+            }
+            long unused = block.next.getAndSet(block.end);
+            if (unused >= block.end) {
+                continue;
+            }
+            try (Connection conn = DatabaseConfig.getConnection();
+                 PreparedStatement stmt = StatementCache.prepare(conn,
+                         "UPDATE id_sequences SET next_value = ? WHERE name = ? AND next_value = ?")) {
+                stmt.setLong(1, unused);
+                stmt.setString(2, entry.getKey());
+                stmt.setLong(3, block.end);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                System.err.println("Could not release ids of sequence " + entry.getKey() + ": " + e.getMessage());
+            }
         }
     }
 }
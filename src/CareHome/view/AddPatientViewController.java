@@ -24,6 +24,7 @@ public class AddPatientViewController {
     @FXML private CheckBox isolationCheckBox;
 
     private PatientService patientService = new PatientServiceImpl();
+    private final ViewTasks tasks = new ViewTasks();
 
     // Initializes gender choices and defaults the admission date to today
     @FXML
@@ -33,35 +34,44 @@ public class AddPatientViewController {
         if (isolationCheckBox != null) {
             isolationCheckBox.setSelected(false); // default off
         }
+        tasks.cancelOnClose(firstNameField);
     }
 
-    // Builds a Patient from form fields, calls service to save, and closes the dialog
+    // Builds a Patient from form fields, calls service to admit or waitlist, and closes the dialog
     @FXML
     private void handleSave(ActionEvent event) {
+        if (tasks.isRunning("save")) {
+            return;
+        }
+        int age;
         try {
-            Patient patient = new Patient(
-                    IdGenerator.getNextPatientId(),
-                    firstNameField.getText(),
-                    lastNameField.getText(),
-                    genderComboBox.getValue(),
-                    Integer.parseInt(ageField.getText()),
-                    patientIdField.getText(),
-                    admissionDatePicker.getValue()
-            );
-            if (isolationCheckBox != null) {
-                patient.setNeedsIsolation(isolationCheckBox.isSelected());
-            }
-
-            patientService.addPatient(patient);
+            age = Integer.parseInt(ageField.getText());
+        } catch (NumberFormatException e) {
+            errorLabel.setText("Age must be a number.");
+            return;
+        }
+        String firstName = firstNameField.getText();
+        String lastName = lastNameField.getText();
+        Gender gender = genderComboBox.getValue();
+        String patientId = patientIdField.getText();
+        LocalDate admissionDate = admissionDatePicker.getValue();
+        boolean needsIsolation = isolationCheckBox != null && isolationCheckBox.isSelected();
 
+        tasks.run("save", () -> {
+            Patient patient = new Patient(IdGenerator.getNextPatientId(), firstName, lastName, gender, age, patientId, admissionDate);
+            patient.setNeedsIsolation(needsIsolation);
+            // With no suitable bed free the patient waits and is admitted when one frees up
+            return patientService.addPatientOrWaitlist(patient, 0) ? null : patient;
+        }, waitlisted -> {
+            if (waitlisted != null) {
+                new Alert(Alert.AlertType.INFORMATION, "No suitable bed is free. " + waitlisted.getName()
+                        + " has been added to the waitlist and will be admitted when a bed becomes available.").showAndWait();
+            }
             Stage stage = (Stage) firstNameField.getScene().getWindow();
             stage.close();
-
-        } catch (NumberFormatException e) {
-            errorLabel.setText("Age must be a number.");
-        } catch (Exception e) {
+        }, e -> {
             errorLabel.setText("Error saving patient: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 }
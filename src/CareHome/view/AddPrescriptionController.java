@@ -10,13 +10,13 @@ import CareHome.Service.AuthenticationServiceImpl;
 import CareHome.Service.PatientService;
 import CareHome.Service.PatientServiceImpl;
 import CareHome.Service.PrescriptionServiceImpl;
+import CareHome.util.IdGenerator;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
 import java.time.LocalDate;
-import java.util.List;
 
 public class AddPrescriptionController {
 
@@ -32,40 +32,42 @@ public class AddPrescriptionController {
     private final PrescriptionServiceImpl prescriptionService = new PrescriptionServiceImpl();
     private final AuthenticationService authService = new AuthenticationServiceImpl(new AuditLogger());
     private final AuditLogger auditLogger = new AuditLogger();
+    private final ViewTasks tasks = new ViewTasks();
 
     // Loads patients into the combo box on dialog open
     @FXML
     public void initialize() {
-        try {
-            List<Patient> all = patientService.getAllPatients();
-            patientComboBox.setItems(FXCollections.observableArrayList(all));
-        } catch (Exception ex) {
-            showError("Failed to load patients: " + ex.getMessage());
-        }
+        tasks.cancelOnClose(medicationField);
+        tasks.run("patients", patientService::getAllPatients,
+                all -> patientComboBox.setItems(FXCollections.observableArrayList(all)),
+                ex -> showError("Failed to load patients: " + ex.getMessage()));
     }
 
     // Validates inputs and role, persists the prescription, audits, and closes with confirmation
     @FXML
     private void handleAddPrescription() {
-        try {
-            Patient patient = patientComboBox.getValue();
-            LocalDate date = prescriptionDatePicker.getValue();
-            String medication = medicationField.getText().trim();
-            String dosage = dosageField.getText().trim();
-            String frequency = frequencyField.getText().trim();
-            String instructions = instructionsArea.getText().trim();
-
-            if (patient == null || date == null || medication.isEmpty() || dosage.isEmpty() || frequency.isEmpty()) {
-                showError("Please fill all required fields.");
-                return;
-            }
-
-            if (!(authService.getCurrentUser() instanceof Doctor doctor)) {
-                showError("Only doctors can add prescriptions.");
-                return;
-            }
-
-            String id = "PRESC" + System.currentTimeMillis();
+        if (tasks.isRunning("save")) {
+            return;
+        }
+        Patient patient = patientComboBox.getValue();
+        LocalDate date = prescriptionDatePicker.getValue();
+        String medication = medicationField.getText().trim();
+        String dosage = dosageField.getText().trim();
+        String frequency = frequencyField.getText().trim();
+        String instructions = instructionsArea.getText().trim();
+
+        if (patient == null || date == null || medication.isEmpty() || dosage.isEmpty() || frequency.isEmpty()) {
+            showError("Please fill all required fields.");
+            return;
+        }
+
+        if (!(authService.getCurrentUser() instanceof Doctor doctor)) {
+            showError("Only doctors can add prescriptions.");
+            return;
+        }
+
+        tasks.run("save", () -> {
+            String id = IdGenerator.nextId("PRESC");
 
             Prescription prescription = new Prescription(
                     id,
@@ -89,16 +91,16 @@ public class AddPrescriptionController {
                             " (" + medication + ", " + dosage + ", " + frequency + ")",
                     prescription.getPrescriptionId()
             );
-
+            return prescription;
+        }, prescription -> {
             // Show confirmation
             Alert alert = new Alert(Alert.AlertType.INFORMATION, "Prescription added successfully.");
             alert.showAndWait();
             closeWindow();
-
-        } catch (Exception ex) {
+        }, ex -> {
             showError("Error: " + ex.getMessage());
             ex.printStackTrace();
-        }
+        });
     }
 
     // Closes the dialog window without saving
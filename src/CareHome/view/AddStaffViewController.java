@@ -31,43 +31,54 @@ public class AddStaffViewController {
 
     private StaffDAO staffDAO = new StaffDAOImpl();
     private AuditLogger auditLogger = new AuditLogger();
+    private final ViewTasks tasks = new ViewTasks();
 
     // Initializes gender and role options for the form
     @FXML
     public void initialize() {
         genderComboBox.getItems().setAll(Gender.values());
         roleComboBox.getItems().setAll("Manager", "Doctor", "Nurse");
+        tasks.cancelOnClose(firstNameField);
     }
 
     // Creates a Staff subtype based on role, saves it, audits, and closes the dialog
     @FXML
     private void handleSave(ActionEvent event) {
+        if (tasks.isRunning("save")) {
+            return;
+        }
+        String role = roleComboBox.getValue();
+        String firstName = firstNameField.getText();
+        String lastName = lastNameField.getText();
+        String ageText = ageField.getText();
+        Gender gender = genderComboBox.getValue();
+        String username = usernameField.getText();
+        String password = passwordField.getText();
+
+        if (role == null || firstName.trim().isEmpty() || lastName.trim().isEmpty() ||
+            ageText.trim().isEmpty() || gender == null || username.trim().isEmpty() ||
+            password.trim().isEmpty()) {
+            errorLabel.setText("All fields are required.");
+            return;
+        }
+
+        int age;
         try {
-            String role = roleComboBox.getValue();
-            String firstName = firstNameField.getText();
-            String lastName = lastNameField.getText();
-            String ageText = ageField.getText();
-            Gender gender = genderComboBox.getValue();
-            String username = usernameField.getText();
-            String password = passwordField.getText();
-
-            if (role == null || firstName.trim().isEmpty() || lastName.trim().isEmpty() ||
-                ageText.trim().isEmpty() || gender == null || username.trim().isEmpty() ||
-                password.trim().isEmpty()) {
-                errorLabel.setText("All fields are required.");
-                return;
-            }
+            age = Integer.parseInt(ageText);
+        } catch (NumberFormatException e) {
+            errorLabel.setText("Age must be a number.");
+            return;
+        }
 
+        tasks.run("save", () -> {
             // Generate next ID using the new IdGenerator
             String staffId = IdGenerator.getNextStaffId(role);
-
-            int age = Integer.parseInt(ageText);
             Staff staff;
 
             switch (role) {
                 case "Doctor":
                     staff = new Doctor(
-                            "DOC" + System.currentTimeMillis(), // internal DB id
+                            IdGenerator.nextId("DOC"), // internal DB id
                             firstName, lastName,
                             gender, age,
                             staffId, username,
@@ -76,7 +87,7 @@ public class AddStaffViewController {
 
                 case "Nurse":
                     staff = new Nurse(
-                            "NUR" + System.currentTimeMillis(),
+                            IdGenerator.nextId("NUR"),
                             firstName, lastName,
                             gender, age,
                             staffId, username,
@@ -85,7 +96,7 @@ public class AddStaffViewController {
 
                 case "Manager":
                     staff = new Manager(
-                            "MGR" + System.currentTimeMillis(),
+                            IdGenerator.nextId("MGR"),
                             firstName, lastName,
                             gender, age,
                             staffId, username,
@@ -99,18 +110,17 @@ public class AddStaffViewController {
             staffDAO.save(staff);
             auditLogger.logAction(staff.getId(), ActionType.ADD_STAFF,
                     "New staff member added", staff.getStaffId());
+            return staff;
+        }, staff -> {
             System.out.println("SUCCESS: Staff " + staff.getName() +
                     " added with ID " + staff.getStaffId());
 
             Stage stage = (Stage) firstNameField.getScene().getWindow();
             stage.close();
-
-        } catch (NumberFormatException e) {
-            errorLabel.setText("Age must be a number.");
-        } catch (Exception e) {
+        }, e -> {
             errorLabel.setText("Error saving staff: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 
 }
@@ -2,7 +2,6 @@ package CareHome.view;
 
 import CareHome.Model.Audit.AuditEntry;
 import CareHome.Model.Audit.AuditLogger;
-import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -37,10 +36,10 @@ public class AuditLogViewController {
         timestampCol.setCellValueFactory(new PropertyValueFactory<>("timestampFormatted"));
     }
 
-    // Reads audit entries from the logger and populates the table
+    // Shows the newest page of the log; older pages load as the user scrolls down
     private void loadData() throws Exception {
         if (auditLogger != null) {
-            auditTable.setItems(FXCollections.observableArrayList(auditLogger.getAllAuditEntries()));
+            new AuditTablePager(auditTable, auditLogger).start();
         }
     }
 }
@@ -0,0 +1,95 @@
+package CareHome.view;
+
+import CareHome.Model.Audit.AuditEntry;
+import CareHome.Model.Audit.AuditLogger;
+import CareHome.Model.Audit.AuditPage;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+/**
+ * Fills an audit TableView one keyset page at a time.
+ * The first page is loaded up front; the next one is fetched when the user scrolls
+ * past PREFETCH_AT of the loaded rows, so only what has been scrolled to is in memory.
+ * Pages are read in the background and appended on the FX thread, one at a time.
+ */
+class AuditTablePager {
+    private static final int PAGE_SIZE = 200;
+    private static final double PREFETCH_AT = 0.9;   // fraction of the vertical scroll range
+    private static final String PAGE_TASK = "page";
+
+    private final TableView<AuditEntry> table;
+    private final AuditLogger auditLogger;
+    private final ObservableList<AuditEntry> items = FXCollections.observableArrayList();
+    private final ViewTasks tasks = new ViewTasks();
+    private AuditPage lastPage;
+    private boolean scrollListenerAttached;
+
+    AuditTablePager(TableView<AuditEntry> table, AuditLogger auditLogger) {
+        this.table = table;
+        this.auditLogger = auditLogger;
+        table.setItems(items);
+        tasks.cancelOnClose(table);
+    }
+
+    // (Re)loads the newest page and starts watching the scroll position
+    void start() {
+        items.clear();
+        lastPage = null;
+        fetchPage();
+        if (table.getSkin() != null) {
+            attachScrollListener();
+        } else {
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null) {
+                    attachScrollListener();
+                }
+            });
+        }
+    }
+
+    // Appends the next page; no-op once the end of the log has been reached or while a page is loading
+    void loadNextPage() {
+        if ((lastPage != null && !lastPage.hasMore()) || tasks.isRunning(PAGE_TASK)) {
+            return;
+        }
+        fetchPage();
+    }
+
+    int getLoadedCount() {
+        return items.size();
+    }
+
+    // Reads the page after lastPage; replaces a read still running, as start() does after a reload
+    private void fetchPage() {
+        AuditPage after = lastPage;
+        tasks.run(PAGE_TASK, () -> auditLogger.getAuditPage(after, PAGE_SIZE), page -> {
+            lastPage = page;
+            items.addAll(page.getEntries());
+        }, Throwable::printStackTrace);
+    }
+
+    private void attachScrollListener() {
+        // The skin builds its scroll bars on the next layout pass
+        Platform.runLater(() -> {
+            if (scrollListenerAttached) {
+                return;
+            }
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                    bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                        if (newValue.doubleValue() >= bar.getMax() * PREFETCH_AT) {
+                            loadNextPage();
+                        }
+                    });
+                    scrollListenerAttached = true;
+                    return;
+                }
+            }
+        });
+    }
+}
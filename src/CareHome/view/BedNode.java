@@ -0,0 +1,83 @@
+package CareHome.view;
+
+import CareHome.Model.Gender;
+import CareHome.Model.Location.BedState;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+/**
+ * One bed on the ward map. It is built once and repainted in place when the census reports a new
+ * state for the bed, so a refresh touches only the beds that changed. The tooltip is created the
+ * first time the pointer reaches the bed rather than up front for every bed on the map.
+ */
+public class BedNode {
+    private final Rectangle shape = new Rectangle(70, 70);
+    private final StackPane pane;
+    private Tooltip tooltip;
+    private BedState state;
+
+    public BedNode(BedState state) {
+        shape.setArcWidth(5);
+        shape.setArcHeight(5);
+        shape.setStroke(Color.BLACK);
+        shape.setStrokeWidth(1.5);
+
+        Text bedIdText = new Text(state.getBedId());
+        bedIdText.setFont(Font.font("System", FontWeight.NORMAL, 10));
+
+        pane = new StackPane(shape, bedIdText);
+        pane.addEventHandler(MouseEvent.MOUSE_ENTERED, event -> installTooltip());
+        paint(state);
+    }
+
+    // Repaints for a new state of the same bed; false if it already showed that state
+    public boolean update(BedState next) {
+        if (next.equals(state)) {
+            return false;
+        }
+        paint(next);
+        return true;
+    }
+
+    public StackPane getPane() { return pane; }
+    public BedState getState() { return state; }
+
+    // Gender-based fill for occupants, a pale fill for held beds, white when empty
+    static Color fillFor(BedState state) {
+        if (state.isOccupied()) {
+            return state.getOccupantGender() == Gender.MALE ? Color.LIGHTBLUE : Color.LIGHTPINK;
+        }
+        return state.isHeld() ? Color.LIGHTGOLDENRODYELLOW : Color.WHITE;
+    }
+
+    static String describe(BedState state) {
+        if (state.isOccupied()) {
+            return "Patient: " + state.getOccupantName() + "\nID: " + state.getOccupantPatientId();
+        }
+        if (state.isHeld()) {
+            return "Bed: " + state.getBedId() + " (Held for " + state.getHoldGender() + ")";
+        }
+        return "Bed: " + state.getBedId() + " (Empty)";
+    }
+
+    private void paint(BedState next) {
+        state = next;
+        shape.setFill(fillFor(next));
+        if (tooltip != null) {
+            tooltip.setText(describe(next));
+        }
+    }
+
+    private void installTooltip() {
+        if (tooltip == null) {
+            tooltip = new Tooltip(describe(state));
+            Tooltip.install(pane, tooltip);
+        }
+    }
+}
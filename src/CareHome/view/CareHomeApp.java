@@ -1,5 +1,7 @@
 package CareHome.view;
 
+import CareHome.Service.HoldExpiry;
+import CareHome.dao.BedOccupancyIndex;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -13,6 +15,14 @@ public class CareHomeApp extends Application {
     public static final double LOGIN_W = 600, LOGIN_H = 400;
     public static final double DASHBOARD_W = 900, DASHBOARD_H = 700;
 
+    // Runs before the first window: opens the database, loads bed occupancy into memory and
+    // arms the expiry of bed holds made in earlier sessions
+    @Override
+    public void init() throws Exception {
+        BedOccupancyIndex.getInstance().reload();
+        HoldExpiry.getInstance().ensureScheduled();
+    }
+
     @Override
     public void start(Stage stage) throws Exception {
         primaryStage = stage;
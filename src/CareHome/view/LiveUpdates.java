@@ -0,0 +1,48 @@
+package CareHome.view;
+
+import CareHome.event.CoalescingDispatcher;
+import CareHome.event.DomainEvent;
+import CareHome.event.EventBus;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.stage.WindowEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Pushes committed changes into an open view. Events of the requested types are coalesced and
+ * handed to the view in batches on the JavaFX application thread, at most one batch per quiet
+ * period while changes keep coming, and the subscription ends when the view's window closes.
+ */
+final class LiveUpdates {
+    static final long QUIET_MILLIS = 100;
+    static final long MAX_DELAY_MILLIS = 500;
+
+    private LiveUpdates() {
+    }
+
+    // Subscribes handler to events of the given types for the lifetime of owner's window
+    static CoalescingDispatcher subscribe(Node owner, Consumer<List<DomainEvent>> handler, List<Class<? extends DomainEvent>> types) {
+        CoalescingDispatcher dispatcher = new CoalescingDispatcher(QUIET_MILLIS, MAX_DELAY_MILLIS, Platform::runLater, handler);
+        EventBus.Subscription subscription = EventBus.getInstance().subscribe(types, dispatcher);
+        onWindowHidden(owner, () -> {
+            subscription.cancel();
+            dispatcher.close();
+        });
+        return dispatcher;
+    }
+
+    // Runs action when the window showing owner is hidden; owner may not be in a scene yet
+    static void onWindowHidden(Node owner, Runnable action) {
+        owner.sceneProperty().addListener((sceneObs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.windowProperty().addListener((windowObs, oldWindow, window) -> {
+                    if (window != null) {
+                        window.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> action.run());
+                    }
+                });
+            }
+        });
+    }
+}
@@ -3,7 +3,6 @@ package CareHome.view;
 import CareHome.Service.AuthenticationService;
 import CareHome.Service.AuthenticationServiceImpl;
 import CareHome.Model.Audit.AuditLogger;
-import CareHome.Model.Person.Staff;
 import CareHome.Model.Person.Manager;
 import CareHome.Model.Person.Doctor;
 import CareHome.Model.Person.Nurse;
@@ -25,6 +24,7 @@ public class LoginController {
 
 
     private AuthenticationService authenticationService = new AuthenticationServiceImpl(new AuditLogger());
+    private final ViewTasks tasks = new ViewTasks();
 
     // Handles login button: authenticates and routes user to role-specific dashboard
     @FXML
@@ -32,32 +32,39 @@ public class LoginController {
         String username = usernameField.getText();
         String password = passwordField.getText();
 
-        try {
-            Staff user = authenticationService.login(username, password);
-
+        if (tasks.isRunning("login")) {
+            return;
+        }
+        tasks.run("login", () -> authenticationService.login(username, password), user -> {
             if (user == null) {
                 errorLabel.setText("Invalid credentials. Try again.");
                 return;
             }
 
-            if (user instanceof Manager) {
-                CareHomeApp.switchScene("/CareHome/view/ManagerDashboardController.fxml",
-                        "Dashboard - Manager", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
-            } else if (user instanceof Doctor) {
-                CareHomeApp.switchScene("/CareHome/view/DoctorDashboardController.fxml",
-                        "Dashboard - Doctor", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
-            } else if (user instanceof Nurse) {
-                CareHomeApp.switchScene("/CareHome/view/NurseDashboardController.fxml",
-                        "Dashboard - Nurse", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
+            try {
+                if (user instanceof Manager) {
+                    CareHomeApp.switchScene("/CareHome/view/ManagerDashboardController.fxml",
+                            "Dashboard - Manager", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
+                } else if (user instanceof Doctor) {
+                    CareHomeApp.switchScene("/CareHome/view/DoctorDashboardController.fxml",
+                            "Dashboard - Doctor", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
+                } else if (user instanceof Nurse) {
+                    CareHomeApp.switchScene("/CareHome/view/NurseDashboardController.fxml",
+                            "Dashboard - Nurse", CareHomeApp.DASHBOARD_W, CareHomeApp.DASHBOARD_H, true);
+                } else {
+                    errorLabel.setText("Unknown role.");
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                errorLabel.setText("Error loading dashboard.");
+            }
+        }, e -> {
+            if (e instanceof AuthorizationException) {
+                errorLabel.setText("Login failed: " + e.getMessage());
             } else {
-                errorLabel.setText("Unknown role.");
+                e.printStackTrace();
+                errorLabel.setText("Error loading dashboard.");
             }
-
-        } catch (AuthorizationException e) {
-            errorLabel.setText("Login failed: " + e.getMessage());
-        } catch (Exception e) {
-            e.printStackTrace();
-            errorLabel.setText("Error loading dashboard.");
-        }
+        });
     }
 }
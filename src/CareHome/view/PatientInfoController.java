@@ -1,32 +1,42 @@
 package CareHome.view;
 
-import CareHome.Model.Person.Patient;
+import CareHome.Model.Person.PatientBedView;
 import CareHome.Service.AuthenticationServiceImpl;
 import CareHome.Service.PatientServiceImpl;
 import CareHome.Model.Audit.AuditLogger;
 import CareHome.controller.PatientController;
+import CareHome.event.BedAssigned;
+import CareHome.event.DomainEvent;
+import CareHome.event.PatientDischarged;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import javafx.scene.control.cell.PropertyValueFactory;
 
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PatientInfoController {
 
-    @FXML private TableView<Patient> patientTable;
+    @FXML private TableView<PatientBedView> patientTable;
 
-    @FXML private TableColumn<Patient, String> patientIdColumn;
-    @FXML private TableColumn<Patient, String> firstNameColumn;
-    @FXML private TableColumn<Patient, String> lastNameColumn;
-    @FXML private TableColumn<Patient, String> genderColumn;
-    @FXML private TableColumn<Patient, Integer> ageColumn;
-    @FXML private TableColumn<Patient, String> admissionDateColumn;
-    @FXML private TableColumn<Patient, String> isolationColumn;
-    @FXML private TableColumn<Patient, String> bedIdColumn;
+    @FXML private TableColumn<PatientBedView, String> patientIdColumn;
+    @FXML private TableColumn<PatientBedView, String> firstNameColumn;
+    @FXML private TableColumn<PatientBedView, String> lastNameColumn;
+    @FXML private TableColumn<PatientBedView, String> genderColumn;
+    @FXML private TableColumn<PatientBedView, Integer> ageColumn;
+    @FXML private TableColumn<PatientBedView, String> admissionDateColumn;
+    @FXML private TableColumn<PatientBedView, String> isolationColumn;
+    @FXML private TableColumn<PatientBedView, String> bedIdColumn;
 
     private final PatientController patientController;
+    private final ViewTasks tasks = new ViewTasks();
 
     // Wires a PatientController with fresh auth/service/logger for this view
     public PatientInfoController() {
@@ -37,11 +47,13 @@ public class PatientInfoController {
         );
     }
 
-    // Configures table columns and loads patient rows on view init
+    // Configures table columns, loads patient rows and follows admissions, moves and discharges while open
     @FXML
     public void initialize() {
         setupTableColumns();
+        tasks.cancelOnClose(patientTable);
         loadPatients();
+        LiveUpdates.subscribe(patientTable, this::applyChanges, List.of(BedAssigned.class, PatientDischarged.class));
     }
 
     // Sets property-value factories for each patient column
@@ -56,22 +68,56 @@ public class PatientInfoController {
         bedIdColumn.setCellValueFactory(new PropertyValueFactory<>("bedIdDisplay"));
     }
 
-    // Retrieves patients, enriches rows with isolation/bed display, and populates the table
+    // Loads patients with their beds in one query and populates the table
     private void loadPatients() {
-        try {
-            List<Patient> patients = patientController.getAllPatients();
-            PatientServiceImpl patientService = new PatientServiceImpl();
+        tasks.run("patients", patientController::getPatientBedViews,
+                patients -> patientTable.setItems(FXCollections.observableArrayList(patients)),
+                e -> new Alert(Alert.AlertType.ERROR, "Failed to load patients: " + e.getMessage()).showAndWait());
+    }
 
-            for (Patient p : patients) {
-                p.setIsolationDisplay(p.needsIsolation() ? "Yes" : "No");
-                String bedId = patientService.getPatientBed(p.getId());
-                p.setBedIdDisplay(bedId != null ? bedId : "Unassigned");
+    // Updates only the rows a batch of events touches: discharged patients leave the table, and a
+    // patient who took a bed has their row re-read, or added if they were just admitted
+    private void applyChanges(List<DomainEvent> events) {
+        Set<String> discharged = new HashSet<>();
+        Set<String> changed = new LinkedHashSet<>();
+        for (DomainEvent event : events) {
+            if (event instanceof PatientDischarged discharge) {
+                discharged.add(discharge.getPatientId());
+            } else if (event instanceof BedAssigned assignment) {
+                changed.add(assignment.getPatientId());
             }
+        }
+        changed.removeAll(discharged);
+        patientTable.getItems().removeIf(row -> discharged.contains(row.getId()));
+        if (changed.isEmpty()) {
+            return;
+        }
 
-            patientTable.setItems(FXCollections.observableArrayList(patients));
+        // Each batch gets its own key, so a later batch does not cancel an earlier one's rows
+        tasks.run("rows:" + String.join(",", changed), () -> {
+            Map<String, PatientBedView> views = new LinkedHashMap<>();
+            for (String id : changed) {
+                views.put(id, patientController.getPatientBedView(id));
+            }
+            return views;
+        }, views -> views.forEach((id, view) -> replaceRow(patientTable.getItems(), id, view)),
+                e -> System.err.println("Failed to update patient rows: " + e.getMessage()));
+    }
 
-        } catch (Exception e) {
-            new Alert(Alert.AlertType.ERROR, "Failed to load patients: " + e.getMessage()).showAndWait();
+    // Puts view in place of the patient's row, appends it if they have none, or drops the row if view is null
+    private static void replaceRow(ObservableList<PatientBedView> rows, String id, PatientBedView view) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getId().equals(id)) {
+                if (view != null) {
+                    rows.set(i, view);
+                } else {
+                    rows.remove(i);
+                }
+                return;
+            }
+        }
+        if (view != null) {
+            rows.add(view);
         }
     }
 
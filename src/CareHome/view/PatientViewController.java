@@ -14,7 +14,6 @@ import CareHome.dao.BedDAOImpl;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import java.util.List;
 import java.util.Optional;
 
 public class PatientViewController {
@@ -26,6 +25,7 @@ public class PatientViewController {
 
     private PatientService patientService = new PatientServiceImpl();
     private AuthenticationService authService = new AuthenticationServiceImpl(new AuditLogger());
+    private final ViewTasks tasks = new ViewTasks();
 
     // Configures role-based buttons, list cell renderer, and loads the initial patient list
     @FXML
@@ -50,6 +50,7 @@ public class PatientViewController {
                 moveButton.setVisible(true);
             }
 
+            tasks.cancelOnClose(patientListView);
             refreshPatientList();
         } catch (Exception e) {
             emptyLabel.setText("Error initializing view: " + e.getMessage());
@@ -67,15 +68,14 @@ public class PatientViewController {
         }
 
         Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION, "Are you sure you want to discharge " + selectedPatient.getName() + "?");
-        confirmAlert.showAndWait().filter(response -> response == ButtonType.OK).ifPresent(response -> {
-            try {
-                patientService.dischargePatient(selectedPatient.getId());
-                refreshPatientList();
-            } catch (Exception e) {
-                new Alert(Alert.AlertType.ERROR, "Failed to discharge patient: " + e.getMessage()).showAndWait();
-                e.printStackTrace();
-            }
-        });
+        confirmAlert.showAndWait().filter(response -> response == ButtonType.OK).ifPresent(response ->
+                tasks.run("discharge", () -> {
+                    patientService.dischargePatient(selectedPatient.getId());
+                    return null;
+                }, done -> refreshPatientList(), e -> {
+                    new Alert(Alert.AlertType.ERROR, "Failed to discharge patient: " + e.getMessage()).showAndWait();
+                    e.printStackTrace();
+                }));
     }
 
     // Moves the selected patient to a chosen available bed and refreshes the list
@@ -87,8 +87,7 @@ public class PatientViewController {
             return;
         }
 
-        try {
-            List<String> availableBeds = new BedDAOImpl().getAvailableBeds();
+        tasks.run("beds", () -> new BedDAOImpl().getAvailableBeds(), availableBeds -> {
             if (availableBeds.isEmpty()) {
                 new Alert(Alert.AlertType.INFORMATION, "No beds are currently available.").showAndWait();
                 return;
@@ -99,36 +98,34 @@ public class PatientViewController {
             dialog.setHeaderText("Move " + selectedPatient.getName() + " to a new bed.");
             dialog.setContentText("Select a new bed:");
 
-            dialog.showAndWait().ifPresent(newBedId -> {
-                try {
-                    patientService.movePatient(selectedPatient.getId(), newBedId);
-                    refreshPatientList();
-                    new Alert(Alert.AlertType.INFORMATION, "Patient moved successfully.").showAndWait();
-                } catch (Exception e) {
-                    new Alert(Alert.AlertType.ERROR, "Failed to move patient: " + e.getMessage()).showAndWait();
-                    e.printStackTrace();
-                }
-            });
-
-        } catch (Exception e) {
+            dialog.showAndWait().ifPresent(newBedId -> tasks.run("move", () -> {
+                patientService.movePatient(selectedPatient.getId(), newBedId);
+                return null;
+            }, done -> {
+                refreshPatientList();
+                new Alert(Alert.AlertType.INFORMATION, "Patient moved successfully.").showAndWait();
+            }, e -> {
+                new Alert(Alert.AlertType.ERROR, "Failed to move patient: " + e.getMessage()).showAndWait();
+                e.printStackTrace();
+            }));
+        }, e -> {
             new Alert(Alert.AlertType.ERROR, "Failed to load available beds: " + e.getMessage()).showAndWait();
             e.printStackTrace();
-        }
+        });
     }
 
     // Reloads patients into the list and toggles the empty-state label
     private void refreshPatientList() {
-        try {
-            List<Patient> patients = patientService.getAllPatients();
+        tasks.run("patients", patientService::getAllPatients, patients -> {
             patientListView.setItems(FXCollections.observableArrayList(patients));
             patientListView.setVisible(!patients.isEmpty());
             emptyLabel.setVisible(patients.isEmpty());
             if (patients.isEmpty()) {
                 emptyLabel.setText("There are no patients in the system.");
             }
-        } catch (Exception e) {
+        }, e -> {
             emptyLabel.setText("Error loading patients: " + e.getMessage());
             e.printStackTrace();
-        }
+        });
     }
 }
\ No newline at end of file
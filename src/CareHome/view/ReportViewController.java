@@ -1,16 +1,13 @@
 package CareHome.view;
 
 import CareHome.Model.Audit.AuditEntry;
-import CareHome.dao.AuditDAO;
-import CareHome.dao.AuditDAOImpl;
-import javafx.collections.FXCollections;
+import CareHome.Model.Audit.AuditLogger;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 public class ReportViewController {
 
@@ -22,9 +19,9 @@ public class ReportViewController {
     @FXML private TableColumn<AuditEntry, String> detailsColumn;
     @FXML private TableColumn<AuditEntry, LocalDateTime> timestampColumn;
 
-    private AuditDAO auditDAO = new AuditDAOImpl();
+    private AuditLogger auditLogger = new AuditLogger();
 
-    // Wires table columns to properties and loads all audit entries
+    // Wires table columns to properties and loads the first page of audit entries
     @FXML
     public void initialize() {
         entryIdColumn.setCellValueFactory(new PropertyValueFactory<>("entryId"));
@@ -34,11 +31,6 @@ public class ReportViewController {
         detailsColumn.setCellValueFactory(new PropertyValueFactory<>("details"));
         timestampColumn.setCellValueFactory(new PropertyValueFactory<>("timestamp"));
 
-        try {
-            List<AuditEntry> entries = auditDAO.findAll();
-            reportTable.setItems(FXCollections.observableArrayList(entries));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        new AuditTablePager(reportTable, auditLogger).start();
     }
 }
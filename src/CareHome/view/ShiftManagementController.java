@@ -8,6 +8,8 @@ import CareHome.dao.ShiftDAO;
 import CareHome.dao.ShiftDAOImpl;
 import CareHome.dao.StaffDAO;
 import CareHome.dao.StaffDAOImpl;
+import CareHome.event.DomainEvent;
+import CareHome.event.ShiftAssigned;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -38,6 +40,7 @@ public class ShiftManagementController {
     private ShiftDAO shiftDAO = new ShiftDAOImpl();
     private StaffDAO staffDAO = new StaffDAOImpl();
     private ShiftController shiftController;
+    private final ViewTasks tasks = new ViewTasks();
 
     // Initializes controller dependencies, populates dropdowns, and loads existing shifts
     @FXML
@@ -49,45 +52,53 @@ public class ShiftManagementController {
         dayColumn.setCellValueFactory(new PropertyValueFactory<>("dayOfWeek"));
         shiftTypeColumn.setCellValueFactory(new PropertyValueFactory<>("shiftType"));
 
-        try {
-            staffComboBox.setItems(FXCollections.observableArrayList(staffDAO.findAll()));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        tasks.cancelOnClose(shiftTable);
+        tasks.run("staff", staffDAO::findAll,
+                staff -> staffComboBox.setItems(FXCollections.observableArrayList(staff)),
+                Throwable::printStackTrace);
         dayComboBox.getItems().setAll(DayOfWeek.values());
         shiftTypeComboBox.getItems().setAll(ShiftType.values());
 
         refreshShiftList();
+        LiveUpdates.subscribe(shiftTable, this::addShifts, List.of(ShiftAssigned.class));
     }
 
     // Assigns a shift to the selected staff for the selected day/type, with error/confirmation prompts
     @FXML
     private void handleAssignShift(ActionEvent event) {
-        try {
-            Staff selectedStaff = staffComboBox.getValue();
-            DayOfWeek selectedDay = dayComboBox.getValue();
-            ShiftType selectedShiftType = shiftTypeComboBox.getValue();
+        Staff selectedStaff = staffComboBox.getValue();
+        DayOfWeek selectedDay = dayComboBox.getValue();
+        ShiftType selectedShiftType = shiftTypeComboBox.getValue();
 
-            if (selectedStaff != null && selectedDay != null && selectedShiftType != null) {
+        if (selectedStaff != null && selectedDay != null && selectedShiftType != null) {
+            // The new row arrives through the ShiftAssigned event
+            tasks.run("assign", () -> {
                 shiftController.assignShift(selectedStaff.getStaffId(), selectedDay, selectedShiftType.name());
-                refreshShiftList();
+                return null;
+            }, done -> {
                 Alert alert = new Alert(Alert.AlertType.INFORMATION, "Shift assigned successfully.");
                 alert.showAndWait();
-            }
-        } catch (Exception e) {
-            Alert alert = new Alert(Alert.AlertType.ERROR, "Failed to assign shift: " + e.getMessage());
-            alert.showAndWait();
-            e.printStackTrace();
+            }, e -> {
+                Alert alert = new Alert(Alert.AlertType.ERROR, "Failed to assign shift: " + e.getMessage());
+                alert.showAndWait();
+                e.printStackTrace();
+            });
+        }
+    }
+
+    // Adds newly assigned shifts to the table, replacing a row with the same shift id
+    private void addShifts(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            Shift shift = ((ShiftAssigned) event).getShift();
+            shiftTable.getItems().removeIf(row -> row.getShiftId().equals(shift.getShiftId()));
+            shiftTable.getItems().add(shift);
         }
     }
 
     // Reloads the table of assigned shifts
     private void refreshShiftList() {
-        try {
-            List<Shift> shifts = shiftDAO.getAllShifts();
-            shiftTable.setItems(FXCollections.observableArrayList(shifts));
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        tasks.run("shifts", shiftDAO::getAllShifts,
+                shifts -> shiftTable.setItems(FXCollections.observableArrayList(shifts)),
+                Throwable::printStackTrace);
     }
 }
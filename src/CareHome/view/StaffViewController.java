@@ -16,7 +16,6 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.TextInputDialog;
 import javafx.stage.Stage;
 
-import java.util.List;
 import java.util.Optional;
 
 public class StaffViewController {
@@ -33,6 +32,7 @@ public class StaffViewController {
     private TableColumn<Staff, String> usernameColumn;
 
     private StaffDAO staffDAO = new StaffDAOImpl();
+    private final ViewTasks tasks = new ViewTasks();
 
     // Maps columns to staff properties and loads the initial staff list
     @FXML
@@ -42,6 +42,7 @@ public class StaffViewController {
         roleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
         usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
 
+        tasks.cancelOnClose(staffTable);
         refreshStaffList();
     }
 
@@ -81,26 +82,19 @@ public class StaffViewController {
         dialog.setContentText("Please enter new password:");
 
         Optional<String> result = dialog.showAndWait();
-        result.ifPresent(newPassword -> {
-            try {
-                staffDAO.updatePassword(selectedStaff.getUsername(), newPassword);
-                new AuditLogger().logAction(new AuthenticationServiceImpl(new AuditLogger()).getCurrentUser().getStaffId(), ActionType.MODIFY_STAFF, "Changed password for user: " + selectedStaff.getUsername(), selectedStaff.getStaffId());
-                System.out.println("Password updated successfully for " + selectedStaff.getUsername());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        });
+        result.ifPresent(newPassword -> tasks.run("password", () -> {
+            staffDAO.updatePassword(selectedStaff.getUsername(), newPassword);
+            new AuditLogger().logAction(new AuthenticationServiceImpl(new AuditLogger()).getCurrentUser().getStaffId(), ActionType.MODIFY_STAFF, "Changed password for user: " + selectedStaff.getUsername(), selectedStaff.getStaffId());
+            return null;
+        }, done -> System.out.println("Password updated successfully for " + selectedStaff.getUsername()),
+                Throwable::printStackTrace));
     }
 
     // Reloads staff from the DAO and binds to the table
     private void refreshStaffList() {
         System.out.println("DEBUG: Refreshing staff list...");
-        try {
-            List<Staff> staffList = staffDAO.findAll();
-            staffTable.setItems(FXCollections.observableArrayList(staffList));
-        } catch (Exception e) {
-            e.printStackTrace();
-
-        }
+        tasks.run("staff", staffDAO::findAll,
+                staffList -> staffTable.setItems(FXCollections.observableArrayList(staffList)),
+                Throwable::printStackTrace);
     }
 }
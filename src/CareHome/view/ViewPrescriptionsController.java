@@ -2,7 +2,8 @@ package CareHome.view;
 
 import CareHome.Model.Medical.Prescription;
 import CareHome.Service.PrescriptionServiceImpl;
-import javafx.collections.FXCollections;
+import CareHome.event.DomainEvent;
+import CareHome.event.PrescriptionAdded;
 import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -16,33 +17,42 @@ public class ViewPrescriptionsController {
     private TableView<Prescription> prescriptionTable;
 
     private final PrescriptionServiceImpl prescriptionService = new PrescriptionServiceImpl();
+    private final ViewTasks tasks = new ViewTasks();
 
-    // Creates columns programmatically and loads all prescriptions into the table
+    // Creates columns programmatically, loads all prescriptions into the table and adds new ones as they are written
     @FXML
     public void initialize() {
-        try {
-            List<Prescription> allPrescriptions = prescriptionService.getAllPrescriptions();
+        TableColumn<Prescription, String> patientCol = new TableColumn<>("Patient ID");
+        patientCol.setCellValueFactory(new PropertyValueFactory<>("patientId"));
 
-            TableColumn<Prescription, String> patientCol = new TableColumn<>("Patient ID");
-            patientCol.setCellValueFactory(new PropertyValueFactory<>("patientId"));
+        TableColumn<Prescription, String> doctorCol = new TableColumn<>("Doctor ID");
+        doctorCol.setCellValueFactory(new PropertyValueFactory<>("doctorId"));
 
-            TableColumn<Prescription, String> doctorCol = new TableColumn<>("Doctor ID");
-            doctorCol.setCellValueFactory(new PropertyValueFactory<>("doctorId"));
+        TableColumn<Prescription, String> medCol = new TableColumn<>("Medication");
+        medCol.setCellValueFactory(new PropertyValueFactory<>("medicationName"));
 
-            TableColumn<Prescription, String> medCol = new TableColumn<>("Medication");
-            medCol.setCellValueFactory(new PropertyValueFactory<>("medicationName"));
+        TableColumn<Prescription, String> dosageCol = new TableColumn<>("Dosage");
+        dosageCol.setCellValueFactory(new PropertyValueFactory<>("dosage"));
 
-            TableColumn<Prescription, String> dosageCol = new TableColumn<>("Dosage");
-            dosageCol.setCellValueFactory(new PropertyValueFactory<>("dosage"));
+        TableColumn<Prescription, String> freqCol = new TableColumn<>("Frequency");
+        freqCol.setCellValueFactory(new PropertyValueFactory<>("frequency"));
 
-            TableColumn<Prescription, String> freqCol = new TableColumn<>("Frequency");
-            freqCol.setCellValueFactory(new PropertyValueFactory<>("frequency"));
+        prescriptionTable.getColumns().addAll(patientCol, doctorCol, medCol, dosageCol, freqCol);
 
-            prescriptionTable.getColumns().addAll(patientCol, doctorCol, medCol, dosageCol, freqCol);
-            prescriptionTable.setItems(FXCollections.observableArrayList(allPrescriptions));
+        tasks.cancelOnClose(prescriptionTable);
+        tasks.run("prescriptions", prescriptionService::getAllPrescriptions,
+                all -> prescriptionTable.getItems().setAll(all),
+                Throwable::printStackTrace);
+        LiveUpdates.subscribe(prescriptionTable, this::addPrescriptions, List.of(PrescriptionAdded.class));
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    // New prescriptions go on top, matching the newest-first load order
+    private void addPrescriptions(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            Prescription prescription = ((PrescriptionAdded) event).getPrescription();
+            if (prescription.isActive()) {
+                prescriptionTable.getItems().add(0, prescription);
+            }
         }
     }
 }
@@ -0,0 +1,176 @@
+package CareHome.view;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Runs one view's DAO and service calls off the JavaFX application thread, so a slow or locked
+ * database never freezes the window.
+ *
+ * Work runs on virtual threads from one executor shared by every view. A thread is cheap, and one
+ * blocked on the connection pool or a SQLite lock holds no platform thread. Results, failures and
+ * progress are handed back on the FX thread. Each task has a key: submitting a new task under a
+ * key that still has one running cancels the old one, so pressing refresh again replaces the
+ * earlier load. Closing the view's window cancels everything still running for it.
+ *
+ * Cancelling drops the task's result and failure, and work that checks isCancelled stops early.
+ * The thread is never interrupted: a JDBC call on a pooled connection runs to completion, and a
+ * write that was already sent still commits.
+ */
+public final class ViewTasks {
+    private static final ExecutorService WORKERS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("view-task-", 0).factory());
+
+    // Background work that can report progress and check for cancellation
+    public interface Work<T> {
+        T call(Task<T> task) throws Exception;
+    }
+
+    // One submitted unit of work
+    public final class Task<T> {
+        private final String key;
+        private final AtomicBoolean progressPosted = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile double progress = -1;
+        private volatile DoubleConsumer onProgress;
+
+        private Task(String key) {
+            this.key = key;
+        }
+
+        // Records progress from the worker (done of total); the FX thread sees only the latest value
+        public void updateProgress(long workDone, long totalWork) {
+            progress = totalWork <= 0 ? -1 : Math.min(1, (double) workDone / totalWork);
+            if (progressPosted.compareAndSet(false, true)) {
+                fxThread.execute(() -> {
+                    progressPosted.set(false);
+                    DoubleConsumer listener = onProgress;
+                    if (listener != null && !cancelled) {
+                        listener.accept(progress);
+                    }
+                });
+            }
+        }
+
+        // Called on the FX thread with each progress value, from 0 to 1 (-1 while unknown)
+        public void setOnProgress(DoubleConsumer onProgress) {
+            this.onProgress = onProgress;
+        }
+
+        // Drops the result; true if the task had not finished yet
+        public boolean cancel() {
+            if (done || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            forget(this);
+            return true;
+        }
+
+        public boolean isCancelled() { return cancelled; }
+        public boolean isDone() { return done; }
+        public double getProgress() { return progress; }
+    }
+
+    private final Executor fxThread;
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private boolean closed;
+
+    public ViewTasks() {
+        this(Platform::runLater);
+    }
+
+    // Hands results to fxThread instead of the JavaFX application thread
+    public ViewTasks(Executor fxThread) {
+        this.fxThread = fxThread;
+    }
+
+    // Runs work in the background and hands its result to onSuccess, or its failure to onFailure, on the FX thread
+    public <T> Task<T> run(String key, Callable<T> work, Consumer<? super T> onSuccess, Consumer<Exception> onFailure) {
+        return run(key, task -> work.call(), onSuccess, onFailure);
+    }
+
+    // As above, for work that reports progress or checks for cancellation
+    public <T> Task<T> run(String key, Work<T> work, Consumer<? super T> onSuccess, Consumer<Exception> onFailure) {
+        Task<T> task = new Task<>(key);
+        Task<?> previous;
+        synchronized (this) {
+            if (closed) {
+                task.cancelled = true;
+                return task;
+            }
+            previous = running.put(key, task);
+        }
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        WORKERS.execute(() -> {
+            T result = null;
+            Exception failure = null;
+            try {
+                if (!task.cancelled) {
+                    result = work.call(task);
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+            T value = result;
+            Exception error = failure;
+            fxThread.execute(() -> {
+                if (task.cancelled) {
+                    return;
+                }
+                task.done = true;
+                forget(task);
+                if (error != null) {
+                    onFailure.accept(error);
+                } else {
+                    onSuccess.accept(value);
+                }
+            });
+        });
+        return task;
+    }
+
+    // Cancels whatever is still running when the window showing owner closes; later submissions are dropped
+    public void cancelOnClose(Node owner) {
+        LiveUpdates.onWindowHidden(owner, this::close);
+    }
+
+    // Cancels every running task and refuses new ones
+    public void close() {
+        Task<?>[] tasks;
+        synchronized (this) {
+            closed = true;
+            tasks = running.values().toArray(new Task<?>[0]);
+        }
+        for (Task<?> task : tasks) {
+            task.cancel();
+        }
+    }
+
+    // True while a task submitted under key has not finished; lets a handler ignore a second click on Save
+    public synchronized boolean isRunning(String key) {
+        return running.containsKey(key);
+    }
+
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    private synchronized void forget(Task<?> task) {
+        running.remove(task.key, task);
+    }
+}
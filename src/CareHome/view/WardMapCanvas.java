@@ -0,0 +1,303 @@
+package CareHome.view;
+
+import CareHome.Model.Location.BedState;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Ward map drawn on a single Canvas, for facilities too big for a node per bed.
+ *
+ * Each frame draws only the wards, rooms and beds inside the viewport, found through the layout's
+ * grids, so frame time follows what is on screen rather than the size of the facility. Zoomed out,
+ * bed labels and room outlines are dropped once they are too small to read. The mouse wheel zooms
+ * around the pointer, dragging pans, hovering a bed shows one shared tooltip and clicking selects
+ * the bed under the pointer. A census change repaints just that bed.
+ */
+public final class WardMapCanvas extends Region {
+    private static final double MIN_SCALE = 0.02;
+    private static final double MAX_SCALE = 4;
+    private static final double LABEL_MIN_SCALE = 0.35;
+    private static final double OUTLINE_MIN_SCALE = 0.1;
+    private static final double DRAG_THRESHOLD = 4;
+    private static final Color BACKGROUND = Color.web("#FAFAFA");
+    private static final Color WARD_FILL = Color.web("#F5F5F5");
+    private static final Color WARD_BORDER = Color.web("#4A90E2");
+    private static final Color ROOM_BORDER = Color.web("#2C3E50");
+    private static final Color SELECTION = Color.web("#E67E22");
+
+    private final Canvas canvas = new Canvas();
+    private final WardMapLayout layout;
+    private final BedState[] states;
+
+    // Map point (x, y) is drawn at screen point (x * scale + offsetX, y * scale + offsetY)
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+
+    private int hovered = -1;
+    private int selected = -1;
+    private int bedsInLastFrame;
+    private Tooltip tooltip;
+    private Consumer<BedState> onBedSelected;
+    private double pressX;
+    private double pressY;
+    private double lastX;
+    private double lastY;
+    private boolean dragged;
+
+    public WardMapCanvas(WardMapLayout layout, Collection<BedState> beds) {
+        this.layout = layout;
+        this.states = new BedState[layout.getBedCount()];
+        for (BedState state : beds) {
+            int bed = layout.indexOf(state.getBedId());
+            if (bed >= 0) {
+                states[bed] = state;
+            }
+        }
+        getChildren().add(canvas);
+        canvas.addEventHandler(ScrollEvent.SCROLL, event -> zoomAt(Math.exp(event.getDeltaY() * 0.002), event.getX(), event.getY()));
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::handlePressed);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::handleDragged);
+        canvas.addEventHandler(MouseEvent.MOUSE_RELEASED, this::handleReleased);
+        canvas.addEventHandler(MouseEvent.MOUSE_MOVED, event -> hover(event.getX(), event.getY(), event.getScreenX(), event.getScreenY()));
+        canvas.addEventHandler(MouseEvent.MOUSE_EXITED, event -> hover(-1, -1, 0, 0));
+    }
+
+    // The canvas follows the region's size
+    @Override
+    protected void layoutChildren() {
+        if (canvas.getWidth() != getWidth() || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            redraw();
+        }
+    }
+
+    public boolean contains(String bedId) {
+        return layout.indexOf(bedId) >= 0;
+    }
+
+    // Takes a new state for a bed on the map and repaints it if visible; false if it already showed that state
+    public boolean update(BedState next) {
+        int bed = layout.indexOf(next.getBedId());
+        if (bed < 0 || next.equals(states[bed])) {
+            return false;
+        }
+        states[bed] = next;
+        if (bed == hovered && tooltip != null) {
+            tooltip.setText(BedNode.describe(next));
+        }
+        if (isOnScreen(bed)) {
+            GraphicsContext g = canvas.getGraphicsContext2D();
+            // Repaint the bed over its old self, inside the room's background
+            double margin = Math.min(WardMapLayout.BED_GAP / 2 * scale, Math.max(1, 3 * scale));
+            g.setFill(Color.WHITE);
+            g.fillRect(screenX(layout.getBedX(bed)) - margin, screenY(layout.getBedY(bed)) - margin,
+                    WardMapLayout.BED_SIZE * scale + 2 * margin, WardMapLayout.BED_SIZE * scale + 2 * margin);
+            applyBedFont(g);
+            drawBed(g, bed);
+        }
+        return true;
+    }
+
+    // Draws a full frame: background, then the wards, rooms and beds in view
+    public void redraw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        g.clearRect(0, 0, width, height);
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, width, height);
+
+        double x = mapX(0);
+        double y = mapY(0);
+        double w = width / scale;
+        double h = height / scale;
+        g.setLineWidth(Math.max(1, 3 * scale));
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.BOTTOM);
+        g.setFont(Font.font("System", FontWeight.BOLD, Math.max(9, Math.min(18, 18 * scale))));
+        layout.forEachWardIn(x, y, w, h, ward -> {
+            double left = screenX(layout.getWardX(ward));
+            double top = screenY(layout.getWardY(ward) + WardMapLayout.WARD_TITLE_HEIGHT);
+            double wardWidth = layout.getWardWidth(ward) * scale;
+            double wardHeight = (layout.getWardHeight(ward) - WardMapLayout.WARD_TITLE_HEIGHT) * scale;
+            g.setFill(WARD_FILL);
+            g.fillRect(left, top, wardWidth, wardHeight);
+            g.setStroke(WARD_BORDER);
+            g.strokeRect(left, top, wardWidth, wardHeight);
+            g.setFill(Color.BLACK);
+            g.fillText(layout.getWardTitle(ward), left, top - 4);
+        });
+
+        boolean outlines = scale >= OUTLINE_MIN_SCALE;
+        g.setLineWidth(Math.max(1, 2 * scale));
+        layout.forEachRoomIn(x, y, w, h, room -> {
+            double left = screenX(layout.getRoomX(room));
+            double top = screenY(layout.getRoomY(room));
+            double roomWidth = WardMapLayout.ROOM_WIDTH * scale;
+            double roomHeight = layout.getRoomHeight(room) * scale;
+            g.setFill(Color.WHITE);
+            g.fillRect(left, top, roomWidth, roomHeight);
+            if (outlines) {
+                g.setStroke(ROOM_BORDER);
+                g.strokeRect(left, top, roomWidth, roomHeight);
+            }
+        });
+
+        applyBedFont(g);
+        bedsInLastFrame = 0;
+        layout.forEachBedIn(x, y, w, h, bed -> {
+            drawBed(g, bed);
+            bedsInLastFrame++;
+        });
+    }
+
+    // Zooms by factor, keeping the map point under (screenX, screenY) where it is
+    public void zoomAt(double factor, double screenX, double screenY) {
+        double next = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale * factor));
+        double x = mapX(screenX);
+        double y = mapY(screenY);
+        scale = next;
+        offsetX = screenX - x * scale;
+        offsetY = screenY - y * scale;
+        redraw();
+    }
+
+    public void panBy(double dx, double dy) {
+        offsetX += dx;
+        offsetY += dy;
+        redraw();
+    }
+
+    // State of the bed under a point on the canvas, or null
+    public BedState bedAt(double screenX, double screenY) {
+        int bed = layout.bedAt(mapX(screenX), mapY(screenY));
+        return bed < 0 ? null : stateOf(bed);
+    }
+
+    // Selects the bed under a point on the canvas, or clears the selection if there is none
+    public BedState selectAt(double screenX, double screenY) {
+        int bed = layout.bedAt(mapX(screenX), mapY(screenY));
+        if (bed != selected) {
+            selected = bed;
+            redraw();
+            if (onBedSelected != null) {
+                onBedSelected.accept(bed < 0 ? null : stateOf(bed));
+            }
+        }
+        return bed < 0 ? null : stateOf(bed);
+    }
+
+    public BedState getSelectedBed() {
+        return selected < 0 ? null : stateOf(selected);
+    }
+
+    public void setOnBedSelected(Consumer<BedState> onBedSelected) {
+        this.onBedSelected = onBedSelected;
+    }
+
+    public double getScale() { return scale; }
+    public int getBedsInLastFrame() { return bedsInLastFrame; }
+
+    private void drawBed(GraphicsContext g, int bed) {
+        BedState state = stateOf(bed);
+        double left = screenX(layout.getBedX(bed));
+        double top = screenY(layout.getBedY(bed));
+        double size = WardMapLayout.BED_SIZE * scale;
+        g.setFill(BedNode.fillFor(state));
+        g.fillRect(left, top, size, size);
+        if (bed == selected) {
+            g.setStroke(SELECTION);
+            g.setLineWidth(Math.max(2, 4 * scale));
+            g.strokeRect(left, top, size, size);
+        } else if (scale >= OUTLINE_MIN_SCALE) {
+            g.setStroke(Color.BLACK);
+            g.setLineWidth(Math.max(1, 1.5 * scale));
+            g.strokeRect(left, top, size, size);
+        }
+        if (scale >= LABEL_MIN_SCALE) {
+            g.setFill(Color.BLACK);
+            g.fillText(state.getBedId(), left + size / 2, top + size / 2);
+        }
+    }
+
+    private void applyBedFont(GraphicsContext g) {
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        g.setFont(Font.font("System", FontWeight.NORMAL, 10 * scale));
+    }
+
+    // Beds with no census state yet draw as empty
+    private BedState stateOf(int bed) {
+        BedState state = states[bed];
+        return state != null ? state : new BedState(layout.getBedId(bed), null, 0, null, null, null, null, null);
+    }
+
+    private void handlePressed(MouseEvent event) {
+        pressX = lastX = event.getX();
+        pressY = lastY = event.getY();
+        dragged = false;
+    }
+
+    private void handleDragged(MouseEvent event) {
+        if (!dragged && Math.hypot(event.getX() - pressX, event.getY() - pressY) < DRAG_THRESHOLD) {
+            return;
+        }
+        dragged = true;
+        panBy(event.getX() - lastX, event.getY() - lastY);
+        lastX = event.getX();
+        lastY = event.getY();
+    }
+
+    private void handleReleased(MouseEvent event) {
+        if (!dragged && event.getButton() == MouseButton.PRIMARY) {
+            selectAt(event.getX(), event.getY());
+        }
+    }
+
+    // One tooltip for the whole map, moved to whichever bed the pointer is over
+    private void hover(double x, double y, double screenX, double screenY) {
+        int bed = x < 0 ? -1 : layout.bedAt(mapX(x), mapY(y));
+        if (bed == hovered) {
+            return;
+        }
+        hovered = bed;
+        if (bed < 0) {
+            if (tooltip != null) {
+                tooltip.hide();
+            }
+            return;
+        }
+        if (tooltip == null) {
+            tooltip = new Tooltip();
+        }
+        tooltip.setText(BedNode.describe(stateOf(bed)));
+        tooltip.show(canvas, screenX + 14, screenY + 14);
+    }
+
+    private boolean isOnScreen(int bed) {
+        double left = screenX(layout.getBedX(bed));
+        double top = screenY(layout.getBedY(bed));
+        double size = WardMapLayout.BED_SIZE * scale;
+        return left + size >= 0 && top + size >= 0 && left <= canvas.getWidth() && top <= canvas.getHeight();
+    }
+
+    private double screenX(double x) { return x * scale + offsetX; }
+    private double screenY(double y) { return y * scale + offsetY; }
+    private double mapX(double screenX) { return (screenX - offsetX) / scale; }
+    private double mapY(double screenY) { return (screenY - offsetY) / scale; }
+}
@@ -0,0 +1,259 @@
+package CareHome.view;
+
+import CareHome.Model.Location.Bed;
+import CareHome.Model.Location.Ward;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Where every ward, room and bed sits on the canvas ward map, in map units (one unit is one pixel
+ * at 100% zoom).
+ *
+ * Beds sit two to a row inside their room, as on the node-based map. Rooms and wards are laid out
+ * in near-square grids so a large facility stays compact. Beds and rooms are bucketed in uniform
+ * grids, so finding what a viewport shows, or which bed is under the pointer, only looks at the
+ * cells it covers however many beds the facility has.
+ */
+public class WardMapLayout {
+    static final double BED_SIZE = 70;
+    static final double BED_GAP = 8;
+    static final double ROOM_PADDING = 12;
+    static final double ROOM_WIDTH = 2 * BED_SIZE + BED_GAP + 2 * ROOM_PADDING;
+    static final double ROOM_GAP = 15;
+    static final double WARD_PADDING = 20;
+    static final double WARD_TITLE_HEIGHT = 30;
+    static final double WARD_GAP = 50;
+    private static final double CELL_SIZE = 256;
+
+    private final String[] bedIds;
+    private final double[] bedX;
+    private final double[] bedY;
+    private final Map<String, Integer> bedIndex = new HashMap<>();
+
+    private final double[] roomX;
+    private final double[] roomY;
+    private final double[] roomHeight;
+
+    private final String[] wardTitles;
+    private final double[] wardX;
+    private final double[] wardY;
+    private final double[] wardWidth;
+    private final double[] wardHeight;
+
+    private final double width;
+    private final double height;
+    private final SpatialGrid bedGrid;
+    private final SpatialGrid roomGrid;
+
+    // Lays out the wards in the given order, with each ward's rooms and beds as grouped by
+    // WardViewController.groupByWardAndRoom
+    public WardMapLayout(List<Ward> wards, Map<String, Map<Integer, List<Bed>>> roomsByWard) {
+        List<String> beds = new ArrayList<>();
+        List<double[]> bedPositions = new ArrayList<>();
+        List<double[]> rooms = new ArrayList<>();          // x, y, height
+        int wardCount = wards.size();
+        wardTitles = new String[wardCount];
+        wardX = new double[wardCount];
+        wardY = new double[wardCount];
+        wardWidth = new double[wardCount];
+        wardHeight = new double[wardCount];
+
+        int wardsPerRow = Math.max(1, (int) Math.ceil(Math.sqrt(wardCount)));
+        double x = WARD_GAP;
+        double y = WARD_GAP;
+        double rowHeight = 0;
+        double maxRight = 0;
+        for (int w = 0; w < wardCount; w++) {
+            if (w > 0 && w % wardsPerRow == 0) {
+                x = WARD_GAP;
+                y += rowHeight + WARD_GAP;
+                rowHeight = 0;
+            }
+            Ward ward = wards.get(w);
+            Map<Integer, List<Bed>> wardRooms = roomsByWard.getOrDefault(ward.getWardId(), Map.of());
+            wardTitles[w] = ward.getWardName() + " (" + ward.getWardId() + ") - Floor " + ward.getFloor();
+            wardX[w] = x;
+            wardY[w] = y;
+            layOutRooms(w, wardRooms, beds, bedPositions, rooms);
+            x += wardWidth[w] + WARD_GAP;
+            rowHeight = Math.max(rowHeight, wardHeight[w]);
+            maxRight = Math.max(maxRight, x);
+        }
+        width = maxRight;
+        height = y + rowHeight + WARD_GAP;
+
+        bedIds = beds.toArray(new String[0]);
+        bedX = new double[bedIds.length];
+        bedY = new double[bedIds.length];
+        for (int i = 0; i < bedIds.length; i++) {
+            bedX[i] = bedPositions.get(i)[0];
+            bedY[i] = bedPositions.get(i)[1];
+            bedIndex.put(bedIds[i], i);
+        }
+        roomX = new double[rooms.size()];
+        roomY = new double[rooms.size()];
+        roomHeight = new double[rooms.size()];
+        double tallestRoom = 0;
+        for (int i = 0; i < rooms.size(); i++) {
+            roomX[i] = rooms.get(i)[0];
+            roomY[i] = rooms.get(i)[1];
+            roomHeight[i] = rooms.get(i)[2];
+            tallestRoom = Math.max(tallestRoom, roomHeight[i]);
+        }
+        bedGrid = new SpatialGrid(bedX, bedY, BED_SIZE, BED_SIZE, width, height);
+        roomGrid = new SpatialGrid(roomX, roomY, ROOM_WIDTH, tallestRoom, width, height);
+    }
+
+    // Rooms of one ward in a near-square grid below its title; sizes the ward to fit them
+    private void layOutRooms(int w, Map<Integer, List<Bed>> wardRooms, List<String> beds,
+                             List<double[]> bedPositions, List<double[]> rooms) {
+        int roomsPerRow = Math.max(2, (int) Math.ceil(Math.sqrt(wardRooms.size())));
+        double left = wardX[w] + WARD_PADDING;
+        double x = left;
+        double y = wardY[w] + WARD_TITLE_HEIGHT + WARD_PADDING;
+        double rowHeight = 0;
+        int column = 0;
+        for (List<Bed> bedsInRoom : wardRooms.values()) {
+            if (column == roomsPerRow) {
+                column = 0;
+                x = left;
+                y += rowHeight + ROOM_GAP;
+                rowHeight = 0;
+            }
+            int bedRows = Math.max(1, (bedsInRoom.size() + 1) / 2);
+            double height = bedRows * BED_SIZE + (bedRows - 1) * BED_GAP + 2 * ROOM_PADDING;
+            rooms.add(new double[] {x, y, height});
+            for (int b = 0; b < bedsInRoom.size(); b++) {
+                beds.add(bedsInRoom.get(b).getBedId());
+                bedPositions.add(new double[] {
+                        x + ROOM_PADDING + (b % 2) * (BED_SIZE + BED_GAP),
+                        y + ROOM_PADDING + (b / 2) * (BED_SIZE + BED_GAP)});
+            }
+            x += ROOM_WIDTH + ROOM_GAP;
+            rowHeight = Math.max(rowHeight, height);
+            column++;
+        }
+        int columns = Math.min(roomsPerRow, Math.max(1, wardRooms.size()));
+        wardWidth[w] = 2 * WARD_PADDING + columns * ROOM_WIDTH + (columns - 1) * ROOM_GAP;
+        wardHeight[w] = (y + rowHeight + WARD_PADDING) - wardY[w];
+    }
+
+    // Calls action with every bed overlapping the rectangle
+    public void forEachBedIn(double x, double y, double w, double h, IntConsumer action) {
+        bedGrid.query(x, y, x + w, y + h, i -> {
+            if (overlaps(bedX[i], bedY[i], BED_SIZE, BED_SIZE, x, y, w, h)) {
+                action.accept(i);
+            }
+        });
+    }
+
+    // Calls action with every room overlapping the rectangle
+    public void forEachRoomIn(double x, double y, double w, double h, IntConsumer action) {
+        roomGrid.query(x, y, x + w, y + h, i -> {
+            if (overlaps(roomX[i], roomY[i], ROOM_WIDTH, roomHeight[i], x, y, w, h)) {
+                action.accept(i);
+            }
+        });
+    }
+
+    // Calls action with every ward overlapping the rectangle; wards are few, so they are not bucketed
+    public void forEachWardIn(double x, double y, double w, double h, IntConsumer action) {
+        for (int i = 0; i < wardTitles.length; i++) {
+            if (overlaps(wardX[i], wardY[i], wardWidth[i], wardHeight[i], x, y, w, h)) {
+                action.accept(i);
+            }
+        }
+    }
+
+    // Index of the bed under this map point, or -1
+    public int bedAt(double x, double y) {
+        int[] hit = {-1};
+        forEachBedIn(x, y, 0, 0, i -> hit[0] = i);
+        return hit[0];
+    }
+
+    // Index of the bed, or -1 if it is not on the map
+    public int indexOf(String bedId) {
+        Integer index = bedIndex.get(bedId);
+        return index != null ? index : -1;
+    }
+
+    // Getters
+    public int getBedCount() { return bedIds.length; }
+    public String getBedId(int bed) { return bedIds[bed]; }
+    public double getBedX(int bed) { return bedX[bed]; }
+    public double getBedY(int bed) { return bedY[bed]; }
+    public double getRoomX(int room) { return roomX[room]; }
+    public double getRoomY(int room) { return roomY[room]; }
+    public double getRoomHeight(int room) { return roomHeight[room]; }
+    public int getWardCount() { return wardTitles.length; }
+    public String getWardTitle(int ward) { return wardTitles[ward]; }
+    public double getWardX(int ward) { return wardX[ward]; }
+    public double getWardY(int ward) { return wardY[ward]; }
+    public double getWardWidth(int ward) { return wardWidth[ward]; }
+    public double getWardHeight(int ward) { return wardHeight[ward]; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+
+    // Edges touching count as overlapping, so a point on a bed's border hits the bed
+    private static boolean overlaps(double ax, double ay, double aw, double ah, double bx, double by, double bw, double bh) {
+        return ax <= bx + bw && bx <= ax + aw && ay <= by + bh && by <= ay + ah;
+    }
+
+    // Items bucketed by the cell holding their top-left corner. A query widens its rectangle up and
+    // left by the largest item, so items starting just outside it are still found, and each item
+    // is reported once without de-duplication.
+    private static final class SpatialGrid {
+        private final double maxWidth;
+        private final double maxHeight;
+        private final int columns;
+        private final int rows;
+        private final int[][] cells;
+
+        private SpatialGrid(double[] x, double[] y, double maxWidth, double maxHeight, double width, double height) {
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+            columns = Math.max(1, (int) Math.ceil(width / CELL_SIZE));
+            rows = Math.max(1, (int) Math.ceil(height / CELL_SIZE));
+            int[] counts = new int[columns * rows];
+            for (int i = 0; i < x.length; i++) {
+                counts[cell(x[i], y[i])]++;
+            }
+            cells = new int[counts.length][];
+            for (int c = 0; c < counts.length; c++) {
+                cells[c] = new int[counts[c]];
+                counts[c] = 0;
+            }
+            for (int i = 0; i < x.length; i++) {
+                int c = cell(x[i], y[i]);
+                cells[c][counts[c]++] = i;
+            }
+        }
+
+        private void query(double x0, double y0, double x1, double y1, IntConsumer candidate) {
+            int firstColumn = clamp((int) Math.floor((x0 - maxWidth) / CELL_SIZE), columns);
+            int lastColumn = clamp((int) Math.floor(x1 / CELL_SIZE), columns);
+            int firstRow = clamp((int) Math.floor((y0 - maxHeight) / CELL_SIZE), rows);
+            int lastRow = clamp((int) Math.floor(y1 / CELL_SIZE), rows);
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    for (int item : cells[row * columns + column]) {
+                        candidate.accept(item);
+                    }
+                }
+            }
+        }
+
+        private int cell(double x, double y) {
+            return clamp((int) (y / CELL_SIZE), rows) * columns + clamp((int) (x / CELL_SIZE), columns);
+        }
+
+        private static int clamp(int value, int count) {
+            return Math.max(0, Math.min(count - 1, value));
+        }
+    }
+}
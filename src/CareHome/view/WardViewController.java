@@ -1,116 +1,198 @@
 package CareHome.view;
 
-import CareHome.Model.Gender;
 import CareHome.Model.Location.Bed;
-import CareHome.Model.Person.Patient;
+import CareHome.Model.Location.BedState;
+import CareHome.Model.Location.CensusSnapshot;
+import CareHome.Model.Location.Ward;
+import CareHome.Service.CensusService;
+import CareHome.Service.CensusServiceImpl;
 import CareHome.dao.BedDAO;
 import CareHome.dao.BedDAOImpl;
-import CareHome.dao.PatientDAO;
-import CareHome.dao.PatientDAOImpl;
+import CareHome.event.BedEvent;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
-import javafx.scene.text.Text;
-import javafx.scene.control.Tooltip;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class WardViewController {
+    // Changes made in this process arrive as events; the poll only catches other clients' changes
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(30);
+    // Above this many beds the map is drawn on one canvas instead of a node per bed
+    static final int CANVAS_BED_THRESHOLD = 200;
 
-    @FXML private GridPane ward1Grid;
-    @FXML private GridPane ward2Grid;
+    @FXML private StackPane mapHolder;
+    @FXML private ScrollPane wardsScroll;
+    @FXML private FlowPane wardsPane;
 
     private BedDAO bedDAO = new BedDAOImpl();
-    private PatientDAO patientDAO = new PatientDAOImpl();
+    private CensusService censusService = new CensusServiceImpl();
+
+    // Drawn beds by id and the census version they show; -1 until the first draw
+    private final Map<String, BedNode> bedNodes = new HashMap<>();
+    private WardMapCanvas wardMap;
+    private long version = -1;
+    private Timeline poll;
+    private final ViewTasks tasks = new ViewTasks();
+
+    // What one refresh read: census changes, plus the bed layout when the whole map is redrawn
+    private static final class MapData {
+        private final CensusSnapshot snapshot;
+        private final List<Bed> beds;
+        private final List<Ward> wards;
+
+        private MapData(CensusSnapshot snapshot, List<Bed> beds, List<Ward> wards) {
+            this.snapshot = snapshot;
+            this.beds = beds;
+            this.wards = wards;
+        }
+    }
 
-    // Entry point for the view: clears and repaints the wards initially
+    // Entry point for the view: draws the wards, then keeps them current until the window closes
     @FXML
     public void initialize() {
         refresh();
+        poll = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+        poll.setCycleCount(Animation.INDEFINITE);
+        poll.play();
+        LiveUpdates.onWindowHidden(mapHolder, poll::stop);
+        tasks.cancelOnClose(mapHolder);
+        // One census read per batch of bed events, however many beds the batch touched
+        LiveUpdates.subscribe(mapHolder, events -> refresh(), List.of(BedEvent.class));
     }
 
-    // Rebuilds both ward grids: queries beds/patients, maps occupancy, and renders rooms/beds
+    // Brings the map up to date: repaints the beds changed since the drawn version, and redraws
+    // everything only on first load or when the census reports a bed the map does not have.
+    // The census is read in the background; a newer refresh replaces one still reading.
     public void refresh() {
-        try {
-            ward1Grid.getChildren().clear();
-            ward2Grid.getChildren().clear();
-
-            List<Bed> allBeds = bedDAO.getAllBeds();
-            List<Patient> allPatients = patientDAO.getAllPatients();
-
-            // Fixed: Create patient bed map properly
-            Map<String, Patient> patientBedMap = new HashMap<>();
-            for (Patient patient : allPatients) {
-                try {
-                    String bedId = patientDAO.getPatientBed(patient.getId());
-                    if (bedId != null && !bedId.isEmpty()) {
-                        patientBedMap.put(bedId, patient);
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error getting bed for patient " + patient.getId() + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-
-            System.out.println("Total patients: " + allPatients.size());
-            System.out.println("Patients with beds: " + patientBedMap.size());
-            System.out.println("Patient-Bed mapping: " + patientBedMap);
-
-            // Group beds by ward and room
-            Map<String, Map<Integer, List<Bed>>> wards = allBeds.stream()
-                    .filter(bed -> bed.getWardId() != null)
-                    .collect(Collectors.groupingBy(
-                            Bed::getWardId,
-                            Collectors.groupingBy(
-                                    Bed::getRoomNumber,
-                                    TreeMap::new,
-                                    Collectors.toList()
-                            )
-                    ));
-
-            populateWardGrid(ward1Grid, wards.get("W1"), patientBedMap, "W1");
-            populateWardGrid(ward2Grid, wards.get("W2"), patientBedMap, "W2");
-
-        } catch (Exception e) {
+        long drawn = version;
+        tasks.run("refresh", () -> read(drawn), this::apply, e -> {
             System.err.println("Error in refresh: " + e.getMessage());
             e.printStackTrace();
+        });
+    }
+
+    // Reads the changes since drawn, or a full census and the bed layout when drawn is -1 or too old
+    private MapData read(long drawn) throws Exception {
+        CensusSnapshot snapshot = drawn < 0 ? censusService.getSnapshot() : censusService.getChangesSince(drawn);
+        if (!snapshot.isFull()) {
+            return new MapData(snapshot, null, null);
         }
+        return new MapData(snapshot, bedDAO.getAllBeds(), bedDAO.getWards());
     }
 
-    // Populates a ward grid with room panes and their bed panes laid out in rows/cols
-    private void populateWardGrid(GridPane wardGrid, Map<Integer, List<Bed>> rooms, Map<String, Patient> patientBedMap, String wardId) {
-        if (rooms == null) {
-            System.out.println("No rooms found for ward: " + wardId);
+    // On the FX thread: repaints changed beds, or redraws the map from a full read
+    private void apply(MapData data) {
+        CensusSnapshot snapshot = data.snapshot;
+        if (!snapshot.isFull() && !applyChanges(snapshot.getBeds())) {
+            // A bed the map does not have: read everything again
+            version = -1;
+            refresh();
             return;
         }
+        if (snapshot.isFull()) {
+            rebuild(snapshot, data.beds, data.wards);
+        }
+        version = snapshot.getVersion();
+    }
+
+    // Repaints the changed beds in place; false, with nothing repainted, if any is not on the map
+    private boolean applyChanges(List<BedState> changed) {
+        for (BedState state : changed) {
+            if (wardMap != null ? !wardMap.contains(state.getBedId()) : !bedNodes.containsKey(state.getBedId())) {
+                return false;
+            }
+        }
+        for (BedState state : changed) {
+            if (wardMap != null) {
+                wardMap.update(state);
+            } else {
+                bedNodes.get(state.getBedId()).update(state);
+            }
+        }
+        return true;
+    }
+
+    // Rebuilds the map from the layout and a full census: ward grids of bed nodes, or a canvas map
+    // once the facility has more beds than nodes can lay out quickly
+    private void rebuild(CensusSnapshot snapshot, List<Bed> beds, List<Ward> allWards) {
+        wardsPane.getChildren().clear();
+        bedNodes.clear();
+        wardMap = null;
+
+        Map<String, Map<Integer, List<Bed>>> wards = groupByWardAndRoom(beds);
+        if (beds.size() > CANVAS_BED_THRESHOLD) {
+            wardMap = new WardMapCanvas(new WardMapLayout(allWards, wards), snapshot.getBeds());
+            mapHolder.getChildren().setAll(wardMap);
+            return;
+        }
+
+        Map<String, BedState> states = new HashMap<>();
+        for (BedState state : snapshot.getBeds()) {
+            states.put(state.getBedId(), state);
+        }
+        for (Ward ward : allWards) {
+            wardsPane.getChildren().add(createWardSection(ward, wards.get(ward.getWardId()), states));
+        }
+        mapHolder.getChildren().setAll(wardsScroll);
+    }
+
+    // Group beds by ward, then room number (ascending), with beds in bed-number order inside each room
+    public static Map<String, Map<Integer, List<Bed>>> groupByWardAndRoom(List<Bed> beds) {
+        Map<String, Map<Integer, List<Bed>>> wards = new HashMap<>();
+        for (Bed bed : beds) {
+            if (bed.getWardId() == null) {
+                continue;
+            }
+            wards.computeIfAbsent(bed.getWardId(), id -> new TreeMap<>())
+                    .computeIfAbsent(bed.getRoomNumber(), number -> new ArrayList<>())
+                    .add(bed);
+        }
+        // Text order would put B10 before B2
+        Comparator<Bed> byBedNumber = Comparator.comparingInt(
+                bed -> Integer.parseInt(bed.getBedId().substring(bed.getBedId().lastIndexOf('B') + 1)));
+        for (Map<Integer, List<Bed>> rooms : wards.values()) {
+            for (List<Bed> bedsInRoom : rooms.values()) {
+                bedsInRoom.sort(byBedNumber);
+            }
+        }
+        return wards;
+    }
 
-        // Style the main ward grid
+    // Title plus a wrapping pane of room boxes for one ward
+    private VBox createWardSection(Ward ward, Map<Integer, List<Bed>> rooms, Map<String, BedState> states) {
+        Label title = new Label(ward.getWardName() + " (" + ward.getWardId() + ") - Floor " + ward.getFloor());
+        title.setStyle("-fx-font-weight: bold; -fx-font-size: 18px;");
+
+        FlowPane wardGrid = new FlowPane();
         wardGrid.setStyle("-fx-border-color: #4A90E2; -fx-border-width: 3; -fx-padding: 20; -fx-background-color: #F5F5F5;");
         wardGrid.setHgap(15);
         wardGrid.setVgap(15);
+        // Two rooms per row, as on the original two-ward floor plan
+        wardGrid.setPrefWrapLength(2 * 150 + 15);
+        populateWardGrid(wardGrid, rooms, states);
 
-        // Sort rooms by room number to ensure consistent ordering
-        List<Integer> sortedRoomNumbers = new ArrayList<>(rooms.keySet());
-        Collections.sort(sortedRoomNumbers);
-
-        System.out.println("Ward " + wardId + " has rooms: " + sortedRoomNumbers);
-
-        // Process each room and place in 3x2 grid
-        int roomIndex = 0;
-        for (Integer roomNumber : sortedRoomNumbers) {
-            List<Bed> bedsInRoom = rooms.get(roomNumber);
+        return new VBox(12, title, wardGrid);
+    }
 
-            // Sort beds within room for consistent ordering
-            bedsInRoom.sort(Comparator.comparing(Bed::getBedId));
+    // Populates a ward grid with room panes and their bed panes laid out in rows/cols
+    private void populateWardGrid(FlowPane wardGrid, Map<Integer, List<Bed>> rooms, Map<String, BedState> states) {
+        if (rooms == null) {
+            return;
+        }
 
-            System.out.println("Room " + roomNumber + " has " + bedsInRoom.size() + " beds: " +
-                    bedsInRoom.stream().map(Bed::getBedId).collect(Collectors.toList()));
+        // Rooms arrive in room-number order and wrap two to a row
+        for (Map.Entry<Integer, List<Bed>> room : rooms.entrySet()) {
+            List<Bed> bedsInRoom = room.getValue();
 
             // Create room container
             GridPane roomPane = new GridPane();
@@ -123,60 +205,25 @@ public class WardViewController {
             roomPane.setPrefWidth(150);
             roomPane.setPrefHeight(150);
 
-            // Add beds to room in 2x2 grid
+            // Add beds to room two per row
             int bedIndex = 0;
             for (Bed bed : bedsInRoom) {
                 int col = bedIndex % 2;
                 int row = bedIndex / 2;
 
-                StackPane bedPane = createBedPane(bed, patientBedMap);
-                roomPane.add(bedPane, col, row);
+                BedNode bedNode = new BedNode(stateOf(bed, states));
+                bedNodes.put(bed.getBedId(), bedNode);
+                roomPane.add(bedNode.getPane(), col, row);
                 bedIndex++;
             }
 
-            // Position room in ward grid (3 rows, 2 columns)
-            // Room 1 -> (0,0), Room 2 -> (0,1)
-            // Room 3 -> (1,0), Room 4 -> (1,1)
-            // Room 5 -> (2,0), Room 6 -> (2,1)
-            int wardRow = roomIndex / 2;
-            int wardCol = roomIndex % 2;
-
-            wardGrid.add(roomPane, wardCol, wardRow);
-            roomIndex++;
+            wardGrid.getChildren().add(roomPane);
         }
     }
 
-    // Creates a stylized bed pane with gender-based color fill and tooltip (or empty bed style)
-    private StackPane createBedPane(Bed bed, Map<String, Patient> patientBedMap) {
-        // Create bed rectangle
-        Rectangle bedShape = new Rectangle(70, 70);
-        bedShape.setArcWidth(5);
-        bedShape.setArcHeight(5);
-        bedShape.setStroke(Color.BLACK);
-        bedShape.setStrokeWidth(1.5);
-
-        Text bedIdText = new Text(bed.getBedId());
-        bedIdText.setFont(Font.font("System", FontWeight.NORMAL, 10));
-
-        StackPane bedPane = new StackPane(bedShape, bedIdText);
-
-        Patient patient = patientBedMap.get(bed.getBedId());
-
-        if (patient != null) {
-            // Color based on gender
-            Color fillColor = patient.getGender() == Gender.MALE ? Color.LIGHTBLUE : Color.LIGHTPINK;
-            bedShape.setFill(fillColor);
-
-            System.out.println("Bed " + bed.getBedId() + " has patient: " + patient.getName() +
-                    " (Gender: " + patient.getGender() + ", Color: " + fillColor + ")");
-
-            Tooltip.install(bedPane, new Tooltip("Patient: " + patient.getName() + "\nID: " + patient.getPatientId()));
-        } else {
-            bedShape.setFill(Color.WHITE);
-            System.out.println("Bed " + bed.getBedId() + " is empty");
-            Tooltip.install(bedPane, new Tooltip("Bed: " + bed.getBedId() + " (Empty)"));
-        }
-
-        return bedPane;
+    // The bed's census state; a bed added after the census was read shows as empty until the next refresh
+    private static BedState stateOf(Bed bed, Map<String, BedState> states) {
+        BedState state = states.get(bed.getBedId());
+        return state != null ? state : new BedState(bed.getBedId(), bed.getWardId(), bed.getRoomNumber(), null, null, null, null, null);
     }
-}
\ No newline at end of file
+}